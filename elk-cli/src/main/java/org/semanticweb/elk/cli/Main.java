@@ -31,15 +31,23 @@ import java.io.BufferedWriter;
 import java.io.File;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.Collection;
 
 import org.apache.log4j.Level;
 import org.semanticweb.elk.exceptions.ElkException;
+import org.semanticweb.elk.exceptions.ElkRuntimeException;
 import org.semanticweb.elk.loading.AxiomLoader;
 import org.semanticweb.elk.loading.Owl2StreamLoader;
+import org.semanticweb.elk.owl.inferences.ElkInference;
+import org.semanticweb.elk.owl.inferences.UnsatisfiableClassesProofGenerator;
+import org.semanticweb.elk.owl.interfaces.ElkAxiom;
 import org.semanticweb.elk.owl.interfaces.ElkClass;
 import org.semanticweb.elk.owl.interfaces.ElkNamedIndividual;
 import org.semanticweb.elk.owl.parsing.Owl2ParserFactory;
 import org.semanticweb.elk.owl.parsing.javacc.Owl2FunctionalStyleParserFactory;
+import org.semanticweb.elk.owl.printers.OwlFunctionalStylePrinter;
 import org.semanticweb.elk.reasoner.ElkInconsistentOntologyException;
 import org.semanticweb.elk.reasoner.Reasoner;
 import org.semanticweb.elk.reasoner.ReasonerFactory;
@@ -96,6 +104,9 @@ public class Main {
 		OptionSpec<Void> satisfiable = parser.acceptsAll(
 				asList("consistent", "satisfiable", "s"),
 				"check consistency of the ontology");
+		OptionSpec<Void> explainUnsatisfiable = parser.acceptsAll(
+				asList("explain-unsatisfiable", "e"),
+				"explain all unsatisfiable classes of the ontology");
 
 		// configuration
 		OptionSpec<Integer> nWorkers = parser
@@ -136,7 +147,8 @@ public class Main {
 
 		// input and reasoning tasks
 		if (!options.has(inputFile)
-				|| countOptions(options, satisfiable, classify, realize) != 1) {
+				|| countOptions(options, satisfiable, classify, realize,
+						explainUnsatisfiable) != 1) {
 			System.err
 					.println("An input ontology and exactly one reasoning task are required!");
 			return;
@@ -199,6 +211,18 @@ public class Main {
 					printTaxonomyHash(taxonomy);
 			}
 
+			if (options.has(explainUnsatisfiable)) {
+				if (options.hasArgument(outputFile)) {
+					writeUnsatisfiableClassProofsToFile(
+							options.valueOf(outputFile), reasoner);
+				} else {
+					writeUnsatisfiableClassProofs(
+							new BufferedWriter(new OutputStreamWriter(
+									System.out)),
+							reasoner);
+				}
+			}
+
 			if (options.has(realize)) {
 				InstanceTaxonomy<ElkClass, ElkNamedIndividual> taxonomy = null;
 				taxonomy = reasoner.getInstanceTaxonomyQuietly();
@@ -248,6 +272,64 @@ public class Main {
 				LOGGER_);
 	}
 
+	static void writeUnsatisfiableClassProofsToFile(File file,
+			Reasoner reasoner) throws IOException, ElkException {
+		LOGGER_.info("Writing proofs of unsatisfiable classes to {}", file);
+
+		BufferedWriter writer = new BufferedWriter(new FileWriter(file));
+		try {
+			writeUnsatisfiableClassProofs(writer, reasoner);
+		} finally {
+			writer.close();
+		}
+	}
+
+	/**
+	 * Writes the proofs of all unsatisfiable classes; the inferences shared
+	 * with some previously written proof are not repeated
+	 */
+	static void writeUnsatisfiableClassProofs(final Writer writer,
+			Reasoner reasoner) throws IOException, ElkException {
+		Statistics.logOperationStart("Explaining unsatisfiable classes",
+				LOGGER_);
+		try {
+			new UnsatisfiableClassesProofGenerator(reasoner)
+					.generate(new UnsatisfiableClassesProofGenerator.Listener() {
+
+						@Override
+						public void proofGenerated(ElkClass unsatisfiable,
+								ElkAxiom goal,
+								Collection<? extends ElkInference> inferences)
+								throws ElkException {
+							try {
+								writer.write("# "
+										+ OwlFunctionalStylePrinter
+												.toString(goal)
+										+ "\n");
+								for (ElkInference inference : inferences) {
+									writer.write(inference + "\n");
+								}
+								writer.write("\n");
+								writer.flush();
+							} catch (IOException e) {
+								// rethrown below
+								throw new ElkRuntimeException(e);
+							}
+						}
+					});
+		} catch (ElkRuntimeException e) {
+			if (e.getCause() instanceof IOException) {
+				throw (IOException) e.getCause();
+			}
+			// else
+			throw e;
+		} finally {
+			writer.flush();
+		}
+		Statistics.logOperationFinish("Explaining unsatisfiable classes",
+				LOGGER_);
+	}
+
 	static void printTaxonomyHash(Taxonomy<ElkClass> taxonomy) {
 		if (LOGGER_.isInfoEnabled()) {
 			LOGGER_.info("Taxonomy hash: "
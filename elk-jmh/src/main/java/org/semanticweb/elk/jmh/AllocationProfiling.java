@@ -0,0 +1,70 @@
+/*
+ * #%L
+ * ELK JMH Benchmarks
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2011 - 2016 Department of Computer Science, University of Oxford
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.semanticweb.elk.jmh;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the benchmarks with the allocation profiler enabled, which is the same
+ * as passing {@code -prof gc} to the JMH command line. Along with the time,
+ * the profiler reports the number of bytes allocated per benchmark operation
+ * ({@code gc.alloc.rate.norm}), which, unlike the time, is stable between runs
+ * and can be compared directly before and after a change. The remaining
+ * arguments are interpreted as for the JMH command line, e.g.,
+ * 
+ * <pre>
+ * java -cp benchmarks.jar org.semanticweb.elk.jmh.AllocationProfiling ContextImpl -p subsumers=1024
+ * </pre>
+ * 
+ * If no benchmarks are specified, all benchmarks in this package are run.
+ */
+public class AllocationProfiling {
+
+	/**
+	 * the number of measurement iterations unless specified otherwise; the
+	 * allocation rate per operation needs less iterations to converge
+	 */
+	static final int MEASUREMENT_ITERATIONS = 3;
+
+	public static void main(String[] args)
+			throws CommandLineOptionException, RunnerException {
+		CommandLineOptions commandLine = new CommandLineOptions(args);
+		OptionsBuilder builder = new OptionsBuilder();
+		builder.parent(commandLine).addProfiler(GCProfiler.class);
+		if (commandLine.getIncludes().isEmpty()) {
+			builder.include(AllocationProfiling.class.getPackage().getName()
+					+ ".*");
+		}
+		if (!commandLine.getMeasurementIterations().hasValue()) {
+			builder.measurementIterations(MEASUREMENT_ITERATIONS);
+		}
+		Options options = builder.build();
+		new Runner(options).run();
+	}
+
+}
@@ -0,0 +1,156 @@
+/*
+ * #%L
+ * ELK JMH Benchmarks
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2011 - 2016 Department of Computer Science, University of Oxford
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.semanticweb.elk.jmh.collections;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.semanticweb.elk.util.collections.ArrayHashMap;
+
+/**
+ * Benchmarks for the basic operations of {@link ArrayHashMap}. The
+ * corresponding operations of {@link HashMap} are measured for comparison.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class ArrayHashMapBenchmark {
+
+	/**
+	 * the number of entries in the map
+	 */
+	@Param({ "16", "1024", "65536" })
+	public int size;
+
+	private Integer[] present_, absent_;
+
+	private Map<Integer, Integer> arrayHashMap_, hashMap_;
+
+	@Setup
+	public void setup() {
+		BenchmarkElements elements = new BenchmarkElements(size);
+		present_ = elements.getPresent();
+		absent_ = elements.getAbsent();
+		arrayHashMap_ = fill(new ArrayHashMap<Integer, Integer>());
+		hashMap_ = fill(new HashMap<Integer, Integer>());
+	}
+
+	private Map<Integer, Integer> fill(Map<Integer, Integer> map) {
+		for (Integer key : present_) {
+			map.put(key, key);
+		}
+		return map;
+	}
+
+	private static int countFound(Map<Integer, Integer> map,
+			Integer[] keys) {
+		int result = 0;
+		for (Integer key : keys) {
+			if (map.get(key) != null) {
+				result++;
+			}
+		}
+		return result;
+	}
+
+	private static int countRemovedPut(Map<Integer, Integer> map,
+			Integer[] keys) {
+		int result = 0;
+		for (Integer key : keys) {
+			if (map.put(key, map.remove(key)) == null) {
+				result++;
+			}
+		}
+		return result;
+	}
+
+	@Benchmark
+	public Map<Integer, Integer> arrayHashMapPut() {
+		return fill(new ArrayHashMap<Integer, Integer>());
+	}
+
+	@Benchmark
+	public Map<Integer, Integer> hashMapPut() {
+		return fill(new HashMap<Integer, Integer>());
+	}
+
+	@Benchmark
+	public int arrayHashMapGetPresent() {
+		return countFound(arrayHashMap_, present_);
+	}
+
+	@Benchmark
+	public int hashMapGetPresent() {
+		return countFound(hashMap_, present_);
+	}
+
+	@Benchmark
+	public int arrayHashMapGetAbsent() {
+		return countFound(arrayHashMap_, absent_);
+	}
+
+	@Benchmark
+	public int hashMapGetAbsent() {
+		return countFound(hashMap_, absent_);
+	}
+
+	@Benchmark
+	public int arrayHashMapRemovePut() {
+		return countRemovedPut(arrayHashMap_, present_);
+	}
+
+	@Benchmark
+	public int hashMapRemovePut() {
+		return countRemovedPut(hashMap_, present_);
+	}
+
+	@Benchmark
+	public void arrayHashMapIterate(Blackhole blackhole) {
+		for (Map.Entry<Integer, Integer> entry : arrayHashMap_.entrySet()) {
+			blackhole.consume(entry.getValue());
+		}
+	}
+
+	@Benchmark
+	public void hashMapIterate(Blackhole blackhole) {
+		for (Map.Entry<Integer, Integer> entry : hashMap_.entrySet()) {
+			blackhole.consume(entry.getValue());
+		}
+	}
+
+}
@@ -0,0 +1,155 @@
+/*
+ * #%L
+ * ELK JMH Benchmarks
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2011 - 2016 Department of Computer Science, University of Oxford
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.semanticweb.elk.jmh.collections;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.semanticweb.elk.util.collections.ArrayHashSet;
+
+/**
+ * Benchmarks for the basic operations of {@link ArrayHashSet}. The
+ * corresponding operations of {@link HashSet} are measured for comparison.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class ArrayHashSetBenchmark {
+
+	/**
+	 * the number of elements in the set
+	 */
+	@Param({ "16", "1024", "65536" })
+	public int size;
+
+	private Integer[] present_, absent_;
+
+	private Set<Integer> arrayHashSet_, hashSet_;
+
+	@Setup
+	public void setup() {
+		BenchmarkElements elements = new BenchmarkElements(size);
+		present_ = elements.getPresent();
+		absent_ = elements.getAbsent();
+		arrayHashSet_ = fill(new ArrayHashSet<Integer>());
+		hashSet_ = fill(new HashSet<Integer>());
+	}
+
+	private Set<Integer> fill(Set<Integer> set) {
+		for (Integer e : present_) {
+			set.add(e);
+		}
+		return set;
+	}
+
+	private static int countContained(Set<Integer> set, Integer[] elements) {
+		int result = 0;
+		for (Integer e : elements) {
+			if (set.contains(e)) {
+				result++;
+			}
+		}
+		return result;
+	}
+
+	private static int countRemovedAdded(Set<Integer> set,
+			Integer[] elements) {
+		int result = 0;
+		for (Integer e : elements) {
+			if (set.remove(e) && set.add(e)) {
+				result++;
+			}
+		}
+		return result;
+	}
+
+	@Benchmark
+	public Set<Integer> arrayHashSetAdd() {
+		return fill(new ArrayHashSet<Integer>());
+	}
+
+	@Benchmark
+	public Set<Integer> hashSetAdd() {
+		return fill(new HashSet<Integer>());
+	}
+
+	@Benchmark
+	public int arrayHashSetContainsPresent() {
+		return countContained(arrayHashSet_, present_);
+	}
+
+	@Benchmark
+	public int hashSetContainsPresent() {
+		return countContained(hashSet_, present_);
+	}
+
+	@Benchmark
+	public int arrayHashSetContainsAbsent() {
+		return countContained(arrayHashSet_, absent_);
+	}
+
+	@Benchmark
+	public int hashSetContainsAbsent() {
+		return countContained(hashSet_, absent_);
+	}
+
+	@Benchmark
+	public int arrayHashSetRemoveAdd() {
+		return countRemovedAdded(arrayHashSet_, present_);
+	}
+
+	@Benchmark
+	public int hashSetRemoveAdd() {
+		return countRemovedAdded(hashSet_, present_);
+	}
+
+	@Benchmark
+	public void arrayHashSetIterate(Blackhole blackhole) {
+		for (Integer e : arrayHashSet_) {
+			blackhole.consume(e);
+		}
+	}
+
+	@Benchmark
+	public void hashSetIterate(Blackhole blackhole) {
+		for (Integer e : hashSet_) {
+			blackhole.consume(e);
+		}
+	}
+
+}
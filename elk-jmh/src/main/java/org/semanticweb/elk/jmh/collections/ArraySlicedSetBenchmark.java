@@ -0,0 +1,134 @@
+/*
+ * #%L
+ * ELK JMH Benchmarks
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2011 - 2016 Department of Computer Science, University of Oxford
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.semanticweb.elk.jmh.collections;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.semanticweb.elk.util.collections.ArraySlicedSet;
+
+/**
+ * Benchmarks for the basic operations of {@link ArraySlicedSet}. The elements
+ * are distributed over the slices in a round-robin fashion; the lookups are
+ * performed in the slice of the element and in the next slice, so that both
+ * successful and unsuccessful lookups of existing elements are measured.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class ArraySlicedSetBenchmark {
+
+	/**
+	 * the number of elements in the set
+	 */
+	@Param({ "16", "1024", "65536" })
+	public int size;
+
+	/**
+	 * the number of slices of the set
+	 */
+	@Param({ "2", "3", "8" })
+	public int slices;
+
+	private Integer[] present_, absent_;
+
+	private ArraySlicedSet<Integer> set_;
+
+	@Setup
+	public void setup() {
+		BenchmarkElements elements = new BenchmarkElements(size);
+		present_ = elements.getPresent();
+		absent_ = elements.getAbsent();
+		set_ = fill(new ArraySlicedSet<Integer>(slices));
+	}
+
+	private ArraySlicedSet<Integer> fill(ArraySlicedSet<Integer> set) {
+		for (int i = 0; i < present_.length; i++) {
+			set.add(i % slices, present_[i]);
+		}
+		return set;
+	}
+
+	private int countContained(Integer[] elements, int shift) {
+		int result = 0;
+		for (int i = 0; i < elements.length; i++) {
+			if (set_.contains((i + shift) % slices, elements[i])) {
+				result++;
+			}
+		}
+		return result;
+	}
+
+	@Benchmark
+	public ArraySlicedSet<Integer> add() {
+		return fill(new ArraySlicedSet<Integer>(slices));
+	}
+
+	@Benchmark
+	public int containsPresent() {
+		return countContained(present_, 0);
+	}
+
+	@Benchmark
+	public int containsOtherSlice() {
+		return countContained(present_, 1);
+	}
+
+	@Benchmark
+	public int containsAbsent() {
+		return countContained(absent_, 0);
+	}
+
+	@Benchmark
+	public int removeAdd() {
+		int result = 0;
+		for (int i = 0; i < present_.length; i++) {
+			int s = i % slices;
+			if (set_.remove(s, present_[i]) && set_.add(s, present_[i])) {
+				result++;
+			}
+		}
+		return result;
+	}
+
+	@Benchmark
+	public void iterateSlice(Blackhole blackhole) {
+		for (Integer e : set_.getSlice(0)) {
+			blackhole.consume(e);
+		}
+	}
+
+}
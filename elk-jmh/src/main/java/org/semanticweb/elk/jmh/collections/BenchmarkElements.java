@@ -0,0 +1,87 @@
+/*
+ * #%L
+ * ELK JMH Benchmarks
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2011 - 2016 Department of Computer Science, University of Oxford
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.semanticweb.elk.jmh.collections;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Generates the elements inserted into the collections by the benchmarks. The
+ * elements are distinct {@link Integer} objects so that the collections
+ * compare them using {@link Object#equals(Object)} and
+ * {@link Object#hashCode()} as for the objects of the reasoner.
+ */
+class BenchmarkElements {
+
+	/**
+	 * the seed used for generating elements, so that all runs use the same
+	 * elements
+	 */
+	static final long SEED = 123;
+
+	private final Integer[] present_;
+
+	private final Integer[] absent_;
+
+	/**
+	 * Generates two disjoint arrays of distinct elements of the given size
+	 * 
+	 * @param size
+	 *            the number of elements in each of the arrays
+	 */
+	BenchmarkElements(int size) {
+		Random random = new Random(SEED);
+		Set<Integer> generated = new HashSet<Integer>(4 * size);
+		this.present_ = generate(random, generated, size);
+		this.absent_ = generate(random, generated, size);
+	}
+
+	private static Integer[] generate(Random random, Set<Integer> generated,
+			int size) {
+		Integer[] result = new Integer[size];
+		int i = 0;
+		while (i < size) {
+			Integer next = random.nextInt();
+			if (generated.add(next)) {
+				result[i++] = next;
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * @return the elements that should be inserted into the collections
+	 */
+	Integer[] getPresent() {
+		return present_;
+	}
+
+	/**
+	 * @return the elements distinct from those in {@link #getPresent()}, which
+	 *         are used for testing unsuccessful lookups
+	 */
+	Integer[] getAbsent() {
+		return absent_;
+	}
+
+}
@@ -0,0 +1,187 @@
+/*
+ * #%L
+ * ELK JMH Benchmarks
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2011 - 2016 Department of Computer Science, University of Oxford
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.semanticweb.elk.jmh.collections;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.semanticweb.elk.util.collections.entryset.Entry;
+import org.semanticweb.elk.util.collections.entryset.EntryCollection;
+
+/**
+ * Benchmarks for the basic operations of {@link EntryCollection}. The lookups
+ * use entries that are structurally equal but not identical to the entries in
+ * the collection, as it happens when objects are interned.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class EntryCollectionBenchmark {
+
+	/**
+	 * the number of entries in the collection
+	 */
+	@Param({ "16", "1024", "65536" })
+	public int size;
+
+	/**
+	 * the entries inserted into {@link #collection_}
+	 */
+	private IntEntry[] inserted_;
+
+	/**
+	 * the entries inserted into fresh collections; these are reused for every
+	 * invocation
+	 */
+	private IntEntry[] fresh_;
+
+	/**
+	 * the entries structurally equal to {@link #inserted_}
+	 */
+	private IntEntry[] present_;
+
+	/**
+	 * the entries structurally different from {@link #inserted_}
+	 */
+	private IntEntry[] absent_;
+
+	private EntryCollection<IntEntry> collection_;
+
+	@Setup
+	public void setup() {
+		BenchmarkElements elements = new BenchmarkElements(size);
+		inserted_ = toEntries(elements.getPresent());
+		fresh_ = toEntries(elements.getPresent());
+		present_ = toEntries(elements.getPresent());
+		absent_ = toEntries(elements.getAbsent());
+		collection_ = new EntryCollection<IntEntry>();
+		for (IntEntry entry : inserted_) {
+			collection_.addStructural(entry);
+		}
+	}
+
+	private static IntEntry[] toEntries(Integer[] values) {
+		IntEntry[] result = new IntEntry[values.length];
+		for (int i = 0; i < values.length; i++) {
+			result[i] = new IntEntry(values[i]);
+		}
+		return result;
+	}
+
+	private int countFound(IntEntry[] entries) {
+		int result = 0;
+		for (IntEntry entry : entries) {
+			if (collection_.findStructural(entry) != null) {
+				result++;
+			}
+		}
+		return result;
+	}
+
+	@Benchmark
+	public EntryCollection<IntEntry> add() {
+		EntryCollection<IntEntry> result = new EntryCollection<IntEntry>();
+		for (IntEntry entry : fresh_) {
+			// entries can be added only if they are not linked
+			entry.setNext(null);
+			result.addStructural(entry);
+		}
+		return result;
+	}
+
+	@Benchmark
+	public int findPresent() {
+		return countFound(present_);
+	}
+
+	@Benchmark
+	public int findAbsent() {
+		return countFound(absent_);
+	}
+
+	@Benchmark
+	public int removeAdd() {
+		int result = 0;
+		for (IntEntry entry : present_) {
+			IntEntry removed = collection_.removeStructural(entry);
+			if (removed != null) {
+				removed.setNext(null);
+				collection_.addStructural(removed);
+				result++;
+			}
+		}
+		return result;
+	}
+
+	static class IntEntry implements Entry<IntEntry, IntEntry> {
+
+		private final int value_;
+
+		private IntEntry next_;
+
+		IntEntry(int value) {
+			this.value_ = value;
+		}
+
+		@Override
+		public void setNext(IntEntry next) {
+			this.next_ = next;
+		}
+
+		@Override
+		public IntEntry getNext() {
+			return next_;
+		}
+
+		@Override
+		public IntEntry structuralEquals(Object other) {
+			if (other instanceof IntEntry) {
+				IntEntry otherEntry = (IntEntry) other;
+				if (value_ == otherEntry.value_) {
+					return otherEntry;
+				}
+			}
+			// else
+			return null;
+		}
+
+		@Override
+		public int structuralHashCode() {
+			return value_;
+		}
+
+	}
+
+}
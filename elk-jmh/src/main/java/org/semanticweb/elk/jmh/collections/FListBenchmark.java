@@ -0,0 +1,108 @@
+/*
+ * #%L
+ * ELK JMH Benchmarks
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2011 - 2016 Department of Computer Science, University of Oxford
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.semanticweb.elk.jmh.collections;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.semanticweb.elk.util.collections.FList;
+import org.semanticweb.elk.util.collections.ImmutableList;
+
+/**
+ * Benchmarks for constructing, traversing, and comparing {@link FList}s
+ * implemented by {@link ImmutableList}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class FListBenchmark {
+
+	/**
+	 * the number of elements in the list
+	 */
+	@Param({ "4", "64", "1024" })
+	public int length;
+
+	private Integer[] elements_;
+
+	private FList<Integer> list_, copy_;
+
+	@Setup
+	public void setup() {
+		elements_ = new BenchmarkElements(length).getPresent();
+		list_ = build(elements_);
+		copy_ = build(elements_);
+	}
+
+	private static FList<Integer> build(Integer[] elements) {
+		FList<Integer> result = null;
+		for (int i = elements.length - 1; i >= 0; i--) {
+			result = new ImmutableList<Integer>(elements[i], result);
+		}
+		return result;
+	}
+
+	@Benchmark
+	public FList<Integer> build() {
+		return build(elements_);
+	}
+
+	@Benchmark
+	public void iterate(Blackhole blackhole) {
+		for (Integer e : list_) {
+			blackhole.consume(e);
+		}
+	}
+
+	@Benchmark
+	public void traverse(Blackhole blackhole) {
+		for (FList<Integer> tail = list_; tail != null; tail = tail
+				.getTail()) {
+			blackhole.consume(tail.getHead());
+		}
+	}
+
+	@Benchmark
+	public boolean equalsCopy() {
+		return FList.Equality.equals(list_, copy_);
+	}
+
+	@Benchmark
+	public int hash() {
+		return FList.Hash.hashCode(list_);
+	}
+
+}
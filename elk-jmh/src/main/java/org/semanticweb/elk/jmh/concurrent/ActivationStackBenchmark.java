@@ -0,0 +1,136 @@
+/*
+ * #%L
+ * ELK JMH Benchmarks
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2011 - 2016 Department of Computer Science, University of Oxford
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.semanticweb.elk.jmh.concurrent;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.semanticweb.elk.util.concurrent.collections.ActivationStack;
+import org.semanticweb.elk.util.concurrent.collections.ConcurrentLinkedActivationStack;
+import org.semanticweb.elk.util.concurrent.collections.SynchronizedArrayListActivationStack;
+
+/**
+ * Benchmarks for the implementations of {@link ActivationStack}. The stacks
+ * are filled and emptied in batches, like the to-do stacks of contexts during
+ * saturation, either by one thread or by several threads sharing the same
+ * stack.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class ActivationStackBenchmark {
+
+	/**
+	 * the names of the benchmarked implementations of {@link ActivationStack}
+	 */
+	static final String CONCURRENT_LINKED = "ConcurrentLinked",
+			SYNCHRONIZED_ARRAY_LIST = "SynchronizedArrayList";
+
+	static ActivationStack<Integer> create(String implementation) {
+		if (CONCURRENT_LINKED.equals(implementation)) {
+			return new ConcurrentLinkedActivationStack<Integer>();
+		}
+		if (SYNCHRONIZED_ARRAY_LIST.equals(implementation)) {
+			return new SynchronizedArrayListActivationStack<Integer>();
+		}
+		// else
+		throw new IllegalArgumentException(
+				"Unknown activation stack: " + implementation);
+	}
+
+	public static abstract class StackState {
+
+		@Param({ CONCURRENT_LINKED, SYNCHRONIZED_ARRAY_LIST })
+		public String implementation;
+
+		/**
+		 * the number of elements pushed to the stack before they are popped
+		 */
+		@Param({ "1", "64" })
+		public int batch;
+
+		Integer[] elements;
+
+		ActivationStack<Integer> stack;
+
+		@Setup
+		public void setup() {
+			elements = new Integer[batch];
+			for (int i = 0; i < batch; i++) {
+				elements[i] = i;
+			}
+			stack = create(implementation);
+		}
+
+	}
+
+	@State(Scope.Thread)
+	public static class LocalStack extends StackState {
+	}
+
+	@State(Scope.Benchmark)
+	public static class SharedStack extends StackState {
+	}
+
+	static int pushPop(StackState state, Blackhole blackhole) {
+		int activations = 0;
+		for (Integer e : state.elements) {
+			if (state.stack.push(e)) {
+				activations++;
+			}
+		}
+		for (;;) {
+			Integer next = state.stack.pop();
+			if (next == null) {
+				break;
+			}
+			blackhole.consume(next);
+		}
+		return activations;
+	}
+
+	@Benchmark
+	public int pushPopLocal(LocalStack state, Blackhole blackhole) {
+		return pushPop(state, blackhole);
+	}
+
+	@Benchmark
+	@Threads(4)
+	public int pushPopShared(SharedStack state, Blackhole blackhole) {
+		return pushPop(state, blackhole);
+	}
+
+}
@@ -0,0 +1,92 @@
+/*
+ * #%L
+ * ELK JMH Benchmarks
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2011 - 2016 Department of Computer Science, University of Oxford
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.semanticweb.elk.jmh.reasoner;
+
+import org.semanticweb.elk.loading.AxiomLoader;
+import org.semanticweb.elk.loading.SyntheticOntologyGenerator;
+import org.semanticweb.elk.owl.managers.ElkObjectEntityRecyclingFactory;
+import org.semanticweb.elk.reasoner.Reasoner;
+import org.semanticweb.elk.reasoner.ReasonerFactory;
+import org.semanticweb.elk.reasoner.config.ReasonerConfiguration;
+
+/**
+ * The ontologies and the reasoners used in the benchmarks of this package.
+ * The ontologies are generated by {@link SyntheticOntologyGenerator} with a
+ * fixed seed, so that every run uses the same axioms and no external files
+ * are needed.
+ */
+class BenchmarkReasoners {
+
+	/**
+	 * the seed for all generated ontologies
+	 */
+	static final long SEED = 1;
+
+	/**
+	 * @param classCount
+	 *            the number of classes in the ontology
+	 * @return the generator of an ontology with the given number of classes;
+	 *         the numbers of other entities and axioms are proportional to it
+	 */
+	static SyntheticOntologyGenerator getGenerator(int classCount) {
+		int propertyCount = Math.max(1, classCount / 100);
+		int individualCount = classCount / 10;
+		return new SyntheticOntologyGenerator(
+				new ElkObjectEntityRecyclingFactory()).setClassCount(classCount)
+						.setPropertyCount(propertyCount)
+						.setIndividualCount(individualCount)
+						.setHierarchyDepth(8).setHierarchyFanOut(4)
+						.setExistentialDensity(1).setDefinitionRatio(0.1)
+						.setTransitiveRatio(0.1)
+						.setPropertyChainCount(propertyCount / 2)
+						.setDisjointnessCount(classCount / 10000)
+						.setPropertyAssertionCount(2 * individualCount)
+						.setSeed(SEED);
+	}
+
+	/**
+	 * @param loader
+	 *            the {@link AxiomLoader.Factory} for the ontology
+	 * @param workers
+	 *            the number of working threads of the reasoner
+	 * @return a new {@link Reasoner} for the given ontology
+	 */
+	static Reasoner createReasoner(AxiomLoader.Factory loader, int workers) {
+		return new ReasonerFactory().createReasoner(loader,
+				getConfiguration(workers));
+	}
+
+	/**
+	 * @param workers
+	 *            the number of working threads of the reasoner
+	 * @return the default {@link ReasonerConfiguration} with the given number
+	 *         of working threads
+	 */
+	static ReasonerConfiguration getConfiguration(int workers) {
+		ReasonerConfiguration config = ReasonerConfiguration
+				.getConfiguration();
+		config.setParameter(ReasonerConfiguration.NUM_OF_WORKING_THREADS,
+				String.valueOf(workers));
+		return config;
+	}
+
+}
@@ -0,0 +1,193 @@
+/*
+ * #%L
+ * ELK JMH Benchmarks
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2011 - 2016 Department of Computer Science, University of Oxford
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.semanticweb.elk.jmh.reasoner;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.semanticweb.elk.exceptions.ElkException;
+import org.semanticweb.elk.owl.interfaces.ElkClass;
+import org.semanticweb.elk.owl.interfaces.ElkClassExpression;
+import org.semanticweb.elk.owl.interfaces.ElkObject;
+import org.semanticweb.elk.owl.interfaces.ElkObjectProperty;
+import org.semanticweb.elk.reasoner.Reasoner;
+import org.semanticweb.elk.reasoner.ReasonerFactory;
+import org.semanticweb.elk.reasoner.config.QueryCacheEvictionPolicy;
+import org.semanticweb.elk.reasoner.config.ReasonerConfiguration;
+import org.semanticweb.elk.reasoner.query.QueryCacheStatistics;
+
+/**
+ * Replays a Zipf-distributed trace of complex class expression queries and
+ * measures how well the class expression query cache works with the given
+ * {@link QueryCacheEvictionPolicy} and capacity. Every cache miss means that
+ * the class expression has to be indexed and saturated again, so, besides the
+ * time of the trace, the numbers of hits, misses, and evictions are printed
+ * after every iteration. Every iteration starts with a classified reasoner
+ * whose cache is empty.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+public class ClassExpressionQueryCacheBenchmark {
+
+	/**
+	 * the number of classes in the generated ontology
+	 */
+	@Param({ "10000" })
+	public int classes;
+
+	/**
+	 * the name of the {@link QueryCacheEvictionPolicy}
+	 */
+	@Param({ "LRU", "TINY_LFU" })
+	public String policy;
+
+	/**
+	 * the capacity of the query cache
+	 */
+	@Param({ "1024" })
+	public int capacity;
+
+	/**
+	 * the number of distinct queries in the trace
+	 */
+	@Param({ "4096" })
+	public int queries;
+
+	/**
+	 * the number of queries in the trace
+	 */
+	@Param({ "100000" })
+	public int traceLength;
+
+	/**
+	 * the skew of the Zipf distribution of the queries
+	 */
+	@Param({ "1.0" })
+	public double exponent;
+
+	private Reasoner reasoner_;
+
+	private List<ElkClassExpression> trace_;
+
+	@Setup(Level.Iteration)
+	public void setup() throws ElkException {
+		ReasonerConfiguration config = BenchmarkReasoners.getConfiguration(
+				Runtime.getRuntime().availableProcessors());
+		config.setParameter(
+				ReasonerConfiguration.CLASS_EXPRESSION_QUERY_CACHE_EVICTION_POLICY,
+				policy);
+		config.setParameter(
+				ReasonerConfiguration.CLASS_EXPRESSION_QUERY_CACHE_CAPACITY,
+				String.valueOf(capacity));
+		reasoner_ = new ReasonerFactory().createReasoner(
+				BenchmarkReasoners.getGenerator(classes)
+						.getAxiomLoaderFactory(),
+				config);
+		// classification is not measured
+		reasoner_.getTaxonomy();
+		if (trace_ == null) {
+			trace_ = createTrace(createQueries());
+		}
+	}
+
+	/**
+	 * @return distinct class expressions {@code ObjectSomeValuesFrom(R C)} and
+	 *         {@code ObjectIntersectionOf(C D)} built from the signature of the
+	 *         ontology
+	 */
+	private List<ElkClassExpression> createQueries() {
+		ElkObject.Factory factory = reasoner_.getElkFactory();
+		List<ElkClass> classes = new ArrayList<ElkClass>(
+				reasoner_.getAllClasses());
+		List<ElkObjectProperty> properties = new ArrayList<ElkObjectProperty>(
+				reasoner_.getAllObjectProperties());
+		Random random = new Random(BenchmarkReasoners.SEED);
+		Set<ElkClassExpression> result = new LinkedHashSet<ElkClassExpression>(
+				queries);
+		// the number of possible queries may be smaller than requested
+		int attempts = 10 * queries;
+		while (result.size() < queries && attempts-- > 0) {
+			ElkClass filler = classes.get(random.nextInt(classes.size()));
+			if (!properties.isEmpty() && random.nextBoolean()) {
+				result.add(factory.getObjectSomeValuesFrom(
+						properties.get(random.nextInt(properties.size())),
+						filler));
+			} else {
+				result.add(factory.getObjectIntersectionOf(filler,
+						classes.get(random.nextInt(classes.size()))));
+			}
+		}
+		return new ArrayList<ElkClassExpression>(result);
+	}
+
+	private List<ElkClassExpression> createTrace(
+			List<ElkClassExpression> queries) {
+		ZipfGenerator zipf = new ZipfGenerator(queries.size(), exponent,
+				BenchmarkReasoners.SEED);
+		List<ElkClassExpression> trace = new ArrayList<ElkClassExpression>(
+				traceLength);
+		for (int i = 0; i < traceLength; i++) {
+			trace.add(queries.get(zipf.next()));
+		}
+		return trace;
+	}
+
+	@Benchmark
+	public void replay(Blackhole blackhole) throws ElkException {
+		for (ElkClassExpression query : trace_) {
+			blackhole.consume(reasoner_.getEquivalentClassesQuietly(query));
+		}
+	}
+
+	@TearDown(Level.Iteration)
+	public void tearDown() throws InterruptedException {
+		QueryCacheStatistics stats = reasoner_
+				.getClassExpressionQueryCacheStatistics();
+		System.out.println(policy + ", capacity " + capacity + ": "
+				+ stats.getHitCount() + " hits, " + stats.getMissCount()
+				+ " misses, " + stats.getEvictionCount() + " evictions");
+		reasoner_.shutdown();
+	}
+
+}
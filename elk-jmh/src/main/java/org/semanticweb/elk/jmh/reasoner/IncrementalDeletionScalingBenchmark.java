@@ -0,0 +1,170 @@
+/*
+ * #%L
+ * ELK JMH Benchmarks
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2011 - 2016 Department of Computer Science, University of Oxford
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.semanticweb.elk.jmh.reasoner;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.semanticweb.elk.exceptions.ElkException;
+import org.semanticweb.elk.loading.SyntheticOntologyGenerator;
+import org.semanticweb.elk.loading.TestAxiomLoaderFactory;
+import org.semanticweb.elk.loading.TestChangesLoader;
+import org.semanticweb.elk.owl.interfaces.ElkAxiom;
+import org.semanticweb.elk.owl.interfaces.ElkClass;
+import org.semanticweb.elk.owl.interfaces.ElkSubClassOfAxiom;
+import org.semanticweb.elk.owl.visitors.ElkAxiomProcessor;
+import org.semanticweb.elk.reasoner.Reasoner;
+import org.semanticweb.elk.reasoner.ReasonerFactory;
+import org.semanticweb.elk.reasoner.config.ReasonerConfiguration;
+import org.semanticweb.elk.reasoner.incremental.IncrementalProcessingStatistics;
+import org.semanticweb.elk.reasoner.incremental.IncrementalStages;
+import org.semanticweb.elk.reasoner.taxonomy.model.Taxonomy;
+
+/**
+ * Measures how the incremental deletion scales with the number of workers.
+ * The ontology is generated by {@link SyntheticOntologyGenerator} and
+ * classified once; every invocation removes {@link #delta} told subsumptions
+ * and reclassifies incrementally, and the subsumptions are added back after
+ * the invocation. At the end of the trial, the throughput of the incremental
+ * stages, in contexts per second, is printed, so that the scaling of the
+ * individual stages can be compared between the numbers of workers.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 20)
+public class IncrementalDeletionScalingBenchmark {
+
+	/**
+	 * the stages whose throughput is printed
+	 */
+	static final IncrementalStages[] MEASURED_STAGES = {
+			IncrementalStages.DELETIONS_INIT, IncrementalStages.DELETION,
+			IncrementalStages.OVERDELETION_PRUNING,
+			IncrementalStages.ADDITIONS_INIT };
+
+	/**
+	 * the number of classes in the generated ontology
+	 */
+	@Param({ "100000" })
+	public int classes;
+
+	/**
+	 * the number of removed told subsumptions
+	 */
+	@Param({ "100" })
+	public int delta;
+
+	/**
+	 * the number of working threads of the reasoner
+	 */
+	@Param({ "1", "2", "4", "8", "16", "32" })
+	public int workers;
+
+	private Reasoner reasoner_;
+
+	private final List<ElkAxiom> removed_ = new ArrayList<ElkAxiom>();
+
+	private final IncrementalProcessingStatistics stats_ = new IncrementalProcessingStatistics();
+
+	@Setup(Level.Trial)
+	public void setup() throws ElkException {
+		SyntheticOntologyGenerator generator = BenchmarkReasoners
+				.getGenerator(classes);
+		final List<ElkAxiom> subsumptions = new ArrayList<ElkAxiom>();
+		generator.generate(new ElkAxiomProcessor() {
+
+			@Override
+			public void visit(ElkAxiom axiom) {
+				if (axiom instanceof ElkSubClassOfAxiom && ((ElkSubClassOfAxiom) axiom)
+						.getSuperClassExpression() instanceof ElkClass) {
+					subsumptions.add(axiom);
+				}
+			}
+
+		});
+		int step = Math.max(1, subsumptions.size() / delta);
+		for (int i = 0; i < subsumptions.size()
+				&& removed_.size() < delta; i += step) {
+			removed_.add(subsumptions.get(i));
+		}
+		ReasonerConfiguration config = BenchmarkReasoners
+				.getConfiguration(workers);
+		// always reason incrementally
+		config.setParameter(ReasonerConfiguration.INCREMENTAL_MODE_COST_BASED,
+				"false");
+		reasoner_ = new ReasonerFactory()
+				.createReasoner(generator.getAxiomLoaderFactory(), config);
+		reasoner_.getTaxonomy();
+		reasoner_.getIncrementalProcessingStatistics().reset();
+	}
+
+	@Benchmark
+	public Taxonomy<ElkClass> removeAndReclassify() throws ElkException {
+		TestChangesLoader changes = new TestChangesLoader();
+		for (ElkAxiom axiom : removed_) {
+			changes.remove(axiom);
+		}
+		reasoner_.registerAxiomLoader(new TestAxiomLoaderFactory(changes));
+		return reasoner_.getTaxonomy();
+	}
+
+	@TearDown(Level.Invocation)
+	public void restore() throws ElkException {
+		// only the statistics of the measured invocation are kept
+		stats_.add(reasoner_.getIncrementalProcessingStatistics());
+		TestChangesLoader changes = new TestChangesLoader();
+		for (ElkAxiom axiom : removed_) {
+			changes.add(axiom);
+		}
+		reasoner_.registerAxiomLoader(new TestAxiomLoaderFactory(changes));
+		reasoner_.getTaxonomy();
+		reasoner_.getIncrementalProcessingStatistics().reset();
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() throws InterruptedException {
+		for (IncrementalStages stage : MEASURED_STAGES) {
+			System.out.println(workers + " workers, " + stage + ": "
+					+ (long) stats_.getStageThroughput(stage)
+					+ " contexts per second");
+		}
+		reasoner_.shutdown();
+	}
+
+}
@@ -0,0 +1,187 @@
+/*
+ * #%L
+ * ELK JMH Benchmarks
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2011 - 2016 Department of Computer Science, University of Oxford
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.semanticweb.elk.jmh.reasoner;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.liveontologies.puli.InferenceSet;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.semanticweb.elk.exceptions.ElkException;
+import org.semanticweb.elk.owl.inferences.ElkJustificationComputation;
+import org.semanticweb.elk.owl.inferences.ReasonerElkInferenceSet;
+import org.semanticweb.elk.owl.interfaces.ElkAxiom;
+import org.semanticweb.elk.owl.interfaces.ElkClass;
+import org.semanticweb.elk.owl.interfaces.ElkObject;
+import org.semanticweb.elk.owl.managers.ElkObjectEntityRecyclingFactory;
+import org.semanticweb.elk.reasoner.Reasoner;
+import org.semanticweb.elk.reasoner.taxonomy.model.Taxonomy;
+import org.semanticweb.elk.reasoner.taxonomy.model.TaxonomyNode;
+import org.semanticweb.elk.util.concurrent.computation.ConcurrentExecutors;
+
+/**
+ * Measures {@link ElkJustificationComputation} for entailed subsumptions
+ * between named classes of a generated ontology. The goals are direct
+ * subsumptions chosen at random from the taxonomy, and their inferences are
+ * generated before the measurement, so only the computation of the
+ * justifications is measured. A new {@link ElkJustificationComputation} is
+ * used for every invocation, so no justifications are reused between
+ * invocations. The number of justifications and the number of goals whose
+ * justifications were not computed before the timeout are printed after
+ * every iteration.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+public class JustificationBenchmark {
+
+	/**
+	 * the number of classes in the generated ontology
+	 */
+	@Param({ "1000" })
+	public int classes;
+
+	/**
+	 * the number of justified subsumptions
+	 */
+	@Param({ "100" })
+	public int goals;
+
+	/**
+	 * the number of workers computing the justifications of independent
+	 * conclusions in parallel
+	 */
+	@Param({ "1", "2", "4" })
+	public int workers;
+
+	/**
+	 * the time in milliseconds after which the computation of the
+	 * justifications of one goal is aborted
+	 */
+	@Param({ "1000" })
+	public long timeout;
+
+	private final List<ElkAxiom> goals_ = new ArrayList<ElkAxiom>();
+
+	private final List<InferenceSet<ElkAxiom>> inferences_ = new ArrayList<InferenceSet<ElkAxiom>>();
+
+	private Reasoner reasoner_;
+
+	private long justificationCount_;
+
+	private int incompleteCount_;
+
+	@Setup(Level.Trial)
+	public void setup() throws ElkException, InterruptedException {
+		reasoner_ = BenchmarkReasoners.createReasoner(
+				BenchmarkReasoners.getGenerator(classes)
+						.getAxiomLoaderFactory(),
+				workers);
+		ElkObject.Factory factory = new ElkObjectEntityRecyclingFactory();
+		Taxonomy<ElkClass> taxonomy = reasoner_.getTaxonomy();
+		List<ElkAxiom> subsumptions = new ArrayList<ElkAxiom>();
+		for (TaxonomyNode<ElkClass> node : taxonomy.getNodes()) {
+			if (node == taxonomy.getTopNode()) {
+				continue;
+			}
+			for (TaxonomyNode<ElkClass> superNode : node
+					.getDirectSuperNodes()) {
+				if (superNode == taxonomy.getTopNode()) {
+					continue;
+				}
+				subsumptions.add(factory.getSubClassOfAxiom(
+						node.getCanonicalMember(),
+						superNode.getCanonicalMember()));
+			}
+		}
+		// the nodes are not ordered
+		Collections.sort(subsumptions, new Comparator<ElkAxiom>() {
+
+			@Override
+			public int compare(ElkAxiom first, ElkAxiom second) {
+				return first.toString().compareTo(second.toString());
+			}
+
+		});
+		Collections.shuffle(subsumptions, new Random(BenchmarkReasoners.SEED));
+		for (ElkAxiom goal : subsumptions.subList(0,
+				Math.min(goals, subsumptions.size()))) {
+			goals_.add(goal);
+			InferenceSet<ElkAxiom> inferences = ReasonerElkInferenceSet
+					.create(reasoner_, goal, factory);
+			// generate the inferences needed for the justifications
+			new ElkJustificationComputation(inferences,
+					ConcurrentExecutors.getDefault(), 1).compute(goal,
+							ElkJustificationComputation.NO_LIMIT, timeout);
+			inferences_.add(inferences);
+		}
+	}
+
+	@Benchmark
+	public long justify() throws InterruptedException {
+		for (int i = 0; i < goals_.size(); i++) {
+			ElkJustificationComputation.Result result = new ElkJustificationComputation(
+					inferences_.get(i), ConcurrentExecutors.getDefault(),
+					workers).compute(goals_.get(i),
+							ElkJustificationComputation.NO_LIMIT, timeout);
+			justificationCount_ += result.getJustifications().size();
+			if (!result.isComplete()) {
+				incompleteCount_++;
+			}
+		}
+		return justificationCount_;
+	}
+
+	@TearDown(Level.Iteration)
+	public void printCounts() {
+		System.out.println(goals_.size() + " goals: " + justificationCount_
+				+ " justifications, " + incompleteCount_
+				+ " goals with incomplete justifications");
+		justificationCount_ = 0;
+		incompleteCount_ = 0;
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() throws InterruptedException {
+		reasoner_.shutdown();
+	}
+
+}
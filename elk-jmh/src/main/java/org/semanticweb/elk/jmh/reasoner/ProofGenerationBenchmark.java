@@ -0,0 +1,173 @@
+/*
+ * #%L
+ * ELK JMH Benchmarks
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2011 - 2016 Department of Computer Science, University of Oxford
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.semanticweb.elk.jmh.reasoner;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Queue;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.liveontologies.puli.Inference;
+import org.liveontologies.puli.InferenceSet;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.semanticweb.elk.exceptions.ElkException;
+import org.semanticweb.elk.owl.inferences.ReasonerElkInferenceSet;
+import org.semanticweb.elk.owl.interfaces.ElkAxiom;
+import org.semanticweb.elk.owl.interfaces.ElkClass;
+import org.semanticweb.elk.owl.interfaces.ElkObject;
+import org.semanticweb.elk.owl.managers.ElkObjectEntityRecyclingFactory;
+import org.semanticweb.elk.reasoner.Reasoner;
+import org.semanticweb.elk.reasoner.taxonomy.model.Taxonomy;
+import org.semanticweb.elk.reasoner.taxonomy.model.TaxonomyNode;
+
+/**
+ * Generates the complete proofs of entailed subsumptions between named
+ * classes of a generated ontology, i.e., the inferences of the goal and,
+ * recursively, of all their premises. The goals are indirect subsumptions
+ * chosen at random from the taxonomy. The inferences are traced before the
+ * measurement, so the benchmark mostly measures the matching of the traced
+ * inferences to {@link ElkAxiom}s. The number of proof inferences generated in
+ * one operation is printed during setup; dividing the allocation per
+ * operation reported by {@code -prof gc} (see
+ * {@link org.semanticweb.elk.jmh.AllocationProfiling}) by this number gives
+ * the allocation per proof inference.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class ProofGenerationBenchmark {
+
+	/**
+	 * the number of classes in the generated ontology
+	 */
+	@Param({ "10000" })
+	public int classes;
+
+	/**
+	 * the number of subsumptions whose proofs are generated
+	 */
+	@Param({ "100" })
+	public int goals;
+
+	private final List<ElkAxiom> goals_ = new ArrayList<ElkAxiom>();
+
+	private final ElkObject.Factory factory_ = new ElkObjectEntityRecyclingFactory();
+
+	private Reasoner reasoner_;
+
+	@Setup(Level.Trial)
+	public void setup() throws ElkException {
+		reasoner_ = BenchmarkReasoners.createReasoner(
+				BenchmarkReasoners.getGenerator(classes)
+						.getAxiomLoaderFactory(),
+				1);
+		Taxonomy<ElkClass> taxonomy = reasoner_.getTaxonomy();
+		List<ElkAxiom> subsumptions = new ArrayList<ElkAxiom>();
+		for (TaxonomyNode<ElkClass> node : taxonomy.getNodes()) {
+			if (node == taxonomy.getTopNode()) {
+				continue;
+			}
+			for (TaxonomyNode<ElkClass> superNode : node.getAllSuperNodes()) {
+				if (superNode == taxonomy.getTopNode()
+						|| node.getDirectSuperNodes().contains(superNode)) {
+					// the proofs of direct subsumptions are mostly trivial
+					continue;
+				}
+				subsumptions.add(factory_.getSubClassOfAxiom(
+						node.getCanonicalMember(),
+						superNode.getCanonicalMember()));
+			}
+		}
+		// the nodes are not ordered
+		Collections.sort(subsumptions, new Comparator<ElkAxiom>() {
+
+			@Override
+			public int compare(ElkAxiom first, ElkAxiom second) {
+				return first.toString().compareTo(second.toString());
+			}
+
+		});
+		Collections.shuffle(subsumptions, new Random(BenchmarkReasoners.SEED));
+		goals_.addAll(subsumptions.subList(0,
+				Math.min(goals, subsumptions.size())));
+		// trace the inferences and count the proof inferences
+		System.out.println(goals_.size() + " goals: " + generateProofs()
+				+ " proof inferences per operation");
+	}
+
+	/**
+	 * @return the number of generated proof inferences
+	 * @throws ElkException
+	 */
+	@Benchmark
+	public long generateProofs() throws ElkException {
+		long result = 0;
+		for (ElkAxiom goal : goals_) {
+			InferenceSet<ElkAxiom> proof = ReasonerElkInferenceSet
+					.create(reasoner_, goal, factory_);
+			// all inferences of the proof are generated when they are visited
+			Set<ElkAxiom> visited = new HashSet<ElkAxiom>();
+			Queue<ElkAxiom> toDo = new ArrayDeque<ElkAxiom>();
+			visited.add(goal);
+			toDo.add(goal);
+			for (ElkAxiom next; (next = toDo.poll()) != null;) {
+				for (Inference<ElkAxiom> inference : proof
+						.getInferences(next)) {
+					result++;
+					for (ElkAxiom premise : inference.getPremises()) {
+						if (visited.add(premise)) {
+							toDo.add(premise);
+						}
+					}
+				}
+			}
+		}
+		return result;
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() throws InterruptedException {
+		reasoner_.shutdown();
+	}
+
+}
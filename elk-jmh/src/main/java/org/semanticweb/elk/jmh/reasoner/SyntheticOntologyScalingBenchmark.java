@@ -0,0 +1,162 @@
+/*
+ * #%L
+ * ELK JMH Benchmarks
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2011 - 2016 Department of Computer Science, University of Oxford
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.semanticweb.elk.jmh.reasoner;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.semanticweb.elk.exceptions.ElkException;
+import org.semanticweb.elk.owl.interfaces.ElkClass;
+import org.semanticweb.elk.owl.interfaces.ElkNamedIndividual;
+import org.semanticweb.elk.reasoner.Reasoner;
+import org.semanticweb.elk.reasoner.taxonomy.model.InstanceTaxonomy;
+import org.semanticweb.elk.reasoner.taxonomy.model.Taxonomy;
+
+/**
+ * Measures how the time of reasoning grows with the size of the ontology,
+ * using ontologies generated by
+ * {@link org.semanticweb.elk.loading.SyntheticOntologyGenerator}. The
+ * loading, the consistency checking, the classification, and the realization
+ * are measured separately: before every invocation, a fresh reasoner is
+ * created and the steps preceding the measured one are performed, so every
+ * benchmark gives a scaling curve for one step over {@link #classes}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+public class SyntheticOntologyScalingBenchmark {
+
+	/**
+	 * the number of classes in the generated ontology
+	 */
+	@Param({ "1000", "10000", "100000" })
+	public int classes;
+
+	/**
+	 * the number of working threads of the reasoner
+	 */
+	@Param({ "4" })
+	public int workers;
+
+	/**
+	 * A fresh reasoner for the generated ontology; the steps of reasoning up
+	 * to the given one are performed before the invocation
+	 */
+	@State(Scope.Thread)
+	public static abstract class PreparedReasoner {
+
+		Reasoner reasoner;
+
+		@Setup(Level.Invocation)
+		public void setup(SyntheticOntologyScalingBenchmark benchmark)
+				throws ElkException {
+			reasoner = BenchmarkReasoners.createReasoner(
+					BenchmarkReasoners.getGenerator(benchmark.classes)
+							.getAxiomLoaderFactory(),
+					benchmark.workers);
+			prepare(reasoner);
+		}
+
+		abstract void prepare(Reasoner reasoner) throws ElkException;
+
+		@TearDown(Level.Invocation)
+		public void tearDown() throws InterruptedException {
+			reasoner.shutdown();
+		}
+
+	}
+
+	public static class NewReasoner extends PreparedReasoner {
+
+		@Override
+		void prepare(Reasoner reasoner) {
+			// nothing
+		}
+
+	}
+
+	public static class LoadedReasoner extends PreparedReasoner {
+
+		@Override
+		void prepare(Reasoner reasoner) throws ElkException {
+			reasoner.ensureLoading();
+		}
+
+	}
+
+	public static class ConsistentReasoner extends PreparedReasoner {
+
+		@Override
+		void prepare(Reasoner reasoner) throws ElkException {
+			reasoner.isInconsistent();
+		}
+
+	}
+
+	public static class ClassifiedReasoner extends PreparedReasoner {
+
+		@Override
+		void prepare(Reasoner reasoner) throws ElkException {
+			reasoner.getTaxonomy();
+		}
+
+	}
+
+	@Benchmark
+	public void load(NewReasoner state) throws ElkException {
+		state.reasoner.ensureLoading();
+	}
+
+	@Benchmark
+	public boolean checkConsistency(LoadedReasoner state)
+			throws ElkException {
+		return state.reasoner.isInconsistent();
+	}
+
+	@Benchmark
+	public Taxonomy<ElkClass> classify(ConsistentReasoner state)
+			throws ElkException {
+		return state.reasoner.getTaxonomy();
+	}
+
+	@Benchmark
+	public InstanceTaxonomy<ElkClass, ElkNamedIndividual> realize(
+			ClassifiedReasoner state) throws ElkException {
+		return state.reasoner.getInstanceTaxonomy();
+	}
+
+}
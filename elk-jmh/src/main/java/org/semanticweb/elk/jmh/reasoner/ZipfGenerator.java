@@ -0,0 +1,77 @@
+/*
+ * #%L
+ * ELK JMH Benchmarks
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2011 - 2016 Department of Computer Science, University of Oxford
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.semanticweb.elk.jmh.reasoner;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Draws ranks {@code 0, ..., n-1} according to the Zipf distribution: the
+ * probability of rank {@code k} is proportional to {@code 1 / (k+1)^s}. Useful
+ * to simulate workloads in which few items are requested very often and most
+ * items are requested rarely.
+ */
+class ZipfGenerator {
+
+	/**
+	 * The cumulative probabilities of the ranks.
+	 */
+	private final double[] cumulative_;
+
+	private final Random random_;
+
+	/**
+	 * @param n
+	 *            the number of ranks
+	 * @param exponent
+	 *            the skew of the distribution; {@code 0} gives the uniform
+	 *            distribution
+	 * @param seed
+	 *            the seed of the random number generator
+	 */
+	ZipfGenerator(final int n, final double exponent, final long seed) {
+		if (n < 1) {
+			throw new IllegalArgumentException(
+					"The number of ranks must be positive: " + n);
+		}
+		cumulative_ = new double[n];
+		double sum = 0;
+		for (int k = 0; k < n; k++) {
+			sum += 1 / Math.pow(k + 1, exponent);
+			cumulative_[k] = sum;
+		}
+		for (int k = 0; k < n; k++) {
+			cumulative_[k] /= sum;
+		}
+		random_ = new Random(seed);
+	}
+
+	/**
+	 * @return the next random rank
+	 */
+	int next() {
+		final int pos = Arrays.binarySearch(cumulative_, random_.nextDouble());
+		final int rank = pos >= 0 ? pos : -pos - 1;
+		return Math.min(rank, cumulative_.length - 1);
+	}
+
+}
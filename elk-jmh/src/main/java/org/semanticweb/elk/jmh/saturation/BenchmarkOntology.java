@@ -0,0 +1,94 @@
+/*
+ * #%L
+ * ELK JMH Benchmarks
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2011 - 2016 Department of Computer Science, University of Oxford
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.semanticweb.elk.jmh.saturation;
+
+import org.semanticweb.elk.owl.interfaces.ElkAxiom;
+import org.semanticweb.elk.owl.interfaces.ElkClass;
+import org.semanticweb.elk.owl.interfaces.ElkClassExpression;
+import org.semanticweb.elk.owl.interfaces.ElkObject;
+import org.semanticweb.elk.owl.iris.ElkFullIri;
+import org.semanticweb.elk.owl.managers.ElkObjectEntityRecyclingFactory;
+import org.semanticweb.elk.owl.visitors.ElkAxiomProcessor;
+import org.semanticweb.elk.reasoner.indexing.classes.ChangeIndexingProcessor;
+import org.semanticweb.elk.reasoner.indexing.classes.DirectIndex;
+import org.semanticweb.elk.reasoner.indexing.conversion.ElkAxiomConverterImpl;
+import org.semanticweb.elk.reasoner.indexing.conversion.ElkPolarityExpressionConverter;
+import org.semanticweb.elk.reasoner.indexing.conversion.ElkPolarityExpressionConverterImpl;
+import org.semanticweb.elk.reasoner.indexing.model.IndexedClassExpression;
+import org.semanticweb.elk.reasoner.indexing.model.ModifiableOntologyIndex;
+
+/**
+ * A small in-memory ontology that is indexed directly, without loading and
+ * without a reasoner, so that the saturation data structures can be
+ * benchmarked in isolation.
+ */
+class BenchmarkOntology {
+
+	private final ElkObject.Factory objectFactory_ = new ElkObjectEntityRecyclingFactory();
+
+	private final ModifiableOntologyIndex index_ = new DirectIndex(
+			objectFactory_);
+
+	private final ElkAxiomProcessor inserter_ = new ChangeIndexingProcessor(
+			new ElkAxiomConverterImpl(objectFactory_, index_, 1),
+			ChangeIndexingProcessor.ADDITION);
+
+	private final ElkPolarityExpressionConverter converter_ = new ElkPolarityExpressionConverterImpl(
+			objectFactory_, index_);
+
+	ElkObject.Factory getObjectFactory() {
+		return objectFactory_;
+	}
+
+	ModifiableOntologyIndex getIndex() {
+		return index_;
+	}
+
+	/**
+	 * @param name
+	 *            the local name of the class
+	 * @return the {@link ElkClass} with the given name
+	 */
+	ElkClass getClass(String name) {
+		return objectFactory_.getClass(new ElkFullIri(":" + name));
+	}
+
+	/**
+	 * Adds the given axiom to the index
+	 * 
+	 * @param axiom
+	 */
+	void add(ElkAxiom axiom) {
+		inserter_.visit(axiom);
+	}
+
+	/**
+	 * @param expression
+	 *            an {@link ElkClassExpression} occurring in the added axioms
+	 * @return the {@link IndexedClassExpression} representing the given
+	 *         {@link ElkClassExpression} in the index
+	 */
+	IndexedClassExpression getIndexed(ElkClassExpression expression) {
+		return expression.accept(converter_);
+	}
+
+}
@@ -0,0 +1,129 @@
+/*
+ * #%L
+ * ELK JMH Benchmarks
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2011 - 2016 Department of Computer Science, University of Oxford
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.semanticweb.elk.jmh.saturation;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.semanticweb.elk.owl.interfaces.ElkClass;
+import org.semanticweb.elk.reasoner.indexing.model.IndexedClassExpression;
+import org.semanticweb.elk.reasoner.saturation.ContextImpl;
+import org.semanticweb.elk.reasoner.saturation.conclusions.classes.SaturationConclusionBaseFactory;
+import org.semanticweb.elk.reasoner.saturation.conclusions.model.ClassConclusion;
+import org.semanticweb.elk.reasoner.saturation.conclusions.model.SaturationConclusion;
+
+/**
+ * Benchmarks for inserting {@link ClassConclusion}s into a {@link ContextImpl}
+ * and for checking their presence. The conclusions are the composed and
+ * decomposed subsumers of the root of the context, which are the most frequent
+ * conclusions produced during saturation.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class ContextImplBenchmark {
+
+	/**
+	 * the number of subsumers of the root of the context
+	 */
+	@Param({ "16", "1024", "16384" })
+	public int subsumers;
+
+	private IndexedClassExpression root_;
+
+	private ClassConclusion[] conclusions_;
+
+	private ContextImpl context_;
+
+	@Setup
+	public void setup() {
+		BenchmarkOntology ontology = new BenchmarkOntology();
+		ElkClass root = ontology.getClass("R");
+		ElkClass[] classes = new ElkClass[subsumers];
+		for (int i = 0; i < subsumers; i++) {
+			classes[i] = ontology.getClass("C" + i);
+			// to make sure that the class is indexed
+			ontology.add(ontology.getObjectFactory().getSubClassOfAxiom(root,
+					classes[i]));
+		}
+		root_ = ontology.getIndexed(root);
+		SaturationConclusion.Factory factory = SaturationConclusionBaseFactory
+				.getInstance();
+		conclusions_ = new ClassConclusion[2 * subsumers];
+		for (int i = 0; i < subsumers; i++) {
+			IndexedClassExpression subsumer = ontology.getIndexed(classes[i]);
+			conclusions_[2 * i] = factory
+					.getSubClassInclusionDecomposed(root_, subsumer);
+			conclusions_[2 * i + 1] = factory
+					.getSubClassInclusionComposed(root_, subsumer);
+		}
+		context_ = fill(new ContextImpl(root_));
+	}
+
+	private ContextImpl fill(ContextImpl context) {
+		for (ClassConclusion conclusion : conclusions_) {
+			context.addConclusion(conclusion);
+		}
+		return context;
+	}
+
+	@Benchmark
+	public ContextImpl addNew() {
+		return fill(new ContextImpl(root_));
+	}
+
+	@Benchmark
+	public int addExisting() {
+		int result = 0;
+		for (ClassConclusion conclusion : conclusions_) {
+			if (context_.addConclusion(conclusion)) {
+				result++;
+			}
+		}
+		return result;
+	}
+
+	@Benchmark
+	public int contains() {
+		int result = 0;
+		for (ClassConclusion conclusion : conclusions_) {
+			if (context_.containsConclusion(conclusion)) {
+				result++;
+			}
+		}
+		return result;
+	}
+
+}
@@ -0,0 +1,121 @@
+/*
+ * #%L
+ * ELK JMH Benchmarks
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2011 - 2016 Department of Computer Science, University of Oxford
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.semanticweb.elk.jmh.saturation;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.semanticweb.elk.owl.interfaces.ElkClass;
+import org.semanticweb.elk.owl.interfaces.ElkObject;
+import org.semanticweb.elk.reasoner.indexing.model.IndexedClassExpression;
+import org.semanticweb.elk.reasoner.indexing.model.OntologyIndex;
+import org.semanticweb.elk.reasoner.saturation.ClassExpressionSaturationFactory;
+import org.semanticweb.elk.reasoner.saturation.ExtendedContext;
+import org.semanticweb.elk.reasoner.saturation.MainContextFactory;
+import org.semanticweb.elk.reasoner.saturation.MapSaturationState;
+import org.semanticweb.elk.reasoner.saturation.SaturationJob;
+import org.semanticweb.elk.reasoner.saturation.SaturationState;
+import org.semanticweb.elk.reasoner.saturation.context.Context;
+import org.semanticweb.elk.reasoner.saturation.rules.factories.RuleApplicationAdditionFactory;
+import org.semanticweb.elk.reasoner.saturation.rules.factories.RuleApplicationInput;
+import org.semanticweb.elk.util.concurrent.computation.InterruptMonitor;
+
+/**
+ * Benchmarks for applying the saturation rules within a single context. The
+ * ontology consists of a chain of axioms {@code SubClassOf(Ai Ai+1)} and of
+ * axioms {@code SubClassOf(ObjectIntersectionOf(Ai Ai+1) Bi)}, so the context
+ * of {@code A0} derives all classes without creating other contexts. Every
+ * invocation saturates this context from scratch in a fresh
+ * {@link SaturationState} using one worker.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class ContextSaturationBenchmark {
+
+	/**
+	 * the number of classes in the chain of subsumptions
+	 */
+	@Param({ "16", "1024", "16384" })
+	public int length;
+
+	private static final InterruptMonitor NEVER_INTERRUPTED_ = new InterruptMonitor() {
+
+		@Override
+		public boolean isInterrupted() {
+			return false;
+		}
+
+	};
+
+	private OntologyIndex index_;
+
+	private IndexedClassExpression root_;
+
+	@Setup
+	public void setup() {
+		BenchmarkOntology ontology = new BenchmarkOntology();
+		ElkObject.Factory factory = ontology.getObjectFactory();
+		ElkClass previous = ontology.getClass("A0");
+		for (int i = 1; i < length; i++) {
+			ElkClass next = ontology.getClass("A" + i);
+			ontology.add(factory.getSubClassOfAxiom(previous, next));
+			ontology.add(factory.getSubClassOfAxiom(
+					factory.getObjectIntersectionOf(previous, next),
+					ontology.getClass("B" + i)));
+			previous = next;
+		}
+		index_ = ontology.getIndex();
+		root_ = ontology.getIndexed(ontology.getClass("A0"));
+	}
+
+	@Benchmark
+	public Context saturate() throws InterruptedException {
+		SaturationState<ExtendedContext> state = new MapSaturationState<ExtendedContext>(
+				index_, new MainContextFactory());
+		ClassExpressionSaturationFactory<SaturationJob<IndexedClassExpression>> saturationFactory = new ClassExpressionSaturationFactory<SaturationJob<IndexedClassExpression>>(
+				new RuleApplicationAdditionFactory<RuleApplicationInput>(
+						NEVER_INTERRUPTED_, state),
+				1);
+		ClassExpressionSaturationFactory<SaturationJob<IndexedClassExpression>>.Engine engine = saturationFactory
+				.getEngine();
+		engine.submit(new SaturationJob<IndexedClassExpression>(root_));
+		engine.process();
+		engine.finish();
+		saturationFactory.finish();
+		return state.getContext(root_);
+	}
+
+}
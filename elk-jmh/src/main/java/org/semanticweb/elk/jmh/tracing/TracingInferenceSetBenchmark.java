@@ -0,0 +1,192 @@
+/*
+ * #%L
+ * ELK JMH Benchmarks
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2011 - 2016 Department of Computer Science, University of Oxford
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.semanticweb.elk.jmh.tracing;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.semanticweb.elk.owl.interfaces.ElkObject;
+import org.semanticweb.elk.owl.iris.ElkFullIri;
+import org.semanticweb.elk.owl.managers.ElkObjectEntityRecyclingFactory;
+import org.semanticweb.elk.reasoner.indexing.classes.ModifiableIndexedObjectBaseFactory;
+import org.semanticweb.elk.reasoner.indexing.model.IndexedClass;
+import org.semanticweb.elk.reasoner.saturation.inferences.ClassInference;
+import org.semanticweb.elk.reasoner.saturation.inferences.ContextInitializationNoPremises;
+import org.semanticweb.elk.reasoner.saturation.inferences.SubClassInclusionTautology;
+import org.semanticweb.elk.reasoner.tracing.ConcurrentModifiableTracingInferenceSet;
+import org.semanticweb.elk.reasoner.tracing.ModifiableTracingInferenceSet;
+import org.semanticweb.elk.reasoner.tracing.SynchronizedModifiableTracingInferenceSet;
+
+/**
+ * Benchmarks for the implementations of {@link ModifiableTracingInferenceSet}
+ * that store the class inferences produced by concurrent tracing workers. Every
+ * thread produces the inferences for its own classes, like a worker tracing
+ * its own contexts, and then either retrieves or removes them. Run with
+ * {@code -prof gc} to see the allocation per operation.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class TracingInferenceSetBenchmark {
+
+	/**
+	 * the names of the benchmarked inference sets
+	 */
+	static final String SYNCHRONIZED = "Synchronized", STRIPED = "Striped",
+			STRIPED_COMPACT = "StripedCompact";
+
+	/**
+	 * the number of threads accessing the shared inference set
+	 */
+	static final int THREAD_COUNT = 4;
+
+	static ModifiableTracingInferenceSet<ClassInference> create(
+			String implementation) {
+		if (SYNCHRONIZED.equals(implementation)) {
+			return new SynchronizedModifiableTracingInferenceSet<ClassInference>();
+		}
+		if (STRIPED.equals(implementation)) {
+			return new ConcurrentModifiableTracingInferenceSet<ClassInference>(
+					false);
+		}
+		if (STRIPED_COMPACT.equals(implementation)) {
+			return new ConcurrentModifiableTracingInferenceSet<ClassInference>(
+					true);
+		}
+		// else
+		throw new IllegalArgumentException(
+				"Unknown inference set: " + implementation);
+	}
+
+	@State(Scope.Benchmark)
+	public static class SharedInferences {
+
+		@Param({ SYNCHRONIZED, STRIPED, STRIPED_COMPACT })
+		public String implementation;
+
+		/**
+		 * the number of classes for which every thread produces inferences
+		 */
+		@Param({ "1024" })
+		public int classes;
+
+		ModifiableTracingInferenceSet<ClassInference> inferences;
+
+		/**
+		 * the classes of the threads, one slice per thread
+		 */
+		IndexedClass[][] slices;
+
+		final AtomicInteger nextSlice = new AtomicInteger();
+
+		@Setup
+		public void setup() {
+			ElkObject.Factory elkFactory = new ElkObjectEntityRecyclingFactory();
+			ModifiableIndexedObjectBaseFactory indexedFactory = new ModifiableIndexedObjectBaseFactory();
+			slices = new IndexedClass[THREAD_COUNT][classes];
+			for (int i = 0; i < THREAD_COUNT; i++) {
+				for (int j = 0; j < classes; j++) {
+					slices[i][j] = indexedFactory.getIndexedClass(elkFactory
+							.getClass(new ElkFullIri(":C" + i + "_" + j)));
+				}
+			}
+		}
+
+		@Setup(Level.Iteration)
+		public void setupIteration() {
+			inferences = create(implementation);
+			for (IndexedClass[] slice : slices) {
+				produce(inferences, slice);
+			}
+		}
+
+	}
+
+	@State(Scope.Thread)
+	public static class ThreadClasses {
+
+		IndexedClass[] classes;
+
+		@Setup
+		public void setup(SharedInferences shared) {
+			classes = shared.slices[shared.nextSlice.getAndIncrement()
+					% THREAD_COUNT];
+		}
+
+	}
+
+	static void produce(ModifiableTracingInferenceSet<ClassInference> inferences,
+			IndexedClass[] classes) {
+		for (IndexedClass c : classes) {
+			inferences.produce(new ContextInitializationNoPremises(c));
+			inferences.produce(new SubClassInclusionTautology(c));
+		}
+	}
+
+	@Benchmark
+	@Threads(THREAD_COUNT)
+	public int produceAndRemove(SharedInferences shared,
+			ThreadClasses local) {
+		produce(shared.inferences, local.classes);
+		int removed = 0;
+		for (IndexedClass c : local.classes) {
+			if (shared.inferences.removeInferences(
+					new ContextInitializationNoPremises(c).getConclusion())) {
+				removed++;
+			}
+			if (shared.inferences.removeInferences(
+					new SubClassInclusionTautology(c).getConclusion())) {
+				removed++;
+			}
+		}
+		return removed;
+	}
+
+	@Benchmark
+	@Threads(THREAD_COUNT)
+	public int get(SharedInferences shared, ThreadClasses local) {
+		int result = 0;
+		for (IndexedClass c : local.classes) {
+			result += shared.inferences
+					.getInferences(new SubClassInclusionTautology(c)
+							.getConclusion())
+					.size();
+		}
+		return result;
+	}
+
+}
@@ -22,6 +22,7 @@
  */
 package org.semanticweb.elk.owlapi;
 
+import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
@@ -29,6 +30,7 @@ import java.util.Set;
 
 import org.semanticweb.elk.loading.AbstractAxiomLoader;
 import org.semanticweb.elk.loading.AxiomLoader;
+import org.semanticweb.elk.loading.ChangeCoalescer;
 import org.semanticweb.elk.loading.ElkLoadingException;
 import org.semanticweb.elk.owl.visitors.ElkAxiomProcessor;
 import org.semanticweb.elk.owlapi.wrapper.OwlConverter;
@@ -43,7 +45,10 @@ import org.slf4j.LoggerFactory;
 
 /**
  * An {@link AxiomLoader} that accumulates the {@link OWLOntologyChange} and
- * provides them by converting through {@link OwlConverter}.
+ * provides them by converting through {@link OwlConverter}. Only the net
+ * effect of the accumulated changes is provided: the changes that add and
+ * remove the same axiom cancel each other, and the remaining changes are
+ * grouped by the type of the axiom.
  * <p>
  * One instance of this class may be registered with the reasoner only
  * <strong>once</strong>!
@@ -59,23 +64,54 @@ class OwlChangesLoaderFactory implements AxiomLoader.Factory {
 
 	private final ProgressMonitor progressMonitor;
 
-	/** list to accumulate the unprocessed changes to the ontology */
-	private final LinkedList<OWLOntologyChange> pendingChanges_;
+	/** accumulates the unprocessed changes to the ontology */
+	private final ChangeCoalescer<OWLAxiom, OWLOntologyChange> pendingChanges_;
+
+	/**
+	 * the net changes that are currently being loaded; if loading is
+	 * interrupted, the remaining changes are loaded next time
+	 */
+	private final LinkedList<OWLOntologyChange> loadingChanges_;
+
+	/**
+	 * the first registered change that is not an axiom change; it cannot be
+	 * loaded
+	 */
+	private OWLOntologyChange unsupportedChange_ = null;
 
 	private Loader loader_ = null;
 
 	OwlChangesLoaderFactory(final ProgressMonitor progressMonitor) {
 		this.progressMonitor = progressMonitor;
-		this.pendingChanges_ = new LinkedList<OWLOntologyChange>();
+		this.pendingChanges_ = new ChangeCoalescer<OWLAxiom, OWLOntologyChange>() {
+			@Override
+			protected Object getGroup(OWLAxiom key) {
+				return key.getAxiomType();
+			}
+		};
+		this.loadingChanges_ = new LinkedList<OWLOntologyChange>();
 	}
 
 	private synchronized void load(final InterruptMonitor interrupter,
 			final ElkAxiomProcessor axiomInserter,
 			final ElkAxiomProcessor axiomDeleter) throws ElkLoadingException {
-		if (!pendingChanges_.isEmpty()) {
+		if (unsupportedChange_ != null) {
+			unsupportedChange_ = null;
+			ElkLoadingException exception = new ElkLoadingException(
+					"Cannot apply non-axiom change!");
+			LOGGER_.error(exception.getMessage(), exception);
+			throw exception;
+		}
+		if (loadingChanges_.isEmpty() && !pendingChanges_.isEmpty()) {
+			LOGGER_.debug("{} changes registered, {} collapsed",
+					pendingChanges_.getRegisteredChangesCount(),
+					pendingChanges_.getCollapsedChangesCount());
+			loadingChanges_.addAll(pendingChanges_.pollNetChanges());
+		}
+		if (!loadingChanges_.isEmpty()) {
 			String status = "Loading of Changes";
 			progressMonitor.start(status);
-			int changesCount = pendingChanges_.size();
+			int changesCount = loadingChanges_.size();
 			
 			LOGGER_.trace("{}: {}", status, changesCount);
 			
@@ -83,15 +119,9 @@ class OwlChangesLoaderFactory implements AxiomLoader.Factory {
 			for (;;) {
 				if (interrupter.isInterrupted())
 					break;
-				OWLOntologyChange change = pendingChanges_.poll();
+				OWLOntologyChange change = loadingChanges_.poll();
 				if (change == null)
 					break;
-				if (!change.isAxiomChange()) {
-					ElkLoadingException exception = new ElkLoadingException(
-							"Cannot apply non-axiom change!");
-					LOGGER_.error(exception.getMessage(), exception);
-					throw exception;
-				}
 
 				OwlOntologyChangeProcessorVisitor loader = new OwlOntologyChangeProcessorVisitor(
 						axiomInserter, axiomDeleter);
@@ -112,18 +142,27 @@ class OwlChangesLoaderFactory implements AxiomLoader.Factory {
 	}
 
 	synchronized boolean isLoadingFinished() {
-		return pendingChanges_.isEmpty();
+		return loadingChanges_.isEmpty() && pendingChanges_.isEmpty()
+				&& unsupportedChange_ == null;
 	}
 
 	synchronized void registerChange(OWLOntologyChange change) {
 		LOGGER_.trace("Registering change: {}", change);
 
-		pendingChanges_.add(change);
+		if (!change.isAxiomChange()) {
+			if (unsupportedChange_ == null) {
+				unsupportedChange_ = change;
+			}
+			return;
+		}
+		pendingChanges_.register(change.getAxiom(), change,
+				change instanceof AddAxiom);
 	}
 
-	Set<OWLAxiom> getPendingAxiomAdditions() {
-		Set<OWLAxiom> added = new HashSet<OWLAxiom>();
-		for (OWLOntologyChange change : pendingChanges_) {
+	synchronized Set<OWLAxiom> getPendingAxiomAdditions() {
+		Set<OWLAxiom> added = new HashSet<OWLAxiom>(
+				pendingChanges_.getNetAdditionKeys());
+		for (OWLOntologyChange change : loadingChanges_) {
 			if (change instanceof AddAxiom) {
 				added.add(change.getAxiom());
 			}
@@ -131,9 +170,10 @@ class OwlChangesLoaderFactory implements AxiomLoader.Factory {
 		return added;
 	}
 
-	Set<OWLAxiom> getPendingAxiomRemovals() {
-		Set<OWLAxiom> removed = new HashSet<OWLAxiom>();
-		for (OWLOntologyChange change : pendingChanges_) {
+	synchronized Set<OWLAxiom> getPendingAxiomRemovals() {
+		Set<OWLAxiom> removed = new HashSet<OWLAxiom>(
+				pendingChanges_.getNetRemovalKeys());
+		for (OWLOntologyChange change : loadingChanges_) {
 			if (change instanceof RemoveAxiom) {
 				removed.add(change.getAxiom());
 			}
@@ -141,8 +181,26 @@ class OwlChangesLoaderFactory implements AxiomLoader.Factory {
 		return removed;
 	}
 
-	List<OWLOntologyChange> getPendingChanges() {
-		return pendingChanges_;
+	synchronized List<OWLOntologyChange> getPendingChanges() {
+		List<OWLOntologyChange> result = new ArrayList<OWLOntologyChange>(
+				loadingChanges_);
+		result.addAll(pendingChanges_.getNetChanges());
+		return result;
+	}
+
+	/**
+	 * @return the number of changes registered so far
+	 */
+	synchronized long getRegisteredChangesCount() {
+		return pendingChanges_.getRegisteredChangesCount();
+	}
+
+	/**
+	 * @return the number of registered changes that cancelled each other and
+	 *         therefore were not loaded
+	 */
+	synchronized long getCollapsedChangesCount() {
+		return pendingChanges_.getCollapsedChangesCount();
 	}
 
 	private class Loader extends AbstractAxiomLoader {
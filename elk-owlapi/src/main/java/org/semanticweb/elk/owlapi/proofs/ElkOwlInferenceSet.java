@@ -28,19 +28,14 @@ import org.liveontologies.puli.GenericDynamicInferenceSet;
 import org.liveontologies.puli.InferenceSets;
 import org.semanticweb.elk.exceptions.ElkException;
 import org.semanticweb.elk.exceptions.ElkRuntimeException;
-import org.semanticweb.elk.owl.inferences.ElkInference;
 import org.semanticweb.elk.owl.inferences.ElkInferenceOptimizedProducingFactory;
 import org.semanticweb.elk.owl.inferences.ElkInferenceProducer;
-import org.semanticweb.elk.owl.inferences.ElkProofGenerator;
+import org.semanticweb.elk.owl.inferences.LazyElkProofGenerator;
 import org.semanticweb.elk.owl.interfaces.ElkAxiom;
 import org.semanticweb.elk.owlapi.ElkConverter;
 import org.semanticweb.elk.owlapi.ElkReasoner;
 import org.semanticweb.elk.owlapi.wrapper.OwlConverter;
-import org.semanticweb.elk.reasoner.entailments.model.EntailmentInferenceSet;
-import org.semanticweb.elk.reasoner.query.EntailmentQueryResult;
-import org.semanticweb.elk.reasoner.query.ProperEntailmentQueryResult;
-import org.semanticweb.elk.reasoner.query.UnsupportedIndexingEntailmentQueryResult;
-import org.semanticweb.elk.reasoner.query.UnsupportedQueryTypeEntailmentQueryResult;
+import org.semanticweb.elk.reasoner.Reasoner;
 import org.semanticweb.owlapi.model.OWLAxiom;
 import org.semanticweb.owlapi.reasoner.UnsupportedEntailmentTypeException;
 
@@ -58,6 +53,12 @@ public class ElkOwlInferenceSet
 	 */
 	private boolean inSync_ = false;
 
+	/**
+	 * generates the inferences of this set on demand; recreated when the
+	 * inferences are not in sync
+	 */
+	private LazyElkProofGenerator generator_ = null;
+
 	/**
 	 * use {@link #create(ElkReasoner, OWLAxiom)}
 	 * 
@@ -74,6 +75,7 @@ public class ElkOwlInferenceSet
 	public synchronized Collection<? extends ElkOwlInference> getInferences(
 			OWLAxiom conclusion) {
 		ensureSync();
+		expand(conclusion);
 		return super.getInferences(conclusion);
 	}
 
@@ -100,12 +102,18 @@ public class ElkOwlInferenceSet
 	private void generate() {
 		final OwlConverter owlConverter = OwlConverter.getInstance();
 		final ElkConverter elkConverter = ElkConverter.getInstance();
+		final Reasoner reasoner = elkReasoner_.getInternalReasoner();
+		final ElkInferenceProducer producer = new ElkInferenceConvertingProducer(
+				ElkOwlInferenceSet.this);
+		generator_ = new LazyElkProofGenerator(reasoner,
+				reasoner.getElkFactory(),
+				new ElkInferenceOptimizedProducingFactory(producer));
 		try {
 
 			final ElkAxiom elkAxiom = owlConverter.convert(owlEntailment_);
-			final EntailmentQueryResult result = elkReasoner_
-					.getInternalReasoner().isEntailed(elkAxiom);
-			result.accept(ENTAILMENT_QUERY_RESULT_VISITOR);
+			if (!generator_.generate(elkAxiom)) {
+				throw new UnsupportedEntailmentTypeException(owlEntailment_);
+			}
 
 		} catch (final ElkException e) {
 			throw elkConverter.convert(e);
@@ -115,45 +123,32 @@ public class ElkOwlInferenceSet
 
 	}
 
-	private final EntailmentQueryResult.Visitor<Void, ElkException> ENTAILMENT_QUERY_RESULT_VISITOR = new EntailmentQueryResult.Visitor<Void, ElkException>() {
-
-		@Override
-		public Void visit(final ProperEntailmentQueryResult properResult)
-				throws ElkException {
-			try {
-				final ElkInferenceProducer producer = new ElkInferenceConvertingProducer(
-						ElkOwlInferenceSet.this);
-				final ElkInference.Factory factory = new ElkInferenceOptimizedProducingFactory(
-						producer);
-				final EntailmentInferenceSet evidence = properResult
-						.getEvidence(false);
-				new ElkProofGenerator(evidence,
-						elkReasoner_.getInternalReasoner(), factory)
-								.generate(properResult.getEntailment());
-				return null;
-			} finally {
-				properResult.unlock();
-			}
+	/**
+	 * Generates the inferences for the given conclusion if they were deferred
+	 * when generating the inferences in which it is a premise
+	 * 
+	 * @param conclusion
+	 */
+	private void expand(final OWLAxiom conclusion) {
+		if (!generator_.hasDeferred()) {
+			return;
 		}
+		// else
+		final OwlConverter owlConverter = OwlConverter.getInstance();
+		final ElkConverter elkConverter = ElkConverter.getInstance();
+		try {
 
-		@Override
-		public Void visit(
-				final UnsupportedIndexingEntailmentQueryResult unsupportedIndexing) {
-			/*
-			 * Indexing of some subexpression of the entailment is not
-			 * supported, so we can generate only empty proof. The warning
-			 * should be logged during loading of the entailment query.
-			 */
-			return null;
-		}
+			final ElkAxiom elkAxiom = owlConverter.convert(conclusion);
+			if (generator_.isDeferred(elkAxiom)) {
+				generator_.generate(elkAxiom);
+			}
 
-		@Override
-		public Void visit(
-				final UnsupportedQueryTypeEntailmentQueryResult unsupportedQueryType) {
-			throw new UnsupportedEntailmentTypeException(owlEntailment_);
+		} catch (final ElkException e) {
+			throw elkConverter.convert(e);
+		} catch (final ElkRuntimeException e) {
+			throw elkConverter.convert(e);
 		}
-
-	};
+	}
 
 	public static GenericDynamicInferenceSet<OWLAxiom, ElkOwlInference> create(
 			ElkReasoner reasoner, OWLAxiom entailment)
@@ -28,10 +28,23 @@ import java.util.Map;
 
 import org.semanticweb.elk.matching.conclusions.ConclusionMatch;
 import org.semanticweb.elk.matching.conclusions.ConclusionMatchExpressionDelegatingFactory;
+import org.semanticweb.elk.matching.root.IndexedContextRootMatch;
+import org.semanticweb.elk.matching.subsumers.SubsumerMatch;
 import org.semanticweb.elk.owl.interfaces.ElkObject;
+import org.semanticweb.elk.reasoner.tracing.Conclusion;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+/**
+ * A {@link ConclusionMatchExpressionDelegatingFactory} that keeps only one
+ * instance of every created {@link ConclusionMatch}, {@link Conclusion},
+ * {@link IndexedContextRootMatch} and {@link SubsumerMatch} and returns this
+ * instance when an equal object is created again. Since the parents and the
+ * arguments of the created objects are also shared, the structural equality
+ * checks between them are mostly resolved by the reference comparison of
+ * their components. The new
+ * {@link ConclusionMatch}es are collected and passed to the given visitor.
+ */
 class ConclusionMatchExpressionRecycleFactory
 		extends ConclusionMatchExpressionDelegatingFactory {
 
@@ -40,6 +53,12 @@ class ConclusionMatchExpressionRecycleFactory
 
 	private final Map<Object, Object> cache_ = new HashMap<Object, Object>();
 
+	private final Map<Conclusion, Conclusion> conclusionCache_ = new HashMap<Conclusion, Conclusion>();
+
+	private final Map<IndexedContextRootMatch, IndexedContextRootMatch> rootMatchCache_ = new HashMap<IndexedContextRootMatch, IndexedContextRootMatch>();
+
+	private final Map<SubsumerMatch, SubsumerMatch> subsumerMatchCache_ = new HashMap<SubsumerMatch, SubsumerMatch>();
+
 	private final ConclusionMatch.Visitor<?> newMatchVisitor_;
 
 	private final Collection<ConclusionMatch> newConclusions_;
@@ -68,4 +87,30 @@ class ConclusionMatchExpressionRecycleFactory
 		return candidate;
 	}
 
+	@Override
+	protected <C extends Conclusion> C filter(C candidate) {
+		return intern(conclusionCache_, candidate);
+	}
+
+	@Override
+	protected <C extends IndexedContextRootMatch> C filter(C candidate) {
+		return intern(rootMatchCache_, candidate);
+	}
+
+	@Override
+	protected <C extends SubsumerMatch> C filter(C candidate) {
+		return intern(subsumerMatchCache_, candidate);
+	}
+
+	private static <T, C extends T> C intern(Map<T, T> cache, C candidate) {
+		@SuppressWarnings("unchecked")
+		C previous = (C) cache.get(candidate);
+		if (previous != null) {
+			return previous;
+		}
+		// else
+		cache.put(candidate, candidate);
+		return candidate;
+	}
+
 }
@@ -55,7 +55,7 @@ public class ConclusionMatchEquality
 		}
 
 		static boolean equals(Object first, Object second) {
-			return first.equals(second);
+			return first == second || first.equals(second);
 		}
 
 		@Override
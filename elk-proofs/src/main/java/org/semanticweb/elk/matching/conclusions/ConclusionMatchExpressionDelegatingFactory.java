@@ -31,6 +31,7 @@ import org.semanticweb.elk.matching.root.IndexedContextRootMatchBaseFactory;
 import org.semanticweb.elk.matching.root.IndexedContextRootMatchChain;
 import org.semanticweb.elk.matching.subsumers.IndexedObjectSomeValuesFromMatch;
 import org.semanticweb.elk.matching.subsumers.SubsumerMatch;
+import org.semanticweb.elk.matching.subsumers.SubsumerMatches;
 import org.semanticweb.elk.owl.implementation.ElkObjectBaseFactory;
 import org.semanticweb.elk.owl.interfaces.ElkAxiom;
 import org.semanticweb.elk.owl.interfaces.ElkClassExpression;
@@ -116,6 +117,12 @@ public class ConclusionMatchExpressionDelegatingFactory extends
 		return candidate;
 	}
 
+	@SuppressWarnings("static-method")
+	protected <C extends SubsumerMatch> C filter(C candidate) {
+		// could be overridden in sub-classes
+		return candidate;
+	}
+
 	@Override
 	public BackwardLink getBackwardLink(IndexedContextRoot destination,
 			IndexedObjectProperty relation, IndexedContextRoot source) {
@@ -434,9 +441,8 @@ public class ConclusionMatchExpressionDelegatingFactory extends
 			SubClassInclusionComposed parent,
 			IndexedContextRootMatch destinationMatch,
 			ElkClassExpression subsumerMatchValue) {
-		return filter(
-				conclusionMatchFactory_.getSubClassInclusionComposedMatch1(
-						parent, destinationMatch, subsumerMatchValue));
+		return getSubClassInclusionComposedMatch1(parent, destinationMatch,
+				filter(SubsumerMatches.create(subsumerMatchValue)));
 	}
 
 	@Override
@@ -444,9 +450,8 @@ public class ConclusionMatchExpressionDelegatingFactory extends
 			SubClassInclusionComposed parent,
 			IndexedContextRootMatch destinationMatch,
 			ElkIndividual subsumerMatchValue) {
-		return filter(
-				conclusionMatchFactory_.getSubClassInclusionComposedMatch1(
-						parent, destinationMatch, subsumerMatchValue));
+		return getSubClassInclusionComposedMatch1(parent, destinationMatch,
+				filter(SubsumerMatches.create(subsumerMatchValue)));
 	}
 
 	@Override
@@ -455,9 +460,9 @@ public class ConclusionMatchExpressionDelegatingFactory extends
 			IndexedContextRootMatch destinationMatch,
 			ElkObjectIntersectionOf fullSubsumerMatch,
 			int subsumerPrefixLength) {
-		return filter(conclusionMatchFactory_
-				.getSubClassInclusionComposedMatch1(parent, destinationMatch,
-						fullSubsumerMatch, subsumerPrefixLength));
+		return getSubClassInclusionComposedMatch1(parent, destinationMatch,
+				filter(SubsumerMatches.create(fullSubsumerMatch,
+						subsumerPrefixLength)));
 	}
 
 	@Override
@@ -500,9 +505,9 @@ public class ConclusionMatchExpressionDelegatingFactory extends
 			SubClassInclusionDecomposedMatch1 parent,
 			IndexedContextRootMatch extendedDestinationMatch,
 			ElkClassExpression subsumerMatch) {
-		return filter(
-				conclusionMatchFactory_.getSubClassInclusionDecomposedMatch2(
-						parent, extendedDestinationMatch, subsumerMatch));
+		return getSubClassInclusionDecomposedMatch2(parent,
+				extendedDestinationMatch,
+				filter(SubsumerMatches.create(subsumerMatch)));
 	}
 
 	@Override
@@ -510,9 +515,9 @@ public class ConclusionMatchExpressionDelegatingFactory extends
 			SubClassInclusionDecomposedMatch1 parent,
 			IndexedContextRootMatch extendedDestinationMatch,
 			ElkIndividual subsumerMatchValue) {
-		return filter(
-				conclusionMatchFactory_.getSubClassInclusionDecomposedMatch2(
-						parent, extendedDestinationMatch, subsumerMatchValue));
+		return getSubClassInclusionDecomposedMatch2(parent,
+				extendedDestinationMatch,
+				filter(SubsumerMatches.create(subsumerMatchValue)));
 	}
 
 	@Override
@@ -521,10 +526,10 @@ public class ConclusionMatchExpressionDelegatingFactory extends
 			IndexedContextRootMatch extendedDestinationMatch,
 			ElkObjectIntersectionOf subsumerFullConjunctionMatch,
 			int subsumerConjunctionPrefixLength) {
-		return filter(conclusionMatchFactory_
-				.getSubClassInclusionDecomposedMatch2(parent,
-						extendedDestinationMatch, subsumerFullConjunctionMatch,
-						subsumerConjunctionPrefixLength));
+		return getSubClassInclusionDecomposedMatch2(parent,
+				extendedDestinationMatch,
+				filter(SubsumerMatches.create(subsumerFullConjunctionMatch,
+						subsumerConjunctionPrefixLength)));
 	}
 
 	@Override
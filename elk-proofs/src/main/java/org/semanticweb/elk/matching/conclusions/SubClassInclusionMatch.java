@@ -85,13 +85,8 @@ public abstract class SubClassInclusionMatch<P>
 			ElkObjectIntersectionOf subsumerMatchFullValue,
 			int subsumerMatchPrefixLength) {
 		super(parent);
-		if (subsumerMatchPrefixLength == 1) {
-			this.subsumerMatch_ = SubsumerMatches.create(
-					subsumerMatchFullValue.getClassExpressions().get(0));
-		} else {
-			this.subsumerMatch_ = SubsumerMatches.create(subsumerMatchFullValue,
-					subsumerMatchPrefixLength);
-		}
+		this.subsumerMatch_ = SubsumerMatches.create(subsumerMatchFullValue,
+				subsumerMatchPrefixLength);
 	}
 
 	SubClassInclusionMatch(P parent, SubsumerMatch subsumerMatch) {
@@ -34,7 +34,7 @@ public class IndexedContextRootMatchEquality
 		}
 
 		boolean equals(Object first, Object second) {
-			return first.equals(second);
+			return first == second || first.equals(second);
 		}
 
 	}
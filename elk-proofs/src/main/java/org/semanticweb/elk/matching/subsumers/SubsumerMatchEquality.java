@@ -43,7 +43,7 @@ public class SubsumerMatchEquality extends SubsumerMatchDummyVisitor<Boolean> {
 		}
 
 		static boolean equals(Object first, Object second) {
-			return first.equals(second);
+			return first == second || first.equals(second);
 		}
 
 		static boolean equals(int first, int second) {
@@ -33,6 +33,10 @@ public class SubsumerMatches {
 
 	public static SubsumerMatch create(final ElkObjectIntersectionOf fullMatch,
 			int prefixLength) {
+		if (prefixLength == 1) {
+			return create(fullMatch.getClassExpressions().get(0));
+		}
+		// else
 		return new IndexedObjectIntersectionOfMatch(fullMatch, prefixLength);
 	}
 
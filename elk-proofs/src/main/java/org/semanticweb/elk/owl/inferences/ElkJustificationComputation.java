@@ -0,0 +1,615 @@
+/*
+ * #%L
+ * ELK Proofs Package
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2011 - 2016 Department of Computer Science, University of Oxford
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.semanticweb.elk.owl.inferences;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+import org.liveontologies.puli.Inference;
+import org.liveontologies.puli.InferenceSet;
+import org.semanticweb.elk.owl.interfaces.ElkAxiom;
+import org.semanticweb.elk.util.concurrent.computation.ConcurrentExecutor;
+
+/**
+ * Computes justifications, i.e., minimal subsets of the ontology axioms from
+ * which an {@link ElkAxiom} is derivable, using the inferences of an
+ * {@link InferenceSet}, e.g., of {@link ReasonerElkInferenceSet}. The axioms of
+ * the ontology are the conclusions of {@link ElkToldAxiom}s.
+ * <p>
+ * The justifications of a conclusion are obtained by resolving its
+ * inferences: for every inference, the justifications of its premises are
+ * combined in all possible ways and only the minimal results are kept. To
+ * deal with cyclic proofs, the conclusions reachable from the goal are first
+ * partitioned into strongly connected components, for which the
+ * justifications are computed by a fixpoint iteration once the justifications
+ * of the components they depend on are known. The components that do not
+ * depend on each other are processed in parallel by the workers of a
+ * {@link ConcurrentExecutor}: a component is processed as soon as all
+ * components it depends on are processed.
+ * The justifications computed for the conclusions are remembered and reused
+ * for subsequent goals.
+ * 
+ * @see Result
+ */
+public class ElkJustificationComputation {
+
+	/**
+	 * the value of the maximal number of justifications or of the timeout
+	 * meaning that there is no limit
+	 */
+	public static final int NO_LIMIT = 0;
+
+	private static final ElkInference.Visitor<Boolean> TOLD_AXIOM_CHECKER_ = new ElkInferenceDummyVisitor<Boolean>() {
+
+		@Override
+		protected Boolean defaultVisit(final ElkInference inference) {
+			return false;
+		}
+
+		@Override
+		public Boolean visit(final ElkToldAxiom inference) {
+			return true;
+		}
+
+	};
+
+	private static final Comparator<Set<ElkAxiom>> SIZE_COMPARATOR_ = new Comparator<Set<ElkAxiom>>() {
+
+		@Override
+		public int compare(final Set<ElkAxiom> first,
+				final Set<ElkAxiom> second) {
+			return first.size() - second.size();
+		}
+
+	};
+
+	private final InferenceSet<ElkAxiom> inferences_;
+
+	private final ConcurrentExecutor executor_;
+
+	private final int workerNo_;
+
+	/**
+	 * the strongly connected components of the conclusions explored so far
+	 */
+	private final Map<ElkAxiom, Component> components_ = new HashMap<ElkAxiom, Component>();
+
+	/**
+	 * the justifications of the conclusions of completely processed
+	 * components
+	 */
+	private final ConcurrentMap<ElkAxiom, List<Set<ElkAxiom>>> justifications_ = new ConcurrentHashMap<ElkAxiom, List<Set<ElkAxiom>>>();
+
+	/**
+	 * @param inferences
+	 *            the inferences from which the justifications are computed
+	 * @param executor
+	 *            the {@link ConcurrentExecutor} using which the justifications
+	 *            of independent conclusions are computed in parallel
+	 * @param workerNo
+	 *            the number of workers processing the components in parallel
+	 */
+	public ElkJustificationComputation(final InferenceSet<ElkAxiom> inferences,
+			final ConcurrentExecutor executor, final int workerNo) {
+		this.inferences_ = inferences;
+		this.executor_ = executor;
+		this.workerNo_ = Math.max(workerNo, 1);
+	}
+
+	/**
+	 * Computes the justifications of the given goal.
+	 * 
+	 * @param goal
+	 *            the {@link ElkAxiom} to justify
+	 * @param maxCount
+	 *            the maximal number of justifications to return, the smallest
+	 *            justifications are returned first; {@link #NO_LIMIT} if all
+	 *            justifications should be returned
+	 * @param timeoutMillis
+	 *            the time in milliseconds after which the computation is
+	 *            aborted; {@link #NO_LIMIT} if the computation should run
+	 *            until completion
+	 * @return the justifications of the goal; the result is not complete if
+	 *         some justifications were dropped because of the limits
+	 * @throws InterruptedException
+	 *             if the calling thread is interrupted while waiting for the
+	 *             workers
+	 */
+	public synchronized Result compute(final ElkAxiom goal, final int maxCount,
+			final long timeoutMillis) throws InterruptedException {
+		final Run run = new Run(timeoutMillis);
+		List<Set<ElkAxiom>> justifications = justifications_.get(goal);
+		if (justifications == null) {
+			final Component component = decompose(goal, run);
+			if (component == null) {
+				return new Result(Collections.<Set<ElkAxiom>> emptyList(),
+						false);
+			}
+			run.schedule(component);
+			executor_.submit(new ComponentWorker(run), workerNo_).waitDone();
+			if (run.failure != null) {
+				throw run.failure;
+			}
+			if (run.aborted) {
+				return new Result(Collections.<Set<ElkAxiom>> emptyList(),
+						false);
+			}
+			justifications = justifications_.get(goal);
+		}
+		if (maxCount == NO_LIMIT || justifications.size() <= maxCount) {
+			return new Result(justifications, true);
+		}
+		// else
+		final List<Set<ElkAxiom>> smallest = new ArrayList<Set<ElkAxiom>>(
+				justifications);
+		Collections.sort(smallest, SIZE_COMPARATOR_);
+		return new Result(smallest.subList(0, maxCount), false);
+	}
+
+	/**
+	 * Partitions the conclusions reachable from the goal that do not belong to
+	 * a component yet into strongly connected components using (a non
+	 * recursive version of) Tarjan's algorithm.
+	 * 
+	 * @return the component of the goal or {@code null} if the computation
+	 *         expired
+	 */
+	private Component decompose(final ElkAxiom goal, final Run run) {
+		final Component known = components_.get(goal);
+		if (known != null) {
+			return known;
+		}
+		// else
+		final Map<ElkAxiom, Integer> indexes = new HashMap<ElkAxiom, Integer>();
+		final Deque<ElkAxiom> stack = new ArrayDeque<ElkAxiom>();
+		final Set<ElkAxiom> onStack = new HashSet<ElkAxiom>();
+		final Map<ElkAxiom, List<Inference<ElkAxiom>>> explored = new HashMap<ElkAxiom, List<Inference<ElkAxiom>>>();
+		final Deque<Frame> frames = new ArrayDeque<Frame>();
+		push(goal, indexes, stack, onStack, explored, frames);
+		while (!frames.isEmpty()) {
+			if (run.isExpired()) {
+				return null;
+			}
+			final Frame frame = frames.peek();
+			if (frame.premises.hasNext()) {
+				final ElkAxiom premise = frame.premises.next();
+				if (components_.containsKey(premise)) {
+					continue;
+				}
+				final Integer index = indexes.get(premise);
+				if (index == null) {
+					push(premise, indexes, stack, onStack, explored, frames);
+				} else if (onStack.contains(premise)) {
+					frame.lowlink = Math.min(frame.lowlink, index);
+				}
+				continue;
+			}
+			// else all premises are explored
+			frames.pop();
+			if (frame.lowlink == frame.index) {
+				final Component component = new Component();
+				ElkAxiom member;
+				do {
+					member = stack.pop();
+					onStack.remove(member);
+					component.inferences.put(member, explored.remove(member));
+					components_.put(member, component);
+				} while (member != frame.conclusion);
+				for (final List<Inference<ElkAxiom>> inferences : component.inferences
+						.values()) {
+					for (final Inference<ElkAxiom> inference : inferences) {
+						for (final ElkAxiom premise : inference
+								.getPremises()) {
+							final Component dependency = components_
+									.get(premise);
+							if (dependency != component) {
+								component.dependencies.add(dependency);
+							}
+						}
+					}
+				}
+			}
+			if (!frames.isEmpty()) {
+				final Frame parent = frames.peek();
+				parent.lowlink = Math.min(parent.lowlink, frame.lowlink);
+			}
+		}
+		return components_.get(goal);
+	}
+
+	private void push(final ElkAxiom conclusion,
+			final Map<ElkAxiom, Integer> indexes, final Deque<ElkAxiom> stack,
+			final Set<ElkAxiom> onStack,
+			final Map<ElkAxiom, List<Inference<ElkAxiom>>> explored,
+			final Deque<Frame> frames) {
+		final int index = indexes.size();
+		indexes.put(conclusion, index);
+		stack.push(conclusion);
+		onStack.add(conclusion);
+		final List<Inference<ElkAxiom>> inferences = new ArrayList<Inference<ElkAxiom>>(
+				inferences_.getInferences(conclusion));
+		explored.put(conclusion, inferences);
+		final List<ElkAxiom> premises = new ArrayList<ElkAxiom>();
+		for (final Inference<ElkAxiom> inference : inferences) {
+			premises.addAll(inference.getPremises());
+		}
+		frames.push(new Frame(conclusion, index, premises.iterator()));
+	}
+
+	/**
+	 * Adds the given set to the given collection of sets unless the
+	 * collection contains a subset of it; the supersets of the given set are
+	 * removed from the collection.
+	 * 
+	 * @return {@code true} if the collection has changed
+	 */
+	static boolean addMinimal(final Collection<Set<ElkAxiom>> minimal,
+			final Set<ElkAxiom> candidate) {
+		for (final Set<ElkAxiom> set : minimal) {
+			if (candidate.containsAll(set)) {
+				return false;
+			}
+		}
+		final Iterator<Set<ElkAxiom>> iterator = minimal.iterator();
+		while (iterator.hasNext()) {
+			if (iterator.next().containsAll(candidate)) {
+				iterator.remove();
+			}
+		}
+		minimal.add(candidate);
+		return true;
+	}
+
+	static boolean isToldAxiom(final Inference<ElkAxiom> inference) {
+		return inference instanceof ElkInference && ((ElkInference) inference)
+				.accept(TOLD_AXIOM_CHECKER_);
+	}
+
+	/**
+	 * The justifications of a goal possibly restricted by the limits of the
+	 * computation.
+	 */
+	public static class Result {
+
+		private final List<Set<ElkAxiom>> justifications_;
+
+		private final boolean isComplete_;
+
+		Result(final List<Set<ElkAxiom>> justifications,
+				final boolean isComplete) {
+			this.justifications_ = Collections
+					.unmodifiableList(justifications);
+			this.isComplete_ = isComplete;
+		}
+
+		/**
+		 * @return the computed justifications; every returned set is a
+		 *         justification, but not all justifications may be returned
+		 *         if the result is not complete
+		 */
+		public List<Set<ElkAxiom>> getJustifications() {
+			return justifications_;
+		}
+
+		/**
+		 * @return {@code true} if all justifications were returned and
+		 *         {@code false} if the computation was aborted because of a
+		 *         limit on the number of justifications or on time
+		 */
+		public boolean isComplete() {
+			return isComplete_;
+		}
+
+		@Override
+		public String toString() {
+			return (isComplete_ ? "" : "incomplete ") + justifications_;
+		}
+
+	}
+
+	/**
+	 * A strongly connected component of the conclusions reachable over the
+	 * inferences together with the inferences of its members.
+	 */
+	private static class Component {
+
+		final Map<ElkAxiom, List<Inference<ElkAxiom>>> inferences = new HashMap<ElkAxiom, List<Inference<ElkAxiom>>>();
+
+		final Set<Component> dependencies = new HashSet<Component>();
+
+	}
+
+	private static class Frame {
+
+		final ElkAxiom conclusion;
+
+		final int index;
+
+		final Iterator<ElkAxiom> premises;
+
+		int lowlink;
+
+		Frame(final ElkAxiom conclusion, final int index,
+				final Iterator<ElkAxiom> premises) {
+			this.conclusion = conclusion;
+			this.index = index;
+			this.premises = premises;
+			this.lowlink = index;
+		}
+
+	}
+
+	/**
+	 * The state of a single call of {@link #compute(ElkAxiom, int, long)}:
+	 * the components that remain to be processed and the number of their
+	 * dependencies that are not processed yet
+	 */
+	private class Run {
+
+		private final Map<Component, Integer> pendingDependencies_ = new HashMap<Component, Integer>();
+
+		private final Map<Component, List<Component>> dependants_ = new HashMap<Component, List<Component>>();
+
+		/**
+		 * the components whose dependencies are all processed
+		 */
+		private final Deque<Component> ready_ = new ArrayDeque<Component>();
+
+		private int remaining_ = 0;
+
+		/**
+		 * {@code true} if the processing should stop before all components
+		 * are processed
+		 */
+		volatile boolean aborted = false;
+
+		/**
+		 * an unexpected exception thrown by a worker
+		 */
+		volatile RuntimeException failure = null;
+
+		private final long deadline_;
+
+		private final boolean hasDeadline_;
+
+		Run(final long timeoutMillis) {
+			this.hasDeadline_ = timeoutMillis != NO_LIMIT;
+			this.deadline_ = System.nanoTime()
+					+ TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+		}
+
+		/**
+		 * Registers the given component and the components it depends on,
+		 * which are not processed yet, for processing
+		 */
+		void schedule(final Component goal) {
+			final Deque<Component> todo = new ArrayDeque<Component>();
+			todo.add(goal);
+			pendingDependencies_.put(goal, 0);
+			while (!todo.isEmpty()) {
+				final Component component = todo.poll();
+				int pending = 0;
+				for (final Component dependency : component.dependencies) {
+					if (isComputed(dependency)) {
+						continue;
+					}
+					pending++;
+					List<Component> dependants = dependants_.get(dependency);
+					if (dependants == null) {
+						dependants = new ArrayList<Component>();
+						dependants_.put(dependency, dependants);
+						pendingDependencies_.put(dependency, 0);
+						todo.add(dependency);
+					}
+					dependants.add(component);
+				}
+				pendingDependencies_.put(component, pending);
+				if (pending == 0) {
+					ready_.add(component);
+				}
+			}
+			remaining_ = pendingDependencies_.size();
+		}
+
+		/**
+		 * @return the next component to be processed, waiting until one is
+		 *         ready, or {@code null} if there are no components left
+		 * @throws InterruptedException
+		 */
+		synchronized Component next() throws InterruptedException {
+			while (ready_.isEmpty() && remaining_ > 0 && !aborted) {
+				wait();
+			}
+			if (aborted) {
+				return null;
+			}
+			// else
+			return ready_.poll();
+		}
+
+		/**
+		 * Records that the given component is processed, so that the
+		 * components depending only on processed components become ready
+		 */
+		synchronized void done(final Component component) {
+			remaining_--;
+			final List<Component> dependants = dependants_.get(component);
+			if (dependants != null) {
+				for (final Component dependant : dependants) {
+					final int pending = pendingDependencies_.get(dependant)
+							- 1;
+					pendingDependencies_.put(dependant, pending);
+					if (pending == 0) {
+						ready_.add(dependant);
+					}
+				}
+			}
+			notifyAll();
+		}
+
+		synchronized void abort() {
+			aborted = true;
+			notifyAll();
+		}
+
+		boolean isExpired() {
+			return hasDeadline_ && System.nanoTime() - deadline_ > 0;
+		}
+
+		void checkExpired() {
+			if (isExpired()) {
+				throw new ExpiredException();
+			}
+		}
+
+	}
+
+	private static class ExpiredException extends RuntimeException {
+
+		private static final long serialVersionUID = -1651520419474473383L;
+
+	}
+
+	private boolean isComputed(final Component component) {
+		return justifications_
+				.containsKey(component.inferences.keySet().iterator().next());
+	}
+
+	/**
+	 * Repeatedly takes a component whose dependencies are processed and
+	 * computes the justifications of its members
+	 */
+	private class ComponentWorker implements Runnable {
+
+		private final Run run_;
+
+		ComponentWorker(final Run run) {
+			this.run_ = run;
+		}
+
+		@Override
+		public void run() {
+			try {
+				for (;;) {
+					final Component component = run_.next();
+					if (component == null) {
+						return;
+					}
+					process(component);
+					run_.done(component);
+				}
+			} catch (final InterruptedException e) {
+				run_.abort();
+				// restore the interrupt status
+				Thread.currentThread().interrupt();
+			} catch (final ExpiredException e) {
+				run_.abort();
+			} catch (final RuntimeException e) {
+				run_.failure = e;
+				run_.abort();
+			}
+		}
+
+		private void process(final Component component) {
+			final Map<ElkAxiom, List<Set<ElkAxiom>>> current = new HashMap<ElkAxiom, List<Set<ElkAxiom>>>();
+			for (final ElkAxiom member : component.inferences.keySet()) {
+				current.put(member, new ArrayList<Set<ElkAxiom>>());
+			}
+			// the least fixpoint over the cyclic inferences of the component
+			boolean changed = true;
+			while (changed) {
+				changed = false;
+				for (final Map.Entry<ElkAxiom, List<Inference<ElkAxiom>>> entry : component.inferences
+						.entrySet()) {
+					final List<Set<ElkAxiom>> justifications = current
+							.get(entry.getKey());
+					for (final Inference<ElkAxiom> inference : entry
+							.getValue()) {
+						for (final Set<ElkAxiom> justification : resolve(
+								entry.getKey(), inference, current)) {
+							changed |= addMinimal(justifications,
+									justification);
+						}
+					}
+				}
+			}
+			for (final Map.Entry<ElkAxiom, List<Set<ElkAxiom>>> entry : current
+					.entrySet()) {
+				justifications_.put(entry.getKey(),
+						Collections.unmodifiableList(entry.getValue()));
+			}
+		}
+
+		/**
+		 * @return the minimal unions of the justifications of the premises of
+		 *         the given inference
+		 */
+		private List<Set<ElkAxiom>> resolve(final ElkAxiom conclusion,
+				final Inference<ElkAxiom> inference,
+				final Map<ElkAxiom, List<Set<ElkAxiom>>> current) {
+			if (isToldAxiom(inference)) {
+				return Collections.singletonList(
+						Collections.<ElkAxiom> singleton(conclusion));
+			}
+			// else
+			List<Set<ElkAxiom>> result = Collections
+					.singletonList(Collections.<ElkAxiom> emptySet());
+			for (final ElkAxiom premise : inference.getPremises()) {
+				List<Set<ElkAxiom>> premiseJustifications = current
+						.get(premise);
+				if (premiseJustifications == null) {
+					premiseJustifications = justifications_.get(premise);
+				}
+				if (premiseJustifications.isEmpty()) {
+					return Collections.emptyList();
+				}
+				final List<Set<ElkAxiom>> next = new ArrayList<Set<ElkAxiom>>();
+				for (final Set<ElkAxiom> first : result) {
+					for (final Set<ElkAxiom> second : premiseJustifications) {
+						run_.checkExpired();
+						final Set<ElkAxiom> union = new HashSet<ElkAxiom>(
+								first);
+						union.addAll(second);
+						addMinimal(next, union);
+					}
+				}
+				result = next;
+			}
+			return result;
+		}
+
+	}
+
+}
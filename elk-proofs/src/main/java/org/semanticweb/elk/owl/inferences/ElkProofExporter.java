@@ -0,0 +1,48 @@
+/*
+ * #%L
+ * ELK Proofs Package
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2011 - 2016 Department of Computer Science, University of Oxford
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.semanticweb.elk.owl.inferences;
+
+import java.io.IOException;
+
+import org.liveontologies.puli.InferenceSet;
+import org.semanticweb.elk.owl.interfaces.ElkAxiom;
+import org.semanticweb.elk.owl.printers.OwlFunctionalStylePrinter;
+import org.semanticweb.elk.reasoner.tracing.ProofExporter;
+
+/**
+ * A {@link ProofExporter} for {@link ElkInference}s, e.g., those of
+ * {@link ReasonerElkInferenceSet}, which writes the conclusions in OWL
+ * functional-style syntax directly to the output.
+ */
+public class ElkProofExporter extends ProofExporter<ElkAxiom> {
+
+	public ElkProofExporter(InferenceSet<ElkAxiom> inferences) {
+		super(inferences);
+	}
+
+	@Override
+	protected void append(ElkAxiom conclusion, Appendable appender)
+			throws IOException {
+		OwlFunctionalStylePrinter.append(appender, conclusion);
+	}
+
+}
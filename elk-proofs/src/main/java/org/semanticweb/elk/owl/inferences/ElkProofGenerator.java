@@ -70,6 +70,8 @@ import org.semanticweb.elk.reasoner.entailments.model.TopObjectPropertyInBottomE
 import org.semanticweb.elk.reasoner.saturation.conclusions.model.ClassInconsistency;
 import org.semanticweb.elk.reasoner.saturation.conclusions.model.SubClassInclusionComposed;
 import org.semanticweb.elk.reasoner.saturation.conclusions.model.SubPropertyChain;
+import org.semanticweb.elk.reasoner.tracing.Conclusion;
+import org.semanticweb.elk.reasoner.tracing.TracingInferenceSet;
 
 public class ElkProofGenerator implements EntailmentInference.Visitor<Void> {
 
@@ -110,6 +112,31 @@ public class ElkProofGenerator implements EntailmentInference.Visitor<Void> {
 		}
 	}
 
+	/**
+	 * Generates the inferences for a premise of some visited
+	 * {@link EntailmentInference}. Subclasses may postpone this until the
+	 * inferences for the premise are requested.
+	 * 
+	 * @param premise
+	 */
+	protected void generatePremise(final Entailment premise) {
+		for (final EntailmentInference inf : evidence_
+				.getInferences(premise)) {
+			inf.accept(this);
+		}
+	}
+
+	/**
+	 * @param conclusion
+	 * @return the traced inferences from which the proof of the given
+	 *         {@link Conclusion} can be reconstructed
+	 * @throws ElkException
+	 */
+	protected TracingInferenceSet explain(final Conclusion conclusion)
+			throws ElkException {
+		return reasoner_.explainConclusion(conclusion);
+	}
+
 	@Override
 	public Void visit(
 			final DerivedClassInclusionEntailsClassAssertionAxiom entailmentInference) {
@@ -123,7 +150,7 @@ public class ElkProofGenerator implements EntailmentInference.Visitor<Void> {
 			final ElkClassExpression type = entailmentInference.getConclusion()
 					.getAxiom().getClassExpression();
 			final Matcher matcher = new Matcher(
-					reasoner_.explainConclusion(conclusion), elkFactory_,
+					explain(conclusion), elkFactory_,
 					inferenceFactory_);
 			matcher.trace(conclusion, nominal, type);
 			inferenceFactory_.getElkClassAssertionOfClassInclusion(instance,
@@ -156,7 +183,7 @@ public class ElkProofGenerator implements EntailmentInference.Visitor<Void> {
 							elkFactory_.getObjectOneOf(object));
 
 			final Matcher matcher = new Matcher(
-					reasoner_.explainConclusion(conclusion), elkFactory_,
+					explain(conclusion), elkFactory_,
 					inferenceFactory_);
 			matcher.trace(conclusion, subClass, superClass);
 
@@ -187,7 +214,7 @@ public class ElkProofGenerator implements EntailmentInference.Visitor<Void> {
 							elkFactory_.getOwlThing());
 
 			final Matcher matcher = new Matcher(
-					reasoner_.explainConclusion(conclusion), elkFactory_,
+					explain(conclusion), elkFactory_,
 					inferenceFactory_);
 			matcher.trace(conclusion, subClass, domain);
 
@@ -211,7 +238,7 @@ public class ElkProofGenerator implements EntailmentInference.Visitor<Void> {
 			final ElkClassExpression superClass = entailmentInference
 					.getConclusion().getAxiom().getSuperClassExpression();
 			final Matcher matcher = new Matcher(
-					reasoner_.explainConclusion(conclusion), elkFactory_,
+					explain(conclusion), elkFactory_,
 					inferenceFactory_);
 			matcher.trace(conclusion, subClass, superClass);
 		} catch (final ElkException e) {
@@ -225,10 +252,7 @@ public class ElkProofGenerator implements EntailmentInference.Visitor<Void> {
 			final EntailedClassInclusionCycleEntailsEquivalentClassesAxiom entailmentInference) {
 		for (final SubClassOfAxiomEntailment premise : entailmentInference
 				.getPremises()) {
-			for (final EntailmentInference inf : evidence_
-					.getInferences(premise)) {
-				inf.accept(this);
-			}
+			generatePremise(premise);
 		}
 		inferenceFactory_.getElkEquivalentClassesCycle(entailmentInference
 				.getConclusion().getAxiom().getClassExpressions());
@@ -240,10 +264,7 @@ public class ElkProofGenerator implements EntailmentInference.Visitor<Void> {
 			final EntailedDisjointClassesEntailsDifferentIndividualsAxiom entailmentInference) {
 		for (final DisjointClassesAxiomEntailment premise : entailmentInference
 				.getPremises()) {
-			for (final EntailmentInference inf : evidence_
-					.getInferences(premise)) {
-				inf.accept(this);
-			}
+			generatePremise(premise);
 		}
 		inferenceFactory_
 				.getElkDifferentIndividualsOfDisjointClasses(entailmentInference
@@ -256,10 +277,7 @@ public class ElkProofGenerator implements EntailmentInference.Visitor<Void> {
 			final EntailedEquivalentClassesEntailsSameIndividualAxiom entailmentInference) {
 		for (final EquivalentClassesAxiomEntailment premise : entailmentInference
 				.getPremises()) {
-			for (final EntailmentInference inf : evidence_
-					.getInferences(premise)) {
-				inf.accept(this);
-			}
+			generatePremise(premise);
 		}
 		inferenceFactory_
 				.getElkSameIndividualOfEquivalentClasses(entailmentInference
@@ -272,10 +290,7 @@ public class ElkProofGenerator implements EntailmentInference.Visitor<Void> {
 			final EntailedIntersectionInconsistencyEntailsDisjointClassesAxiom entailmentInference) {
 		for (final SubClassOfAxiomEntailment premise : entailmentInference
 				.getPremises()) {
-			for (final EntailmentInference inf : evidence_
-					.getInferences(premise)) {
-				inf.accept(this);
-			}
+			generatePremise(premise);
 		}
 		inferenceFactory_.getElkDisjointClassesIntersectionInconsistencies(
 				entailmentInference.getConclusion().getAxiom()
@@ -292,7 +307,7 @@ public class ElkProofGenerator implements EntailmentInference.Visitor<Void> {
 			final ElkIndividual entity = entailmentInference.getIndividual();
 
 			final Matcher matcher = new Matcher(
-					reasoner_.explainConclusion(conclusion), elkFactory_,
+					explain(conclusion), elkFactory_,
 					inferenceFactory_);
 			matcher.trace(conclusion, entity);
 
@@ -336,10 +351,7 @@ public class ElkProofGenerator implements EntailmentInference.Visitor<Void> {
 		// Show that ⊤ ⊑ ⊥
 		for (final OntologyInconsistency premise : entailmentInference
 				.getPremises()) {
-			for (final EntailmentInference inf : evidence_
-					.getInferences(premise)) {
-				inf.accept(this);
-			}
+			generatePremise(premise);
 		}
 
 		// Show how the axiom follows from that.
@@ -524,7 +536,7 @@ public class ElkProofGenerator implements EntailmentInference.Visitor<Void> {
 			final ClassInconsistency conclusion = entailmentInference
 					.getReason();
 			final Matcher matcher = new Matcher(
-					reasoner_.explainConclusion(conclusion), elkFactory_,
+					explain(conclusion), elkFactory_,
 					inferenceFactory_);
 			matcher.trace(conclusion, elkFactory_.getOwlThing());
 			inferenceFactory_.getElkClassInclusionHierarchy(
@@ -546,7 +558,7 @@ public class ElkProofGenerator implements EntailmentInference.Visitor<Void> {
 			final ElkClassExpression superClass = entailmentInference
 					.getConclusion().getAxiom().getSuperClassExpression();
 			final Matcher matcher = new Matcher(
-					reasoner_.explainConclusion(conclusion), elkFactory_,
+					explain(conclusion), elkFactory_,
 					inferenceFactory_);
 			matcher.trace(conclusion, subClass);
 			inferenceFactory_.getElkClassInclusionOwlNothing(superClass);
@@ -565,7 +577,7 @@ public class ElkProofGenerator implements EntailmentInference.Visitor<Void> {
 		try {
 
 			final Matcher matcher = new Matcher(
-					reasoner_.explainConclusion(conclusion), elkFactory_,
+					explain(conclusion), elkFactory_,
 					inferenceFactory_);
 			matcher.trace(conclusion, elkFactory_.getOwlTopObjectProperty(),
 					elkFactory_.getOwlBottomObjectProperty());
@@ -0,0 +1,183 @@
+/*
+ * #%L
+ * ELK Proofs Package
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2011 - 2016 Department of Computer Science, University of Oxford
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.semanticweb.elk.owl.inferences;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import org.semanticweb.elk.exceptions.ElkException;
+import org.semanticweb.elk.owl.interfaces.ElkAxiom;
+import org.semanticweb.elk.owl.interfaces.ElkObject;
+import org.semanticweb.elk.reasoner.Reasoner;
+import org.semanticweb.elk.reasoner.entailments.model.AxiomEntailment;
+import org.semanticweb.elk.reasoner.entailments.model.Entailment;
+import org.semanticweb.elk.reasoner.entailments.model.EntailmentInferenceSet;
+import org.semanticweb.elk.reasoner.query.EntailmentQueryResult;
+import org.semanticweb.elk.reasoner.query.ProperEntailmentQueryResult;
+import org.semanticweb.elk.reasoner.query.UnsupportedIndexingEntailmentQueryResult;
+import org.semanticweb.elk.reasoner.query.UnsupportedQueryTypeEntailmentQueryResult;
+
+/**
+ * Generates the {@link ElkInference}s deriving entailed {@link ElkAxiom}s on
+ * demand. When the proof of an axiom is generated, the premises of its
+ * inferences that are entailed axioms themselves, e.g., the subsumptions in a
+ * cycle of an equivalence, are not explained, but only recorded as deferred.
+ * Their inferences are traced, matched and generated only when
+ * {@link #generate(ElkAxiom)} is called for them. The axioms for which the
+ * proofs were generated are remembered and not generated again.
+ * <p>
+ * Laziness applies only at the level of such entailed axioms. When the proof
+ * of an axiom derived by saturation, e.g., a subsumption, is generated, the
+ * whole traced region of the derived conclusion is traced and matched, and
+ * all {@link ElkInference}s of this region are generated at once, even if
+ * only the inferences of the axiom itself are requested. This is because the
+ * {@link org.semanticweb.elk.matching.Matcher} produces the inference for a
+ * conclusion only after the premises of this inference are matched, which
+ * requires matching the inferences of the premises.
+ */
+public class LazyElkProofGenerator {
+
+	private final Reasoner reasoner_;
+
+	private final ElkObject.Factory elkFactory_;
+
+	private final ElkInference.Factory inferenceFactory_;
+
+	/**
+	 * the axioms for which the inferences were generated
+	 */
+	private final Set<ElkAxiom> generated_ = new HashSet<ElkAxiom>();
+
+	/**
+	 * the premises of the generated inferences whose inferences are not yet
+	 * generated
+	 */
+	private final Set<ElkAxiom> deferred_ = new HashSet<ElkAxiom>();
+
+	public LazyElkProofGenerator(final Reasoner reasoner,
+			final ElkObject.Factory elkFactory,
+			final ElkInference.Factory inferenceFactory) {
+		this.reasoner_ = reasoner;
+		this.elkFactory_ = elkFactory;
+		this.inferenceFactory_ = inferenceFactory;
+	}
+
+	/**
+	 * @param axiom
+	 * @return {@code true} if the given {@link ElkAxiom} is a premise of some
+	 *         generated inference whose own inferences were not generated yet
+	 */
+	public synchronized boolean isDeferred(final ElkAxiom axiom) {
+		return deferred_.contains(axiom);
+	}
+
+	/**
+	 * @return {@code true} if the inferences for some premises of the
+	 *         generated inferences are not generated yet
+	 */
+	public synchronized boolean hasDeferred() {
+		return !deferred_.isEmpty();
+	}
+
+	/**
+	 * Generates the inferences deriving the given {@link ElkAxiom} using the
+	 * {@link ElkInference.Factory} of this generator, unless this was already
+	 * done
+	 * 
+	 * @param goal
+	 * @return {@code false} if the entailment of the given {@link ElkAxiom}
+	 *         cannot be checked by the reasoner and {@code true} otherwise
+	 * @throws ElkException
+	 */
+	public synchronized boolean generate(final ElkAxiom goal)
+			throws ElkException {
+		if (!generated_.add(goal)) {
+			return true;
+		}
+		// else
+		deferred_.remove(goal);
+		final EntailmentQueryResult result = reasoner_.isEntailed(goal);
+		return result.accept(
+				new EntailmentQueryResult.Visitor<Boolean, ElkException>() {
+
+					@Override
+					public Boolean visit(
+							final ProperEntailmentQueryResult result)
+							throws ElkException {
+						try {
+							new DeferringProofGenerator(
+									result.getEvidence(false))
+											.generate(result.getEntailment());
+						} finally {
+							result.unlock();
+						}
+						return true;
+					}
+
+					@Override
+					public Boolean visit(
+							final UnsupportedIndexingEntailmentQueryResult result) {
+						/*
+						 * Indexing of some subexpression of the entailment is
+						 * not supported, so we can generate only empty proof.
+						 * The warning should be logged during loading of the
+						 * entailment query.
+						 */
+						return true;
+					}
+
+					@Override
+					public Boolean visit(
+							final UnsupportedQueryTypeEntailmentQueryResult result) {
+						return false;
+					}
+
+				});
+	}
+
+	/**
+	 * Defers the generation of the inferences for premises that are entailed
+	 * axioms
+	 */
+	private class DeferringProofGenerator extends ElkProofGenerator {
+
+		DeferringProofGenerator(final EntailmentInferenceSet evidence) {
+			super(evidence, reasoner_, elkFactory_, inferenceFactory_);
+		}
+
+		@Override
+		protected void generatePremise(final Entailment premise) {
+			if (premise instanceof AxiomEntailment) {
+				final ElkAxiom axiom = ((AxiomEntailment<?>) premise)
+						.getAxiom();
+				if (!generated_.contains(axiom)) {
+					deferred_.add(axiom);
+				}
+				return;
+			}
+			// else
+			super.generatePremise(premise);
+		}
+
+	}
+
+}
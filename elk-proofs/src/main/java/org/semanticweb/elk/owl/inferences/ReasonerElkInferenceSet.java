@@ -21,6 +21,8 @@
  */
 package org.semanticweb.elk.owl.inferences;
 
+import java.util.Collection;
+
 import org.liveontologies.puli.ChronologicalInferenceSet;
 import org.liveontologies.puli.GenericDynamicInferenceSet;
 import org.semanticweb.elk.exceptions.ElkException;
@@ -28,15 +30,13 @@ import org.semanticweb.elk.exceptions.ElkRuntimeException;
 import org.semanticweb.elk.owl.interfaces.ElkAxiom;
 import org.semanticweb.elk.owl.interfaces.ElkObject;
 import org.semanticweb.elk.reasoner.Reasoner;
-import org.semanticweb.elk.reasoner.entailments.model.EntailmentInferenceSet;
-import org.semanticweb.elk.reasoner.query.EntailmentQueryResult;
-import org.semanticweb.elk.reasoner.query.ProperEntailmentQueryResult;
-import org.semanticweb.elk.reasoner.query.UnsupportedIndexingEntailmentQueryResult;
-import org.semanticweb.elk.reasoner.query.UnsupportedQueryTypeEntailmentQueryResult;
 
 /**
  * A set of inferences necessary to derive a given {@link ElkAxiom}s provided by
- * {@link Reasoner}.
+ * {@link Reasoner}. The inferences for the premises that are entailed axioms
+ * themselves are generated only when they are requested; the inferences
+ * deriving other axioms are generated together with the axiom they are used
+ * for, see {@link LazyElkProofGenerator}.
  * 
  * @author Yevgeny Kazakov
  * @author Peter Skocovsky
@@ -45,15 +45,12 @@ public class ReasonerElkInferenceSet
 		extends ChronologicalInferenceSet<ElkAxiom, ElkInference>
 		implements ModifiableElkInferenceSet {
 
-	private final Reasoner reasoner_;
-
-	private final ElkInference.Factory inferenceFactory_;
+	private final LazyElkProofGenerator generator_;
 
 	private ReasonerElkInferenceSet(Reasoner reasoner, ElkAxiom goal,
 			ElkObject.Factory elkFactory) throws ElkException {
-		this.reasoner_ = reasoner;
-		this.inferenceFactory_ = new ElkInferenceOptimizedProducingFactory(this,
-				elkFactory);
+		this.generator_ = new LazyElkProofGenerator(reasoner, elkFactory,
+				new ElkInferenceOptimizedProducingFactory(this, elkFactory));
 	}
 
 	public static GenericDynamicInferenceSet<ElkAxiom, ElkInference> create(
@@ -67,48 +64,23 @@ public class ReasonerElkInferenceSet
 		return inferenceSet;
 	}
 
-	private void generateInferences(final ElkAxiom goal) throws ElkException {
-
-		final EntailmentQueryResult result = reasoner_.isEntailed(goal);
-
-		result.accept(new EntailmentQueryResult.Visitor<Void, ElkException>() {
-
-			@Override
-			public Void visit(final ProperEntailmentQueryResult result)
-					throws ElkException {
-
-				try {
-					final EntailmentInferenceSet evidence = result
-							.getEvidence(false);
-					new ElkProofGenerator(evidence, reasoner_,
-							inferenceFactory_).generate(result.getEntailment());
-				} finally {
-					result.unlock();
-				}
-
-				return null;
+	@Override
+	public synchronized Collection<? extends ElkInference> getInferences(
+			final ElkAxiom conclusion) {
+		if (generator_.isDeferred(conclusion)) {
+			try {
+				generateInferences(conclusion);
+			} catch (final ElkException e) {
+				throw new ElkRuntimeException(e);
 			}
+		}
+		return super.getInferences(conclusion);
+	}
 
-			@Override
-			public Void visit(
-					final UnsupportedIndexingEntailmentQueryResult result) {
-				/*
-				 * Indexing of some subexpression of the entailment is not
-				 * supported, so we can generate only empty proof. The warning
-				 * should be logged during loading of the entailment query.
-				 */
-				return null;
-			}
-
-			@Override
-			public Void visit(
-					final UnsupportedQueryTypeEntailmentQueryResult result) {
-				throw new ElkRuntimeException(
-						"Cannot check entailment: " + goal);
-			}
-
-		});
-
+	private void generateInferences(final ElkAxiom goal) throws ElkException {
+		if (!generator_.generate(goal)) {
+			throw new ElkRuntimeException("Cannot check entailment: " + goal);
+		}
 	}
 
 }
@@ -0,0 +1,282 @@
+/*
+ * #%L
+ * ELK Proofs Package
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2011 - 2016 Department of Computer Science, University of Oxford
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.semanticweb.elk.owl.inferences;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+
+import org.semanticweb.elk.exceptions.ElkException;
+import org.semanticweb.elk.owl.interfaces.ElkAxiom;
+import org.semanticweb.elk.owl.interfaces.ElkClass;
+import org.semanticweb.elk.owl.interfaces.ElkObject;
+import org.semanticweb.elk.owl.predefined.PredefinedElkIris;
+import org.semanticweb.elk.reasoner.Reasoner;
+import org.semanticweb.elk.reasoner.entailments.model.Entailment;
+import org.semanticweb.elk.reasoner.entailments.model.EntailmentInference;
+import org.semanticweb.elk.reasoner.entailments.model.EntailmentInferenceSet;
+import org.semanticweb.elk.reasoner.entailments.model.HasReason;
+import org.semanticweb.elk.reasoner.query.EntailmentQueryResult;
+import org.semanticweb.elk.reasoner.query.ProperEntailmentQueryResult;
+import org.semanticweb.elk.reasoner.query.UnsupportedIndexingEntailmentQueryResult;
+import org.semanticweb.elk.reasoner.query.UnsupportedQueryTypeEntailmentQueryResult;
+import org.semanticweb.elk.reasoner.taxonomy.model.Taxonomy;
+import org.semanticweb.elk.reasoner.tracing.Conclusion;
+import org.semanticweb.elk.reasoner.tracing.TracingInferenceSet;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Generates the proofs of {@code SubClassOf(C owl:Nothing)} for all
+ * unsatisfiable classes {@code C} of the ontology loaded in a
+ * {@link Reasoner}. The conclusions needed for all proofs are traced by one
+ * call of {@link Reasoner#explainConclusions(Iterable)}, so the contexts shared
+ * by several proofs are traced only once. The proofs are reported class by
+ * class to a {@link Listener}; every {@link ElkInference} is reported only
+ * with the first proof that uses it.
+ */
+public class UnsatisfiableClassesProofGenerator {
+
+	// logger for this class
+	private static final Logger LOGGER_ = LoggerFactory
+			.getLogger(UnsatisfiableClassesProofGenerator.class);
+
+	/**
+	 * Receives the generated proofs
+	 */
+	public interface Listener {
+
+		/**
+		 * Called once for every unsatisfiable class for which a proof was
+		 * generated
+		 * 
+		 * @param unsatisfiable
+		 *            the unsatisfiable class
+		 * @param goal
+		 *            the axiom {@code SubClassOf(unsatisfiable owl:Nothing)}
+		 * @param inferences
+		 *            the inferences of the proof of the goal that were not
+		 *            reported with the proofs of the previous classes
+		 * @throws ElkException
+		 */
+		void proofGenerated(ElkClass unsatisfiable, ElkAxiom goal,
+				Collection<? extends ElkInference> inferences)
+				throws ElkException;
+
+	}
+
+	private final Reasoner reasoner_;
+
+	private final ElkObject.Factory elkFactory_;
+
+	/**
+	 * the inferences that were already reported
+	 */
+	private final Set<ElkInference> reported_ = new HashSet<ElkInference>();
+
+	/**
+	 * the conclusions traced for all proofs
+	 */
+	private final Set<Conclusion> traced_ = new HashSet<Conclusion>();
+
+	public UnsatisfiableClassesProofGenerator(final Reasoner reasoner,
+			final ElkObject.Factory elkFactory) {
+		this.reasoner_ = reasoner;
+		this.elkFactory_ = elkFactory;
+	}
+
+	public UnsatisfiableClassesProofGenerator(final Reasoner reasoner) {
+		this(reasoner, reasoner.getElkFactory());
+	}
+
+	/**
+	 * @return the unsatisfiable classes of the ontology except for
+	 *         {@code owl:Nothing}
+	 * @throws ElkException
+	 *             if the ontology is inconsistent or the classification was
+	 *             interrupted
+	 */
+	public Collection<ElkClass> getUnsatisfiableClasses() throws ElkException {
+		final Taxonomy<ElkClass> taxonomy = reasoner_.getTaxonomy();
+		final List<ElkClass> result = new ArrayList<ElkClass>();
+		for (final ElkClass member : taxonomy.getBottomNode()) {
+			if (!member.getIri().equals(PredefinedElkIris.OWL_NOTHING)) {
+				result.add(member);
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Generates the proofs for all unsatisfiable classes and reports them to
+	 * the given {@link Listener}
+	 * 
+	 * @param listener
+	 * @throws ElkException
+	 */
+	public void generate(final Listener listener) throws ElkException {
+		reported_.clear();
+		traced_.clear();
+		final Map<ElkAxiom, ElkClass> goals = new LinkedHashMap<ElkAxiom, ElkClass>();
+		for (final ElkClass unsatisfiable : getUnsatisfiableClasses()) {
+			goals.put(elkFactory_.getSubClassOfAxiom(unsatisfiable,
+					elkFactory_.getOwlNothing()), unsatisfiable);
+		}
+		final Map<ElkAxiom, EntailmentQueryResult> results = reasoner_
+				.isEntailed(goals.keySet());
+		final List<ProperEntailmentQueryResult> locked = new ArrayList<ProperEntailmentQueryResult>();
+		try {
+			final Map<ElkAxiom, ProperEntailmentQueryResult> proper = new LinkedHashMap<ElkAxiom, ProperEntailmentQueryResult>();
+			for (final ElkAxiom goal : goals.keySet()) {
+				final ProperEntailmentQueryResult result = getProperResult(
+						goal, results.get(goal));
+				if (result != null) {
+					locked.add(result);
+					proper.put(goal, result);
+				}
+			}
+			// trace the conclusions of all proofs together
+			for (final ProperEntailmentQueryResult result : proper.values()) {
+				collectReasons(result.getEvidence(false),
+						result.getEntailment());
+			}
+			LOGGER_.debug("{} unsatisfiable classes: tracing {} conclusions",
+					goals.size(), traced_.size());
+			reasoner_.explainConclusions(traced_);
+			// generate the proofs one by one
+			for (final Map.Entry<ElkAxiom, ProperEntailmentQueryResult> entry : proper
+					.entrySet()) {
+				final ElkAxiom goal = entry.getKey();
+				final ProperEntailmentQueryResult result = entry.getValue();
+				final List<ElkInference> inferences = new ArrayList<ElkInference>();
+				final ElkInference.Factory inferenceFactory = new ElkInferenceOptimizedProducingFactory(
+						new ElkInferenceProducer() {
+							@Override
+							public void produce(final ElkInference inference) {
+								if (reported_.add(inference)) {
+									inferences.add(inference);
+								}
+							}
+						}, elkFactory_);
+				new BatchProofGenerator(result.getEvidence(false),
+						inferenceFactory).generate(result.getEntailment());
+				listener.proofGenerated(goals.get(goal), goal, inferences);
+			}
+		} finally {
+			for (final ProperEntailmentQueryResult result : locked) {
+				result.unlock();
+			}
+		}
+	}
+
+	private static ProperEntailmentQueryResult getProperResult(
+			final ElkAxiom goal, final EntailmentQueryResult result)
+			throws ElkException {
+		return result.accept(
+				new EntailmentQueryResult.Visitor<ProperEntailmentQueryResult, ElkException>() {
+
+					@Override
+					public ProperEntailmentQueryResult visit(
+							final ProperEntailmentQueryResult result) {
+						return result;
+					}
+
+					@Override
+					public ProperEntailmentQueryResult visit(
+							final UnsupportedIndexingEntailmentQueryResult result) {
+						LOGGER_.warn("{}: cannot be explained", goal);
+						return null;
+					}
+
+					@Override
+					public ProperEntailmentQueryResult visit(
+							final UnsupportedQueryTypeEntailmentQueryResult result) {
+						LOGGER_.warn("{}: cannot be explained", goal);
+						return null;
+					}
+
+				});
+	}
+
+	/**
+	 * Collects the conclusions that need to be traced for the proof of the
+	 * given {@link Entailment}
+	 * 
+	 * @param evidence
+	 * @param goal
+	 */
+	private void collectReasons(final EntailmentInferenceSet evidence,
+			final Entailment goal) {
+		final Set<Entailment> done = new HashSet<Entailment>();
+		final Queue<Entailment> todo = new ArrayDeque<Entailment>();
+		done.add(goal);
+		todo.add(goal);
+		Entailment next;
+		while ((next = todo.poll()) != null) {
+			for (final EntailmentInference inference : evidence
+					.getInferences(next)) {
+				if (inference instanceof HasReason) {
+					final Object reason = ((HasReason<?>) inference)
+							.getReason();
+					if (reason instanceof Conclusion) {
+						traced_.add((Conclusion) reason);
+					}
+				}
+				for (final Entailment premise : inference.getPremises()) {
+					if (done.add(premise)) {
+						todo.add(premise);
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * An {@link ElkProofGenerator} that does not trace the conclusions that
+	 * were already traced for all proofs
+	 */
+	private class BatchProofGenerator extends ElkProofGenerator {
+
+		BatchProofGenerator(final EntailmentInferenceSet evidence,
+				final ElkInference.Factory inferenceFactory) {
+			super(evidence, reasoner_, elkFactory_, inferenceFactory);
+		}
+
+		@Override
+		protected TracingInferenceSet explain(final Conclusion conclusion)
+				throws ElkException {
+			if (traced_.contains(conclusion)) {
+				return reasoner_.getTracingInferences();
+			}
+			// else
+			return super.explain(conclusion);
+		}
+
+	}
+
+}
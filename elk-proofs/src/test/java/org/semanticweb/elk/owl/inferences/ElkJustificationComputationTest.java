@@ -0,0 +1,138 @@
+/*
+ * #%L
+ * ELK Proofs Package
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2011 - 2014 Department of Computer Science, University of Oxford
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.semanticweb.elk.owl.inferences;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.Test;
+import org.semanticweb.elk.exceptions.ElkException;
+import org.semanticweb.elk.loading.TestLoader;
+import org.semanticweb.elk.owl.interfaces.ElkAxiom;
+import org.semanticweb.elk.owl.interfaces.ElkClass;
+import org.semanticweb.elk.owl.interfaces.ElkObject;
+import org.semanticweb.elk.owl.iris.ElkFullIri;
+import org.semanticweb.elk.owl.managers.ElkObjectEntityRecyclingFactory;
+import org.semanticweb.elk.reasoner.Reasoner;
+import org.semanticweb.elk.reasoner.TestReasonerUtils;
+import org.semanticweb.elk.util.concurrent.computation.ConcurrentExecutors;
+
+public class ElkJustificationComputationTest {
+
+	final ElkObject.Factory objectFactory = new ElkObjectEntityRecyclingFactory();
+
+	final ElkClass A = objectFactory.getClass(new ElkFullIri(":A"));
+	final ElkClass B = objectFactory.getClass(new ElkFullIri(":B"));
+	final ElkClass C = objectFactory.getClass(new ElkFullIri(":C"));
+
+	@Test
+	public void testAlternativeProofs()
+			throws ElkException, InterruptedException {
+		ElkAxiom ab = objectFactory.getSubClassOfAxiom(A, B);
+		ElkAxiom bc = objectFactory.getSubClassOfAxiom(B, C);
+		ElkAxiom ac = objectFactory.getSubClassOfAxiom(A, C);
+
+		Set<Set<ElkAxiom>> expected = new HashSet<Set<ElkAxiom>>();
+		expected.add(Collections.singleton(ac));
+		expected.add(new HashSet<ElkAxiom>(Arrays.asList(ab, bc)));
+
+		ElkJustificationComputation.Result result = compute(
+				Arrays.asList(ab, bc, ac), ac, ElkJustificationComputation.NO_LIMIT);
+		assertTrue(result.isComplete());
+		assertEquals(expected,
+				new HashSet<Set<ElkAxiom>>(result.getJustifications()));
+
+		result = compute(Arrays.asList(ab, bc, ac), ac, 1);
+		assertFalse(result.isComplete());
+		assertEquals(Collections.singletonList(Collections.singleton(ac)),
+				result.getJustifications());
+	}
+
+	@Test
+	public void testCyclicProofs()
+			throws ElkException, InterruptedException {
+		ElkAxiom ab = objectFactory.getSubClassOfAxiom(A, B);
+		ElkAxiom ba = objectFactory.getSubClassOfAxiom(B, A);
+		ElkAxiom bc = objectFactory.getSubClassOfAxiom(B, C);
+		ElkAxiom ac = objectFactory.getSubClassOfAxiom(A, C);
+
+		ElkJustificationComputation.Result result = compute(
+				Arrays.asList(ab, ba, bc), ac, ElkJustificationComputation.NO_LIMIT);
+		assertTrue(result.isComplete());
+		assertEquals(
+				Collections.singleton(new HashSet<ElkAxiom>(Arrays.asList(ab, bc))),
+				new HashSet<Set<ElkAxiom>>(result.getJustifications()));
+	}
+
+	@Test
+	public void testManyDependentComponents()
+			throws ElkException, InterruptedException {
+		// a chain of classes with shortcuts over every next class: the
+		// justifications of the last subsumption correspond to the ways of
+		// walking the chain by steps of one or two classes
+		int length = 10;
+		ElkClass[] chain = new ElkClass[length + 1];
+		for (int i = 0; i <= length; i++) {
+			chain[i] = objectFactory.getClass(new ElkFullIri(":A" + i));
+		}
+		List<ElkAxiom> ontology = new ArrayList<ElkAxiom>();
+		for (int i = 0; i < length; i++) {
+			ontology.add(
+					objectFactory.getSubClassOfAxiom(chain[i], chain[i + 1]));
+			if (i + 2 <= length) {
+				ontology.add(objectFactory.getSubClassOfAxiom(chain[i],
+						chain[i + 2]));
+			}
+		}
+		ElkJustificationComputation.Result result = compute(ontology,
+				objectFactory.getSubClassOfAxiom(chain[0], chain[length]),
+				ElkJustificationComputation.NO_LIMIT);
+		assertTrue(result.isComplete());
+		// the Fibonacci number F(length + 1)
+		assertEquals(89, result.getJustifications().size());
+	}
+
+	private ElkJustificationComputation.Result compute(
+			List<ElkAxiom> ontology, ElkAxiom goal, int maxCount)
+			throws ElkException, InterruptedException {
+		Reasoner reasoner = TestReasonerUtils
+				.createTestReasoner(new TestLoader(ontology));
+		try {
+			return new ElkJustificationComputation(
+					ReasonerElkInferenceSet.create(reasoner, goal,
+							objectFactory),
+					ConcurrentExecutors.getDefault(), 4).compute(goal,
+							maxCount, ElkJustificationComputation.NO_LIMIT);
+		} finally {
+			reasoner.shutdown();
+		}
+	}
+
+}
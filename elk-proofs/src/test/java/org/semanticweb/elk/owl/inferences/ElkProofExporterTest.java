@@ -0,0 +1,97 @@
+/*
+ * #%L
+ * ELK Proofs Package
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2011 - 2014 Department of Computer Science, University of Oxford
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.semanticweb.elk.owl.inferences;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.Test;
+import org.liveontologies.puli.InferenceSet;
+import org.semanticweb.elk.exceptions.ElkException;
+import org.semanticweb.elk.loading.TestLoader;
+import org.semanticweb.elk.owl.interfaces.ElkAxiom;
+import org.semanticweb.elk.owl.interfaces.ElkClass;
+import org.semanticweb.elk.owl.interfaces.ElkObject;
+import org.semanticweb.elk.owl.iris.ElkFullIri;
+import org.semanticweb.elk.owl.managers.ElkObjectEntityRecyclingFactory;
+import org.semanticweb.elk.reasoner.Reasoner;
+import org.semanticweb.elk.reasoner.TestReasonerUtils;
+
+public class ElkProofExporterTest {
+
+	final ElkObject.Factory objectFactory = new ElkObjectEntityRecyclingFactory();
+
+	@Test
+	public void testExport()
+			throws ElkException, IOException, InterruptedException {
+		ElkClass A = objectFactory.getClass(new ElkFullIri(":A"));
+		ElkClass B = objectFactory.getClass(new ElkFullIri(":B"));
+		ElkClass C = objectFactory.getClass(new ElkFullIri(":C"));
+		ElkAxiom goal = objectFactory.getSubClassOfAxiom(A, C);
+		Reasoner reasoner = TestReasonerUtils.createTestReasoner(
+				new TestLoader(Arrays.<ElkAxiom> asList(
+						objectFactory.getSubClassOfAxiom(A, B),
+						objectFactory.getSubClassOfAxiom(B, C))));
+
+		try {
+			InferenceSet<ElkAxiom> inferences = ReasonerElkInferenceSet
+					.create(reasoner, goal, objectFactory);
+			ByteArrayOutputStream out = new ByteArrayOutputStream();
+			long inferenceCount = new ElkProofExporter(inferences)
+					.export(goal, out);
+
+			String[] lines = out.toString("UTF-8").split("\n");
+			assertEquals("C\t0\t" + goal, lines[0]);
+			Set<String> written = new HashSet<String>();
+			Set<String> derived = new HashSet<String>();
+			int inferenceLines = 0;
+			for (String line : lines) {
+				String[] fields = line.split("\t");
+				if (fields[0].equals("C")) {
+					// every conclusion is written once
+					assertTrue(line, written.add(fields[1]));
+				} else {
+					assertEquals(line, "I", fields[0]);
+					inferenceLines++;
+					// conclusions are written before they are used
+					assertTrue(line, written.contains(fields[1]));
+					for (int i = 3; i < fields.length; i++) {
+						assertTrue(line, written.contains(fields[i]));
+					}
+					derived.add(fields[1]);
+				}
+			}
+			assertEquals(inferenceCount, inferenceLines);
+			// every written conclusion is derived in the proof
+			assertEquals(written, derived);
+		} finally {
+			reasoner.shutdown();
+		}
+	}
+
+}
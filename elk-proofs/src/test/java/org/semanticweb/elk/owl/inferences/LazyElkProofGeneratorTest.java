@@ -0,0 +1,198 @@
+/*
+ * #%L
+ * ELK Reasoner
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2011 - 2013 Department of Computer Science, University of Oxford
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.semanticweb.elk.owl.inferences;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+
+import org.junit.Test;
+import org.liveontologies.puli.ChronologicalInferenceSet;
+import org.liveontologies.puli.GenericInferenceSet;
+import org.semanticweb.elk.exceptions.ElkException;
+import org.semanticweb.elk.loading.TestLoader;
+import org.semanticweb.elk.owl.interfaces.ElkAxiom;
+import org.semanticweb.elk.owl.interfaces.ElkClass;
+import org.semanticweb.elk.owl.interfaces.ElkNamedIndividual;
+import org.semanticweb.elk.owl.interfaces.ElkObject;
+import org.semanticweb.elk.owl.iris.ElkFullIri;
+import org.semanticweb.elk.owl.managers.ElkObjectEntityRecyclingFactory;
+import org.semanticweb.elk.reasoner.Reasoner;
+import org.semanticweb.elk.reasoner.TestReasonerUtils;
+import org.semanticweb.elk.reasoner.query.EntailmentQueryResult;
+import org.semanticweb.elk.reasoner.query.ProperEntailmentQueryResult;
+
+public class LazyElkProofGeneratorTest {
+
+	final ElkObject.Factory objectFactory = new ElkObjectEntityRecyclingFactory();
+
+	final ElkClass A = objectFactory.getClass(new ElkFullIri(":A"));
+	final ElkClass B = objectFactory.getClass(new ElkFullIri(":B"));
+	final ElkClass C = objectFactory.getClass(new ElkFullIri(":C"));
+	final ElkClass D = objectFactory.getClass(new ElkFullIri(":D"));
+	final ElkNamedIndividual a = objectFactory
+			.getNamedIndividual(new ElkFullIri(":a"));
+	final ElkNamedIndividual d = objectFactory
+			.getNamedIndividual(new ElkFullIri(":d"));
+
+	/**
+	 * an ontology in which A, B, and C are equivalent because of a cycle, and
+	 * a and d are different because their types are disjoint
+	 */
+	final List<ElkAxiom> ontology = Arrays.<ElkAxiom> asList(
+			objectFactory.getSubClassOfAxiom(A, B),
+			objectFactory.getSubClassOfAxiom(B, C),
+			objectFactory.getSubClassOfAxiom(C, A),
+			objectFactory.getDisjointClassesAxiom(
+					Arrays.<ElkClass> asList(B, D)),
+			objectFactory.getClassAssertionAxiom(A, a),
+			objectFactory.getClassAssertionAxiom(D, d));
+
+	final ElkAxiom equivalence = objectFactory
+			.getEquivalentClassesAxiom(Arrays.<ElkClass> asList(A, C));
+
+	final ElkAxiom difference = objectFactory.getDifferentIndividualsAxiom(
+			Arrays.<ElkNamedIndividual> asList(a, d));
+
+	@Test
+	public void testDeferredPremises()
+			throws ElkException, InterruptedException {
+		Reasoner reasoner = TestReasonerUtils
+				.createTestReasoner(new TestLoader(ontology));
+		try {
+			for (ElkAxiom goal : Arrays.asList(equivalence, difference)) {
+				final ChronologicalInferenceSet<ElkAxiom, ElkInference> proofs = new ChronologicalInferenceSet<ElkAxiom, ElkInference>();
+				final LazyElkProofGenerator generator = new LazyElkProofGenerator(
+						reasoner, objectFactory,
+						new ElkInferenceOptimizedProducingFactory(
+								getProducer(proofs), objectFactory));
+				assertTrue(generator.generate(goal));
+				assertFalse(proofs.getInferences(goal).isEmpty());
+				assertTrue(goal + ": no deferred premises",
+						generator.hasDeferred());
+				final Set<ElkAxiom> deferred = new HashSet<ElkAxiom>();
+				for (ElkInference inference : proofs.getInferences(goal)) {
+					for (ElkAxiom premise : inference.getPremises()) {
+						if (generator.isDeferred(premise)) {
+							deferred.add(premise);
+						}
+					}
+				}
+				assertFalse(goal + ": no deferred premises",
+						deferred.isEmpty());
+				// the deferred premises are not explained until requested
+				for (ElkAxiom premise : deferred) {
+					assertTrue(premise + ": explained",
+							proofs.getInferences(premise).isEmpty());
+				}
+				for (ElkAxiom premise : deferred) {
+					assertTrue(generator.generate(premise));
+					assertFalse(generator.isDeferred(premise));
+					assertFalse(premise + ": not explained",
+							proofs.getInferences(premise).isEmpty());
+				}
+			}
+		} finally {
+			reasoner.shutdown();
+		}
+	}
+
+	@Test
+	public void testSameClosureAsEager()
+			throws ElkException, InterruptedException {
+		Reasoner reasoner = TestReasonerUtils
+				.createTestReasoner(new TestLoader(ontology));
+		try {
+			for (ElkAxiom goal : Arrays.asList(equivalence, difference)) {
+				final ChronologicalInferenceSet<ElkAxiom, ElkInference> eager = new ChronologicalInferenceSet<ElkAxiom, ElkInference>();
+				final EntailmentQueryResult result = reasoner.isEntailed(goal);
+				assertTrue(result instanceof ProperEntailmentQueryResult);
+				final ProperEntailmentQueryResult properResult = (ProperEntailmentQueryResult) result;
+				try {
+					new ElkProofGenerator(properResult.getEvidence(false),
+							reasoner, objectFactory,
+							new ElkInferenceOptimizedProducingFactory(
+									getProducer(eager), objectFactory))
+											.generate(properResult
+													.getEntailment());
+				} finally {
+					properResult.unlock();
+				}
+				// expanding the deferred premises gives the same proof
+				final Set<String> expected = getClosure(eager, goal);
+				assertEquals(expected, getClosure(
+						ReasonerElkInferenceSet.create(reasoner, goal,
+								objectFactory),
+						goal));
+				assertTrue(expected.size() > 1);
+			}
+		} finally {
+			reasoner.shutdown();
+		}
+	}
+
+	private static ElkInferenceProducer getProducer(
+			final ChronologicalInferenceSet<ElkAxiom, ElkInference> proofs) {
+		return new ElkInferenceProducer() {
+
+			@Override
+			public void produce(ElkInference inference) {
+				proofs.produce(inference);
+			}
+
+		};
+	}
+
+	/**
+	 * @return the string representations of the inferences reachable from
+	 *         the goal, which are requested one conclusion at a time
+	 */
+	private static Set<String> getClosure(
+			final GenericInferenceSet<ElkAxiom, ? extends ElkInference> inferences,
+			final ElkAxiom goal) {
+		final Set<String> result = new HashSet<String>();
+		final Set<ElkAxiom> visited = new HashSet<ElkAxiom>();
+		final Queue<ElkAxiom> todo = new ArrayDeque<ElkAxiom>();
+		visited.add(goal);
+		todo.add(goal);
+		ElkAxiom next;
+		while ((next = todo.poll()) != null) {
+			for (ElkInference inference : inferences.getInferences(next)) {
+				result.add(inference.toString());
+				for (ElkAxiom premise : inference.getPremises()) {
+					if (visited.add(premise)) {
+						todo.add(premise);
+					}
+				}
+			}
+		}
+		return result;
+	}
+
+}
@@ -0,0 +1,100 @@
+/*
+ * #%L
+ * ELK Proofs Package
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2011 - 2014 Department of Computer Science, University of Oxford
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.semanticweb.elk.owl.inferences;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.Test;
+import org.liveontologies.puli.ChronologicalInferenceSet;
+import org.liveontologies.puli.InferenceDerivabilityChecker;
+import org.semanticweb.elk.exceptions.ElkException;
+import org.semanticweb.elk.loading.TestLoader;
+import org.semanticweb.elk.owl.interfaces.ElkAxiom;
+import org.semanticweb.elk.owl.interfaces.ElkClass;
+import org.semanticweb.elk.owl.interfaces.ElkObject;
+import org.semanticweb.elk.owl.iris.ElkFullIri;
+import org.semanticweb.elk.owl.managers.ElkObjectEntityRecyclingFactory;
+import org.semanticweb.elk.reasoner.Reasoner;
+import org.semanticweb.elk.reasoner.TestReasonerUtils;
+
+public class UnsatisfiableClassesProofGeneratorTest {
+
+	final ElkObject.Factory objectFactory = new ElkObjectEntityRecyclingFactory();
+
+	@Test
+	public void testSharedProofs()
+			throws ElkException, InterruptedException {
+		ElkClass A = objectFactory.getClass(new ElkFullIri(":A"));
+		ElkClass B = objectFactory.getClass(new ElkFullIri(":B"));
+		ElkClass C = objectFactory.getClass(new ElkFullIri(":C"));
+		ElkClass D = objectFactory.getClass(new ElkFullIri(":D"));
+		ElkClass E = objectFactory.getClass(new ElkFullIri(":E"));
+		List<ElkAxiom> ontology = Arrays.<ElkAxiom> asList(
+				objectFactory.getSubClassOfAxiom(A, B),
+				objectFactory.getSubClassOfAxiom(B,
+						objectFactory.getOwlNothing()),
+				objectFactory.getSubClassOfAxiom(C, A),
+				objectFactory.getSubClassOfAxiom(D, E));
+		Reasoner reasoner = TestReasonerUtils
+				.createTestReasoner(new TestLoader(ontology));
+
+		try {
+			final ChronologicalInferenceSet<ElkAxiom, ElkInference> proofs = new ChronologicalInferenceSet<ElkAxiom, ElkInference>();
+			final Set<ElkClass> explained = new HashSet<ElkClass>();
+			final List<ElkAxiom> goals = new ArrayList<ElkAxiom>();
+			new UnsatisfiableClassesProofGenerator(reasoner, objectFactory)
+					.generate(new UnsatisfiableClassesProofGenerator.Listener() {
+
+						@Override
+						public void proofGenerated(ElkClass unsatisfiable,
+								ElkAxiom goal,
+								Collection<? extends ElkInference> inferences) {
+							assertTrue(explained.add(unsatisfiable));
+							goals.add(goal);
+							for (ElkInference inference : inferences) {
+								proofs.produce(inference);
+							}
+						}
+					});
+
+			assertEquals(new HashSet<ElkClass>(Arrays.asList(A, B, C)),
+					explained);
+			// the proofs reported together prove every goal
+			InferenceDerivabilityChecker<ElkAxiom> checker = new InferenceDerivabilityChecker<ElkAxiom>(
+					proofs);
+			for (ElkAxiom goal : goals) {
+				assertTrue(goal + ": not derivable", checker.isDerivable(goal));
+			}
+		} finally {
+			reasoner.shutdown();
+		}
+	}
+
+}
@@ -0,0 +1,261 @@
+/*
+ * #%L
+ * ELK Reasoner
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2011 - 2013 Department of Computer Science, University of Oxford
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.semanticweb.elk.loading;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Accumulates changes of the ontology and computes their net effect: a
+ * change that removes an axiom cancels the last pending change that adds the
+ * same axiom and vice versa. The remaining changes are grouped by the type of
+ * the changed axioms, so that changes of the same type are processed
+ * together.
+ * <p>
+ * Repeated changes of the same polarity for the same axiom are not merged:
+ * the axiom can be, e.g., added to several ontologies of the imports closure,
+ * and each of these occurrences must be counted during indexing.
+ * <p>
+ * This class is not thread safe.
+ * 
+ * @param <K>
+ *            the type of the keys identifying changed axioms
+ * @param <C>
+ *            the type of the changes
+ */
+public class ChangeCoalescer<K, C> {
+
+	/**
+	 * pending changes of the same axiom; all of them have the same polarity
+	 */
+	private static class Entry<C> {
+
+		final boolean isAddition;
+
+		final LinkedList<C> changes = new LinkedList<C>();
+
+		Entry(boolean isAddition) {
+			this.isAddition = isAddition;
+		}
+
+	}
+
+	/**
+	 * pending changes indexed by the group of the axiom and the axiom
+	 */
+	private final Map<Object, Map<K, Entry<C>>> pendingByGroup_ = new LinkedHashMap<Object, Map<K, Entry<C>>>();
+
+	/**
+	 * the number of pending changes
+	 */
+	private int pendingCount_ = 0;
+
+	/**
+	 * the number of all registered changes
+	 */
+	private long registeredCount_ = 0;
+
+	/**
+	 * the number of registered changes that were cancelled by other changes
+	 */
+	private long collapsedCount_ = 0;
+
+	/**
+	 * Determines the group of changes with the given key; changes in the
+	 * same group are returned together. By default, the changes are grouped
+	 * by the class of the key.
+	 * 
+	 * @param key
+	 * @return the object identifying the group of the key
+	 */
+	protected Object getGroup(K key) {
+		return key.getClass();
+	}
+
+	/**
+	 * Registers a new change
+	 * 
+	 * @param key
+	 *            identifies the changed axiom
+	 * @param change
+	 *            the change to be registered
+	 * @param isAddition
+	 *            {@code true} if the change adds the axiom and {@code false}
+	 *            if it removes the axiom
+	 */
+	public void register(K key, C change, boolean isAddition) {
+		registeredCount_++;
+		Object group = getGroup(key);
+		Map<K, Entry<C>> pending = pendingByGroup_.get(group);
+		if (pending == null) {
+			pending = new LinkedHashMap<K, Entry<C>>();
+			pendingByGroup_.put(group, pending);
+		}
+		Entry<C> entry = pending.get(key);
+		if (entry == null) {
+			entry = new Entry<C>(isAddition);
+			pending.put(key, entry);
+		} else if (entry.isAddition != isAddition) {
+			// cancels the last opposite change
+			entry.changes.removeLast();
+			pendingCount_--;
+			collapsedCount_ += 2;
+			if (entry.changes.isEmpty()) {
+				pending.remove(key);
+			}
+			return;
+		}
+		entry.changes.add(change);
+		pendingCount_++;
+	}
+
+	/**
+	 * @return {@code true} if there are no pending changes
+	 */
+	public boolean isEmpty() {
+		return pendingCount_ == 0;
+	}
+
+	/**
+	 * @return the number of pending changes after the cancellation
+	 */
+	public int size() {
+		return pendingCount_;
+	}
+
+	/**
+	 * @return the number of changes registered so far
+	 */
+	public long getRegisteredChangesCount() {
+		return registeredCount_;
+	}
+
+	/**
+	 * @return the number of changes registered so far that cancelled each
+	 *         other and, therefore, will never be returned
+	 */
+	public long getCollapsedChangesCount() {
+		return collapsedCount_;
+	}
+
+	/**
+	 * @return the keys of the axioms that are added by the pending changes
+	 */
+	public Set<K> getNetAdditionKeys() {
+		return getKeys(true);
+	}
+
+	/**
+	 * @return the keys of the axioms that are removed by the pending changes
+	 */
+	public Set<K> getNetRemovalKeys() {
+		return getKeys(false);
+	}
+
+	/**
+	 * @return the pending changes, first the ones that remove axioms and then
+	 *         the ones that add axioms, both grouped by the groups of the keys
+	 */
+	public List<C> getNetChanges() {
+		List<C> result = new ArrayList<C>(pendingCount_);
+		collect(false, false, result);
+		collect(true, false, result);
+		return result;
+	}
+
+	/**
+	 * Removes the pending changes that remove axioms
+	 * 
+	 * @return the removed changes grouped by the groups of the keys
+	 */
+	public List<C> pollNetRemovals() {
+		List<C> result = new ArrayList<C>();
+		collect(false, true, result);
+		return result;
+	}
+
+	/**
+	 * Removes the pending changes that add axioms
+	 * 
+	 * @return the removed changes grouped by the groups of the keys
+	 */
+	public List<C> pollNetAdditions() {
+		List<C> result = new ArrayList<C>();
+		collect(true, true, result);
+		return result;
+	}
+
+	/**
+	 * Removes all pending changes
+	 * 
+	 * @return the removed changes in the order of {@link #getNetChanges()}
+	 */
+	public List<C> pollNetChanges() {
+		List<C> result = pollNetRemovals();
+		result.addAll(pollNetAdditions());
+		return result;
+	}
+
+	private Set<K> getKeys(boolean isAddition) {
+		Set<K> result = new LinkedHashSet<K>();
+		for (Map<K, Entry<C>> pending : pendingByGroup_.values()) {
+			for (Map.Entry<K, Entry<C>> entry : pending.entrySet()) {
+				if (entry.getValue().isAddition == isAddition) {
+					result.add(entry.getKey());
+				}
+			}
+		}
+		return result;
+	}
+
+	private void collect(boolean isAddition, boolean remove,
+			Collection<? super C> result) {
+		Iterator<Map<K, Entry<C>>> groupIterator = pendingByGroup_.values()
+				.iterator();
+		while (groupIterator.hasNext()) {
+			Map<K, Entry<C>> pending = groupIterator.next();
+			Iterator<Entry<C>> entryIterator = pending.values().iterator();
+			while (entryIterator.hasNext()) {
+				Entry<C> entry = entryIterator.next();
+				if (entry.isAddition != isAddition) {
+					continue;
+				}
+				result.addAll(entry.changes);
+				if (remove) {
+					pendingCount_ -= entry.changes.size();
+					entryIterator.remove();
+				}
+			}
+			if (remove && pending.isEmpty()) {
+				groupIterator.remove();
+			}
+		}
+	}
+
+}
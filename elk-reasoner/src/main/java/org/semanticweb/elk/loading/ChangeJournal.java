@@ -0,0 +1,629 @@
+/*
+ * #%L
+ * ELK Reasoner
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2011 - 2013 Department of Computer Science, University of Oxford
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.semanticweb.elk.loading;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.zip.CRC32;
+
+import org.semanticweb.elk.exceptions.ElkRuntimeException;
+import org.semanticweb.elk.io.IOUtils;
+import org.semanticweb.elk.owl.interfaces.ElkAxiom;
+import org.semanticweb.elk.owl.iris.ElkPrefix;
+import org.semanticweb.elk.owl.parsing.Owl2ParseException;
+import org.semanticweb.elk.owl.parsing.Owl2ParserAxiomProcessor;
+import org.semanticweb.elk.owl.parsing.Owl2ParserFactory;
+import org.semanticweb.elk.owl.printers.OwlFunctionalStylePrinter;
+import org.semanticweb.elk.owl.visitors.ElkAxiomProcessor;
+import org.semanticweb.elk.util.concurrent.computation.InterruptMonitor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A write-ahead journal of the axioms added to and removed from a reasoner,
+ * stored in a directory. The changes are recorded using the
+ * {@link ElkAxiomProcessor}s returned by {@link #wrap(ElkAxiomProcessor,
+ * boolean)} and written to the journal file in batches; every batch is
+ * protected by a checksum and forced to the storage device before the next
+ * one is started, so after a crash the journal contains all complete batches
+ * and nothing else.
+ * <p>
+ * A checkpoint ({@link #checkpoint()}) compacts the snapshot of the ontology
+ * left by the previous checkpoint and the changes recorded since then into a
+ * new snapshot, and starts a new, empty journal. The snapshot and the journal
+ * tail can be loaded into a new reasoner using the {@link AxiomLoader}
+ * returned by {@link #getReplayLoaderFactory()}.
+ * <p>
+ * The axioms are stored in the OWL 2 functional-style syntax with full IRIs
+ * and are read back using the {@link Owl2ParserFactory} given to the
+ * constructor.
+ */
+public class ChangeJournal {
+
+	// logger for this class
+	private static final Logger LOGGER_ = LoggerFactory
+			.getLogger(ChangeJournal.class);
+
+	/**
+	 * the names of the files in the journal directory
+	 */
+	public static final String JOURNAL_FILE = "changes.journal",
+			SNAPSHOT_FILE = "snapshot.journal";
+
+	private static final String SNAPSHOT_TEMP_FILE_ = SNAPSHOT_FILE + ".tmp";
+
+	private final File journalFile_, snapshotFile_, snapshotTempFile_;
+
+	private final Owl2ParserFactory parserFactory_;
+
+	/**
+	 * the number of changes after which the recorded changes are written
+	 */
+	private final int batchSize_;
+
+	/**
+	 * the number of batches after which a checkpoint is made automatically,
+	 * or 0 if checkpoints are made only by calling {@link #checkpoint()}
+	 */
+	private final int checkpointInterval_;
+
+	/**
+	 * the generation of the current journal file; the snapshot records the
+	 * generation of the last journal file it includes
+	 */
+	private long generation_;
+
+	private FileOutputStream journalStream_;
+
+	/**
+	 * the changes recorded but not yet written to the journal file
+	 */
+	private final List<Change> pending_ = new ArrayList<Change>();
+
+	/**
+	 * the number of batches in the current journal file
+	 */
+	private int batchCount_ = 0;
+
+	/**
+	 * {@code true} while the changes are replayed; such changes are not
+	 * recorded again
+	 */
+	private boolean replaying_ = false;
+
+	/**
+	 * Opens the journal in the given directory, creating it if necessary. An
+	 * incomplete batch at the end of the journal file, left by a crash, is
+	 * discarded.
+	 * 
+	 * @param directory
+	 *            the directory of the journal
+	 * @param parserFactory
+	 *            used to read the recorded axioms
+	 * @param batchSize
+	 *            the number of changes after which the recorded changes are
+	 *            written to the journal file
+	 * @param checkpointInterval
+	 *            the number of batches after which a checkpoint is made
+	 *            automatically, or 0 to disable automatic checkpoints
+	 * @throws IOException
+	 *             if the journal cannot be opened
+	 */
+	public ChangeJournal(final File directory,
+			final Owl2ParserFactory parserFactory, final int batchSize,
+			final int checkpointInterval) throws IOException {
+		if (batchSize <= 0) {
+			throw new IllegalArgumentException(
+					"batchSize must be positive: " + batchSize);
+		}
+		if (!directory.isDirectory() && !directory.mkdirs()) {
+			throw new IOException("Cannot create directory " + directory);
+		}
+		this.journalFile_ = new File(directory, JOURNAL_FILE);
+		this.snapshotFile_ = new File(directory, SNAPSHOT_FILE);
+		this.snapshotTempFile_ = new File(directory, SNAPSHOT_TEMP_FILE_);
+		this.parserFactory_ = parserFactory;
+		this.batchSize_ = batchSize;
+		this.checkpointInterval_ = checkpointInterval;
+		open();
+	}
+
+	private void open() throws IOException {
+		final long snapshotGeneration = snapshotFile_.exists()
+				? readGeneration(snapshotFile_)
+				: -1;
+		final long journalGeneration = journalFile_.exists()
+				? readGeneration(journalFile_)
+				: -1;
+		if (journalGeneration <= snapshotGeneration) {
+			// the journal is missing or already included in the snapshot
+			startJournal(snapshotGeneration + 1);
+			return;
+		}
+		// else
+		generation_ = journalGeneration;
+		final Contents contents = read(journalFile_);
+		batchCount_ = contents.batchCount;
+		journalStream_ = new FileOutputStream(journalFile_, true);
+		if (journalStream_.getChannel().size() > contents.validLength) {
+			LOGGER_.warn("{}: discarding an incomplete batch", journalFile_);
+			journalStream_.getChannel().truncate(contents.validLength);
+			journalStream_.getChannel().force(true);
+		}
+		LOGGER_.debug("{}: {} changes in {} batches", journalFile_,
+				contents.changes.size(), batchCount_);
+	}
+
+	private void startJournal(final long generation) throws IOException {
+		if (journalStream_ != null) {
+			journalStream_.close();
+		}
+		generation_ = generation;
+		batchCount_ = 0;
+		journalStream_ = new FileOutputStream(journalFile_, false);
+		final DataOutputStream out = new DataOutputStream(journalStream_);
+		out.writeLong(generation);
+		out.flush();
+		journalStream_.getChannel().force(true);
+	}
+
+	/**
+	 * @param processor
+	 *            the {@link ElkAxiomProcessor} that processes the added or
+	 *            removed axioms
+	 * @param isAddition
+	 *            {@code true} if the given processor processes added axioms
+	 *            and {@code false} if removed axioms
+	 * @return an {@link ElkAxiomProcessor} that records every axiom in this
+	 *         {@link ChangeJournal} and passes it to the given processor
+	 */
+	public ElkAxiomProcessor wrap(final ElkAxiomProcessor processor,
+			final boolean isAddition) {
+		return new ElkAxiomProcessor() {
+
+			@Override
+			public void visit(final ElkAxiom elkAxiom) {
+				record(elkAxiom, isAddition);
+				processor.visit(elkAxiom);
+			}
+
+		};
+	}
+
+	/**
+	 * Records the addition or removal of the given axiom. The change is
+	 * written to the journal file when the current batch is full or when
+	 * {@link #sync()} is called.
+	 * 
+	 * @param axiom
+	 * @param isAddition
+	 */
+	public synchronized void record(final ElkAxiom axiom,
+			final boolean isAddition) {
+		if (replaying_) {
+			return;
+		}
+		// else
+		pending_.add(new Change(
+				OwlFunctionalStylePrinter.toString(axiom, true), isAddition));
+		if (pending_.size() >= batchSize_) {
+			try {
+				sync();
+			} catch (final IOException e) {
+				throw new ElkRuntimeException(
+						"Cannot write the change journal " + journalFile_, e);
+			}
+		}
+	}
+
+	/**
+	 * Writes the recorded changes to the journal file as one batch and forces
+	 * them to the storage device. Makes a checkpoint if the number of batches
+	 * has reached the checkpoint interval.
+	 * 
+	 * @throws IOException
+	 *             if the journal file cannot be written
+	 */
+	public synchronized void sync() throws IOException {
+		if (pending_.isEmpty()) {
+			return;
+		}
+		// else
+		writeBatch(journalStream_, pending_);
+		journalStream_.getChannel().force(false);
+		pending_.clear();
+		batchCount_++;
+		if (checkpointInterval_ > 0 && batchCount_ >= checkpointInterval_) {
+			checkpoint();
+		}
+	}
+
+	/**
+	 * Writes a new snapshot containing the axioms of the previous snapshot
+	 * with all recorded changes applied, and starts a new journal file.
+	 * 
+	 * @throws IOException
+	 *             if the snapshot or the journal file cannot be written
+	 */
+	public synchronized void checkpoint() throws IOException {
+		sync();
+		/*
+		 * the number of occurrences of every axiom; the added axioms are
+		 * counted like in the ontology index: removing an axiom added twice
+		 * leaves one copy
+		 */
+		final Map<String, Integer> counts = new LinkedHashMap<String, Integer>();
+		for (final Change change : readAll()) {
+			final Integer count = counts.get(change.axiom);
+			final int newCount = (count == null ? 0 : count)
+					+ (change.isAddition ? 1 : -1);
+			if (newCount == 0) {
+				counts.remove(change.axiom);
+			} else {
+				counts.put(change.axiom, newCount);
+			}
+		}
+		final List<Change> snapshot = new ArrayList<Change>(counts.size());
+		for (final Map.Entry<String, Integer> entry : counts.entrySet()) {
+			for (int i = 0; i < entry.getValue(); i++) {
+				snapshot.add(new Change(entry.getKey(), true));
+			}
+		}
+		final FileOutputStream snapshotStream = new FileOutputStream(
+				snapshotTempFile_);
+		try {
+			final DataOutputStream out = new DataOutputStream(snapshotStream);
+			out.writeLong(generation_);
+			out.flush();
+			writeBatch(snapshotStream, snapshot);
+			snapshotStream.getChannel().force(true);
+		} finally {
+			IOUtils.closeQuietly(snapshotStream);
+		}
+		if (!snapshotTempFile_.renameTo(snapshotFile_)) {
+			// some platforms cannot rename over an existing file
+			if (!snapshotFile_.delete()
+					|| !snapshotTempFile_.renameTo(snapshotFile_)) {
+				throw new IOException("Cannot replace " + snapshotFile_);
+			}
+		}
+		startJournal(generation_ + 1);
+		LOGGER_.debug("{}: checkpoint with {} axioms", snapshotFile_,
+				snapshot.size());
+	}
+
+	/**
+	 * Writes the pending changes and closes the journal file.
+	 * 
+	 * @throws IOException
+	 *             if the journal file cannot be written
+	 */
+	public synchronized void close() throws IOException {
+		try {
+			sync();
+		} finally {
+			journalStream_.close();
+		}
+	}
+
+	/**
+	 * @return the {@link AxiomLoader.Factory} for loading the axioms of the
+	 *         last snapshot followed by the changes recorded after it; the
+	 *         loaded axioms are not recorded in this {@link ChangeJournal}
+	 *         again
+	 */
+	public AxiomLoader.Factory getReplayLoaderFactory() {
+		return new AxiomLoader.Factory() {
+
+			@Override
+			public AxiomLoader getAxiomLoader(
+					final InterruptMonitor interrupter) {
+				return new ReplayLoader(interrupter);
+			}
+
+		};
+	}
+
+	/**
+	 * @return the changes of the snapshot followed by the changes of the
+	 *         journal file
+	 */
+	private List<Change> readAll() throws IOException {
+		final List<Change> result = new ArrayList<Change>();
+		if (snapshotFile_.exists()) {
+			result.addAll(read(snapshotFile_).changes);
+		}
+		result.addAll(read(journalFile_).changes);
+		return result;
+	}
+
+	/**
+	 * Reads the complete batches from the given file, skipping the generation
+	 * header; reading stops at the first incomplete or corrupted batch.
+	 */
+	private static Contents read(final File file) throws IOException {
+		final Contents result = new Contents();
+		final long fileLength = file.length();
+		final InputStream stream = new FileInputStream(file);
+		try {
+			final DataInputStream in = new DataInputStream(stream);
+			in.readLong();
+			result.validLength = 8;
+			for (;;) {
+				final byte[] payload;
+				final long checksum;
+				try {
+					final int length = in.readInt();
+					if (length < 0 || length > fileLength - result.validLength) {
+						// corrupted length
+						return result;
+					}
+					payload = new byte[length];
+					in.readFully(payload);
+					checksum = in.readLong();
+				} catch (final EOFException e) {
+					return result;
+				}
+				final CRC32 crc = new CRC32();
+				crc.update(payload);
+				if (crc.getValue() != checksum) {
+					return result;
+				}
+				// else
+				readChanges(payload, result.changes);
+				result.validLength += 4 + payload.length + 8;
+				result.batchCount++;
+			}
+		} catch (final EOFException e) {
+			// the header was not written
+			return result;
+		} finally {
+			IOUtils.closeQuietly(stream);
+		}
+	}
+
+	private static long readGeneration(final File file) throws IOException {
+		final DataInputStream in = new DataInputStream(
+				new FileInputStream(file));
+		try {
+			return in.readLong();
+		} catch (final EOFException e) {
+			// the header was not written
+			return -1;
+		} finally {
+			IOUtils.closeQuietly(in);
+		}
+	}
+
+	private static void readChanges(final byte[] payload,
+			final List<Change> changes) throws IOException {
+		final DataInputStream in = new DataInputStream(
+				new ByteArrayInputStream(payload));
+		final int count = in.readInt();
+		for (int i = 0; i < count; i++) {
+			final boolean isAddition = in.readBoolean();
+			final byte[] axiom = new byte[in.readInt()];
+			in.readFully(axiom);
+			changes.add(new Change(new String(axiom, "UTF-8"), isAddition));
+		}
+	}
+
+	/**
+	 * Writes the given changes as one batch: the length of the encoded
+	 * changes, the encoded changes, and their checksum.
+	 */
+	private static void writeBatch(final FileOutputStream stream,
+			final List<Change> changes) throws IOException {
+		final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+		final DataOutputStream payload = new DataOutputStream(buffer);
+		payload.writeInt(changes.size());
+		for (final Change change : changes) {
+			final byte[] axiom = change.axiom.getBytes("UTF-8");
+			payload.writeBoolean(change.isAddition);
+			payload.writeInt(axiom.length);
+			payload.write(axiom);
+		}
+		payload.flush();
+		final byte[] bytes = buffer.toByteArray();
+		final CRC32 crc = new CRC32();
+		crc.update(bytes);
+		final DataOutputStream out = new DataOutputStream(stream);
+		out.writeInt(bytes.length);
+		out.write(bytes);
+		out.writeLong(crc.getValue());
+		out.flush();
+	}
+
+	/**
+	 * Parses the given consecutive changes of the same kind into axioms.
+	 */
+	private void parse(final List<Change> changes, final boolean isAddition,
+			final Queue<ElkAxiom> axioms, final Queue<Boolean> kinds)
+			throws ElkLoadingException {
+		final StringBuilder document = new StringBuilder("Ontology(\n");
+		for (final Change change : changes) {
+			document.append(change.axiom).append('\n');
+		}
+		document.append(")\n");
+		try {
+			parserFactory_.getParser(new StringReader(document.toString()))
+					.accept(new Owl2ParserAxiomProcessor() {
+
+						@Override
+						public void visit(final ElkAxiom elkAxiom) {
+							axioms.add(elkAxiom);
+							kinds.add(isAddition);
+						}
+
+						@Override
+						public void visit(final ElkPrefix elkPrefix) {
+							// no prefixes are used
+						}
+
+						@Override
+						public void finish() {
+							// nothing to do
+						}
+
+					});
+		} catch (final Owl2ParseException e) {
+			throw new ElkLoadingException(
+					"Cannot parse the change journal!", e);
+		}
+	}
+
+	/**
+	 * The complete batches read from a file
+	 */
+	private static class Contents {
+
+		final List<Change> changes = new ArrayList<Change>();
+
+		int batchCount = 0;
+
+		/**
+		 * the length of the part of the file containing the header and the
+		 * complete batches
+		 */
+		long validLength = 0;
+
+	}
+
+	/**
+	 * A recorded addition or removal of an axiom
+	 */
+	private static class Change {
+
+		/**
+		 * the axiom in the functional-style syntax
+		 */
+		final String axiom;
+
+		final boolean isAddition;
+
+		Change(final String axiom, final boolean isAddition) {
+			this.axiom = axiom;
+			this.isAddition = isAddition;
+		}
+
+	}
+
+	/**
+	 * Loads the axioms of the snapshot followed by the changes of the journal
+	 * file
+	 */
+	private class ReplayLoader extends AbstractAxiomLoader {
+
+		/**
+		 * the axioms to be loaded, or {@code null} if not read yet
+		 */
+		private Queue<ElkAxiom> axioms_ = null;
+
+		/**
+		 * for every element of {@link #axioms_}, whether it is added
+		 */
+		private Queue<Boolean> kinds_ = null;
+
+		ReplayLoader(final InterruptMonitor interrupter) {
+			super(interrupter);
+		}
+
+		@Override
+		public void load(final ElkAxiomProcessor axiomInserter,
+				final ElkAxiomProcessor axiomDeleter)
+				throws ElkLoadingException {
+			synchronized (ChangeJournal.this) {
+				if (axioms_ == null) {
+					read();
+				}
+				replaying_ = true;
+				try {
+					ElkAxiom next;
+					while ((next = axioms_.peek()) != null) {
+						if (isInterrupted()) {
+							return;
+						}
+						if (kinds_.peek()) {
+							axiomInserter.visit(next);
+						} else {
+							axiomDeleter.visit(next);
+						}
+						axioms_.poll();
+						kinds_.poll();
+					}
+				} finally {
+					replaying_ = false;
+				}
+			}
+		}
+
+		private void read() throws ElkLoadingException {
+			final List<Change> changes;
+			try {
+				changes = readAll();
+			} catch (final IOException e) {
+				throw new ElkLoadingException(
+						"Cannot read the change journal!", e);
+			}
+			changes.addAll(pending_);
+			axioms_ = new LinkedList<ElkAxiom>();
+			kinds_ = new LinkedList<Boolean>();
+			// parse the runs of changes of the same kind together
+			final List<Change> run = new ArrayList<Change>();
+			for (final Change change : changes) {
+				if (!run.isEmpty()
+						&& run.get(0).isAddition != change.isAddition) {
+					parse(run, run.get(0).isAddition, axioms_, kinds_);
+					run.clear();
+				}
+				run.add(change);
+			}
+			if (!run.isEmpty()) {
+				parse(run, run.get(0).isAddition, axioms_, kinds_);
+			}
+			LOGGER_.debug("{}: replaying {} changes", journalFile_,
+					axioms_.size());
+		}
+
+		@Override
+		public boolean isLoadingFinished() {
+			return axioms_ != null && axioms_.isEmpty();
+		}
+
+	}
+
+}
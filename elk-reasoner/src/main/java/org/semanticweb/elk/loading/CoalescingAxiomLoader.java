@@ -0,0 +1,164 @@
+/*
+ * #%L
+ * ELK Reasoner
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2011 - 2013 Department of Computer Science, University of Oxford
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.semanticweb.elk.loading;
+
+import java.util.LinkedList;
+import java.util.Queue;
+
+import org.semanticweb.elk.owl.interfaces.ElkAxiom;
+import org.semanticweb.elk.owl.visitors.ElkAxiomProcessor;
+import org.semanticweb.elk.util.concurrent.computation.InterruptMonitor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * An {@link AxiomLoader} that first reads all changes from the given
+ * {@link AxiomLoader} and then loads only their net effect computed by a
+ * {@link ChangeCoalescer}: an axiom that is added and then removed (or vice
+ * versa) is not loaded at all. Removed axioms are loaded before added axioms.
+ */
+public class CoalescingAxiomLoader implements AxiomLoader {
+
+	// logger for this class
+	private static final Logger LOGGER_ = LoggerFactory
+			.getLogger(CoalescingAxiomLoader.class);
+
+	private final AxiomLoader loader_;
+
+	private final ChangeCoalescer<ElkAxiom, ElkAxiom> coalescer_ = new ChangeCoalescer<ElkAxiom, ElkAxiom>();
+
+	/**
+	 * the net changes that are not yet loaded
+	 */
+	private final Queue<ElkAxiom> removals_ = new LinkedList<ElkAxiom>(),
+			additions_ = new LinkedList<ElkAxiom>();
+
+	public CoalescingAxiomLoader(AxiomLoader loader) {
+		this.loader_ = loader;
+	}
+
+	@Override
+	public void load(ElkAxiomProcessor axiomInserter,
+			ElkAxiomProcessor axiomDeleter) throws ElkLoadingException {
+		if (!loader_.isLoadingFinished()) {
+			loader_.load(new ElkAxiomProcessor() {
+
+				@Override
+				public void visit(ElkAxiom elkAxiom) {
+					coalescer_.register(elkAxiom, elkAxiom, true);
+				}
+
+			}, new ElkAxiomProcessor() {
+
+				@Override
+				public void visit(ElkAxiom elkAxiom) {
+					coalescer_.register(elkAxiom, elkAxiom, false);
+				}
+
+			});
+			if (!loader_.isLoadingFinished()) {
+				// interrupted, the net changes are not known yet
+				return;
+			}
+		}
+		if (!coalescer_.isEmpty()) {
+			LOGGER_.debug("{} changes registered, {} collapsed",
+					coalescer_.getRegisteredChangesCount(),
+					coalescer_.getCollapsedChangesCount());
+			removals_.addAll(coalescer_.pollNetRemovals());
+			additions_.addAll(coalescer_.pollNetAdditions());
+		}
+		if (!flush(removals_, axiomDeleter)) {
+			return;
+		}
+		flush(additions_, axiomInserter);
+	}
+
+	/**
+	 * @return {@code true} if all changes were flushed and {@code false} if
+	 *         interrupted
+	 */
+	private boolean flush(Queue<ElkAxiom> changes, ElkAxiomProcessor processor) {
+		ElkAxiom next;
+		while ((next = changes.peek()) != null) {
+			if (isInterrupted()) {
+				return false;
+			}
+			processor.visit(next);
+			changes.poll();
+		}
+		return true;
+	}
+
+	@Override
+	public boolean isLoadingFinished() {
+		return loader_.isLoadingFinished() && coalescer_.isEmpty()
+				&& removals_.isEmpty() && additions_.isEmpty();
+	}
+
+	@Override
+	public void dispose() {
+		loader_.dispose();
+	}
+
+	@Override
+	public boolean isInterrupted() {
+		return loader_.isInterrupted();
+	}
+
+	/**
+	 * @return the number of changes read from the underlying
+	 *         {@link AxiomLoader} so far
+	 */
+	public long getRegisteredChangesCount() {
+		return coalescer_.getRegisteredChangesCount();
+	}
+
+	/**
+	 * @return the number of changes read from the underlying
+	 *         {@link AxiomLoader} so far that cancelled each other
+	 */
+	public long getCollapsedChangesCount() {
+		return coalescer_.getCollapsedChangesCount();
+	}
+
+	/**
+	 * An {@link AxiomLoader.Factory} wrapping the loaders of the given
+	 * {@link AxiomLoader.Factory} into {@link CoalescingAxiomLoader}s
+	 */
+	public static class Factory implements AxiomLoader.Factory {
+
+		private final AxiomLoader.Factory factory_;
+
+		public Factory(AxiomLoader.Factory factory) {
+			this.factory_ = factory;
+		}
+
+		@Override
+		public AxiomLoader getAxiomLoader(InterruptMonitor interrupter) {
+			return new CoalescingAxiomLoader(
+					factory_.getAxiomLoader(interrupter));
+		}
+
+	}
+
+}
@@ -0,0 +1,565 @@
+/*-
+ * #%L
+ * ELK Reasoner Core
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2011 - 2016 Department of Computer Science, University of Oxford
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.semanticweb.elk.reasoner;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.semanticweb.elk.owl.interfaces.ElkAxiom;
+import org.semanticweb.elk.owl.interfaces.ElkClass;
+import org.semanticweb.elk.owl.interfaces.ElkClassExpression;
+import org.semanticweb.elk.owl.interfaces.ElkNamedIndividual;
+import org.semanticweb.elk.owl.interfaces.ElkObjectProperty;
+import org.semanticweb.elk.reasoner.query.EntailmentQueryResult;
+import org.semanticweb.elk.reasoner.stages.ElkInterruptedException;
+import org.semanticweb.elk.reasoner.taxonomy.model.InstanceTaxonomy;
+import org.semanticweb.elk.reasoner.taxonomy.model.Node;
+import org.semanticweb.elk.reasoner.taxonomy.model.Taxonomy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A non-blocking facade for a {@link Reasoner}. Every request returns
+ * immediately with a {@link ReasonerFuture} and is executed by a single
+ * background thread, so the requests are processed in the order of their
+ * submission and never block the calling thread on the lock of the
+ * {@link Reasoner}.
+ * <p>
+ * Identical requests that are submitted while an earlier one is still queued
+ * are coalesced: they share the same computation and receive the same result.
+ * A request submitted while an identical one is running is not coalesced with
+ * it, since the running computation may not see the changes of the ontology
+ * made before the submission. Each caller still obtains its own {@link ReasonerFuture};
+ * cancelling it does not affect the other callers, and the shared computation
+ * is interrupted using {@link Reasoner#interrupt()} only when all of them have
+ * cancelled their futures.
+ * <p>
+ * Changes of the ontology and of the configuration should be made to the
+ * underlying {@link Reasoner} directly; they take effect for the requests
+ * that start running afterwards.
+ */
+public class AsyncReasoner {
+
+	// logger for this class
+	private static final Logger LOGGER_ = LoggerFactory
+			.getLogger(AsyncReasoner.class);
+
+	/**
+	 * the {@link Reasoner} that computes the results
+	 */
+	private final Reasoner reasoner_;
+
+	/**
+	 * runs the requests one after another
+	 */
+	private final ExecutorService executor_;
+
+	/**
+	 * the requests that are queued indexed by their keys; also guards
+	 * {@link #running_} and the subscriptions of the requests
+	 */
+	private final Map<Object, Request<?>> requests_ = new HashMap<Object, Request<?>>();
+
+	/**
+	 * the request that is currently executed by the {@link Reasoner} or
+	 * {@code null} if there is no such request
+	 */
+	private Request<?> running_ = null;
+
+	public AsyncReasoner(final Reasoner reasoner) {
+		this.reasoner_ = reasoner;
+		this.executor_ = Executors
+				.newSingleThreadExecutor(new ThreadFactory() {
+					@Override
+					public Thread newThread(final Runnable runnable) {
+						final Thread thread = new Thread(runnable,
+								"elk-async-reasoner");
+						thread.setDaemon(true);
+						return thread;
+					}
+				});
+	}
+
+	/**
+	 * @return the {@link Reasoner} used by this {@link AsyncReasoner}
+	 */
+	public Reasoner getReasoner() {
+		return reasoner_;
+	}
+
+	/**
+	 * @return the future result of {@link Reasoner#isInconsistent()}
+	 */
+	public ReasonerFuture<Boolean> isInconsistent() {
+		return submit(Arrays.asList("isInconsistent"), new Callable<Boolean>() {
+			@Override
+			public Boolean call() throws Exception {
+				return reasoner_.isInconsistent();
+			}
+		});
+	}
+
+	/**
+	 * @return the future result of {@link Reasoner#getTaxonomy()}
+	 */
+	public ReasonerFuture<Taxonomy<ElkClass>> getTaxonomy() {
+		return submit(Arrays.asList("getTaxonomy"),
+				new Callable<Taxonomy<ElkClass>>() {
+					@Override
+					public Taxonomy<ElkClass> call() throws Exception {
+						return reasoner_.getTaxonomy();
+					}
+				});
+	}
+
+	/**
+	 * @return the future result of {@link Reasoner#getInstanceTaxonomy()}
+	 */
+	public ReasonerFuture<InstanceTaxonomy<ElkClass, ElkNamedIndividual>> getInstanceTaxonomy() {
+		return submit(Arrays.asList("getInstanceTaxonomy"),
+				new Callable<InstanceTaxonomy<ElkClass, ElkNamedIndividual>>() {
+					@Override
+					public InstanceTaxonomy<ElkClass, ElkNamedIndividual> call()
+							throws Exception {
+						return reasoner_.getInstanceTaxonomy();
+					}
+				});
+	}
+
+	/**
+	 * @return the future result of {@link Reasoner#getObjectPropertyTaxonomy()}
+	 */
+	public ReasonerFuture<Taxonomy<ElkObjectProperty>> getObjectPropertyTaxonomy() {
+		return submit(Arrays.asList("getObjectPropertyTaxonomy"),
+				new Callable<Taxonomy<ElkObjectProperty>>() {
+					@Override
+					public Taxonomy<ElkObjectProperty> call() throws Exception {
+						return reasoner_.getObjectPropertyTaxonomy();
+					}
+				});
+	}
+
+	/**
+	 * @param classExpression
+	 * @return the future result of
+	 *         {@link Reasoner#isSatisfiable(ElkClassExpression)}
+	 */
+	public ReasonerFuture<Boolean> isSatisfiable(
+			final ElkClassExpression classExpression) {
+		return submit(Arrays.<Object> asList("isSatisfiable", classExpression),
+				new Callable<Boolean>() {
+					@Override
+					public Boolean call() throws Exception {
+						return reasoner_.isSatisfiable(classExpression);
+					}
+				});
+	}
+
+	/**
+	 * @param classExpression
+	 * @return the future result of
+	 *         {@link Reasoner#getEquivalentClasses(ElkClassExpression)}
+	 */
+	public ReasonerFuture<Node<ElkClass>> getEquivalentClasses(
+			final ElkClassExpression classExpression) {
+		return submit(
+				Arrays.<Object> asList("getEquivalentClasses", classExpression),
+				new Callable<Node<ElkClass>>() {
+					@Override
+					public Node<ElkClass> call() throws Exception {
+						return reasoner_.getEquivalentClasses(classExpression);
+					}
+				});
+	}
+
+	/**
+	 * @param classExpression
+	 * @param direct
+	 * @return the future result of
+	 *         {@link Reasoner#getSuperClasses(ElkClassExpression, boolean)}
+	 */
+	public ReasonerFuture<Set<? extends Node<ElkClass>>> getSuperClasses(
+			final ElkClassExpression classExpression, final boolean direct) {
+		return submit(
+				Arrays.<Object> asList("getSuperClasses", classExpression,
+						direct),
+				new Callable<Set<? extends Node<ElkClass>>>() {
+					@Override
+					public Set<? extends Node<ElkClass>> call()
+							throws Exception {
+						return reasoner_.getSuperClasses(classExpression,
+								direct);
+					}
+				});
+	}
+
+	/**
+	 * @param classExpression
+	 * @param direct
+	 * @return the future result of
+	 *         {@link Reasoner#getSubClasses(ElkClassExpression, boolean)}
+	 */
+	public ReasonerFuture<Set<? extends Node<ElkClass>>> getSubClasses(
+			final ElkClassExpression classExpression, final boolean direct) {
+		return submit(
+				Arrays.<Object> asList("getSubClasses", classExpression,
+						direct),
+				new Callable<Set<? extends Node<ElkClass>>>() {
+					@Override
+					public Set<? extends Node<ElkClass>> call()
+							throws Exception {
+						return reasoner_.getSubClasses(classExpression, direct);
+					}
+				});
+	}
+
+	/**
+	 * @param classExpression
+	 * @param direct
+	 * @return the future result of
+	 *         {@link Reasoner#getInstances(ElkClassExpression, boolean)}
+	 */
+	public ReasonerFuture<Set<? extends Node<ElkNamedIndividual>>> getInstances(
+			final ElkClassExpression classExpression, final boolean direct) {
+		return submit(
+				Arrays.<Object> asList("getInstances", classExpression, direct),
+				new Callable<Set<? extends Node<ElkNamedIndividual>>>() {
+					@Override
+					public Set<? extends Node<ElkNamedIndividual>> call()
+							throws Exception {
+						return reasoner_.getInstances(classExpression, direct);
+					}
+				});
+	}
+
+	/**
+	 * @param individual
+	 * @param direct
+	 * @return the future result of
+	 *         {@link Reasoner#getTypes(ElkNamedIndividual, boolean)}
+	 */
+	public ReasonerFuture<Set<? extends Node<ElkClass>>> getTypes(
+			final ElkNamedIndividual individual, final boolean direct) {
+		return submit(Arrays.<Object> asList("getTypes", individual, direct),
+				new Callable<Set<? extends Node<ElkClass>>>() {
+					@Override
+					public Set<? extends Node<ElkClass>> call()
+							throws Exception {
+						return reasoner_.getTypes(individual, direct);
+					}
+				});
+	}
+
+	/**
+	 * @param axiom
+	 * @return the future result of {@link Reasoner#isEntailed(ElkAxiom)}
+	 */
+	public ReasonerFuture<EntailmentQueryResult> isEntailed(
+			final ElkAxiom axiom) {
+		return submit(Arrays.<Object> asList("isEntailed", axiom),
+				new Callable<EntailmentQueryResult>() {
+					@Override
+					public EntailmentQueryResult call() throws Exception {
+						return reasoner_.isEntailed(axiom);
+					}
+				});
+	}
+
+	/**
+	 * Cancels all queued requests, interrupts the running one, and stops the
+	 * background thread. The underlying {@link Reasoner} is not shut down.
+	 */
+	public void shutdown() {
+		final List<Request<?>> requests;
+		synchronized (requests_) {
+			requests = new ArrayList<Request<?>>(requests_.values());
+			requests_.clear();
+			if (running_ != null && !running_.isDone()) {
+				running_.interruptRequested_ = true;
+				reasoner_.interrupt();
+				requests.add(running_);
+			}
+		}
+		for (final Request<?> request : requests) {
+			request.cancel(false);
+		}
+		executor_.shutdown();
+	}
+
+	/**
+	 * Returns a new {@link ReasonerFuture} for the result of the given task,
+	 * reusing the computation of an identical request if there is one queued.
+	 */
+	private <T> ReasonerFuture<T> submit(final Object key,
+			final Callable<T> task) {
+		synchronized (requests_) {
+			@SuppressWarnings("unchecked")
+			Request<T> request = (Request<T>) requests_.get(key);
+			if (request == null) {
+				request = new Request<T>(key, task);
+				requests_.put(key, request);
+				executor_.execute(request);
+			} else {
+				LOGGER_.trace("{}: coalesced with a pending request", key);
+			}
+			return request.subscribe();
+		}
+	}
+
+	/**
+	 * A computation shared by all {@link Handle}s subscribed to it.
+	 */
+	private class Request<T> extends FutureTask<T> {
+
+		private final Object key_;
+
+		/**
+		 * the handles that are not cancelled; guarded by
+		 * {@link AsyncReasoner#requests_}
+		 */
+		private final List<Handle<T>> handles_ = new ArrayList<Handle<T>>(1);
+
+		/**
+		 * {@code true} if {@link Reasoner#interrupt()} was called for this
+		 * request while it was running; guarded by
+		 * {@link AsyncReasoner#requests_}
+		 */
+		private boolean interruptRequested_ = false;
+
+		Request(final Object key, final Callable<T> task) {
+			super(task);
+			this.key_ = key;
+		}
+
+		Handle<T> subscribe() {
+			// called under requests_
+			final Handle<T> handle = new Handle<T>(this);
+			handles_.add(handle);
+			return handle;
+		}
+
+		void unsubscribe(final Handle<T> handle,
+				final boolean mayInterruptIfRunning) {
+			synchronized (requests_) {
+				if (!handles_.remove(handle) || !handles_.isEmpty()) {
+					return;
+				}
+				// nobody is interested in the result anymore
+				if (requests_.get(key_) == this) {
+					requests_.remove(key_);
+				}
+				if (running_ == this && !isDone()) {
+					if (!mayInterruptIfRunning) {
+						// let it finish; the result is dropped
+						return;
+					}
+					LOGGER_.trace("{}: interrupting", key_);
+					interruptRequested_ = true;
+					reasoner_.interrupt();
+				}
+			}
+			// either not started yet, or interrupted
+			cancel(false);
+		}
+
+		@Override
+		public void run() {
+			synchronized (requests_) {
+				if (requests_.get(key_) == this) {
+					// identical requests submitted from now on are not
+					// coalesced with this one
+					requests_.remove(key_);
+				}
+				if (isDone()) {
+					return;
+				}
+				running_ = this;
+			}
+			final boolean interruptRequested;
+			try {
+				super.run();
+			} finally {
+				synchronized (requests_) {
+					running_ = null;
+					interruptRequested = interruptRequested_;
+				}
+			}
+			if (interruptRequested) {
+				/*
+				 * the interrupt may have been requested when the reasoner had
+				 * already finished, so the flag must not leak to the next
+				 * request; the next request is not started before this method
+				 * returns, and no interrupt can be requested for this one
+				 * anymore since it is not running
+				 */
+				try {
+					reasoner_.checkInterrupt();
+				} catch (final ElkInterruptedException e) {
+					// expected
+				}
+			}
+		}
+
+		@Override
+		protected void done() {
+			final List<Handle<T>> handles;
+			synchronized (requests_) {
+				if (requests_.get(key_) == this) {
+					requests_.remove(key_);
+				}
+				handles = new ArrayList<Handle<T>>(handles_);
+			}
+			for (final Handle<T> handle : handles) {
+				handle.complete();
+			}
+		}
+
+	}
+
+	/**
+	 * The {@link ReasonerFuture} given to one caller of a {@link Request}.
+	 */
+	private static class Handle<T> implements ReasonerFuture<T> {
+
+		private final Request<T> request_;
+
+		/**
+		 * guarded by {@code this}
+		 */
+		private boolean isCancelled_ = false;
+
+		/**
+		 * the listeners not yet run; guarded by {@code this}; {@code null}
+		 * after the handle is completed
+		 */
+		private List<Runnable> listeners_ = new ArrayList<Runnable>(1);
+
+		Handle(final Request<T> request) {
+			this.request_ = request;
+		}
+
+		@Override
+		public boolean cancel(final boolean mayInterruptIfRunning) {
+			synchronized (this) {
+				if (isCancelled_ || listeners_ == null) {
+					return false;
+				}
+				isCancelled_ = true;
+			}
+			request_.unsubscribe(this, mayInterruptIfRunning);
+			complete();
+			return true;
+		}
+
+		@Override
+		public synchronized boolean isCancelled() {
+			return isCancelled_ || request_.isCancelled();
+		}
+
+		@Override
+		public synchronized boolean isDone() {
+			return isCancelled_ || request_.isDone();
+		}
+
+		@Override
+		public T get() throws InterruptedException, ExecutionException {
+			synchronized (this) {
+				while (listeners_ != null) {
+					wait();
+				}
+				if (isCancelled_) {
+					throw new CancellationException();
+				}
+			}
+			return request_.get();
+		}
+
+		@Override
+		public T get(final long timeout, final TimeUnit unit)
+				throws InterruptedException, ExecutionException,
+				TimeoutException {
+			final long deadline = System.nanoTime() + unit.toNanos(timeout);
+			synchronized (this) {
+				while (listeners_ != null) {
+					final long remaining = deadline - System.nanoTime();
+					if (remaining <= 0) {
+						throw new TimeoutException();
+					}
+					TimeUnit.NANOSECONDS.timedWait(this, remaining);
+				}
+				if (isCancelled_) {
+					throw new CancellationException();
+				}
+			}
+			return request_.get();
+		}
+
+		@Override
+		public void addListener(final Runnable listener) {
+			synchronized (this) {
+				if (listeners_ != null) {
+					listeners_.add(listener);
+					return;
+				}
+			}
+			listener.run();
+		}
+
+		/**
+		 * Wakes up the waiting threads and runs the listeners; only the first
+		 * call has an effect.
+		 */
+		void complete() {
+			final List<Runnable> listeners;
+			synchronized (this) {
+				if (listeners_ == null) {
+					return;
+				}
+				listeners = listeners_;
+				listeners_ = null;
+				notifyAll();
+			}
+			for (final Runnable listener : listeners) {
+				try {
+					listener.run();
+				} catch (final RuntimeException e) {
+					LOGGER_.error("Exception in a listener", e);
+				}
+			}
+		}
+
+	}
+
+}
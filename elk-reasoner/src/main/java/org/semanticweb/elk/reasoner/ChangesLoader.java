@@ -0,0 +1,96 @@
+/*-
+ * #%L
+ * ELK Reasoner Core
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2011 - 2016 Department of Computer Science, University of Oxford
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.semanticweb.elk.reasoner;
+
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Queue;
+
+import org.semanticweb.elk.loading.AbstractAxiomLoader;
+import org.semanticweb.elk.loading.AxiomLoader;
+import org.semanticweb.elk.loading.ElkLoadingException;
+import org.semanticweb.elk.owl.interfaces.ElkAxiom;
+import org.semanticweb.elk.owl.visitors.ElkAxiomProcessor;
+import org.semanticweb.elk.util.concurrent.computation.InterruptMonitor;
+
+/**
+ * Loads the given removed and added axioms, in this order
+ */
+class ChangesLoader extends AbstractAxiomLoader {
+
+	private final Queue<ElkAxiom> additions_, removals_;
+
+	ChangesLoader(final InterruptMonitor interrupter,
+			final List<ElkAxiom> additions,
+			final List<ElkAxiom> removals) {
+		super(interrupter);
+		this.additions_ = new LinkedList<ElkAxiom>(additions);
+		this.removals_ = new LinkedList<ElkAxiom>(removals);
+	}
+
+	@Override
+	public void load(final ElkAxiomProcessor axiomInserter,
+			final ElkAxiomProcessor axiomDeleter)
+			throws ElkLoadingException {
+		if (!flush(removals_, axiomDeleter)) {
+			return;
+		}
+		flush(additions_, axiomInserter);
+	}
+
+	private boolean flush(final Queue<ElkAxiom> changes,
+			final ElkAxiomProcessor processor) {
+		ElkAxiom next;
+		while ((next = changes.peek()) != null) {
+			if (isInterrupted()) {
+				return false;
+			}
+			processor.visit(next);
+			changes.poll();
+		}
+		return true;
+	}
+
+	@Override
+	public boolean isLoadingFinished() {
+		return additions_.isEmpty() && removals_.isEmpty();
+	}
+
+	static class Factory implements AxiomLoader.Factory {
+
+		private final List<ElkAxiom> additions_, removals_;
+
+		Factory(final List<ElkAxiom> additions,
+				final List<ElkAxiom> removals) {
+			this.additions_ = additions;
+			this.removals_ = removals;
+		}
+
+		@Override
+		public AxiomLoader getAxiomLoader(
+				final InterruptMonitor interrupter) {
+			return new ChangesLoader(interrupter, additions_, removals_);
+		}
+
+	}
+
+}
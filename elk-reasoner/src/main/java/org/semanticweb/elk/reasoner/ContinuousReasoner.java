@@ -0,0 +1,395 @@
+/*-
+ * #%L
+ * ELK Reasoner Core
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2011 - 2016 Department of Computer Science, University of Oxford
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.semanticweb.elk.reasoner;
+
+import java.util.List;
+
+import org.semanticweb.elk.exceptions.ElkException;
+import org.semanticweb.elk.loading.ChangeCoalescer;
+import org.semanticweb.elk.owl.interfaces.ElkAxiom;
+import org.semanticweb.elk.owl.interfaces.ElkClass;
+import org.semanticweb.elk.reasoner.stages.ElkInterruptedException;
+import org.semanticweb.elk.reasoner.taxonomy.FrozenTaxonomy;
+import org.semanticweb.elk.reasoner.taxonomy.model.Taxonomy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Keeps the class taxonomy of a {@link Reasoner} up to date in the
+ * background. The changes submitted using {@link #addAxiom(ElkAxiom)} and
+ * {@link #removeAxiom(ElkAxiom)} are buffered without touching the
+ * {@link Reasoner}; a dedicated thread repeatedly takes the net effect of the
+ * buffered changes, loads it into the {@link Reasoner}, recomputes the
+ * taxonomy (incrementally, if the {@link Reasoner} allows it), and publishes
+ * an immutable copy of the result as a new {@link Version}.
+ * <p>
+ * {@link #getLatestVersion()} never blocks: it returns the most recently
+ * published {@link Version}, which may not yet reflect the changes submitted
+ * since. Use {@link #awaitVersion(long)} to wait until the changes submitted
+ * so far are taken into account.
+ * <p>
+ * Publishing a {@link Version} with a taxonomy copies the whole class
+ * taxonomy, which takes time and memory linear in its size for every version,
+ * however small the changes are. If the taxonomies of the versions are not
+ * needed, e.g., if only the consistency of the ontology is monitored or the
+ * taxonomy is read from the {@link Reasoner} after {@link #shutdown()}, the
+ * copies can be disabled using {@link #ContinuousReasoner(Reasoner, boolean)}.
+ * <p>
+ * While the {@link ContinuousReasoner} is running, the underlying
+ * {@link Reasoner} should not be used directly.
+ */
+public class ContinuousReasoner {
+
+	// logger for this class
+	private static final Logger LOGGER_ = LoggerFactory
+			.getLogger(ContinuousReasoner.class);
+
+	/**
+	 * the {@link Reasoner} that computes the taxonomies
+	 */
+	private final Reasoner reasoner_;
+
+	/**
+	 * the changes that are not yet passed to the {@link Reasoner}; also
+	 * guards {@link #submittedChanges_}
+	 */
+	private final ChangeCoalescer<ElkAxiom, ElkAxiom> pendingChanges_ = new ChangeCoalescer<ElkAxiom, ElkAxiom>();
+
+	/**
+	 * the number of calls of {@link #addAxiom(ElkAxiom)} and
+	 * {@link #removeAxiom(ElkAxiom)} so far
+	 */
+	private long submittedChanges_ = 0;
+
+	/**
+	 * the thread that computes the new versions
+	 */
+	private final Thread worker_;
+
+	/**
+	 * the last published version or {@code null} if no version has been
+	 * published yet
+	 */
+	private volatile Version latest_ = null;
+
+	/**
+	 * used to notify the threads waiting for a new version
+	 */
+	private final Object versionLock_ = new Object();
+
+	/**
+	 * whether the published versions contain copies of the taxonomy
+	 */
+	private final boolean copyTaxonomies_;
+
+	/**
+	 * {@code true} if {@link #shutdown()} was called
+	 */
+	private volatile boolean shutdown_ = false;
+
+	/**
+	 * {@code true} if {@link #worker_} does not compute new versions anymore
+	 */
+	private volatile boolean stopped_ = false;
+
+	/**
+	 * Creates a {@link ContinuousReasoner} whose {@link Version}s contain
+	 * copies of the taxonomy.
+	 * 
+	 * @param reasoner
+	 *            the {@link Reasoner} that computes the taxonomies
+	 */
+	public ContinuousReasoner(final Reasoner reasoner) {
+		this(reasoner, true);
+	}
+
+	/**
+	 * @param reasoner
+	 *            the {@link Reasoner} that computes the taxonomies
+	 * @param copyTaxonomies
+	 *            if {@code true}, every published {@link Version} contains a
+	 *            copy of the taxonomy, which costs time and memory linear in
+	 *            the size of the taxonomy; if {@code false}, the taxonomy is
+	 *            still computed for every version, but
+	 *            {@link Version#getTaxonomy()} returns {@code null}
+	 */
+	public ContinuousReasoner(final Reasoner reasoner,
+			final boolean copyTaxonomies) {
+		this.reasoner_ = reasoner;
+		this.copyTaxonomies_ = copyTaxonomies;
+		this.worker_ = new Thread(new Runnable() {
+			@Override
+			public void run() {
+				process();
+			}
+		}, "elk-continuous-reasoner");
+		worker_.setDaemon(true);
+		worker_.start();
+	}
+
+	/**
+	 * @return the {@link Reasoner} used by this {@link ContinuousReasoner}
+	 */
+	public Reasoner getReasoner() {
+		return reasoner_;
+	}
+
+	/**
+	 * Schedules the addition of the given axiom; returns immediately.
+	 * 
+	 * @param axiom
+	 * @return the number of changes submitted so far, including this one; the
+	 *         change is reflected in every {@link Version} whose
+	 *         {@link Version#getChangesCount()} is not smaller
+	 */
+	public long addAxiom(final ElkAxiom axiom) {
+		return submit(axiom, true);
+	}
+
+	/**
+	 * Schedules the removal of the given axiom; returns immediately.
+	 * 
+	 * @param axiom
+	 * @return the number of changes submitted so far, including this one; the
+	 *         change is reflected in every {@link Version} whose
+	 *         {@link Version#getChangesCount()} is not smaller
+	 */
+	public long removeAxiom(final ElkAxiom axiom) {
+		return submit(axiom, false);
+	}
+
+	/**
+	 * @return the last published {@link Version} or {@code null} if the first
+	 *         version is not computed yet; this method never blocks
+	 */
+	public Version getLatestVersion() {
+		return latest_;
+	}
+
+	/**
+	 * Waits until a {@link Version} that reflects the given number of
+	 * submitted changes is published.
+	 * 
+	 * @param changesCount
+	 *            the value returned by {@link #addAxiom(ElkAxiom)} or
+	 *            {@link #removeAxiom(ElkAxiom)}
+	 * @return the first published {@link Version} whose
+	 *         {@link Version#getChangesCount()} is at least the given value,
+	 *         or the last published {@link Version} if this
+	 *         {@link ContinuousReasoner} was shut down earlier
+	 * @throws InterruptedException
+	 *             if the calling thread is interrupted while waiting
+	 */
+	public Version awaitVersion(final long changesCount)
+			throws InterruptedException {
+		synchronized (versionLock_) {
+			for (;;) {
+				final Version latest = latest_;
+				if (latest != null && latest.getChangesCount() >= changesCount
+						|| stopped_) {
+					return latest;
+				}
+				versionLock_.wait();
+			}
+		}
+	}
+
+	/**
+	 * Stops the background thread, interrupting the computation of the next
+	 * version if necessary, and waits until it terminates. The changes that
+	 * are not yet reflected in the last published {@link Version} remain
+	 * registered with the {@link Reasoner}, which is not shut down.
+	 * 
+	 * @throws InterruptedException
+	 *             if the calling thread is interrupted while waiting
+	 */
+	public void shutdown() throws InterruptedException {
+		shutdown_ = true;
+		reasoner_.interrupt();
+		synchronized (pendingChanges_) {
+			pendingChanges_.notifyAll();
+		}
+		worker_.join();
+		/*
+		 * the interrupt may have been requested when the reasoner was not
+		 * running, so the flag must not leak to the later computations
+		 */
+		try {
+			reasoner_.checkInterrupt();
+		} catch (final ElkInterruptedException e) {
+			// expected
+		}
+	}
+
+	private long submit(final ElkAxiom axiom, final boolean isAddition) {
+		synchronized (pendingChanges_) {
+			pendingChanges_.register(axiom, axiom, isAddition);
+			submittedChanges_++;
+			pendingChanges_.notifyAll();
+			return submittedChanges_;
+		}
+	}
+
+	/**
+	 * The main loop of the background thread
+	 */
+	private void process() {
+		long changesCount = 0;
+		try {
+			for (;;) {
+				final List<ElkAxiom> removals, additions;
+				synchronized (pendingChanges_) {
+					while (!shutdown_ && latest_ != null
+							&& latest_.getChangesCount() == submittedChanges_) {
+						pendingChanges_.wait();
+					}
+					if (shutdown_) {
+						return;
+					}
+					removals = pendingChanges_.pollNetRemovals();
+					additions = pendingChanges_.pollNetAdditions();
+					changesCount = submittedChanges_;
+				}
+				if (!removals.isEmpty() || !additions.isEmpty()) {
+					reasoner_.registerAxiomLoader(
+							new ChangesLoader.Factory(additions, removals));
+				}
+				final Version version;
+				try {
+					version = computeVersion(changesCount);
+				} catch (final ElkInterruptedException e) {
+					if (shutdown_) {
+						return;
+					}
+					// the loaded changes are kept, try again
+					continue;
+				} catch (final ElkException e) {
+					LOGGER_.error("Cannot compute the taxonomy", e);
+					/*
+					 * keep the previous taxonomy; the error may be caused by
+					 * the changes, so try again only after the next ones
+					 */
+					final Version previous = latest_;
+					publish(previous == null
+							? new Version(0, changesCount, null, false)
+							: new Version(previous.getNumber(), changesCount,
+									previous.getTaxonomy(),
+									previous.isInconsistent()));
+					continue;
+				}
+				publish(version);
+			}
+		} catch (final InterruptedException e) {
+			LOGGER_.debug("Continuous reasoning interrupted");
+		} finally {
+			synchronized (versionLock_) {
+				stopped_ = true;
+				versionLock_.notifyAll();
+			}
+		}
+	}
+
+	private Version computeVersion(final long changesCount)
+			throws ElkException {
+		final long number = latest_ == null ? 1 : latest_.getNumber() + 1;
+		final boolean isInconsistent = reasoner_.isInconsistent();
+		final Taxonomy<ElkClass> taxonomy = isInconsistent
+				? reasoner_.getTaxonomyQuietly()
+				: reasoner_.getTaxonomy();
+		return new Version(number, changesCount,
+				copyTaxonomies_ ? new FrozenTaxonomy<ElkClass>(taxonomy)
+						: null,
+				isInconsistent);
+	}
+
+	private void publish(final Version version) {
+		LOGGER_.trace("Publishing version {}", version.getNumber());
+		synchronized (versionLock_) {
+			latest_ = version;
+			versionLock_.notifyAll();
+		}
+	}
+
+	/**
+	 * A snapshot of the class taxonomy computed by a
+	 * {@link ContinuousReasoner}. It never changes after it has been
+	 * published.
+	 */
+	public static class Version {
+
+		private final long number_;
+
+		private final long changesCount_;
+
+		private final Taxonomy<ElkClass> taxonomy_;
+
+		private final boolean isInconsistent_;
+
+		Version(final long number, final long changesCount,
+				final Taxonomy<ElkClass> taxonomy,
+				final boolean isInconsistent) {
+			this.number_ = number;
+			this.changesCount_ = changesCount;
+			this.taxonomy_ = taxonomy;
+			this.isInconsistent_ = isInconsistent;
+		}
+
+		/**
+		 * @return the number of this version; the numbers start from 1 and
+		 *         increase by one with every new taxonomy, the number 0 is
+		 *         used if no taxonomy could be computed so far
+		 */
+		public long getNumber() {
+			return number_;
+		}
+
+		/**
+		 * @return the number of the changes submitted to the
+		 *         {@link ContinuousReasoner} that were taken into account
+		 *         when computing this version
+		 */
+		public long getChangesCount() {
+			return changesCount_;
+		}
+
+		/**
+		 * @return the class taxonomy of this version or {@code null} if no
+		 *         taxonomy could be computed or the taxonomies are not copied,
+		 *         see {@link ContinuousReasoner#ContinuousReasoner(Reasoner, boolean)};
+		 *         if the ontology is inconsistent, all classes belong to one
+		 *         node
+		 */
+		public Taxonomy<ElkClass> getTaxonomy() {
+			return taxonomy_;
+		}
+
+		/**
+		 * @return {@code true} if the ontology of this version is
+		 *         inconsistent
+		 */
+		public boolean isInconsistent() {
+			return isInconsistent_;
+		}
+
+	}
+
+}
@@ -32,6 +32,7 @@ import org.semanticweb.elk.owl.interfaces.ElkClassExpression;
 import org.semanticweb.elk.owl.interfaces.ElkNamedIndividual;
 import org.semanticweb.elk.owl.interfaces.ElkObject;
 import org.semanticweb.elk.owl.interfaces.ElkObjectProperty;
+import org.semanticweb.elk.reasoner.config.QueryCacheEvictionPolicy;
 import org.semanticweb.elk.reasoner.config.ReasonerConfiguration;
 import org.semanticweb.elk.reasoner.indexing.model.OntologyIndex;
 import org.semanticweb.elk.reasoner.stages.AbstractReasonerState;
@@ -177,6 +178,27 @@ public class Reasoner extends AbstractReasonerState {
 		setAllowIncrementalMode(config
 				.getParameterAsBoolean(ReasonerConfiguration.INCREMENTAL_MODE_ALLOWED));
 
+		setCostBasedIncrementalMode(config.getParameterAsBoolean(
+				ReasonerConfiguration.INCREMENTAL_MODE_COST_BASED));
+
+		setClassExpressionQueryCache(
+				QueryCacheEvictionPolicy.valueOf(config.getParameter(
+						ReasonerConfiguration.CLASS_EXPRESSION_QUERY_CACHE_EVICTION_POLICY)),
+				config.getParameterAsInt(
+						ReasonerConfiguration.CLASS_EXPRESSION_QUERY_CACHE_CAPACITY));
+
+		setTracingCache(
+				QueryCacheEvictionPolicy.valueOf(config.getParameter(
+						ReasonerConfiguration.TRACING_CACHE_EVICTION_POLICY)),
+				config.getParameterAsInt(
+						ReasonerConfiguration.TRACING_CACHE_CAPACITY));
+
+		setCompactTracingInferences(config.getParameterAsBoolean(
+				ReasonerConfiguration.TRACING_COMPACT_INFERENCES));
+
+		setAboxCompression(config.getParameterAsBoolean(
+				ReasonerConfiguration.ABOX_COMPRESSION));
+
 	}
 
 	@Override
@@ -26,6 +26,7 @@
 package org.semanticweb.elk.reasoner;
 
 import org.semanticweb.elk.loading.AxiomLoader;
+import org.semanticweb.elk.loading.ChangeJournal;
 import org.semanticweb.elk.owl.interfaces.ElkObject;
 import org.semanticweb.elk.owl.managers.ElkObjectEntityRecyclingFactory;
 import org.semanticweb.elk.reasoner.config.ReasonerConfiguration;
@@ -88,6 +89,24 @@ public class ReasonerFactory {
 				reasoner.getStageExecutor(), config);
 	}
 
+	/**
+	 * Creates a {@link Reasoner} for the ontology recorded in the given
+	 * {@link ChangeJournal}: the axioms of the last snapshot and the changes
+	 * recorded after it are loaded, and the subsequent changes are recorded
+	 * in the same {@link ChangeJournal}.
+	 * 
+	 * @param journal
+	 * @param config
+	 * @return the new {@link Reasoner}
+	 */
+	public Reasoner createReasoner(final ChangeJournal journal,
+			final ReasonerConfiguration config) {
+		final Reasoner reasoner = createReasoner(
+				journal.getReplayLoaderFactory(), config);
+		reasoner.setChangeJournal(journal);
+		return reasoner;
+	}
+
 	public Reasoner createReasoner(final ReasonerConfiguration config) {
 		return createReasoner(DEFAULT_INTERRUPTER, DEFAULT_STAGE_EXECUTOR,
 				config);
@@ -0,0 +1,49 @@
+/*-
+ * #%L
+ * ELK Reasoner Core
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2011 - 2016 Department of Computer Science, University of Oxford
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.semanticweb.elk.reasoner;
+
+import java.util.concurrent.Future;
+
+/**
+ * The result of a reasoning request that is computed asynchronously by
+ * {@link AsyncReasoner}. Cancelling this {@link Future} withdraws the interest
+ * of its holder only; the underlying computation is interrupted once nobody
+ * is interested in its result anymore.
+ * 
+ * @param <T>
+ *            the type of the result
+ */
+public interface ReasonerFuture<T> extends Future<T> {
+
+	/**
+	 * Registers a listener that is run once this {@link ReasonerFuture} is
+	 * done, i.e., after the result is computed, the computation failed, or
+	 * this future was cancelled. If this future is already done, the listener
+	 * is run immediately in the calling thread; otherwise it is run by the
+	 * thread that completes the future, so it should not block.
+	 * 
+	 * @param listener
+	 *            the {@link Runnable} to be run on completion
+	 */
+	void addListener(Runnable listener);
+
+}
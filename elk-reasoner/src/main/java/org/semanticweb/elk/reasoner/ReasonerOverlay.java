@@ -0,0 +1,312 @@
+/*-
+ * #%L
+ * ELK Reasoner Core
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2011 - 2016 Department of Computer Science, University of Oxford
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.semanticweb.elk.reasoner;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.semanticweb.elk.exceptions.ElkException;
+import org.semanticweb.elk.owl.interfaces.ElkAxiom;
+import org.semanticweb.elk.owl.interfaces.ElkClass;
+import org.semanticweb.elk.owl.printers.OwlFunctionalStylePrinter;
+import org.semanticweb.elk.reasoner.config.ReasonerConfiguration;
+import org.semanticweb.elk.reasoner.query.ElkQueryException;
+import org.semanticweb.elk.reasoner.query.EntailmentQueryResult;
+import org.semanticweb.elk.reasoner.query.ProperEntailmentQueryResult;
+import org.semanticweb.elk.reasoner.query.UnsupportedIndexingEntailmentQueryResult;
+import org.semanticweb.elk.reasoner.query.UnsupportedQueryTypeEntailmentQueryResult;
+import org.semanticweb.elk.reasoner.taxonomy.FrozenTaxonomy;
+import org.semanticweb.elk.reasoner.taxonomy.model.Taxonomy;
+
+/**
+ * Answers "what-if" queries: what would the class taxonomy be, or would an
+ * axiom be entailed, if some axioms were added to or removed from the
+ * ontology of a {@link Reasoner}. The hypothetical changes are collected by
+ * {@link #addAxiom(ElkAxiom)} and {@link #removeAxiom(ElkAxiom)}; only axioms
+ * of the ontology, or previously added hypothetically, can be removed.
+ * <p>
+ * The {@link Reasoner} is never modified: the queries are answered by a
+ * private layer {@link Reasoner} created with the same
+ * {@link org.semanticweb.elk.owl.interfaces.ElkObject.Factory}, interrupter
+ * and number of workers, which is loaded with the axioms of the ontology on
+ * the first query. Every query applies to the layer only the difference
+ * between the current hypothetical changes and the ones applied for the
+ * previous query, so it costs one update of the layer, which is incremental
+ * if the incremental mode is allowed by the default
+ * {@link ReasonerConfiguration}. The layer keeps its own index and
+ * saturation, so the memory needed is about that of the {@link Reasoner}. It
+ * is released by {@link #dispose()}.
+ * <p>
+ * The axioms are compared by their functional-style representation. Later
+ * changes of the ontology of the {@link Reasoner} are not seen by this
+ * overlay.
+ */
+public class ReasonerOverlay {
+
+	private final Reasoner reasoner_;
+
+	/**
+	 * the axioms of the ontology indexed by their functional-style
+	 * representation
+	 */
+	private final Map<String, ElkAxiom> ontology_ = new LinkedHashMap<String, ElkAxiom>();
+
+	/**
+	 * the hypothetical changes indexed by the functional-style representation
+	 * of the changed axioms; the added axioms do not belong to the ontology
+	 * and the removed axioms belong to the ontology
+	 */
+	private final Map<String, ElkAxiom> additions_ = new LinkedHashMap<String, ElkAxiom>(),
+			removals_ = new LinkedHashMap<String, ElkAxiom>();
+
+	/**
+	 * the hypothetical changes applied to {@link #layer_}
+	 */
+	private final Map<String, ElkAxiom> layerAdditions_ = new HashMap<String, ElkAxiom>(),
+			layerRemovals_ = new HashMap<String, ElkAxiom>();
+
+	/**
+	 * the {@link Reasoner} answering the queries or {@code null} if it has
+	 * not been created yet
+	 */
+	private Reasoner layer_ = null;
+
+	/**
+	 * the taxonomy computed for the current hypothetical changes or
+	 * {@code null} if it has not been computed yet
+	 */
+	private Taxonomy<ElkClass> taxonomy_ = null;
+
+	/**
+	 * @param reasoner
+	 *            the {@link Reasoner} whose ontology is changed
+	 *            hypothetically
+	 * @param ontology
+	 *            the axioms loaded into this {@link Reasoner}
+	 */
+	public ReasonerOverlay(final Reasoner reasoner,
+			final Iterable<? extends ElkAxiom> ontology) {
+		this.reasoner_ = reasoner;
+		for (final ElkAxiom axiom : ontology) {
+			ontology_.put(getKey(axiom), axiom);
+		}
+	}
+
+	/**
+	 * @return the {@link Reasoner} whose ontology is changed hypothetically
+	 */
+	public Reasoner getReasoner() {
+		return reasoner_;
+	}
+
+	/**
+	 * Hypothetically adds the given axiom to the ontology; nothing changes if
+	 * the axiom is already in the ontology
+	 * 
+	 * @param axiom
+	 */
+	public synchronized void addAxiom(final ElkAxiom axiom) {
+		final String key = getKey(axiom);
+		if (removals_.remove(key) == null && !ontology_.containsKey(key)) {
+			additions_.put(key, axiom);
+		}
+		taxonomy_ = null;
+	}
+
+	/**
+	 * Hypothetically removes the given axiom from the ontology
+	 * 
+	 * @param axiom
+	 * @throws IllegalArgumentException
+	 *             if the axiom is neither in the ontology nor added
+	 *             hypothetically
+	 */
+	public synchronized void removeAxiom(final ElkAxiom axiom) {
+		final String key = getKey(axiom);
+		if (additions_.remove(key) == null) {
+			if (!ontology_.containsKey(key)) {
+				throw new IllegalArgumentException(
+						"The removed axiom is not in the ontology: " + key);
+			}
+			removals_.put(key, axiom);
+		}
+		taxonomy_ = null;
+	}
+
+	/**
+	 * @return {@code true} if there are no hypothetical changes, i.e., all
+	 *         queries are answered for the ontology of the {@link Reasoner}
+	 */
+	public synchronized boolean isEmpty() {
+		return additions_.isEmpty() && removals_.isEmpty();
+	}
+
+	/**
+	 * Forgets all hypothetical changes
+	 */
+	public synchronized void discard() {
+		additions_.clear();
+		removals_.clear();
+		taxonomy_ = null;
+	}
+
+	/**
+	 * @return an immutable copy of the class taxonomy of the ontology with the
+	 *         hypothetical changes; if this ontology is inconsistent, all
+	 *         classes belong to one node
+	 * @throws ElkException
+	 *             if the taxonomy could not be computed
+	 */
+	public synchronized Taxonomy<ElkClass> getTaxonomy() throws ElkException {
+		if (taxonomy_ == null) {
+			taxonomy_ = new FrozenTaxonomy<ElkClass>(
+					getLayer().getTaxonomyQuietly());
+		}
+		return taxonomy_;
+	}
+
+	/**
+	 * Decides whether the given axiom would be entailed by the ontology with
+	 * the hypothetical changes
+	 * 
+	 * @param axiom
+	 * @return {@code true} if the axiom is entailed and {@code false} if it is
+	 *         not or if entailment of this axiom cannot be decided
+	 * @throws ElkException
+	 *             if the entailment could not be checked
+	 */
+	public synchronized boolean isEntailed(final ElkAxiom axiom)
+			throws ElkException {
+		return getLayer().isEntailed(axiom)
+				.accept(ENTAILMENT_QUERY_RESULT_CONVERTER);
+	}
+
+	/**
+	 * Releases the layer {@link Reasoner}; the next query creates it again
+	 * 
+	 * @throws InterruptedException
+	 *             if interrupted while waiting for the layer to shut down
+	 */
+	public synchronized void dispose() throws InterruptedException {
+		if (layer_ == null) {
+			return;
+		}
+		// else
+		try {
+			layer_.shutdown();
+		} finally {
+			layer_ = null;
+			layerAdditions_.clear();
+			layerRemovals_.clear();
+		}
+	}
+
+	/**
+	 * @return the layer {@link Reasoner} to which the current hypothetical
+	 *         changes are registered
+	 */
+	private Reasoner getLayer() {
+		if (layer_ == null) {
+			layer_ = new ReasonerFactory().createReasoner(reasoner_,
+					reasoner_.getElkFactory(),
+					ReasonerConfiguration.getConfiguration());
+			layer_.setNumberOfWorkers(reasoner_.getNumberOfWorkers());
+			layer_.registerAxiomLoader(new ChangesLoader.Factory(
+					new ArrayList<ElkAxiom>(ontology_.values()),
+					new ArrayList<ElkAxiom>()));
+		}
+		final List<ElkAxiom> additions = new ArrayList<ElkAxiom>(),
+				removals = new ArrayList<ElkAxiom>();
+		update(layerAdditions_, additions_, additions, removals);
+		update(layerRemovals_, removals_, removals, additions);
+		if (!additions.isEmpty() || !removals.isEmpty()) {
+			layer_.registerAxiomLoader(
+					new ChangesLoader.Factory(additions, removals));
+		}
+		return layer_;
+	}
+
+	/**
+	 * Makes the changes of one polarity applied to the layer equal to the
+	 * given ones and collects the axioms to be loaded into the layer for this
+	 * 
+	 * @param applied
+	 *            the changes applied to the layer
+	 * @param required
+	 *            the changes that should be applied to the layer
+	 * @param toApply
+	 *            collects the changes to apply
+	 * @param toRevert
+	 *            collects the changes to revert
+	 */
+	private static void update(final Map<String, ElkAxiom> applied,
+			final Map<String, ElkAxiom> required, final List<ElkAxiom> toApply,
+			final List<ElkAxiom> toRevert) {
+		for (final Map.Entry<String, ElkAxiom> entry : required.entrySet()) {
+			if (!applied.containsKey(entry.getKey())) {
+				toApply.add(entry.getValue());
+			}
+		}
+		for (final Map.Entry<String, ElkAxiom> entry : applied.entrySet()) {
+			if (!required.containsKey(entry.getKey())) {
+				toRevert.add(entry.getValue());
+			}
+		}
+		applied.clear();
+		applied.putAll(required);
+	}
+
+	private static String getKey(final ElkAxiom axiom) {
+		return OwlFunctionalStylePrinter.toString(axiom, true);
+	}
+
+	private static final EntailmentQueryResult.Visitor<Boolean, ElkQueryException> ENTAILMENT_QUERY_RESULT_CONVERTER = new EntailmentQueryResult.Visitor<Boolean, ElkQueryException>() {
+
+		@Override
+		public Boolean visit(final ProperEntailmentQueryResult properResult)
+				throws ElkQueryException {
+			try {
+				return properResult.isEntailed();
+			} finally {
+				properResult.unlock();
+			}
+		}
+
+		@Override
+		public Boolean visit(
+				final UnsupportedIndexingEntailmentQueryResult unsupportedIndexing) {
+			// the warning should be logged during loading
+			return false;
+		}
+
+		@Override
+		public Boolean visit(
+				final UnsupportedQueryTypeEntailmentQueryResult unsupportedQueryType) {
+			return false;
+		}
+
+	};
+
+}
@@ -1,12 +1,11 @@
-package org.semanticweb.elk.reasoner.tracing;
-
 /*
  * #%L
  * ELK Reasoner
- * $Id:$
- * $HeadURL:$
+ * 
+ * $Id$
+ * $HeadURL$
  * %%
- * Copyright (C) 2011 - 2015 Department of Computer Science, University of Oxford
+ * Copyright (C) 2011 - 2012 Department of Computer Science, University of Oxford
  * %%
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -21,24 +20,21 @@ package org.semanticweb.elk.reasoner.tracing;
  * limitations under the License.
  * #L%
  */
+package org.semanticweb.elk.reasoner.config;
 
 /**
- * Represents the conclusion of the given {@link TracingInference}
+ * Which queries are evicted from the query cache when it exceeds its capacity.
  * 
- * @author Yevgeny Kazakov
- *
+ * @see ReasonerConfiguration#CLASS_EXPRESSION_QUERY_CACHE_EVICTION_POLICY
  */
-class TracingInferenceConclusion extends AbstractConclusion {
-
-	private final TracingInference inference_;
-
-	TracingInferenceConclusion(TracingInference inference) {
-		this.inference_ = inference;
-	}
-
-	@Override
-	public <O> O accept(Conclusion.Visitor<O> visitor) {
-		return inference_.accept(new TracingInferenceConclusionVisitor<O>(visitor));
-	}
-
-}
\ No newline at end of file
+public enum QueryCacheEvictionPolicy {
+	/**
+	 * Evict the least recently used queries.
+	 */
+	LRU,
+	/**
+	 * Evict the least frequently used queries, but give new queries a chance
+	 * to prove that they are used frequently; similar to W-TinyLFU.
+	 */
+	TINY_LFU
+}
@@ -49,6 +49,47 @@ public class ReasonerConfiguration extends BaseConfiguration {
 	@Parameter(type = "java.lang.Boolean", value = "true")
 	public static final String INCREMENTAL_MODE_ALLOWED = "elk.reasoner.incremental.allowed";
 
+	/**
+	 * Whether changes are processed incrementally only if this is estimated
+	 * to be faster than processing them from scratch.
+	 */
+	@Parameter(type = "java.lang.Boolean", value = "true")
+	public static final String INCREMENTAL_MODE_COST_BASED = "elk.reasoner.incremental.cost_based";
+
+	/**
+	 * How many queried class expressions are kept indexed and computed before
+	 * some of them are evicted.
+	 */
+	@Parameter(type = "java.lang.Integer", value = "512")
+	public static final String CLASS_EXPRESSION_QUERY_CACHE_CAPACITY = "elk.reasoner.query.class_expression.cache_capacity";
+
+	@Parameter(type = "org.semanticweb.elk.reasoner.config.QueryCacheEvictionPolicy", value = "LRU")
+	public static final String CLASS_EXPRESSION_QUERY_CACHE_EVICTION_POLICY = "elk.reasoner.query.class_expression.cache_eviction_policy";
+
+	/**
+	 * For how many context roots the inferences traced for explanations are
+	 * kept before some of them are evicted.
+	 */
+	@Parameter(type = "java.lang.Integer", value = "1024")
+	public static final String TRACING_CACHE_CAPACITY = "elk.reasoner.tracing.cache_capacity";
+
+	@Parameter(type = "org.semanticweb.elk.reasoner.config.QueryCacheEvictionPolicy", value = "LRU")
+	public static final String TRACING_CACHE_EVICTION_POLICY = "elk.reasoner.tracing.cache_eviction_policy";
+
+	/**
+	 * Whether the inferences traced for explanations are stored in a compact
+	 * form that takes less memory but is slower to access.
+	 */
+	@Parameter(type = "java.lang.Boolean", value = "false")
+	public static final String TRACING_COMPACT_INFERENCES = "elk.reasoner.tracing.compact_inferences";
+
+	/**
+	 * Whether individuals that must have the same types are realized by
+	 * saturating only one representative of them.
+	 */
+	@Parameter(type = "java.lang.Boolean", value = "false")
+	public static final String ABOX_COMPRESSION = "elk.reasoner.realization.abox_compression";
+
 	public final static String REASONER_CONFIG_PREFIX = "elk.reasoner";
 
 	public static ReasonerConfiguration getConfiguration() {
@@ -0,0 +1,118 @@
+/*
+ * #%L
+ * ELK Reasoner
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2011 - 2012 Department of Computer Science, University of Oxford
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.semanticweb.elk.reasoner.incremental;
+
+import java.util.Set;
+
+import org.semanticweb.elk.owl.interfaces.ElkClass;
+import org.semanticweb.elk.reasoner.indexing.classes.DifferentialIndex;
+import org.semanticweb.elk.reasoner.indexing.model.IndexedClass;
+import org.semanticweb.elk.reasoner.indexing.model.IndexedClassExpression;
+import org.semanticweb.elk.reasoner.taxonomy.model.Taxonomy;
+import org.semanticweb.elk.reasoner.taxonomy.model.TaxonomyNode;
+import org.semanticweb.elk.util.collections.ArrayHashSet;
+
+/**
+ * Estimates how many contexts will be affected by the pending changes in a
+ * {@link DifferentialIndex} before they are processed incrementally. A
+ * context is affected by a changed rule if it contains the premise of the
+ * rule. For a named class, the contexts containing it are estimated by the
+ * number of its sub-classes in the last computed class taxonomy; for other
+ * class expressions, by the average number of contexts per class
+ * expression. Changes in context initialization rules affect all contexts.
+ */
+public class AffectedContextsEstimator {
+
+	private final DifferentialIndex index_;
+
+	private final Taxonomy<ElkClass> taxonomy_;
+
+	/**
+	 * @param index
+	 *            the index with the pending changes
+	 * @param taxonomy
+	 *            the last computed class taxonomy, can be {@code null}
+	 */
+	public AffectedContextsEstimator(DifferentialIndex index,
+			Taxonomy<ElkClass> taxonomy) {
+		this.index_ = index;
+		this.taxonomy_ = taxonomy;
+	}
+
+	/**
+	 * @param contextCount
+	 *            the number of existing contexts
+	 * @return the estimated number of contexts affected by the pending
+	 *         changes, at most {@code contextCount}
+	 */
+	public long estimate(long contextCount) {
+		if (index_.getRemovedContextInitRules() != null
+				|| index_.getAddedContextInitRules() != null) {
+			return contextCount;
+		}
+		// else
+		Set<IndexedClassExpression> changed = new ArrayHashSet<IndexedClassExpression>();
+		changed.addAll(index_.getRemovedContextRulesByClassExpressions()
+				.keySet());
+		changed.addAll(index_.getAddedContextRulesByClassExpressions()
+				.keySet());
+		changed.addAll(index_.getRemovedDefinitions().keySet());
+		changed.addAll(index_.getAddedDefinitions().keySet());
+		for (IndexedClassExpression removed : index_
+				.getRemovedClassExpressions()) {
+			changed.add(removed);
+		}
+		if (changed.isEmpty()) {
+			return 0;
+		}
+		// else
+		long average = Math.max(1, contextCount
+				/ Math.max(1, index_.getClassExpressions().size()));
+		long result = 0;
+		for (IndexedClassExpression ice : changed) {
+			result += estimate(ice, average);
+			if (result >= contextCount) {
+				return contextCount;
+			}
+		}
+		return result;
+	}
+
+	private long estimate(IndexedClassExpression ice, long average) {
+		if (taxonomy_ == null || !(ice instanceof IndexedClass)) {
+			return average;
+		}
+		// else
+		TaxonomyNode<ElkClass> node = taxonomy_
+				.getNode(((IndexedClass) ice).getElkEntity());
+		if (node == null) {
+			return average;
+		}
+		// else
+		long result = node.size();
+		for (TaxonomyNode<ElkClass> subNode : node.getAllSubNodes()) {
+			result += subNode.size();
+		}
+		return result;
+	}
+
+}
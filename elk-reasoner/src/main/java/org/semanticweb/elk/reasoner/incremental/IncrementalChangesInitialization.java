@@ -52,6 +52,18 @@ public class IncrementalChangesInitialization
 		extends
 		ReasonerComputationWithInputs<ArrayList<Context>, ContextInitializationFactory> {
 
+	/**
+	 * The bounds for the number of contexts in one batch of inputs; too small
+	 * batches make workers contend on the shared queue of inputs, too large
+	 * ones leave workers idle at the end of the computation
+	 */
+	static final int MIN_BATCH_SIZE = 16, MAX_BATCH_SIZE = 1024;
+
+	/**
+	 * How many batches, on average, each worker should take
+	 */
+	static final int BATCHES_PER_WORKER = 32;
+
 	public IncrementalChangesInitialization(
 			Collection<ArrayList<Context>> inputs,
 			final InterruptMonitor interrupter,
@@ -67,4 +79,20 @@ public class IncrementalChangesInitialization
 				changedDefinitions, changedDefinitionReasons, stageStats),
 				executor, maxWorkers, progressMonitor);
 	}
+
+	/**
+	 * Computes the number of contexts in each batch of inputs so that the
+	 * given number of workers can share the contexts evenly
+	 * 
+	 * @param contextCount
+	 *            the number of contexts to be split into batches
+	 * @param workerNo
+	 *            the number of workers processing the batches
+	 * @return the number of contexts that should be put in one batch
+	 */
+	public static int getBatchSize(int contextCount, int workerNo) {
+		int batchSize = contextCount
+				/ (Math.max(workerNo, 1) * BATCHES_PER_WORKER);
+		return Math.min(Math.max(batchSize, MIN_BATCH_SIZE), MAX_BATCH_SIZE);
+	}
 }
@@ -25,6 +25,8 @@ package org.semanticweb.elk.reasoner.incremental;
  * #L%
  */
 
+import java.util.Arrays;
+
 import org.semanticweb.elk.util.logging.LogLevel;
 import org.semanticweb.elk.util.logging.LoggerWrap;
 import org.semanticweb.elk.util.logging.statistics.AbstractStatistics;
@@ -50,6 +52,35 @@ public class IncrementalProcessingStatistics extends AbstractStatistics {
 
 	long countContextSubsumers;
 
+	/**
+	 * The total time (in nanoseconds) of restoring the saturation and the
+	 * class taxonomy from scratch, and the number of contexts saturated
+	 * during that time
+	 */
+	long fullRestorationTime, fullRestorationContexts;
+
+	/**
+	 * The total time (in nanoseconds) of restoring the saturation and the
+	 * class taxonomy incrementally, and the (estimated) number of contexts
+	 * affected by the changes
+	 */
+	long incrementalRestorationTime, incrementalRestorationContexts;
+
+	/**
+	 * The ratio between the costs per context of the incremental and the full
+	 * restoration used when they have not been measured yet; the incremental
+	 * reasoning needs to delete and re-derive conclusions of affected contexts
+	 */
+	public static final double DEFAULT_INCREMENTAL_COST_RATIO = 3.0;
+
+	/**
+	 * The number of contexts processed by each of the
+	 * {@link IncrementalStages} and the total time (in nanoseconds) spent on
+	 * them, indexed by the ordinals of the stages
+	 */
+	final long[] stageContexts = new long[IncrementalStages.values().length],
+			stageTime = new long[IncrementalStages.values().length];
+
 	public long getContextCount() {
 		return countContexts;
 	}
@@ -80,6 +111,100 @@ public class IncrementalProcessingStatistics extends AbstractStatistics {
 
 	}
 
+	/**
+	 * Records the cost of restoring the saturation and the class taxonomy
+	 * from scratch
+	 * 
+	 * @param time
+	 *            the time in nanoseconds
+	 * @param contexts
+	 *            the number of saturated contexts
+	 */
+	public synchronized void recordFullRestoration(long time, long contexts) {
+		fullRestorationTime += time;
+		fullRestorationContexts += contexts;
+	}
+
+	/**
+	 * Records the cost of restoring the saturation and the class taxonomy
+	 * incrementally
+	 * 
+	 * @param time
+	 *            the time in nanoseconds
+	 * @param contexts
+	 *            the estimated number of contexts affected by the changes
+	 */
+	public synchronized void recordIncrementalRestoration(long time,
+			long contexts) {
+		incrementalRestorationTime += time;
+		incrementalRestorationContexts += contexts;
+	}
+
+	/**
+	 * @return the ratio between the average time of the incremental
+	 *         restoration per affected context and the average time of the
+	 *         full restoration per context, or
+	 *         {@link #DEFAULT_INCREMENTAL_COST_RATIO} if one of them was not
+	 *         measured yet
+	 */
+	public synchronized double getIncrementalCostRatio() {
+		if (fullRestorationTime == 0 || fullRestorationContexts == 0
+				|| incrementalRestorationContexts == 0) {
+			return DEFAULT_INCREMENTAL_COST_RATIO;
+		}
+		// else
+		double incrementalCost = (double) incrementalRestorationTime
+				/ incrementalRestorationContexts;
+		double fullCost = (double) fullRestorationTime
+				/ fullRestorationContexts;
+		return incrementalCost / fullCost;
+	}
+
+	/**
+	 * Records the work done by one execution of an incremental stage
+	 * 
+	 * @param stage
+	 *            the executed stage
+	 * @param contexts
+	 *            the number of contexts given to the stage as input, i.e.,
+	 *            the contexts checked by the initialization stages or the
+	 *            modified contexts from which the deletion and the pruning
+	 *            start; the contexts reached from them are not counted
+	 * @param time
+	 *            the time in nanoseconds
+	 */
+	public synchronized void recordStage(IncrementalStages stage,
+			long contexts, long time) {
+		stageContexts[stage.ordinal()] += contexts;
+		stageTime[stage.ordinal()] += time;
+	}
+
+	public synchronized long getStageContextCount(IncrementalStages stage) {
+		return stageContexts[stage.ordinal()];
+	}
+
+	/**
+	 * @param stage
+	 * @return the total time in nanoseconds spent on the given stage
+	 */
+	public synchronized long getStageTime(IncrementalStages stage) {
+		return stageTime[stage.ordinal()];
+	}
+
+	/**
+	 * @param stage
+	 * @return the number of contexts processed by the given stage per second,
+	 *         or {@code 0} if the stage was not measured yet
+	 */
+	public synchronized double getStageThroughput(IncrementalStages stage) {
+		long time = stageTime[stage.ordinal()];
+		if (time == 0) {
+			return 0;
+		}
+		// else
+		return stageContexts[stage.ordinal()] * 1e9 / time;
+	}
+
 	@Override
 	public void reset() {
 		super.reset();
@@ -87,6 +212,12 @@ public class IncrementalProcessingStatistics extends AbstractStatistics {
 		changeInitContextCollectionProcessingTime = 0;
 		countContexts = 0;
 		countContextSubsumers = 0;
+		fullRestorationTime = 0;
+		fullRestorationContexts = 0;
+		incrementalRestorationTime = 0;
+		incrementalRestorationContexts = 0;
+		Arrays.fill(stageContexts, 0);
+		Arrays.fill(stageTime, 0);
 	}
 
 	public synchronized void add(IncrementalProcessingStatistics stats) {
@@ -95,6 +226,14 @@ public class IncrementalProcessingStatistics extends AbstractStatistics {
 		changeInitContextCollectionProcessingTime += stats.changeInitContextCollectionProcessingTime;
 		countContexts += stats.countContexts;
 		countContextSubsumers += stats.countContextSubsumers;
+		fullRestorationTime += stats.fullRestorationTime;
+		fullRestorationContexts += stats.fullRestorationContexts;
+		incrementalRestorationTime += stats.incrementalRestorationTime;
+		incrementalRestorationContexts += stats.incrementalRestorationContexts;
+		for (int i = 0; i < stageContexts.length; i++) {
+			stageContexts[i] += stats.stageContexts[i];
+			stageTime[i] += stats.stageTime[i];
+		}
 	}
 
 	public void print(Logger logger, LogLevel level) {
@@ -107,5 +246,14 @@ public class IncrementalProcessingStatistics extends AbstractStatistics {
 							+ changeInitContextProcessingTime
 							/ getNumberOfMeasurements());
 		}
+		for (IncrementalStages stage : IncrementalStages.values()) {
+			if (stageTime[stage.ordinal()] > 0) {
+				LoggerWrap.log(logger, level, stage + ": "
+						+ stageContexts[stage.ordinal()] + " contexts in "
+						+ stageTime[stage.ordinal()] / 1000000 + " ms ("
+						+ (long) getStageThroughput(stage)
+						+ " contexts per second)");
+			}
+		}
 	}
 }
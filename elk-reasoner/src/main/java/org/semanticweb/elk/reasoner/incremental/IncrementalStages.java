@@ -76,6 +76,24 @@ public enum IncrementalStages {
 		
 	},
 	
+	OVERDELETION_PRUNING {
+
+		@Override
+		public String toString() {
+			return "Incremental Overdeletion Pruning";
+		}
+		
+	},
+	
+	PROPERTY_SATURATION {
+
+		@Override
+		public String toString() {
+			return "Incremental Property Saturation";
+		}
+		
+	},
+	
 	ADDITION {
 
 		@Override
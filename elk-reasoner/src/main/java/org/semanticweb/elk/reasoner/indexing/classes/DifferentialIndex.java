@@ -267,13 +267,20 @@ public class DifferentialIndex extends DirectIndex {
 		}
 		// else incrementalMode
 		if (newRule.removeFrom(getRemovedContextRuleChain(target))) {
-			if (newRule.addTo(target.getCompositionRuleChain()))
+			if (newRule.addTo(target.getCompositionRuleChain())) {
+				notifyCompositionRuleChange(target);
 				return true;
+			}
 			// else revert
 			newRule.addTo(getRemovedContextRuleChain(target));
 		}
 		// if above fails
-		return newRule.addTo(getAddedContextRuleChain(target));
+		if (!newRule.addTo(getAddedContextRuleChain(target))) {
+			return false;
+		}
+		// else
+		notifyCompositionRuleChange(target);
+		return true;
 	}
 
 	@Override
@@ -283,12 +290,16 @@ public class DifferentialIndex extends DirectIndex {
 			return super.remove(target, oldRule);
 		}
 		// else incrementalMode
-		if (oldRule.removeFrom(getAddedContextRuleChain(target)))
+		if (oldRule.removeFrom(getAddedContextRuleChain(target))) {
+			notifyCompositionRuleChange(target);
 			return true;
+		}
 		// else
 		if (oldRule.addTo(getRemovedContextRuleChain(target))) {
-			if (oldRule.removeFrom(target.getCompositionRuleChain()))
+			if (oldRule.removeFrom(target.getCompositionRuleChain())) {
+				notifyCompositionRuleChange(target);
 				return true;
+			}
 			// else revert
 			oldRule.removeFrom(getRemovedContextRuleChain(target));
 		}
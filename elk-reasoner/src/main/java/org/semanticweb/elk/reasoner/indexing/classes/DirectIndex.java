@@ -30,6 +30,7 @@ import org.semanticweb.elk.owl.interfaces.ElkObject;
 import org.semanticweb.elk.owl.predefined.PredefinedElkEntityFactory;
 import org.semanticweb.elk.reasoner.indexing.model.CachedIndexedOwlNothing;
 import org.semanticweb.elk.reasoner.indexing.model.CachedIndexedOwlThing;
+import org.semanticweb.elk.reasoner.indexing.model.IndexedClassExpression;
 import org.semanticweb.elk.reasoner.indexing.model.ModifiableIndexedClass;
 import org.semanticweb.elk.reasoner.indexing.model.ModifiableIndexedClassExpression;
 import org.semanticweb.elk.reasoner.indexing.model.ModifiableIndexedObject;
@@ -131,13 +132,36 @@ public class DirectIndex extends ModifiableIndexedObjectCacheImpl
 	@Override
 	public boolean add(ModifiableIndexedClassExpression target,
 			ChainableSubsumerRule rule) {
-		return rule.addTo(target.getCompositionRuleChain());
+		if (!rule.addTo(target.getCompositionRuleChain())) {
+			return false;
+		}
+		// else
+		notifyCompositionRuleChange(target);
+		return true;
 	}
 
 	@Override
 	public boolean remove(ModifiableIndexedClassExpression target,
 			ChainableSubsumerRule rule) {
-		return rule.removeFrom(target.getCompositionRuleChain());
+		if (!rule.removeFrom(target.getCompositionRuleChain())) {
+			return false;
+		}
+		// else
+		notifyCompositionRuleChange(target);
+		return true;
+	}
+
+	/**
+	 * Notifies the listeners that the composition rules of the given
+	 * {@link IndexedClassExpression} have changed
+	 * 
+	 * @param target
+	 */
+	protected void notifyCompositionRuleChange(
+			final IndexedClassExpression target) {
+		for (int i = 0; i < listeners_.size(); i++) {
+			listeners_.get(i).compositionRuleChange(target);
+		}
 	}
 
 	@Override
@@ -23,6 +23,7 @@ package org.semanticweb.elk.reasoner.indexing.classes;
  */
 
 import org.semanticweb.elk.owl.interfaces.ElkAxiom;
+import org.semanticweb.elk.reasoner.indexing.model.IndexedClassExpression;
 import org.semanticweb.elk.reasoner.indexing.model.IndexedObjectProperty;
 import org.semanticweb.elk.reasoner.indexing.model.OntologyIndex;
 import org.semanticweb.elk.reasoner.saturation.rules.contextinit.LinkedContextInitRule;
@@ -55,6 +56,11 @@ public class OntologyIndexDummyChangeListener
 		// does nothing by default
 	}
 
+	@Override
+	public void compositionRuleChange(IndexedClassExpression target) {
+		// does nothing by default
+	}
+
 	@Override
 	public void negativeOwlThingAppeared() {
 		// does nothing by default
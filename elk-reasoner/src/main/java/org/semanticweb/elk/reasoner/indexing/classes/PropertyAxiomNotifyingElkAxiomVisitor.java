@@ -36,19 +36,20 @@ import org.semanticweb.elk.reasoner.indexing.conversion.ElkAxiomConverter;
 
 /**
  * A delegating visitor which notifies the provided
- * {@link AxiomLoadingListener} that some axiom represents a change
- * which cannot be processed incrementally by the reasoner
+ * {@link AxiomLoadingListener} that some axiom represents a change in
+ * object property axioms, which requires recomputation of the saturation of
+ * object properties before the changes in class axioms can be processed
  * 
  * @author Pavel Klinov
  * 
  *         pavel.klinov@uni-ulm.de
  */
-public class NonIncrementalElkAxiomVisitor extends DelegatingElkAxiomVisitor<Void>
-		implements ElkAxiomConverter {
+public class PropertyAxiomNotifyingElkAxiomVisitor
+		extends DelegatingElkAxiomVisitor<Void> implements ElkAxiomConverter {
 
 	private final AxiomLoadingListener<ElkAxiom> listener_;
 
-	public NonIncrementalElkAxiomVisitor(ElkAxiomConverter visitor,
+	public PropertyAxiomNotifyingElkAxiomVisitor(ElkAxiomConverter visitor,
 			AxiomLoadingListener<ElkAxiom> listener) {
 		super(visitor);
 		listener_ = listener;
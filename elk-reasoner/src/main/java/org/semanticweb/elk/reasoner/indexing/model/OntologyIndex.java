@@ -102,6 +102,15 @@ public interface OntologyIndex extends IndexedObjectCache {
 
 		void contextInitRuleHeadSet(LinkedContextInitRule rule);
 
+		/**
+		 * Called when a composition rule is added to or removed from the
+		 * given {@link IndexedClassExpression}; in the incremental mode, this
+		 * happens when the change is registered, before it is committed
+		 * 
+		 * @param target
+		 */
+		void compositionRuleChange(IndexedClassExpression target);
+
 		void negativeOwlThingAppeared();
 
 		void negativeOwlThingDisappeared();
@@ -0,0 +1,48 @@
+/*-
+ * #%L
+ * ELK Reasoner Core
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2011 - 2016 Department of Computer Science, University of Oxford
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.semanticweb.elk.reasoner.query;
+
+import java.util.Collection;
+
+import org.semanticweb.elk.reasoner.ProgressMonitor;
+import org.semanticweb.elk.reasoner.ReasonerComputationWithInputs;
+import org.semanticweb.elk.util.concurrent.computation.ConcurrentExecutor;
+import org.semanticweb.elk.util.concurrent.computation.InterruptMonitor;
+
+/**
+ * A {@link ReasonerComputationWithInputs} that evaluates the entailment of the
+ * supplied queries concurrently. The contexts needed to answer the queries
+ * must be already saturated.
+ */
+public class EntailmentQueryEvaluation extends
+		ReasonerComputationWithInputs<ProperEntailmentQueryResult, EntailmentQueryEvaluationFactory> {
+
+	public EntailmentQueryEvaluation(
+			final Collection<? extends ProperEntailmentQueryResult> inputs,
+			final InterruptMonitor interrupter,
+			final ConcurrentExecutor executor, final int maxWorkers,
+			final ProgressMonitor progressMonitor) {
+		super(inputs, new EntailmentQueryEvaluationFactory(interrupter),
+				executor, maxWorkers, progressMonitor);
+	}
+
+}
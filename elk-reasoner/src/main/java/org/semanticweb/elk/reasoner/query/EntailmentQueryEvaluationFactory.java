@@ -0,0 +1,78 @@
+/*-
+ * #%L
+ * ELK Reasoner Core
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2011 - 2016 Department of Computer Science, University of Oxford
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.semanticweb.elk.reasoner.query;
+
+import org.semanticweb.elk.exceptions.ElkRuntimeException;
+import org.semanticweb.elk.util.concurrent.computation.DelegateInterruptMonitor;
+import org.semanticweb.elk.util.concurrent.computation.InputProcessor;
+import org.semanticweb.elk.util.concurrent.computation.InputProcessorFactory;
+import org.semanticweb.elk.util.concurrent.computation.InterruptMonitor;
+
+/**
+ * Evaluates the entailment of the submitted
+ * {@link ProperEntailmentQueryResult}s, so that the results are cached by the
+ * time they are returned to the caller.
+ */
+public class EntailmentQueryEvaluationFactory extends DelegateInterruptMonitor
+		implements
+		InputProcessorFactory<ProperEntailmentQueryResult, EntailmentQueryEvaluationFactory.Engine> {
+
+	public EntailmentQueryEvaluationFactory(
+			final InterruptMonitor interrupter) {
+		super(interrupter);
+	}
+
+	@Override
+	public Engine getEngine() {
+		return new Engine();
+	}
+
+	@Override
+	public void finish() {
+		// Empty.
+	}
+
+	class Engine implements InputProcessor<ProperEntailmentQueryResult> {
+
+		@Override
+		public void submit(final ProperEntailmentQueryResult result) {
+			try {
+				result.isEntailed();
+			} catch (final ElkQueryException e) {
+				// only indexed queries should be submitted
+				throw new ElkRuntimeException(e);
+			}
+		}
+
+		@Override
+		public void process() throws InterruptedException {
+			// Everything is done in submit().
+		}
+
+		@Override
+		public void finish() {
+			// Empty.
+		}
+
+	}
+
+}
@@ -0,0 +1,97 @@
+/*
+ * #%L
+ * ELK Reasoner
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2011 - 2016 Department of Computer Science, University of Oxford
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.semanticweb.elk.reasoner.query;
+
+import org.semanticweb.elk.util.logging.LogLevel;
+import org.semanticweb.elk.util.logging.LoggerWrap;
+import org.slf4j.Logger;
+
+/**
+ * Counts how successful is caching of query results. A query is a hit if it
+ * was found in the cache, otherwise it is a miss and has to be indexed and
+ * computed. Evictions count queries that were removed from the cache in
+ * order to keep it within its capacity; an evicted query needs to be indexed
+ * and computed again when it is queried next time.
+ */
+public class QueryCacheStatistics {
+
+	private long hits_ = 0;
+
+	private long misses_ = 0;
+
+	private long evictions_ = 0;
+
+	public synchronized void registerHit() {
+		hits_++;
+	}
+
+	public synchronized void registerMiss() {
+		misses_++;
+	}
+
+	public synchronized void registerEviction() {
+		evictions_++;
+	}
+
+	public synchronized long getHitCount() {
+		return hits_;
+	}
+
+	public synchronized long getMissCount() {
+		return misses_;
+	}
+
+	public synchronized long getEvictionCount() {
+		return evictions_;
+	}
+
+	/**
+	 * @return the fraction of queries that were found in the cache or
+	 *         {@code 0} if there were no queries.
+	 */
+	public synchronized double getHitRate() {
+		final long total = hits_ + misses_;
+		return total == 0 ? 0 : (double) hits_ / total;
+	}
+
+	public synchronized void reset() {
+		hits_ = 0;
+		misses_ = 0;
+		evictions_ = 0;
+	}
+
+	public synchronized void add(final QueryCacheStatistics stats) {
+		hits_ += stats.getHitCount();
+		misses_ += stats.getMissCount();
+		evictions_ += stats.getEvictionCount();
+	}
+
+	public synchronized void print(final Logger logger, final LogLevel level) {
+		if (!LoggerWrap.isEnabledFor(logger, level)) {
+			return;
+		}
+		// else
+		LoggerWrap.log(logger, level, "Query cache hits: " + hits_
+				+ ", misses: " + misses_ + ", evictions: " + evictions_);
+	}
+
+}
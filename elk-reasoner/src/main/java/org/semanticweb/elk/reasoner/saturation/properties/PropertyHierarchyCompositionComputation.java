@@ -57,6 +57,25 @@ public class PropertyHierarchyCompositionComputation extends
 				executor, maxWorkers, progressMonitor);
 	}
 
+	/**
+	 * Creates a computation that saturates only the given
+	 * {@link IndexedPropertyChain}s; the saturations of all property chains
+	 * that can be reached from them by told super-properties and compositions
+	 * should be either already computed or be among the inputs.
+	 */
+	public PropertyHierarchyCompositionComputation(
+			Collection<? extends IndexedPropertyChain> inputs,
+			final InterruptMonitor interrupter,
+			Producer<? super ObjectPropertyInference> inferenceProducer,
+			final PropertyHierarchyCompositionState.Dispatcher dispatcher,
+			ConcurrentExecutor executor, int maxWorkers,
+			ProgressMonitor progressMonitor) {
+		this(inputs,
+				new PropertyHierarchyCompositionComputationFactory(interrupter,
+						inferenceProducer, dispatcher),
+				executor, maxWorkers, progressMonitor);
+	}
+
 	PropertyHierarchyCompositionComputation(
 			Collection<? extends IndexedPropertyChain> inputs,
 			PropertyHierarchyCompositionComputationFactory inputProcessorFactory,
@@ -22,9 +22,16 @@
  */
 package org.semanticweb.elk.reasoner.stages;
 
+import java.util.ArrayList;
+import java.util.Collection;
+
 import org.semanticweb.elk.reasoner.incremental.IncrementalChangesInitialization;
 import org.semanticweb.elk.reasoner.incremental.IncrementalStages;
 import org.semanticweb.elk.reasoner.saturation.SaturationStatistics;
+import org.semanticweb.elk.reasoner.saturation.context.Context;
+import org.semanticweb.elk.util.collections.Operations;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 /**
  * The base stage for initializing additions and deletions
@@ -36,10 +43,20 @@ import org.semanticweb.elk.reasoner.saturation.SaturationStatistics;
 abstract class AbstractIncrementalChangesInitializationStage extends
 		AbstractReasonerStage {
 
+	// logger for this class
+	private static final Logger LOGGER_ = LoggerFactory
+			.getLogger(AbstractIncrementalChangesInitializationStage.class);
+
 	protected IncrementalChangesInitialization initialization = null;
 
 	protected SaturationStatistics stageStatistics = null;
 
+	/**
+	 * the number of contexts to be processed by this stage and the time (in
+	 * nanoseconds) spent on processing them
+	 */
+	private long contextCount_ = 0, time_ = 0;
+
 	public AbstractIncrementalChangesInitializationStage(
 			AbstractReasonerState reasoner, AbstractReasonerStage... preStages) {
 		super(reasoner, preStages);
@@ -56,7 +73,27 @@ abstract class AbstractIncrementalChangesInitializationStage extends
 	public void executeStage() throws ElkInterruptedException {
 		if (isInterrupted())
 			return;
-		initialization.process();
+		long start = System.nanoTime();
+		try {
+			initialization.process();
+		} finally {
+			time_ += System.nanoTime() - start;
+		}
+	}
+
+	/**
+	 * Splits the given contexts into batches of inputs so that they can be
+	 * shared evenly between the workers of this stage
+	 * 
+	 * @param contexts
+	 * @return the batches containing all given contexts
+	 */
+	protected Collection<ArrayList<Context>> split(
+			Collection<? extends Context> contexts) {
+		int size = contexts.size();
+		contextCount_ = size;
+		return Operations.<Context> split(contexts,
+				IncrementalChangesInitialization.getBatchSize(size, workerNo));
 	}
 
 	@Override
@@ -64,6 +101,8 @@ abstract class AbstractIncrementalChangesInitializationStage extends
 		if (!super.preExecute())
 			return false;
 		this.stageStatistics = new SaturationStatistics();
+		this.contextCount_ = 0;
+		this.time_ = 0;
 		return true;
 	}
 
@@ -73,6 +112,8 @@ abstract class AbstractIncrementalChangesInitializationStage extends
 			return false;
 
 		reasoner.ruleAndConclusionStats.add(stageStatistics);
+		reasoner.getIncrementalProcessingStatistics().recordStage(stage(),
+				contextCount_, time_);
 		this.stageStatistics = null;
 		this.initialization = null;
 
@@ -81,7 +122,10 @@ abstract class AbstractIncrementalChangesInitializationStage extends
 
 	@Override
 	public void printInfo() {
-		// TODO
+		if (time_ > 0 && LOGGER_.isDebugEnabled()) {
+			LOGGER_.debug("{}: {} contexts processed in {} ms", this,
+					contextCount_, time_ / 1000000);
+		}
 	}
 
 }
\ No newline at end of file
@@ -31,6 +31,7 @@ import java.util.Set;
 
 import org.semanticweb.elk.exceptions.ElkException;
 import org.semanticweb.elk.loading.AxiomLoader;
+import org.semanticweb.elk.loading.ChangeJournal;
 import org.semanticweb.elk.loading.ClassQueryLoader;
 import org.semanticweb.elk.loading.ComposedAxiomLoader;
 import org.semanticweb.elk.loading.EntailmentQueryLoader;
@@ -45,13 +46,17 @@ import org.semanticweb.elk.owl.visitors.ElkSubObjectPropertyExpressionVisitor;
 import org.semanticweb.elk.reasoner.ElkInconsistentOntologyException;
 import org.semanticweb.elk.reasoner.ProgressMonitor;
 import org.semanticweb.elk.reasoner.ReasonerInterrupter;
+import org.semanticweb.elk.reasoner.config.QueryCacheEvictionPolicy;
 import org.semanticweb.elk.reasoner.consistency.ConsistencyCheckingState;
+import org.semanticweb.elk.reasoner.incremental.AffectedContextsEstimator;
+import org.semanticweb.elk.reasoner.incremental.IncrementalProcessingStatistics;
 import org.semanticweb.elk.reasoner.indexing.classes.DifferentialIndex;
 import org.semanticweb.elk.reasoner.indexing.conversion.ElkAxiomConverterImpl;
 import org.semanticweb.elk.reasoner.indexing.conversion.ElkPolarityExpressionConverter;
 import org.semanticweb.elk.reasoner.indexing.conversion.ElkPolarityExpressionConverterImpl;
 import org.semanticweb.elk.reasoner.indexing.model.IndexedClass;
 import org.semanticweb.elk.reasoner.indexing.model.IndexedClassExpression;
+import org.semanticweb.elk.reasoner.indexing.model.IndexedContextRoot;
 import org.semanticweb.elk.reasoner.indexing.model.IndexedIndividual;
 import org.semanticweb.elk.reasoner.indexing.model.IndexedObjectProperty;
 import org.semanticweb.elk.reasoner.indexing.model.IndexedPropertyChain;
@@ -59,6 +64,7 @@ import org.semanticweb.elk.reasoner.indexing.model.ModifiableIndexedPropertyChai
 import org.semanticweb.elk.reasoner.indexing.model.ModifiableOntologyIndex;
 import org.semanticweb.elk.reasoner.indexing.model.OntologyIndex;
 import org.semanticweb.elk.reasoner.query.EntailmentQueryResult;
+import org.semanticweb.elk.reasoner.query.QueryCacheStatistics;
 import org.semanticweb.elk.reasoner.query.QueryNode;
 import org.semanticweb.elk.reasoner.saturation.SaturationState;
 import org.semanticweb.elk.reasoner.saturation.SaturationStateFactory;
@@ -75,15 +81,21 @@ import org.semanticweb.elk.reasoner.taxonomy.OrphanTaxonomyNode;
 import org.semanticweb.elk.reasoner.taxonomy.OrphanTypeNode;
 import org.semanticweb.elk.reasoner.taxonomy.SingletoneInstanceTaxonomy;
 import org.semanticweb.elk.reasoner.taxonomy.SingletoneTaxonomy;
+import org.semanticweb.elk.reasoner.taxonomy.TaxonomyChangeRecorder;
+import org.semanticweb.elk.reasoner.taxonomy.TaxonomyDiff;
 import org.semanticweb.elk.reasoner.taxonomy.model.InstanceTaxonomy;
 import org.semanticweb.elk.reasoner.taxonomy.model.Node;
 import org.semanticweb.elk.reasoner.taxonomy.model.Taxonomy;
 import org.semanticweb.elk.reasoner.taxonomy.model.TaxonomyNodeFactory;
+import org.semanticweb.elk.reasoner.tracing.CompactModifiableTracingInferenceSet;
 import org.semanticweb.elk.reasoner.tracing.Conclusion;
 import org.semanticweb.elk.reasoner.tracing.DummyConclusionVisitor;
 import org.semanticweb.elk.reasoner.tracing.TraceState;
 import org.semanticweb.elk.reasoner.tracing.TracingInferenceSet;
 import org.semanticweb.elk.util.collections.ArrayHashSet;
+import org.semanticweb.elk.util.collections.Evictor;
+import org.semanticweb.elk.util.collections.FrequencyEvictor;
+import org.semanticweb.elk.util.collections.RecencyEvictor;
 import org.semanticweb.elk.util.concurrent.computation.ConcurrentExecutor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -128,6 +140,11 @@ public abstract class AbstractReasonerState {
 	 * Manages information about property hierarchy computation.
 	 */
 	final PropertyHierarchyCompositionState propertyHierarchyCompositionState_;
+	/**
+	 * Keeps track of the changes in object property axioms that are processed
+	 * incrementally
+	 */
+	final IncrementalPropertyChangesState incrementalPropertyChangesState_;
 	/**
 	 * Stores (partial) information about consistency checking computation
 	 */
@@ -161,11 +178,62 @@ public abstract class AbstractReasonerState {
 	 * The source where axioms and changes in ontology can be loaded
 	 */
 	private AxiomLoader axiomLoader_ = null;
+	/**
+	 * the journal in which the loaded changes are recorded or {@code null} if
+	 * the changes are not recorded
+	 */
+	private ChangeJournal changeJournal_ = null;
+	/**
+	 * record the changes of the class and the instance taxonomy if change
+	 * tracking is enabled, otherwise {@code null}
+	 */
+	private TaxonomyChangeRecorder.ForTaxonomy<ElkClass> classTaxonomyChanges_ = null;
+	private TaxonomyChangeRecorder.ForInstanceTaxonomy<ElkClass, ElkNamedIndividual> instanceTaxonomyChanges_ = null;
 	/**
 	 * if {@code true}, reasoning will be done incrementally whenever possible
 	 */
 	private boolean allowIncrementalMode_ = true;
 
+	/**
+	 * if {@code true}, the changes are processed incrementally only if this
+	 * is estimated to be faster than restoring the saturation from scratch
+	 */
+	private boolean costBasedIncrementalMode_ = true;
+
+	/**
+	 * the cost model is not used if there are fewer contexts; for small
+	 * ontologies, both ways are fast
+	 */
+	private static final int COST_BASED_MODE_MIN_CONTEXTS_ = 1024;
+
+	/**
+	 * Keeps the costs of the previous full and incremental restorations of
+	 * the saturation
+	 */
+	private final IncrementalProcessingStatistics incrementalProcessingStats_ = new IncrementalProcessingStatistics();
+
+	/**
+	 * {@code true} if the saturation was restored but the class taxonomy has
+	 * not been computed for it yet; the time spent in the stages executed
+	 * since the restoration started is accumulated in
+	 * {@link #restorationTime_} until the class taxonomy is computed
+	 */
+	private boolean restorationPending_ = false;
+	private long restorationTime_ = 0;
+
+	/**
+	 * whether the pending restoration of the saturation is incremental, and
+	 * the estimated number of contexts affected by it
+	 */
+	private boolean restorationIncremental_ = false;
+	private long restorationAffectedContexts_ = 0;
+
+	/**
+	 * the number of contexts affected by the changes estimated by the last
+	 * call of {@link #isIncrementalCheaper()}
+	 */
+	private long affectedContextsEstimate_ = 0;
+
 	/**
 	 * if the property hierarchy correspond to the loading axioms
 	 */
@@ -206,6 +274,8 @@ public abstract class AbstractReasonerState {
 				elkFactory, ontologyIndex);
 		this.subPropertyConverter_ = new ElkAxiomConverterImpl(elkFactory,
 				ontologyIndex);
+		this.incrementalPropertyChangesState_ = new IncrementalPropertyChangesState(
+				elkFactory, subPropertyConverter_);
 		this.traceState_ = new TraceState(saturationState,
 				propertyHierarchyCompositionState_, elkFactory, ontologyIndex);
 		this.classExpressionQueryState_ = new ClassExpressionQueryState(
@@ -219,7 +289,20 @@ public abstract class AbstractReasonerState {
 	}
 
 	protected void complete(ReasonerStage stage) throws ElkException {
-		getStageExecutor().complete(stage);
+		if (!restorationPending_) {
+			getStageExecutor().complete(stage);
+			return;
+		}
+		// else
+		final long start = System.nanoTime();
+		try {
+			getStageExecutor().complete(stage);
+		} finally {
+			restorationTime_ += System.nanoTime() - start;
+		}
+		if (stageManager.classTaxonomyComputationStage.isCompleted()) {
+			recordRestorationCost();
+		}
 	}
 
 	public synchronized void setAllowIncrementalMode(boolean allow) {
@@ -241,14 +324,180 @@ public abstract class AbstractReasonerState {
 		return allowIncrementalMode_;
 	}
 
+	/**
+	 * Sets whether changes should be processed incrementally only if this is
+	 * estimated to be faster than processing them from scratch. The estimate
+	 * compares the number of contexts affected by the changes with the number
+	 * of all contexts, weighted by the costs of the previous incremental and
+	 * full computations.
+	 * 
+	 * @param enabled
+	 */
+	public synchronized void setCostBasedIncrementalMode(boolean enabled) {
+		costBasedIncrementalMode_ = enabled;
+	}
+
+	public synchronized boolean isCostBasedIncrementalMode() {
+		return costBasedIncrementalMode_;
+	}
+
+	/**
+	 * Sets the journal in which all axioms subsequently added to or removed
+	 * from the ontology are recorded.
+	 * 
+	 * @param journal
+	 *            the {@link ChangeJournal} or {@code null} if the changes
+	 *            should not be recorded
+	 */
+	public synchronized void setChangeJournal(ChangeJournal journal) {
+		changeJournal_ = journal;
+	}
+
+	public synchronized ChangeJournal getChangeJournal() {
+		return changeJournal_;
+	}
+
+	/**
+	 * Enables or disables recording of the changes of the class and the
+	 * instance taxonomy, which can be retrieved using
+	 * {@link #pollTaxonomyChanges()} and
+	 * {@link #pollInstanceTaxonomyChanges()}. The changes are recorded from
+	 * the current state of the taxonomies; if they have not been computed yet,
+	 * all their nodes will be reported as added.
+	 * 
+	 * @param enabled
+	 */
+	public synchronized void setTaxonomyChangeTracking(boolean enabled) {
+		if (enabled == (classTaxonomyChanges_ != null)) {
+			return;
+		}
+		// else
+		if (enabled) {
+			classTaxonomyChanges_ = new TaxonomyChangeRecorder.ForTaxonomy<ElkClass>();
+			classTaxonomyChanges_.attach(classTaxonomyState.getTaxonomy());
+			instanceTaxonomyChanges_ = new TaxonomyChangeRecorder.ForInstanceTaxonomy<ElkClass, ElkNamedIndividual>();
+			instanceTaxonomyChanges_
+					.attach(instanceTaxonomyState.getTaxonomy());
+		} else {
+			classTaxonomyChanges_.detach();
+			classTaxonomyChanges_ = null;
+			instanceTaxonomyChanges_.detach();
+			instanceTaxonomyChanges_ = null;
+		}
+	}
+
+	public synchronized boolean isTaxonomyChangeTracking() {
+		return classTaxonomyChanges_ != null;
+	}
+
+	public synchronized IncrementalProcessingStatistics getIncrementalProcessingStatistics() {
+		return incrementalProcessingStats_;
+	}
+
 	public synchronized boolean isIncrementalMode() {
 		return ontologyIndex.isIncrementalMode();
 	}
 
+	/**
+	 * Sets how many queried class expressions are cached and which of them
+	 * are evicted when this number is exceeded.
+	 * 
+	 * @param policy
+	 *            the policy that selects the evicted class expressions
+	 * @param capacity
+	 *            the maximal number of cached class expressions
+	 */
+	public synchronized void setClassExpressionQueryCache(
+			final QueryCacheEvictionPolicy policy, final int capacity) {
+		final Evictor<ElkClassExpression> evictor;
+		switch (policy) {
+		case TINY_LFU:
+			evictor = new FrequencyEvictor<ElkClassExpression>(capacity);
+			break;
+		case LRU:
+		default:
+			evictor = new RecencyEvictor<ElkClassExpression>(capacity,
+					ClassExpressionQueryState.EVICTION_FACTOR);
+			break;
+		}
+		LOGGER_.debug("class expression query cache: {}, capacity {}", policy,
+				capacity);
+		classExpressionQueryState_.setEvictor(evictor);
+	}
+
+	/**
+	 * Sets how the inferences traced for explanations are cached between the
+	 * calls of {@link #explainConclusions(Iterable)}. The inferences are
+	 * cached per context root; the inferences for roots evicted by the policy
+	 * are traced again when needed.
+	 * 
+	 * @param policy
+	 *            the policy that selects the evicted context roots
+	 * @param capacity
+	 *            the maximal number of context roots for which the traced
+	 *            inferences are cached
+	 */
+	public synchronized void setTracingCache(
+			final QueryCacheEvictionPolicy policy, final int capacity) {
+		final Evictor<IndexedContextRoot> evictor;
+		switch (policy) {
+		case TINY_LFU:
+			evictor = new FrequencyEvictor<IndexedContextRoot>(capacity);
+			break;
+		case LRU:
+		default:
+			evictor = new RecencyEvictor<IndexedContextRoot>(capacity,
+					TraceState.EVICTION_FACTOR);
+			break;
+		}
+		LOGGER_.debug("tracing cache: {}, capacity {}", policy, capacity);
+		traceState_.setEvictor(evictor);
+	}
+
+	/**
+	 * Sets whether the inferences traced for explanations are stored in a
+	 * compact form; the inferences traced so far are discarded
+	 * 
+	 * @param compact
+	 * @see CompactModifiableTracingInferenceSet
+	 */
+	public synchronized void setCompactTracingInferences(
+			final boolean compact) {
+		LOGGER_.debug("compact tracing inferences: {}", compact);
+		traceState_.setCompactClassInferences(compact);
+	}
+
+	/**
+	 * @return the statistics about the cache of queried class expressions
+	 */
+	public synchronized QueryCacheStatistics getClassExpressionQueryCacheStatistics() {
+		return classExpressionQueryState_.getCacheStatistics();
+	}
+
+	/**
+	 * Sets whether individuals that must have the same types are realized by
+	 * saturating only one representative of them.
+	 * 
+	 * @param enabled
+	 * @see org.semanticweb.elk.reasoner.taxonomy.AboxAbstraction
+	 */
+	public synchronized void setAboxCompression(final boolean enabled) {
+		instanceTaxonomyState.setAboxCompressionEnabled(enabled);
+	}
+
+	public synchronized boolean isAboxCompression() {
+		return instanceTaxonomyState.isAboxCompressionEnabled();
+	}
+
 	void setNonIncrementalMode() {
 		if (!isIncrementalMode()) {
 			return;
 		}
+		if (incrementalPropertyChangesState_.hasChanges()) {
+			// the changes in properties are not processed incrementally
+			incrementalPropertyChangesState_.clear();
+			stageManager.propertyInitializationStage.invalidateRecursive();
+		}
 		ontologyIndex.setIncrementalMode(false);
 	}
 
@@ -354,8 +603,20 @@ public abstract class AbstractReasonerState {
 	 */
 	private void restoreSaturation() throws ElkException {
 
+		// the changes may be partly processed already during loading
+		final boolean pending = restorationPending_;
+		final long start = System.nanoTime();
+
 		ensureLoading();
 
+		affectedContextsEstimate_ = 0;
+		if (isIncrementalMode()
+				&& !stageManager.incrementalCompletionStage.isCompleted()
+				&& !isIncrementalCheaper()) {
+			setNonIncrementalMode();
+			stageManager.contextInitializationStage.invalidateRecursive();
+		}
+
 		final boolean changed;
 
 		if (isIncrementalMode()) {
@@ -369,8 +630,72 @@ public abstract class AbstractReasonerState {
 
 		if (changed) {
 			stageManager.consistencyCheckingStage.invalidateRecursive();
+			if (pending) {
+				/*
+				 * more changes, e.g., indexing of queries, before the class
+				 * taxonomy is computed; the time of the stages is already
+				 * accumulated
+				 */
+				restorationIncremental_ &= isIncrementalMode();
+			} else {
+				restorationPending_ = true;
+				restorationIncremental_ = isIncrementalMode();
+				restorationTime_ = System.nanoTime() - start;
+				restorationAffectedContexts_ = 0;
+			}
+			restorationAffectedContexts_ += affectedContextsEstimate_;
+		}
+
+	}
+
+	/**
+	 * Decides whether the pending changes should be processed incrementally
+	 * using the estimated number of affected contexts and the costs of the
+	 * previous computations; must be called before the incremental stages.
+	 * 
+	 * @return {@code true} if the incremental processing is estimated to be
+	 *         faster
+	 */
+	private boolean isIncrementalCheaper() {
+		final int contextCount = saturationState.getContexts().size();
+		if (!costBasedIncrementalMode_
+				|| contextCount < COST_BASED_MODE_MIN_CONTEXTS_) {
+			return true;
 		}
+		// else
+		affectedContextsEstimate_ = new AffectedContextsEstimator(
+				ontologyIndex, classTaxonomyState.getTaxonomy())
+						.estimate(contextCount);
+		final double ratio = incrementalProcessingStats_
+				.getIncrementalCostRatio();
+		final boolean result = affectedContextsEstimate_
+				* ratio <= contextCount;
+		LOGGER_.debug(
+				"Estimated {} of {} contexts affected by changes, incremental cost ratio {}: {} reasoning chosen",
+				affectedContextsEstimate_, contextCount,
+				String.format("%.2f", ratio),
+				result ? "incremental" : "non-incremental");
+		return result;
+	}
 
+	/**
+	 * Records the cost of the pending restoration of the saturation after the
+	 * class taxonomy is computed for it, no matter which query has triggered
+	 * the computation
+	 */
+	private void recordRestorationCost() {
+		final long time = restorationTime_;
+		restorationPending_ = false;
+		restorationTime_ = 0;
+		if (restorationIncremental_) {
+			if (restorationAffectedContexts_ > 0) {
+				incrementalProcessingStats_.recordIncrementalRestoration(time,
+						restorationAffectedContexts_);
+			}
+		} else {
+			incrementalProcessingStats_.recordFullRestoration(time,
+					saturationState.getContexts().size());
+		}
 	}
 
 	/**
@@ -581,6 +906,57 @@ public abstract class AbstractReasonerState {
 		return result;
 	}
 
+	/**
+	 * Computes the class taxonomy if necessary and returns its changes since
+	 * the previous call of this method or since
+	 * {@link #setTaxonomyChangeTracking(boolean)} was enabled; only the
+	 * classes affected by the changes of the ontology are compared.
+	 * 
+	 * @return the changes of the class taxonomy
+	 * @throws ElkInconsistentOntologyException
+	 *             if the ontology is inconsistent
+	 * @throws ElkException
+	 *             if the reasoning process cannot be completed successfully
+	 * @throws IllegalStateException
+	 *             if the change tracking is not enabled
+	 */
+	public synchronized TaxonomyDiff<ElkClass, ElkClass> pollTaxonomyChanges()
+			throws ElkException {
+		if (classTaxonomyChanges_ == null) {
+			throw new IllegalStateException(
+					"Taxonomy change tracking is not enabled");
+		}
+		// else
+		getTaxonomy();
+		return classTaxonomyChanges_.poll(classTaxonomyState.getTaxonomy());
+	}
+
+	/**
+	 * Computes the instance taxonomy if necessary and returns the changes of
+	 * the individuals and their direct types since the previous call of this
+	 * method or since {@link #setTaxonomyChangeTracking(boolean)} was
+	 * enabled.
+	 * 
+	 * @return the changes of the instance nodes of the instance taxonomy
+	 * @throws ElkInconsistentOntologyException
+	 *             if the ontology is inconsistent
+	 * @throws ElkException
+	 *             if the reasoning process cannot be completed successfully
+	 * @throws IllegalStateException
+	 *             if the change tracking is not enabled
+	 */
+	public synchronized TaxonomyDiff<ElkNamedIndividual, ElkClass> pollInstanceTaxonomyChanges()
+			throws ElkException {
+		if (instanceTaxonomyChanges_ == null) {
+			throw new IllegalStateException(
+					"Taxonomy change tracking is not enabled");
+		}
+		// else
+		getInstanceTaxonomy();
+		return instanceTaxonomyChanges_
+				.poll(instanceTaxonomyState.getTaxonomy());
+	}
+
 	/**
 	 * Compute the inferred taxonomy of the object properties for the given
 	 * ontology if it has not been done yet.
@@ -891,7 +1267,7 @@ public abstract class AbstractReasonerState {
 		restoreSaturation();
 
 		stageManager.entailmentQueryStage.invalidateRecursive();
-		complete(stageManager.entailmentQueryStage);
+		complete(stageManager.entailmentQueryEvaluationStage);
 
 		return entailmentQueryState_.isEntailed(axioms);
 	}
@@ -1004,6 +1380,8 @@ public abstract class AbstractReasonerState {
 	public TracingInferenceSet explainConclusions(
 			final Iterable<? extends Conclusion> conclusions)
 			throws ElkException {
+		// the inferences returned by the previous call are no longer needed
+		traceState_.evictTraced();
 		for (final Conclusion conclusion : conclusions) {
 			conclusion.accept(new DummyConclusionVisitor<Void>() {
 				@Override
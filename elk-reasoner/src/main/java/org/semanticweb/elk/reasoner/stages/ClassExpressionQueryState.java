@@ -48,6 +48,7 @@ import org.semanticweb.elk.reasoner.indexing.model.IndexedContextRoot;
 import org.semanticweb.elk.reasoner.indexing.model.IndexedIndividual;
 import org.semanticweb.elk.reasoner.indexing.model.ModifiableOntologyIndex;
 import org.semanticweb.elk.reasoner.query.ElkQueryException;
+import org.semanticweb.elk.reasoner.query.QueryCacheStatistics;
 import org.semanticweb.elk.reasoner.query.QueryNode;
 import org.semanticweb.elk.reasoner.reduction.TransitiveReductionOutputEquivalent;
 import org.semanticweb.elk.reasoner.reduction.TransitiveReductionOutputEquivalentDirect;
@@ -65,8 +66,9 @@ import org.semanticweb.elk.reasoner.taxonomy.model.Taxonomy;
 import org.semanticweb.elk.reasoner.taxonomy.model.TaxonomyNode;
 import org.semanticweb.elk.reasoner.taxonomy.model.TypeNode;
 import org.semanticweb.elk.util.collections.ArrayHashSet;
+import org.semanticweb.elk.util.collections.Evictor;
 import org.semanticweb.elk.util.collections.Operations;
-import org.semanticweb.elk.util.collections.RecencyQueue;
+import org.semanticweb.elk.util.collections.RecencyEvictor;
 import org.semanticweb.elk.util.concurrent.computation.InterruptMonitor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -106,10 +108,16 @@ public class ClassExpressionQueryState implements ClassQueryLoader.Factory {
 	private final Map<IndexedClassExpression, QueryState> indexed_ = new ConcurrentHashMap<IndexedClassExpression, QueryState>();
 
 	/**
-	 * Contains the same class expressions as {@link #queried_} in the order in
-	 * which they were queried.
+	 * Tracks usage of the same class expressions as in {@link #queried_} and
+	 * decides which of them should be evicted.
 	 */
-	private final RecencyQueue<ElkClassExpression> recentlyQueried_ = new RecencyQueue<ElkClassExpression>();
+	private Evictor<ElkClassExpression> evictor_ = new RecencyEvictor<ElkClassExpression>(
+			CACHE_CAPACITY, EVICTION_FACTOR);
+
+	/**
+	 * Counts hits, misses and evictions of the queried class expressions.
+	 */
+	private final QueryCacheStatistics cacheStatistics_ = new QueryCacheStatistics();
 
 	/**
 	 * State of the query of a particular class expression. There are four
@@ -157,11 +165,6 @@ public class ClassExpressionQueryState implements ClassQueryLoader.Factory {
 	 */
 	private final Map<ElkClass, Collection<IndexedClassExpression>> queriesByRelated_ = new ConcurrentHashMap<ElkClass, Collection<IndexedClassExpression>>();
 
-	/**
-	 * The number of class expressions that were queried by the last call.
-	 */
-	private int lastQuerySize_ = 0;
-
 	private final SaturationState<? extends Context> saturationState_;
 
 	private final ElkPolarityExpressionConverter resolvingExpressionConverter_;
@@ -276,13 +279,14 @@ public class ClassExpressionQueryState implements ClassQueryLoader.Factory {
 
 		LOGGER_.trace("class expression query registered {}", classExpression);
 
-		recentlyQueried_.offer(classExpression);
-		lastQuerySize_ = 1;
+		evictor_.add(classExpression);
 
 		QueryState state = queried_.get(classExpression);
 		if (state != null) {
+			cacheStatistics_.registerHit();
 			return false;
 		}
+		cacheStatistics_.registerMiss();
 		// Create query state.
 		state = new QueryState();
 		queried_.put(classExpression, state);
@@ -291,6 +295,27 @@ public class ClassExpressionQueryState implements ClassQueryLoader.Factory {
 		return true;
 	}
 
+	/**
+	 * Sets the evictor that decides which queried class expressions should be
+	 * evicted. All class expressions that are currently cached are registered
+	 * with the new evictor.
+	 * 
+	 * @param evictor
+	 */
+	void setEvictor(final Evictor<ElkClassExpression> evictor) {
+		for (final ElkClassExpression classExpression : queried_.keySet()) {
+			evictor.add(classExpression);
+		}
+		this.evictor_ = evictor;
+	}
+
+	/**
+	 * @return the statistics about the cache of queried class expressions.
+	 */
+	public QueryCacheStatistics getCacheStatistics() {
+		return cacheStatistics_;
+	}
+
 	@Override
 	public ClassQueryLoader getQueryLoader(final InterruptMonitor interrupter) {
 		return new Loader(interrupter);
@@ -359,45 +384,32 @@ public class ClassExpressionQueryState implements ClassQueryLoader.Factory {
 			}
 
 			/*
-			 * If the cache size is exceeded, evict old entries.
+			 * If the cache size is exceeded, evict the entries selected by the
+			 * evictor. The last queried class expression is never evicted.
 			 */
-			if (recentlyQueried_.size() > CACHE_CAPACITY) {
-
-				// @formatter:off
-				final int goalCapacity = Math.max(
-						Math.min(
-								(int) (recentlyQueried_.size() * EVICTION_FACTOR),
-								CACHE_CAPACITY),
-						lastQuerySize_);
-				// @formatter:on
-
-				while (recentlyQueried_.size() > goalCapacity) {
-					classExpression = recentlyQueried_.poll();
-					/*
-					 * While desiredCapacity is at least lastQuerySize, at least
-					 * the last lastQuerySize queries will remain cached.
-					 */
-
-					final QueryState state = queried_.remove(classExpression);
-					if (state.isLoaded) {
-						deleter.visit(classExpression);
-						if (state.indexed != null) {
-							if (state.isComputed) {
-								if (state.node != null) {
-									removeAllRelated(state.indexed, state.node);
-									state.node = null;
-								}
+			final Iterator<ElkClassExpression> evicted = evictor_.evict();
+			while (evicted.hasNext()) {
+				classExpression = evicted.next();
+				cacheStatistics_.registerEviction();
+
+				final QueryState state = queried_.remove(classExpression);
+				if (state.isLoaded) {
+					deleter.visit(classExpression);
+					if (state.indexed != null) {
+						if (state.isComputed) {
+							if (state.node != null) {
+								removeAllRelated(state.indexed, state.node);
+								state.node = null;
 							}
-							indexed_.remove(state.indexed);
-							state.indexed = null;
 						}
-					}
-
-					if (isInterrupted()) {
-						return;
+						indexed_.remove(state.indexed);
+						state.indexed = null;
 					}
 				}
 
+				if (isInterrupted()) {
+					return;
+				}
 			}
 
 		}
@@ -24,9 +24,11 @@ package org.semanticweb.elk.reasoner.stages;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Queue;
+import java.util.Set;
 import java.util.concurrent.ConcurrentLinkedQueue;
 
 import org.semanticweb.elk.owl.interfaces.ElkClass;
@@ -36,11 +38,14 @@ import org.semanticweb.elk.reasoner.indexing.classes.OntologyIndexDummyChangeLis
 import org.semanticweb.elk.reasoner.indexing.conversion.ElkPolarityExpressionConverter;
 import org.semanticweb.elk.reasoner.indexing.conversion.ElkPolarityExpressionConverterImpl;
 import org.semanticweb.elk.reasoner.indexing.model.IndexedClass;
+import org.semanticweb.elk.reasoner.indexing.model.IndexedClassExpression;
 import org.semanticweb.elk.reasoner.indexing.model.IndexedContextRoot;
 import org.semanticweb.elk.reasoner.indexing.model.ModifiableIndexedClassExpression;
 import org.semanticweb.elk.reasoner.indexing.model.OntologyIndex;
 import org.semanticweb.elk.reasoner.saturation.SaturationState;
 import org.semanticweb.elk.reasoner.saturation.SaturationStateDummyChangeListener;
+import org.semanticweb.elk.reasoner.saturation.conclusions.classes.SaturationConclusionBaseFactory;
+import org.semanticweb.elk.reasoner.saturation.conclusions.model.ClassInconsistency;
 import org.semanticweb.elk.reasoner.saturation.context.Context;
 import org.semanticweb.elk.reasoner.taxonomy.ConcurrentClassTaxonomy;
 import org.semanticweb.elk.reasoner.taxonomy.DummyNodeStoreListener;
@@ -86,6 +91,8 @@ public class ClassTaxonomyState {
 
 	private final ElkObject.Factory elkFactory_;
 
+	private final ClassInconsistency.Factory conclusionFactory_ = new SaturationConclusionBaseFactory();
+
 	private final OntologyIndex ontologyIndex_;
 
 	private final SaturationState<?> saturationState_;
@@ -317,6 +324,92 @@ public class ClassTaxonomyState {
 		return Operations.getCollection(toRemove_, size);
 	}
 
+	/**
+	 * Removes from {@link #toRemove_} the classes whose named subsumers did
+	 * not change, i.e., the named subsumers derived in their saturated
+	 * contexts are exactly the members of their nodes and of all super-nodes
+	 * of their nodes in the taxonomy. The nodes of such classes remain in the
+	 * taxonomy. The direct super-nodes of such nodes can only change if some
+	 * of their (old or new) subsumers changed; the latter are removed from
+	 * the taxonomy by {@link #getToRemove()}, which in turn schedules the
+	 * affected sub-nodes for re-insertion.
+	 * <p>
+	 * <strong>{@code taxonomy_} must not be {@code null} and all contexts
+	 * must be saturated!</strong>
+	 * 
+	 * @return the number of classes that remain in the taxonomy
+	 */
+	int retainUnchanged() {
+		final Iterator<IndexedClass> iter = toRemove_.iterator();
+		int retained = 0;
+		while (iter.hasNext()) {
+			final IndexedClass cls = iter.next();
+			if (hasUnchangedSubsumers(cls)) {
+				iter.remove();
+				retained++;
+			}
+		}
+		return retained;
+	}
+
+	private boolean hasUnchangedSubsumers(final IndexedClass cls) {
+		if (!cls.occurs()) {
+			return false;
+		}
+		// else
+		final Context context = saturationState_.getContext(cls);
+		if (context == null || !context.isInitialized()
+				|| !context.isSaturated()) {
+			return false;
+		}
+		// else
+		if (context.containsConclusion(
+				conclusionFactory_.getContradiction(cls))) {
+			// must be moved to the bottom node
+			return false;
+		}
+		// else
+		final TaxonomyNode<ElkClass> node = taxonomy_
+				.getNode(cls.getElkEntity());
+		if (node == null || node.equals(taxonomy_.getBottomNode())) {
+			return false;
+		}
+		// else
+		final TaxonomyNode<ElkClass> topNode = taxonomy_.getTopNode();
+		final Set<TaxonomyNode<ElkClass>> oldNodes = new HashSet<TaxonomyNode<ElkClass>>(
+				node.getAllSuperNodes());
+		oldNodes.add(node);
+		oldNodes.remove(topNode);
+		int oldCount = 0;
+		for (final TaxonomyNode<ElkClass> oldNode : oldNodes) {
+			oldCount += oldNode.size();
+		}
+		int newCount = 0;
+		for (final IndexedClassExpression subsumer : context
+				.getComposedSubsumers()) {
+			if (!(subsumer instanceof IndexedClass)) {
+				continue;
+			}
+			// else
+			final TaxonomyNode<ElkClass> subsumerNode = taxonomy_
+					.getNode(((IndexedClass) subsumer).getElkEntity());
+			if (subsumerNode == null) {
+				// a new or removed subsumer
+				return false;
+			}
+			// else
+			if (subsumerNode.equals(topNode)) {
+				continue;
+			}
+			// else
+			if (!oldNodes.contains(subsumerNode)) {
+				return false;
+			}
+			newCount++;
+		}
+		return newCount == oldCount;
+	}
+
 	void resetTaxonomy() {
 		LOGGER_.trace("Reset class taxonomy");
 
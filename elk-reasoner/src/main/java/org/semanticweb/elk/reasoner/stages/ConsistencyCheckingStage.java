@@ -56,7 +56,8 @@ class ConsistencyCheckingStage extends AbstractReasonerStage {
 		if (!super.preExecute())
 			return false;
 		this.computation = new ClassExpressionSaturation<IndexedClassEntity>(
-				reasoner.consistencyCheckingState.getTestEntitites(),
+				reasoner.instanceTaxonomyState.selectTestEntities(
+						reasoner.consistencyCheckingState.getTestEntitites()),
 				reasoner.getProcessExecutor(), workerNo,
 				reasoner.getProgressMonitor(),
 				new RuleApplicationAdditionFactory<RuleApplicationInput>(
@@ -0,0 +1,79 @@
+/*-
+ * #%L
+ * ELK Reasoner Core
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2011 - 2016 Department of Computer Science, University of Oxford
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.semanticweb.elk.reasoner.stages;
+
+import org.semanticweb.elk.reasoner.query.EntailmentQueryEvaluation;
+
+/**
+ * Stage that evaluates the registered entailment queries whose results are not
+ * cached. The contexts needed for the queries are saturated by the
+ * pre-stages.
+ */
+class EntailmentQueryEvaluationStage extends AbstractReasonerStage {
+
+	/**
+	 * the computation used for this stage
+	 */
+	protected EntailmentQueryEvaluation computation_ = null;
+
+	public EntailmentQueryEvaluationStage(final AbstractReasonerState reasoner,
+			final AbstractReasonerStage... preStages) {
+		super(reasoner, preStages);
+	}
+
+	@Override
+	public String getName() {
+		return "Entailment Query Evaluation";
+	}
+
+	@Override
+	public boolean preExecute() {
+		if (!super.preExecute()) {
+			return false;
+		}
+		this.computation_ = new EntailmentQueryEvaluation(
+				reasoner.entailmentQueryState_.getNotEvaluatedQueries(),
+				reasoner.getInterrupter(), reasoner.getProcessExecutor(),
+				workerNo, reasoner.getProgressMonitor());
+		return true;
+	}
+
+	@Override
+	public void executeStage() throws ElkInterruptedException {
+		computation_.process();
+	}
+
+	@Override
+	public boolean postExecute() {
+		if (!super.postExecute()) {
+			return false;
+		}
+		this.computation_ = null;
+		return true;
+	}
+
+	@Override
+	public void printInfo() {
+		// No statistics.
+	}
+
+}
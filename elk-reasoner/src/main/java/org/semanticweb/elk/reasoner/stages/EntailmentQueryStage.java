@@ -62,8 +62,9 @@ class EntailmentQueryStage extends AbstractReasonerStage {
 
 		final Collection<IndexedContextRoot> queries = reasoner.entailmentQueryState_
 				.getNotSaturatedPositivelyIndexedRoots();
-		final Collection<? extends IndexedClassEntity> consistencyTestEntities = reasoner.consistencyCheckingState
-				.getTestEntitites();
+		final Collection<? extends IndexedClassEntity> consistencyTestEntities = reasoner.instanceTaxonomyState
+				.selectTestEntities(reasoner.consistencyCheckingState
+						.getTestEntitites());
 
 		@SuppressWarnings("unchecked")
 		final Collection<IndexedContextRoot> inputs = Operations.getCollection(
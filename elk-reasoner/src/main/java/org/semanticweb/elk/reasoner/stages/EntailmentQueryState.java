@@ -21,10 +21,14 @@
  */
 package org.semanticweb.elk.reasoner.stages;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.Queue;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentLinkedQueue;
 
@@ -45,12 +49,15 @@ import org.semanticweb.elk.reasoner.query.ElkQueryException;
 import org.semanticweb.elk.reasoner.query.EntailmentQueryConverter;
 import org.semanticweb.elk.reasoner.query.EntailmentQueryResult;
 import org.semanticweb.elk.reasoner.query.IndexedEntailmentQuery;
+import org.semanticweb.elk.reasoner.query.ProperEntailmentQueryResult;
 import org.semanticweb.elk.reasoner.query.UnsupportedIndexingEntailmentQueryResultImpl;
 import org.semanticweb.elk.reasoner.query.UnsupportedQueryTypeEntailmentQueryResultImpl;
 import org.semanticweb.elk.reasoner.saturation.SaturationState;
+import org.semanticweb.elk.reasoner.saturation.SaturationStateDummyChangeListener;
 import org.semanticweb.elk.reasoner.saturation.conclusions.model.SaturationConclusion;
 import org.semanticweb.elk.reasoner.saturation.context.Context;
 import org.semanticweb.elk.util.collections.ArrayHashMap;
+import org.semanticweb.elk.util.collections.ArrayHashSet;
 import org.semanticweb.elk.util.collections.Condition;
 import org.semanticweb.elk.util.collections.Operations;
 import org.semanticweb.elk.util.collections.RecencyQueue;
@@ -87,6 +94,13 @@ public class EntailmentQueryState implements EntailmentQueryLoader.Factory {
 	 */
 	private final RecencyQueue<QueryState> recentlyQueried_ = new RecencyQueue<QueryState>();
 
+	/**
+	 * Maps the positively indexed roots of the loaded queries to the states of
+	 * these queries. When a context of such a root is modified, the cached
+	 * results of the mapped queries are invalidated.
+	 */
+	private final Map<IndexedContextRoot, Collection<QueryState>> queriesByRoot_ = new HashMap<IndexedContextRoot, Collection<QueryState>>();
+
 	/**
 	 * State of the query of a particular axiom. There are two forbidden states:
 	 * <ul>
@@ -114,6 +128,12 @@ public class EntailmentQueryState implements EntailmentQueryLoader.Factory {
 		 * is not {@code null}, the query results must be available.
 		 */
 		private int lockedCount_ = 0;
+		/**
+		 * Whether the query is derivable from the entailment evidence (not
+		 * taking inconsistency into account), or {@code null} if this was not
+		 * evaluated since the last modification of the relevant contexts.
+		 */
+		private Boolean isDerivable_ = null;
 
 		public QueryState(final ElkAxiom query) {
 			super(query);
@@ -136,8 +156,30 @@ public class EntailmentQueryState implements EntailmentQueryLoader.Factory {
 						"Query was not indexed: " + getQuery());
 			}
 			// else
-			return new InferenceDerivabilityChecker<Entailment>(
-					getEvidence(true)).isDerivable(indexed.getQuery());
+			if (consistencyCheckingState_.isInconsistent()) {
+				// Everything is entailed by an inconsistent ontology.
+				return true;
+			}
+			// else
+			return isDerivable();
+		}
+
+		private synchronized boolean isDerivable() throws ElkQueryException {
+			if (isDerivable_ == null) {
+				isDerivable_ = new InferenceDerivabilityChecker<Entailment>(
+						indexed.getEvidence(true, saturationState_,
+								conclusionFactory_))
+										.isDerivable(indexed.getQuery());
+			}
+			return isDerivable_;
+		}
+
+		synchronized boolean isEvaluated() {
+			return isDerivable_ != null;
+		}
+
+		synchronized void invalidate() {
+			isDerivable_ = null;
 		}
 
 		@Override
@@ -192,6 +234,13 @@ public class EntailmentQueryState implements EntailmentQueryLoader.Factory {
 	 */
 	private int lastQuerySize_ = 0;
 
+	/**
+	 * The states of the axioms that were registered by the last call; only
+	 * these are evaluated by {@link EntailmentQueryEvaluationStage}, the
+	 * results of other queries are evaluated when they are accessed.
+	 */
+	private final Set<QueryState> lastQueried_ = new ArrayHashSet<QueryState>();
+
 	private final SaturationState<? extends Context> saturationState_;
 
 	private final ConsistencyCheckingState consistencyCheckingState_;
@@ -205,6 +254,61 @@ public class EntailmentQueryState implements EntailmentQueryLoader.Factory {
 		this.saturationState_ = saturationState;
 		this.consistencyCheckingState_ = consistencyCheckingState;
 		this.conclusionFactory_ = factory;
+		saturationState
+				.addListener(new SaturationStateDummyChangeListener<C>() {
+
+					@Override
+					public void contextMarkNonSaturated(final C context) {
+						final IndexedContextRoot root = context.getRoot();
+						synchronized (queriesByRoot_) {
+							final Collection<QueryState> states = queriesByRoot_
+									.get(root);
+							if (states != null) {
+								for (final QueryState state : states) {
+									state.invalidate();
+								}
+							}
+						}
+					}
+
+					@Override
+					public void contextsClear() {
+						for (final QueryState state : queried_.values()) {
+							state.invalidate();
+						}
+					}
+
+				});
+	}
+
+	private void registerRoots(final QueryState state) {
+		synchronized (queriesByRoot_) {
+			for (final IndexedContextRoot root : state.indexed
+					.getPositivelyIndexed()) {
+				Collection<QueryState> states = queriesByRoot_.get(root);
+				if (states == null) {
+					states = new ArrayHashSet<QueryState>();
+					queriesByRoot_.put(root, states);
+				}
+				states.add(state);
+			}
+		}
+	}
+
+	private void unregisterRoots(final QueryState state) {
+		synchronized (queriesByRoot_) {
+			for (final IndexedContextRoot root : state.indexed
+					.getPositivelyIndexed()) {
+				final Collection<QueryState> states = queriesByRoot_.get(root);
+				if (states == null) {
+					continue;
+				}
+				states.remove(state);
+				if (states.isEmpty()) {
+					queriesByRoot_.remove(root);
+				}
+			}
+		}
 	}
 
 	/**
@@ -222,6 +326,7 @@ public class EntailmentQueryState implements EntailmentQueryLoader.Factory {
 	void registerQueries(final Iterable<? extends ElkAxiom> axioms) {
 
 		int axiomCount = 0;
+		lastQueried_.clear();
 		for (final ElkAxiom axiom : axioms) {
 
 			LOGGER_.trace("entailment query registered {}", axiom);
@@ -231,12 +336,14 @@ public class EntailmentQueryState implements EntailmentQueryLoader.Factory {
 			QueryState state = queried_.get(axiom);
 			if (state != null) {
 				recentlyQueried_.offer(state);
+				lastQueried_.add(state);
 				continue;
 			}
 			// Create query state.
 			state = new QueryState(axiom);
 			queried_.put(axiom, state);
 			recentlyQueried_.offer(state);
+			lastQueried_.add(state);
 			toLoad_.offer(axiom);
 
 		}
@@ -276,6 +383,9 @@ public class EntailmentQueryState implements EntailmentQueryLoader.Factory {
 
 				state.isLoaded = true;
 				state.indexed = axiom.accept(inserter);
+				if (state.indexed != null) {
+					registerRoots(state);
+				}
 
 				if (isInterrupted()) {
 					return;
@@ -313,6 +423,9 @@ public class EntailmentQueryState implements EntailmentQueryLoader.Factory {
 					iter.remove();
 					queried_.remove(state.getQuery());
 					if (state.isLoaded) {
+						if (state.indexed != null) {
+							unregisterRoots(state);
+						}
 						state.getQuery().accept(deleter);
 						state.indexed = null;
 						state.isLoaded = false;
@@ -373,6 +486,40 @@ public class EntailmentQueryState implements EntailmentQueryLoader.Factory {
 		return Operations.getCollection(result, sizeUpper);
 	}
 
+	/**
+	 * @return the results of the entailment queries registered by the last
+	 *         call of {@link #registerQueries(Iterable)} that were indexed,
+	 *         but whose entailment was not evaluated since the last
+	 *         modification of the contexts they depend on; the results of
+	 *         other queries invalidated by such modifications are evaluated
+	 *         when they are accessed.
+	 */
+	Collection<ProperEntailmentQueryResult> getNotEvaluatedQueries() {
+		final List<ProperEntailmentQueryResult> result = new ArrayList<ProperEntailmentQueryResult>();
+		if (consistencyCheckingState_.isInconsistent()) {
+			// Nothing needs to be evaluated.
+			return result;
+		}
+		// else
+		for (final QueryState state : lastQueried_) {
+			if (state.indexed != null && !state.isEvaluated()) {
+				result.add(state);
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * @param axiom
+	 * @return {@code true} if the supplied axiom is registered as a query and
+	 *         its entailment is cached, i.e., it was evaluated since the last
+	 *         modification of the contexts it depends on
+	 */
+	boolean isEvaluated(final ElkAxiom axiom) {
+		final QueryState state = queried_.get(axiom);
+		return state != null && state.isEvaluated();
+	}
+
 	/**
 	 * Decides whether the supplied {@code axioms} are entailed. If some of the
 	 * supplied axioms was not registered by {@link #registerQueries(Iterable)}.
@@ -42,6 +42,7 @@ import org.semanticweb.elk.reasoner.indexing.conversion.ElkPolarityExpressionCon
 import org.semanticweb.elk.reasoner.indexing.conversion.ElkPolarityExpressionConverterImpl;
 import org.semanticweb.elk.reasoner.indexing.model.IndexedClass;
 import org.semanticweb.elk.reasoner.indexing.model.IndexedClassExpression;
+import org.semanticweb.elk.reasoner.indexing.model.IndexedContextRoot;
 import org.semanticweb.elk.reasoner.saturation.ContextCreationListener;
 import org.semanticweb.elk.reasoner.saturation.ContextModificationListener;
 import org.semanticweb.elk.reasoner.saturation.SaturationStateWriter;
@@ -145,6 +146,17 @@ public class IncrementalAdditionInitializationStage
 				writer.produce(new ContextInitializationNoPremises(ice));
 		}
 
+		// second, init again contexts over-deleted because of property changes
+		for (IndexedContextRoot root : reasoner.incrementalPropertyChangesState_
+				.getAffectedRoots()) {
+			if (root instanceof IndexedClassExpression
+					&& !((IndexedClassExpression) root).occurs())
+				continue;
+			Context context = reasoner.saturationState.getContext(root);
+			if (context != null && !context.isInitialized())
+				writer.produce(new ContextInitializationNoPremises(root));
+		}
+
 		changedInitRules = diffIndex.getAddedContextInitRules();
 		changedRulesByCE = diffIndex.getAddedContextRulesByClassExpressions();
 		changedDefinitions = diffIndex.getAddedDefinitions();
@@ -152,8 +164,7 @@ public class IncrementalAdditionInitializationStage
 
 		if (changedInitRules != null || !changedRulesByCE.isEmpty()
 				|| !changedDefinitions.isEmpty()) {
-			inputs = Operations.split(reasoner.saturationState.getContexts(),
-					8 * workerNo);
+			inputs = split(reasoner.saturationState.getContexts());
 		}
 
 		this.initialization = new IncrementalChangesInitialization(inputs,
@@ -173,6 +184,7 @@ public class IncrementalAdditionInitializationStage
 		reasoner.ontologyIndex.commitAddedRules();
 		reasoner.ontologyIndex.initClassChanges();
 		reasoner.ontologyIndex.initIndividualChanges();
+		reasoner.incrementalPropertyChangesState_.clear();
 		return true;
 	}
 
@@ -32,12 +32,12 @@ import org.semanticweb.elk.reasoner.incremental.IncrementalStages;
 import org.semanticweb.elk.reasoner.indexing.classes.DifferentialIndex;
 import org.semanticweb.elk.reasoner.indexing.model.IndexedClass;
 import org.semanticweb.elk.reasoner.indexing.model.IndexedClassExpression;
+import org.semanticweb.elk.reasoner.indexing.model.IndexedContextRoot;
 import org.semanticweb.elk.reasoner.saturation.SaturationStateWriter;
 import org.semanticweb.elk.reasoner.saturation.context.Context;
 import org.semanticweb.elk.reasoner.saturation.inferences.ContextInitializationNoPremises;
 import org.semanticweb.elk.reasoner.saturation.rules.contextinit.LinkedContextInitRule;
 import org.semanticweb.elk.reasoner.saturation.rules.subsumers.LinkedSubsumerRule;
-import org.semanticweb.elk.util.collections.Operations;
 
 /**
  * 
@@ -78,8 +78,14 @@ public class IncrementalDeletionInitializationStage
 		if (changedInitRules != null || !changedRulesByCE.isEmpty()
 				|| !changedDefinitions.isEmpty()) {
 
-			inputs = Operations.split(reasoner.saturationState.getContexts(),
-					8 * workerNo);
+			inputs = split(reasoner.saturationState.getContexts());
+		}
+
+		IncrementalPropertyChangesState propertyChanges = reasoner.incrementalPropertyChangesState_;
+		if (propertyChanges.hasChanges()) {
+			propertyChanges.initAffectedChains();
+			propertyChanges.collectAffectedRoots(
+					reasoner.saturationState.getContexts());
 		}
 
 		// System.err.println(changedRulesByCE.keySet().size());
@@ -112,6 +118,15 @@ public class IncrementalDeletionInitializationStage
 			}
 		}
 
+		// over-deleting contexts which depend on the changed properties
+		for (IndexedContextRoot root : reasoner.incrementalPropertyChangesState_
+				.getAffectedRoots()) {
+			if (reasoner.saturationState.getContext(root) != null) {
+				satStateWriter
+						.produce(new ContextInitializationNoPremises(root));
+			}
+		}
+
 		reasoner.ontologyIndex.clearDeletedRules();
 
 		return true;
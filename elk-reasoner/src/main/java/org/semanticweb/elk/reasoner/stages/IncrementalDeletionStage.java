@@ -43,6 +43,13 @@ public class IncrementalDeletionStage extends AbstractReasonerStage {
 
 	private ClassExpressionSaturationNoInput desaturation_ = null;
 
+	/**
+	 * the number of contexts modified by the deletion initialization, from
+	 * which the deletion starts, and the time (in nanoseconds) spent on
+	 * reverting inferences
+	 */
+	private long contextCount_ = 0, time_ = 0;
+
 	public IncrementalDeletionStage(AbstractReasonerState reasoner,
 			AbstractReasonerStage... preStages) {
 		super(reasoner, preStages);
@@ -62,12 +69,20 @@ public class IncrementalDeletionStage extends AbstractReasonerStage {
 				new RuleApplicationDeletionFactory(reasoner.getInterrupter(),
 						reasoner.saturationState),
 				ContextModificationListener.DUMMY);
+		contextCount_ = reasoner.saturationState.getNotSaturatedContexts()
+				.size();
+		time_ = 0;
 		return true;
 	}
 
 	@Override
 	public void executeStage() throws ElkInterruptedException {
-		desaturation_.process();
+		long start = System.nanoTime();
+		try {
+			desaturation_.process();
+		} finally {
+			time_ += System.nanoTime() - start;
+		}
 	}
 
 	@Override
@@ -76,9 +91,12 @@ public class IncrementalDeletionStage extends AbstractReasonerStage {
 			return false;
 		reasoner.ruleAndConclusionStats.add(desaturation_
 				.getRuleAndConclusionStatistics());
+		reasoner.getIncrementalProcessingStatistics().recordStage(
+				IncrementalStages.DELETION, contextCount_, time_);
 		if (LOGGER_.isTraceEnabled()) {
 			LOGGER_.trace("Number of modified contexts "
-					+ reasoner.saturationState.getNotSaturatedContexts().size());
+					+ reasoner.saturationState.getNotSaturatedContexts()
+							.size());
 		}
 		desaturation_ = null;
 		return true;
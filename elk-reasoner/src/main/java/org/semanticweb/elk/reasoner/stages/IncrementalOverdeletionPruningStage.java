@@ -24,6 +24,7 @@ package org.semanticweb.elk.reasoner.stages;
 import java.util.Collection;
 
 import org.semanticweb.elk.exceptions.ElkException;
+import org.semanticweb.elk.reasoner.incremental.IncrementalStages;
 import org.semanticweb.elk.reasoner.indexing.model.IndexedContextRoot;
 import org.semanticweb.elk.reasoner.saturation.ClassExpressionSaturation;
 import org.semanticweb.elk.reasoner.saturation.context.ContextRootCollection;
@@ -45,6 +46,12 @@ public class IncrementalOverdeletionPruningStage extends AbstractReasonerStage {
 
 	private ClassExpressionSaturation<IndexedContextRoot> completion_ = null;
 
+	/**
+	 * the number of contexts to be pruned and the time (in nanoseconds) spent
+	 * on pruning them
+	 */
+	private long contextCount_ = 0, time_ = 0;
+
 	public IncrementalOverdeletionPruningStage(AbstractReasonerState reasoner,
 			AbstractReasonerStage... preStages) {
 		super(reasoner, preStages);
@@ -52,7 +59,7 @@ public class IncrementalOverdeletionPruningStage extends AbstractReasonerStage {
 
 	@Override
 	public String getName() {
-		return "Incremental Overdeletion Pruning";
+		return IncrementalStages.OVERDELETION_PRUNING.toString();
 	}
 
 	@Override
@@ -76,13 +83,20 @@ public class IncrementalOverdeletionPruningStage extends AbstractReasonerStage {
 		completion_ = new ClassExpressionSaturation<IndexedContextRoot>(inputs,
 				reasoner.getProcessExecutor(), workerNo,
 				reasoner.getProgressMonitor(), ruleAppFactory);
+		contextCount_ = inputs.size();
+		time_ = 0;
 
 		return true;
 	}
 
 	@Override
 	void executeStage() throws ElkException {
-		completion_.process();
+		long start = System.nanoTime();
+		try {
+			completion_.process();
+		} finally {
+			time_ += System.nanoTime() - start;
+		}
 	}
 
 	@Override
@@ -92,6 +106,8 @@ public class IncrementalOverdeletionPruningStage extends AbstractReasonerStage {
 		}
 		reasoner.ruleAndConclusionStats.add(completion_
 				.getRuleAndConclusionStatistics());
+		reasoner.getIncrementalProcessingStatistics().recordStage(
+				IncrementalStages.OVERDELETION_PRUNING, contextCount_, time_);
 		this.completion_ = null;
 		return true;
 	}
@@ -0,0 +1,471 @@
+/*
+ * #%L
+ * ELK Reasoner
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2011 - 2016 Department of Computer Science, University of Oxford
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.semanticweb.elk.reasoner.stages;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+
+import org.semanticweb.elk.owl.interfaces.ElkAxiom;
+import org.semanticweb.elk.owl.interfaces.ElkEquivalentObjectPropertiesAxiom;
+import org.semanticweb.elk.owl.interfaces.ElkObject;
+import org.semanticweb.elk.owl.interfaces.ElkObjectPropertyExpression;
+import org.semanticweb.elk.owl.interfaces.ElkObjectPropertyRangeAxiom;
+import org.semanticweb.elk.owl.interfaces.ElkReflexiveObjectPropertyAxiom;
+import org.semanticweb.elk.owl.interfaces.ElkSubObjectPropertyExpression;
+import org.semanticweb.elk.owl.interfaces.ElkSubObjectPropertyOfAxiom;
+import org.semanticweb.elk.owl.interfaces.ElkTransitiveObjectPropertyAxiom;
+import org.semanticweb.elk.owl.visitors.DummyElkAxiomVisitor;
+import org.semanticweb.elk.owl.visitors.ElkSubObjectPropertyExpressionVisitor;
+import org.semanticweb.elk.reasoner.indexing.conversion.ElkIndexingUnsupportedException;
+import org.semanticweb.elk.reasoner.indexing.model.IndexedClassExpression;
+import org.semanticweb.elk.reasoner.indexing.model.IndexedComplexPropertyChain;
+import org.semanticweb.elk.reasoner.indexing.model.IndexedContextRoot;
+import org.semanticweb.elk.reasoner.indexing.model.IndexedObjectHasSelf;
+import org.semanticweb.elk.reasoner.indexing.model.IndexedObjectProperty;
+import org.semanticweb.elk.reasoner.indexing.model.IndexedObjectSomeValuesFrom;
+import org.semanticweb.elk.reasoner.indexing.model.IndexedPropertyChain;
+import org.semanticweb.elk.reasoner.indexing.model.IndexedRangeFiller;
+import org.semanticweb.elk.reasoner.indexing.model.ModifiableIndexedPropertyChain;
+import org.semanticweb.elk.reasoner.saturation.context.Context;
+import org.semanticweb.elk.reasoner.saturation.context.SubContextPremises;
+import org.semanticweb.elk.reasoner.saturation.properties.SaturatedPropertyChain;
+import org.semanticweb.elk.reasoner.saturation.rules.subsumers.LinkedSubsumerRule;
+import org.semanticweb.elk.reasoner.saturation.rules.subsumers.PropagationFromExistentialFillerRule;
+import org.semanticweb.elk.util.collections.ArrayHashSet;
+import org.semanticweb.elk.util.collections.Operations;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Keeps track of the changes in object property axioms (sub-properties,
+ * equivalent properties, transitivity, reflexivity, and ranges) loaded in
+ * incremental mode.
+ * <p>
+ * Such changes modify the {@link SaturatedPropertyChain}s, which are used by
+ * almost all rules involving existential restrictions. They are processed as
+ * follows. First, the {@link IndexedPropertyChain}s whose saturation may
+ * change are determined: these are all property chains connected to the
+ * changed ones by told sub-property and composition relations. Second, all
+ * {@link Context}s that contain conclusions over such property chains, as
+ * well as the sources of their backward links over these property chains, are
+ * over-deleted using the old saturation of the property chains. Then the
+ * saturation of the affected property chains is recomputed, and finally the
+ * over-deleted {@link Context}s are initialized again. All other property
+ * chains and {@link Context}s are not touched.
+ * 
+ * @see IncrementalDeletionInitializationStage
+ * @see IncrementalPropertySaturationStage
+ * @see IncrementalAdditionInitializationStage
+ */
+public class IncrementalPropertyChangesState {
+
+	// logger for this class
+	private static final Logger LOGGER_ = LoggerFactory
+			.getLogger(IncrementalPropertyChangesState.class);
+
+	private final ElkObject.Factory elkFactory_;
+
+	/**
+	 * used to find the {@link IndexedPropertyChain}s for the object property
+	 * expressions of the changed axioms
+	 */
+	private final ElkSubObjectPropertyExpressionVisitor<? extends ModifiableIndexedPropertyChain> resolver_;
+
+	/**
+	 * the object property axioms that were added or removed since the last
+	 * incremental update
+	 */
+	private final List<ElkAxiom> addedAxioms_ = new ArrayList<ElkAxiom>(),
+			removedAxioms_ = new ArrayList<ElkAxiom>();
+
+	/**
+	 * the {@link IndexedPropertyChain}s whose saturation can change because
+	 * of the changed axioms; {@code null} if not computed yet
+	 */
+	private Set<IndexedPropertyChain> affectedChains_ = null;
+
+	/**
+	 * {@code true} if some changed axiom is a reflexivity axiom
+	 */
+	private boolean reflexivityChanged_ = false;
+
+	/**
+	 * the roots of the {@link Context}s that are over-deleted because they
+	 * may contain conclusions that depend on the {@link #affectedChains_}
+	 */
+	private final Set<IndexedContextRoot> affectedRoots_ = new ArrayHashSet<IndexedContextRoot>();
+
+	/**
+	 * The told super-properties of {@link IndexedComplexPropertyChain}s that
+	 * were removed, but are temporarily restored because they are used by
+	 * the rules producing backward links for compositions; the over-deletion
+	 * must use the same rules as the ones that produced the conclusions.
+	 */
+	private final List<ModifiableIndexedPropertyChain> restoredChains_ = new ArrayList<ModifiableIndexedPropertyChain>();
+	private final List<IndexedObjectProperty> restoredSuperProperties_ = new ArrayList<IndexedObjectProperty>();
+	private final List<ElkAxiom> restoredReasons_ = new ArrayList<ElkAxiom>();
+
+	IncrementalPropertyChangesState(final ElkObject.Factory elkFactory,
+			final ElkSubObjectPropertyExpressionVisitor<? extends ModifiableIndexedPropertyChain> resolver) {
+		this.elkFactory_ = elkFactory;
+		this.resolver_ = resolver;
+	}
+
+	/**
+	 * Registers an object property axiom added to the ontology
+	 * 
+	 * @param axiom
+	 */
+	void registerAddition(final ElkAxiom axiom) {
+		addedAxioms_.add(axiom);
+	}
+
+	/**
+	 * Registers an object property axiom removed from the ontology
+	 * 
+	 * @param axiom
+	 */
+	void registerRemoval(final ElkAxiom axiom) {
+		removedAxioms_.add(axiom);
+	}
+
+	/**
+	 * @return {@code true} if there are changes in object property axioms
+	 *         that are not yet fully processed
+	 */
+	boolean hasChanges() {
+		return !addedAxioms_.isEmpty() || !removedAxioms_.isEmpty();
+	}
+
+	/**
+	 * Computes the {@link IndexedPropertyChain}s affected by the registered
+	 * changes and restores the removed told super-properties of
+	 * {@link IndexedComplexPropertyChain}s for the over-deletion. Must be
+	 * called after the changes are indexed, but before the removed indexed
+	 * objects are deleted from the index. Does nothing if the affected
+	 * property chains are already computed.
+	 */
+	void initAffectedChains() {
+		if (affectedChains_ != null) {
+			return;
+		}
+		final Queue<IndexedPropertyChain> todo = new LinkedList<IndexedPropertyChain>();
+		for (final ElkAxiom axiom : addedAxioms_) {
+			axiom.accept(new SeedCollector(todo, false));
+		}
+		for (final ElkAxiom axiom : removedAxioms_) {
+			axiom.accept(new SeedCollector(todo, true));
+		}
+		affectedChains_ = new ArrayHashSet<IndexedPropertyChain>();
+		final IndexedPropertyChain.Visitor<Void> neighbors = new IndexedPropertyChain.Visitor<Void>() {
+
+			@Override
+			public Void visit(final IndexedObjectProperty element) {
+				todo.addAll(element.getToldSubChains());
+				todo.addAll(element.getLeftChains());
+				return null;
+			}
+
+			@Override
+			public Void visit(final IndexedComplexPropertyChain element) {
+				todo.add(element.getFirstProperty());
+				todo.add(element.getSuffixChain());
+				return null;
+			}
+
+		};
+		IndexedPropertyChain next;
+		while ((next = todo.poll()) != null) {
+			if (!affectedChains_.add(next)) {
+				continue;
+			}
+			todo.addAll(next.getToldSuperProperties());
+			todo.addAll(next.getRightChains());
+			next.accept(neighbors);
+		}
+		LOGGER_.debug("{} property chains affected by {} added and {} removed axioms",
+				affectedChains_.size(), addedAxioms_.size(),
+				removedAxioms_.size());
+	}
+
+	/**
+	 * @return the {@link IndexedPropertyChain}s whose saturation may change
+	 *         because of the registered changes
+	 */
+	Set<? extends IndexedPropertyChain> getAffectedChains() {
+		return affectedChains_ == null
+				? Collections.<IndexedPropertyChain> emptySet()
+				: affectedChains_;
+	}
+
+	/**
+	 * Finds the roots of the given {@link Context}s that may contain
+	 * conclusions depending on the saturation of the affected
+	 * {@link IndexedPropertyChain}s, as well as the roots of the sources of
+	 * backward links over such property chains. If an affected property may
+	 * be or become reflexive, the {@link Context}s with subsumers that are
+	 * fillers of negative existential restrictions over affected properties
+	 * are also collected, since such existential restrictions may be derived
+	 * or lost in these {@link Context}s without any other conclusion over the
+	 * affected properties.
+	 * 
+	 * @param contexts
+	 */
+	void collectAffectedRoots(final Collection<? extends Context> contexts) {
+		if (affectedChains_ == null || affectedChains_.isEmpty()) {
+			return;
+		}
+		final boolean reflexivityAffected = reflexivityChanged_
+				|| hasAffectedReflexiveProperty(contexts);
+		for (final Context context : contexts) {
+			final IndexedContextRoot root = context.getRoot();
+			if (root instanceof IndexedRangeFiller && affectedChains_
+					.contains(((IndexedRangeFiller) root).getProperty())) {
+				affectedRoots_.add(root);
+				continue;
+			}
+			for (final Map.Entry<IndexedObjectProperty, ? extends SubContextPremises> entry : context
+					.getSubContextPremisesByObjectProperty().entrySet()) {
+				if (affectedChains_.contains(entry.getKey())) {
+					affectedRoots_.add(root);
+					affectedRoots_.addAll(entry.getValue().getLinkedRoots());
+				}
+			}
+			if (affectedRoots_.contains(root)) {
+				continue;
+			}
+			for (final IndexedObjectProperty property : context
+					.getLocalReflexiveObjectProperties()) {
+				if (affectedChains_.contains(property)) {
+					affectedRoots_.add(root);
+					break;
+				}
+			}
+			if (affectedRoots_.contains(root)) {
+				continue;
+			}
+			for (final IndexedClassExpression subsumer : Operations.concat(
+					context.getComposedSubsumers(),
+					context.getDecomposedSubsumers())) {
+				if (isAffected(subsumer) || (reflexivityAffected
+						&& isFillerOfAffectedExistential(subsumer))) {
+					affectedRoots_.add(root);
+					break;
+				}
+			}
+		}
+		LOGGER_.debug("{} contexts affected by property changes",
+				affectedRoots_.size());
+	}
+
+	/**
+	 * @param contexts
+	 * @return {@code true} if some of the given {@link Context}s has a
+	 *         reflexive backward link over an affected property, i.e., the
+	 *         affected properties may have reflexive sub-properties
+	 */
+	private boolean hasAffectedReflexiveProperty(
+			final Collection<? extends Context> contexts) {
+		for (final Context context : contexts) {
+			for (final IndexedObjectProperty property : context
+					.getLocalReflexiveObjectProperties()) {
+				if (affectedChains_.contains(property)) {
+					return true;
+				}
+			}
+		}
+		// else
+		return false;
+	}
+
+	/**
+	 * @param subsumer
+	 * @return {@code true} if the given {@link IndexedClassExpression} is the
+	 *         filler of a negative {@link IndexedObjectSomeValuesFrom} over an
+	 *         affected property
+	 */
+	@SuppressWarnings("deprecation")
+	private boolean isFillerOfAffectedExistential(
+			final IndexedClassExpression subsumer) {
+		LinkedSubsumerRule rule = subsumer.getCompositionRuleHead();
+		while (rule != null) {
+			if (rule instanceof PropagationFromExistentialFillerRule) {
+				for (final IndexedObjectSomeValuesFrom existential : ((PropagationFromExistentialFillerRule) rule)
+						.getNegativeExistentials()) {
+					if (affectedChains_.contains(existential.getProperty())) {
+						return true;
+					}
+				}
+			}
+			rule = rule.next();
+		}
+		// else
+		return false;
+	}
+
+	private boolean isAffected(final IndexedClassExpression subsumer) {
+		if (subsumer instanceof IndexedObjectSomeValuesFrom) {
+			return affectedChains_.contains(
+					((IndexedObjectSomeValuesFrom) subsumer).getProperty());
+		}
+		if (subsumer instanceof IndexedObjectHasSelf) {
+			return affectedChains_
+					.contains(((IndexedObjectHasSelf) subsumer).getProperty());
+		}
+		// else
+		return false;
+	}
+
+	/**
+	 * @return the roots of the {@link Context}s that are over-deleted because
+	 *         of the registered changes
+	 */
+	Collection<? extends IndexedContextRoot> getAffectedRoots() {
+		return affectedRoots_;
+	}
+
+	/**
+	 * Removes again the told super-properties restored by
+	 * {@link #initAffectedChains()}; must be called after the over-deletion
+	 */
+	void revertToldSuperProperties() {
+		for (int i = 0; i < restoredChains_.size(); i++) {
+			restoredChains_.get(i).removeToldSuperObjectProperty(
+					restoredSuperProperties_.get(i), restoredReasons_.get(i));
+		}
+		restoredChains_.clear();
+		restoredSuperProperties_.clear();
+		restoredReasons_.clear();
+	}
+
+	/**
+	 * Forgets about all registered changes; the told super-properties
+	 * restored for the over-deletion, if any, are removed
+	 */
+	void clear() {
+		revertToldSuperProperties();
+		addedAxioms_.clear();
+		removedAxioms_.clear();
+		affectedChains_ = null;
+		reflexivityChanged_ = false;
+		affectedRoots_.clear();
+	}
+
+	private ModifiableIndexedPropertyChain resolve(
+			final ElkSubObjectPropertyExpression expression) {
+		try {
+			return expression.accept(resolver_);
+		} catch (final ElkIndexingUnsupportedException e) {
+			// was not indexed
+			return null;
+		}
+	}
+
+	/**
+	 * Collects the {@link IndexedPropertyChain}s of the visited axioms and
+	 * restores the told super-properties of removed property chain inclusions
+	 */
+	private class SeedCollector extends DummyElkAxiomVisitor<Void> {
+
+		private final Queue<IndexedPropertyChain> seeds_;
+
+		private final boolean isRemoval_;
+
+		SeedCollector(final Queue<IndexedPropertyChain> seeds,
+				final boolean isRemoval) {
+			this.seeds_ = seeds;
+			this.isRemoval_ = isRemoval;
+		}
+
+		private ModifiableIndexedPropertyChain seed(
+				final ElkSubObjectPropertyExpression expression) {
+			final ModifiableIndexedPropertyChain result = resolve(expression);
+			if (result != null) {
+				seeds_.add(result);
+			}
+			return result;
+		}
+
+		private void restore(final ModifiableIndexedPropertyChain chain,
+				final ModifiableIndexedPropertyChain superProperty,
+				final ElkAxiom reason) {
+			if (!isRemoval_ || !(chain instanceof IndexedComplexPropertyChain)
+					|| !(superProperty instanceof IndexedObjectProperty)) {
+				return;
+			}
+			if (chain.addToldSuperObjectProperty(
+					(IndexedObjectProperty) superProperty, reason)) {
+				restoredChains_.add(chain);
+				restoredSuperProperties_
+						.add((IndexedObjectProperty) superProperty);
+				restoredReasons_.add(reason);
+			}
+		}
+
+		@Override
+		public Void visit(final ElkSubObjectPropertyOfAxiom axiom) {
+			restore(seed(axiom.getSubObjectPropertyExpression()),
+					seed(axiom.getSuperObjectPropertyExpression()), axiom);
+			return null;
+		}
+
+		@Override
+		public Void visit(final ElkEquivalentObjectPropertiesAxiom axiom) {
+			for (final ElkObjectPropertyExpression member : axiom
+					.getObjectPropertyExpressions()) {
+				seed(member);
+			}
+			return null;
+		}
+
+		@Override
+		public Void visit(final ElkTransitiveObjectPropertyAxiom axiom) {
+			final ElkObjectPropertyExpression property = axiom.getProperty();
+			restore(seed(elkFactory_.getObjectPropertyChain(
+					Arrays.asList(property, property))), seed(property),
+					axiom);
+			return null;
+		}
+
+		@Override
+		public Void visit(final ElkReflexiveObjectPropertyAxiom axiom) {
+			seed(axiom.getProperty());
+			reflexivityChanged_ = true;
+			return null;
+		}
+
+		@Override
+		public Void visit(final ElkObjectPropertyRangeAxiom axiom) {
+			seed(axiom.getProperty());
+			return null;
+		}
+
+	}
+
+}
@@ -0,0 +1,112 @@
+/*
+ * #%L
+ * ELK Reasoner
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2011 - 2016 Department of Computer Science, University of Oxford
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.semanticweb.elk.reasoner.stages;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import org.semanticweb.elk.exceptions.ElkException;
+import org.semanticweb.elk.reasoner.incremental.IncrementalStages;
+import org.semanticweb.elk.reasoner.indexing.model.IndexedPropertyChain;
+import org.semanticweb.elk.reasoner.saturation.properties.PropertyHierarchyCompositionComputation;
+
+/**
+ * Recomputes the saturation of the {@link IndexedPropertyChain}s affected by
+ * the changes in object property axioms after the contexts depending on them
+ * are over-deleted
+ * 
+ * @see IncrementalPropertyChangesState
+ */
+class IncrementalPropertySaturationStage extends AbstractReasonerStage {
+
+	/**
+	 * the computation used for this stage, {@code null} if there is nothing
+	 * to recompute
+	 */
+	private PropertyHierarchyCompositionComputation computation_ = null;
+
+	public IncrementalPropertySaturationStage(AbstractReasonerState reasoner,
+			AbstractReasonerStage... preStages) {
+		super(reasoner, preStages);
+	}
+
+	@Override
+	public String getName() {
+		return IncrementalStages.PROPERTY_SATURATION.toString();
+	}
+
+	@Override
+	public boolean preExecute() {
+		if (!super.preExecute())
+			return false;
+		IncrementalPropertyChangesState changes = reasoner.incrementalPropertyChangesState_;
+		Set<? extends IndexedPropertyChain> affected = changes
+				.getAffectedChains();
+		if (affected.isEmpty())
+			return true;
+		// the over-deletion is done, the removed told super-properties are
+		// not needed anymore
+		changes.revertToldSuperProperties();
+		PropertyHierarchyCompositionState.Dispatcher dispatcher = reasoner.propertyHierarchyCompositionState_
+				.getDispatcher();
+		// only the chains that are still in the ontology are saturated
+		List<IndexedPropertyChain> inputs = new ArrayList<IndexedPropertyChain>();
+		for (IndexedPropertyChain ipc : reasoner.ontologyIndex
+				.getPropertyChains()) {
+			if (affected.contains(ipc))
+				inputs.add(ipc);
+		}
+		for (IndexedPropertyChain ipc : affected) {
+			ipc.getSaturated().clear();
+			dispatcher.firePropertyBecameNotSaturated(ipc);
+		}
+		computation_ = new PropertyHierarchyCompositionComputation(inputs,
+				reasoner.getInterrupter(), reasoner.getTraceState(),
+				dispatcher, reasoner.getProcessExecutor(), workerNo,
+				reasoner.getProgressMonitor());
+		// the property taxonomy has to be recomputed
+		reasoner.stageManager.objectPropertyTaxonomyComputationStage
+				.invalidateRecursive();
+		return true;
+	}
+
+	@Override
+	public void executeStage() throws ElkException {
+		if (computation_ != null)
+			computation_.process();
+	}
+
+	@Override
+	public boolean postExecute() {
+		if (!super.postExecute())
+			return false;
+		this.computation_ = null;
+		return true;
+	}
+
+	@Override
+	public void printInfo() {
+		// nothing interesting to print
+	}
+
+}
@@ -38,6 +38,8 @@ import org.slf4j.LoggerFactory;
  * Used to clean both class and instance taxonomy. Removes nodes with classes or
  * individuals that became not saturated. {@link ClassTaxonomyState} and
  * {@link InstanceTaxonomyState} keep track of these classes and individuals.
+ * Classes whose named subsumers did not change and individuals whose types did
+ * not change are not removed.
  * 
  * @author Pavel Klinov
  * 
@@ -51,6 +53,28 @@ public class IncrementalTaxonomyCleaningStage extends AbstractReasonerStage {
 
 	private TaxonomyCleaning cleaning_ = null;
 
+	/**
+	 * the number of classes with unchanged subsumers that are not removed from
+	 * the taxonomy
+	 */
+	private int retainedClasses_ = 0;
+
+	/**
+	 * the number of classes whose nodes are removed from the taxonomy
+	 */
+	private int removedClasses_ = 0;
+
+	/**
+	 * the number of individuals with unchanged types that are not removed
+	 * from the taxonomy, and thus not realized again
+	 */
+	private int retainedIndividuals_ = 0;
+
+	/**
+	 * the number of individuals whose nodes are removed from the taxonomy
+	 */
+	private int removedIndividuals_ = 0;
+
 	public IncrementalTaxonomyCleaningStage(AbstractReasonerState reasoner,
 			AbstractReasonerStage... preStages) {
 		super(reasoner, preStages);
@@ -67,10 +91,19 @@ public class IncrementalTaxonomyCleaningStage extends AbstractReasonerStage {
 			return false;
 		}
 
+		// the nodes of classes with unchanged subsumers are kept
+		retainedClasses_ = reasoner.classTaxonomyState.retainUnchanged();
+		// as well as the nodes of individuals with unchanged types
+		retainedIndividuals_ = reasoner.instanceTaxonomyState
+				.getTaxonomy() == null ? 0
+						: reasoner.instanceTaxonomyState.retainUnchanged();
+
 		final Collection<IndexedClass> classesToRemove = reasoner.classTaxonomyState
 				.getToRemove();
 		final Collection<IndexedIndividual> individualsToRemove = reasoner.instanceTaxonomyState
 				.getToRemove();
+		removedClasses_ = classesToRemove.size();
+		removedIndividuals_ = individualsToRemove.size();
 		@SuppressWarnings("unchecked")
 		Collection<IndexedClassEntity> inputs = Operations.getCollection(
 				Operations.concat(classesToRemove, individualsToRemove),
@@ -78,6 +111,10 @@ public class IncrementalTaxonomyCleaningStage extends AbstractReasonerStage {
 
 		LOGGER_.trace("{}: classes to remove", classesToRemove);
 		LOGGER_.trace("{}: individuals to remove", individualsToRemove);
+		LOGGER_.debug("{} classes retained, {} classes removed",
+				retainedClasses_, removedClasses_);
+		LOGGER_.debug("{} individuals retained, {} individuals removed",
+				retainedIndividuals_, removedIndividuals_);
 
 		cleaning_ = new TaxonomyCleaning(inputs, reasoner.getInterrupter(),
 				reasoner.classTaxonomyState.getTaxonomy(),
@@ -117,7 +154,8 @@ public class IncrementalTaxonomyCleaningStage extends AbstractReasonerStage {
 
 	@Override
 	public void printInfo() {
-		// TODO
+		LOGGER_.debug("Classes retained in taxonomy: {}, removed: {}",
+				retainedClasses_, removedClasses_);
 	}
 
 }
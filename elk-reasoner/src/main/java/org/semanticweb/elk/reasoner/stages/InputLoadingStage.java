@@ -22,10 +22,14 @@
  */
 package org.semanticweb.elk.reasoner.stages;
 
+import java.io.IOException;
+
 import org.semanticweb.elk.exceptions.ElkException;
 import org.semanticweb.elk.exceptions.ElkRuntimeException;
 import org.semanticweb.elk.loading.AxiomLoader;
+import org.semanticweb.elk.loading.ChangeJournal;
 import org.semanticweb.elk.loading.ClassQueryLoader;
+import org.semanticweb.elk.loading.ElkLoadingException;
 import org.semanticweb.elk.loading.EntailmentQueryLoader;
 import org.semanticweb.elk.owl.interfaces.ElkAxiom;
 import org.semanticweb.elk.owl.interfaces.ElkDataHasValue;
@@ -41,8 +45,8 @@ import org.semanticweb.elk.reasoner.entailments.model.Entailment;
 import org.semanticweb.elk.reasoner.incremental.AxiomLoadingListener;
 import org.semanticweb.elk.reasoner.indexing.classes.ChangeIndexingProcessor;
 import org.semanticweb.elk.reasoner.indexing.classes.DummyIndexedObjectVisitor;
-import org.semanticweb.elk.reasoner.indexing.classes.NonIncrementalElkAxiomVisitor;
 import org.semanticweb.elk.reasoner.indexing.classes.ClassQueryIndexingProcessor;
+import org.semanticweb.elk.reasoner.indexing.classes.PropertyAxiomNotifyingElkAxiomVisitor;
 import org.semanticweb.elk.reasoner.indexing.conversion.ElkAxiomConverter;
 import org.semanticweb.elk.reasoner.indexing.conversion.ElkAxiomConverterImpl;
 import org.semanticweb.elk.reasoner.indexing.conversion.ElkPolarityExpressionConverterImpl;
@@ -153,40 +157,26 @@ public class InputLoadingStage extends AbstractReasonerStage {
 
 			/*
 			 * wrapping both the inserter and the deleter to receive
-			 * notifications if some axiom change can't be incorporated
-			 * incrementally
-			 */
-			/**
-			 * The listener used to count axioms and detect if the axiom cannot
-			 * be loaded incrementally
+			 * notifications about changes in object property axioms
 			 */
-			AxiomLoadingListener<ElkAxiom> listener = new AxiomLoadingListener<ElkAxiom>() {
-
-				boolean resetDone = false;
-
-				@Override
-				public void notify(ElkAxiom axiom) {
-					if (resetDone)
-						return;
-					LOGGER_.debug("{}: axiom not supported in incremental mode",
-							axiom);
-					reasoner.stageManager.propertyInitializationStage
-							.invalidateRecursive();
-					reasoner.setNonIncrementalMode();
-					resetDone = true;
-				}
-			};
-
-			axiomInserter = new NonIncrementalElkAxiomVisitor(axiomInserter,
-					listener);
-			axiomDeleter = new NonIncrementalElkAxiomVisitor(axiomDeleter,
-					listener);
+			axiomInserter = new PropertyAxiomNotifyingElkAxiomVisitor(
+					axiomInserter, createPropertyAxiomListener(true));
+			axiomDeleter = new PropertyAxiomNotifyingElkAxiomVisitor(
+					axiomDeleter, createPropertyAxiomListener(false));
 
 			this.axiomInsertionProcessor_ = new ChangeIndexingProcessor(
 					axiomInserter, ChangeIndexingProcessor.ADDITION);
 			this.axiomDeletionProcessor_ = new ChangeIndexingProcessor(
 					axiomDeleter, ChangeIndexingProcessor.REMOVAL);
 
+			final ChangeJournal journal = reasoner.getChangeJournal();
+			if (journal != null) {
+				axiomInsertionProcessor_ = journal
+						.wrap(axiomInsertionProcessor_, true);
+				axiomDeletionProcessor_ = journal
+						.wrap(axiomDeletionProcessor_, false);
+			}
+
 		}
 
 		if (classQueryLoader_ != null
@@ -218,6 +208,49 @@ public class InputLoadingStage extends AbstractReasonerStage {
 		return true;
 	}
 
+	/**
+	 * Creates the listener notified about the changes in object property
+	 * axioms. In incremental mode, such changes are registered to be
+	 * processed incrementally; otherwise the saturation of all properties is
+	 * reset.
+	 * 
+	 * @param isAddition
+	 *            {@code true} if the listener is notified about added axioms
+	 *            and {@code false} if about removed axioms
+	 * @return the new listener
+	 */
+	private AxiomLoadingListener<ElkAxiom> createPropertyAxiomListener(
+			final boolean isAddition) {
+		return new AxiomLoadingListener<ElkAxiom>() {
+
+			boolean resetDone = false;
+
+			@Override
+			public void notify(ElkAxiom axiom) {
+				if (reasoner.isIncrementalMode()) {
+					LOGGER_.trace("{}: property axiom change", axiom);
+					if (isAddition) {
+						reasoner.incrementalPropertyChangesState_
+								.registerAddition(axiom);
+					} else {
+						reasoner.incrementalPropertyChangesState_
+								.registerRemoval(axiom);
+					}
+					return;
+				}
+				// else
+				if (resetDone)
+					return;
+				LOGGER_.debug("{}: property axiom change, resetting properties",
+						axiom);
+				reasoner.stageManager.propertyInitializationStage
+						.invalidateRecursive();
+				reasoner.setNonIncrementalMode();
+				resetDone = true;
+			}
+		};
+	}
+
 	@Override
 	public void executeStage() throws ElkException {
 		if (loader_ != null && !loader_.isLoadingFinished()) {
@@ -232,6 +265,15 @@ public class InputLoadingStage extends AbstractReasonerStage {
 							AXIOM_INDEXING_UNSUPPORTED_LISTENER);
 				}
 			}
+			final ChangeJournal journal = reasoner.getChangeJournal();
+			if (journal != null) {
+				try {
+					journal.sync();
+				} catch (IOException e) {
+					throw new ElkLoadingException(
+							"Cannot write the change journal!", e);
+				}
+			}
 		}
 		if (classQueryLoader_ != null
 				&& !classQueryLoader_.isLoadingFinished()) {
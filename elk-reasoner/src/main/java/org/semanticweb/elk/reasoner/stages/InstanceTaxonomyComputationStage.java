@@ -22,9 +22,11 @@
 package org.semanticweb.elk.reasoner.stages;
 
 import java.util.Collection;
+import java.util.Map;
 
 import org.semanticweb.elk.exceptions.ElkRuntimeException;
 import org.semanticweb.elk.reasoner.indexing.model.IndexedIndividual;
+import org.semanticweb.elk.reasoner.taxonomy.AboxAbstraction;
 import org.semanticweb.elk.reasoner.taxonomy.InstanceTaxonomyComputation;
 
 /**
@@ -60,8 +62,31 @@ public class InstanceTaxonomyComputationStage extends AbstractReasonerStage {
 		if (!super.preExecute())
 			return false;
 
-		final Collection<IndexedIndividual> toAdd = reasoner.instanceTaxonomyState
-				.getToAdd();
+		final InstanceTaxonomyState state = reasoner.instanceTaxonomyState;
+
+		final AboxAbstraction abstraction = state.getAboxAbstraction();
+		if (abstraction != null) {
+			/*
+			 * Saturate only the representatives of the individuals that must
+			 * have the same types; these are the same representatives that
+			 * were saturated during consistency checking.
+			 */
+			state.invalidateProxies(abstraction);
+			final Map<IndexedIndividual, Collection<IndexedIndividual>> groups = abstraction
+					.group(state.getToAdd());
+			state.registerGroups(groups);
+
+			this.computation_ = new InstanceTaxonomyComputation(groups,
+					reasoner.getInterrupter(), reasoner.getProcessExecutor(),
+					workerNo, reasoner.getProgressMonitor(),
+					reasoner.saturationState, state.getTaxonomy());
+
+			return true;
+		}
+		// else
+		state.invalidateProxies(null);
+
+		final Collection<IndexedIndividual> toAdd = state.getToAdd();
 
 		this.computation_ = new InstanceTaxonomyComputation(toAdd,
 				reasoner.getInterrupter(), reasoner.getProcessExecutor(),
@@ -21,10 +21,16 @@
  */
 package org.semanticweb.elk.reasoner.stages;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
 import java.util.Queue;
+import java.util.Set;
 import java.util.concurrent.ConcurrentLinkedQueue;
 
 import org.semanticweb.elk.owl.interfaces.ElkClass;
@@ -34,13 +40,20 @@ import org.semanticweb.elk.reasoner.indexing.classes.DifferentialIndex;
 import org.semanticweb.elk.reasoner.indexing.classes.OntologyIndexDummyChangeListener;
 import org.semanticweb.elk.reasoner.indexing.conversion.ElkPolarityExpressionConverter;
 import org.semanticweb.elk.reasoner.indexing.conversion.ElkPolarityExpressionConverterImpl;
+import org.semanticweb.elk.reasoner.indexing.model.IndexedClass;
+import org.semanticweb.elk.reasoner.indexing.model.IndexedClassEntity;
+import org.semanticweb.elk.reasoner.indexing.model.IndexedClassExpression;
 import org.semanticweb.elk.reasoner.indexing.model.IndexedContextRoot;
 import org.semanticweb.elk.reasoner.indexing.model.IndexedIndividual;
+import org.semanticweb.elk.reasoner.indexing.model.IndexedObjectSomeValuesFrom;
 import org.semanticweb.elk.reasoner.indexing.model.ModifiableIndexedClassExpression;
 import org.semanticweb.elk.reasoner.indexing.model.OntologyIndex;
 import org.semanticweb.elk.reasoner.saturation.SaturationState;
 import org.semanticweb.elk.reasoner.saturation.SaturationStateDummyChangeListener;
+import org.semanticweb.elk.reasoner.saturation.conclusions.classes.SaturationConclusionBaseFactory;
+import org.semanticweb.elk.reasoner.saturation.conclusions.model.ClassInconsistency;
 import org.semanticweb.elk.reasoner.saturation.context.Context;
+import org.semanticweb.elk.reasoner.taxonomy.AboxAbstraction;
 import org.semanticweb.elk.reasoner.taxonomy.ConcurrentInstanceTaxonomy;
 import org.semanticweb.elk.reasoner.taxonomy.DummyInstanceTaxonomyListener;
 import org.semanticweb.elk.reasoner.taxonomy.DummyNodeStoreListener;
@@ -52,6 +65,7 @@ import org.semanticweb.elk.reasoner.taxonomy.model.NodeStore;
 import org.semanticweb.elk.reasoner.taxonomy.model.TypeNode;
 import org.semanticweb.elk.reasoner.taxonomy.model.UpdateableInstanceTaxonomy;
 import org.semanticweb.elk.reasoner.taxonomy.model.UpdateableTaxonomy;
+import org.semanticweb.elk.util.collections.ArrayHashSet;
 import org.semanticweb.elk.util.collections.Operations;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -91,6 +105,40 @@ public class InstanceTaxonomyState {
 
 	private final ElkPolarityExpressionConverter converter_;
 
+	private final ClassInconsistency.Factory conclusionFactory_ = new SaturationConclusionBaseFactory();
+
+	/**
+	 * Whether individuals with the same types should be realized by
+	 * saturating only one representative.
+	 */
+	private volatile boolean isAboxCompressionEnabled_ = false;
+
+	/**
+	 * The {@link AboxAbstraction} maintained for ABox compression, or
+	 * {@code null} if it should be computed from scratch
+	 * 
+	 * @see #getAboxAbstraction()
+	 */
+	private AboxAbstraction aboxAbstraction_ = null;
+
+	/**
+	 * The individuals whose told subsumers may have changed since the last
+	 * update of {@link #aboxAbstraction_}
+	 */
+	private final Set<IndexedIndividual> aboxChanges_ = new ArrayHashSet<IndexedIndividual>();
+
+	/**
+	 * Maps individuals whose types in taxonomy were computed from the context
+	 * of another individual to this representative.
+	 */
+	private final Map<IndexedIndividual, IndexedIndividual> representatives_ = new HashMap<IndexedIndividual, IndexedIndividual>();
+
+	/**
+	 * The inverse of {@link #representatives_}; also used for synchronization
+	 * of both maps.
+	 */
+	private final Map<IndexedIndividual, Collection<IndexedIndividual>> proxies_ = new HashMap<IndexedIndividual, Collection<IndexedIndividual>>();
+
 	public <C extends Context> InstanceTaxonomyState(
 			final SaturationState<C> saturationState,
 			final DifferentialIndex ontologyIndex,
@@ -106,11 +154,27 @@ public class InstanceTaxonomyState {
 			@Override
 			public void individualAddition(final IndexedIndividual ind) {
 				toAdd_.add(ind);
+				aboxChange(ind);
 			}
 
 			@Override
 			public void individualRemoval(final IndexedIndividual ind) {
 				toRemove_.add(ind);
+				removeProxies(ind);
+				aboxChange(ind);
+			}
+
+			@Override
+			public void compositionRuleChange(
+					final IndexedClassExpression target) {
+				if (target instanceof IndexedIndividual) {
+					aboxChange((IndexedIndividual) target);
+				} else if (target instanceof IndexedObjectSomeValuesFrom
+						&& ((IndexedObjectSomeValuesFrom) target)
+								.getFiller() instanceof IndexedIndividual) {
+					// may be no longer an edge or become one
+					resetAboxAbstraction();
+				}
 			}
 
 		});
@@ -124,6 +188,13 @@ public class InstanceTaxonomyState {
 						if (root instanceof IndexedIndividual) {
 							final IndexedIndividual ind = (IndexedIndividual) root;
 							toRemove_.add(ind);
+							/*
+							 * The representative of ind is kept: the context
+							 * may be created after the taxonomy is cleaned,
+							 * and then only invalidateProxies() can remove
+							 * the types of ind if they are no longer shared.
+							 */
+							forgetProxies(ind);
 						}
 					}
 
@@ -167,6 +238,213 @@ public class InstanceTaxonomyState {
 		}
 	}
 
+	/**
+	 * Forgets the individuals realized using the given individual (and the
+	 * given individual itself if it was realized using another one). The
+	 * former individuals are scheduled for removal from the taxonomy.
+	 * 
+	 * @param ind
+	 */
+	private void removeProxies(final IndexedIndividual ind) {
+		synchronized (proxies_) {
+			removeRepresentative(ind);
+			forgetProxies(ind);
+		}
+	}
+
+	/**
+	 * Forgets the individuals realized using the given individual and
+	 * schedules them for removal from the taxonomy.
+	 * 
+	 * @param ind
+	 */
+	private void forgetProxies(final IndexedIndividual ind) {
+		synchronized (proxies_) {
+			final Collection<IndexedIndividual> proxies = proxies_.remove(ind);
+			if (proxies != null) {
+				for (final IndexedIndividual proxy : proxies) {
+					representatives_.remove(proxy);
+					toRemove_.add(proxy);
+				}
+			}
+		}
+	}
+
+	public boolean isAboxCompressionEnabled() {
+		return isAboxCompressionEnabled_;
+	}
+
+	public void setAboxCompressionEnabled(final boolean enabled) {
+		this.isAboxCompressionEnabled_ = enabled;
+		if (!enabled) {
+			resetAboxAbstraction();
+		}
+	}
+
+	private void aboxChange(final IndexedIndividual ind) {
+		if (aboxAbstraction_ != null) {
+			aboxChanges_.add(ind);
+		}
+	}
+
+	private void resetAboxAbstraction() {
+		aboxAbstraction_ = null;
+		aboxChanges_.clear();
+	}
+
+	/**
+	 * Brings the {@link AboxAbstraction} up to date with the ontology. It is
+	 * computed from scratch only the first time; afterwards only the blocks of
+	 * the individuals whose told subsumers have changed are updated.
+	 * 
+	 * @return the {@link AboxAbstraction} for the current ontology, or
+	 *         {@code null} if ABox compression is not enabled
+	 */
+	AboxAbstraction getAboxAbstraction() {
+		if (!isAboxCompressionEnabled_) {
+			return null;
+		}
+		// else
+		if (aboxAbstraction_ == null) {
+			aboxAbstraction_ = AboxAbstraction
+					.compute(ontologyIndex_.getIndividuals());
+		} else if (!aboxChanges_.isEmpty()) {
+			aboxAbstraction_.update(aboxChanges_);
+			aboxChanges_.clear();
+		}
+		return aboxAbstraction_;
+	}
+
+	/**
+	 * Selects the entities that need to be saturated to check consistency.
+	 * If ABox compression is enabled, individuals in the same block of the
+	 * {@link AboxAbstraction} are inconsistent together, so only the
+	 * representatives are selected; the remaining individuals stay
+	 * unsaturated and are realized using the representatives.
+	 * 
+	 * @param toTest
+	 *            the entities whose consistency is not yet checked
+	 * @return the entities from the given ones that should be saturated
+	 */
+	Collection<? extends IndexedClassEntity> selectTestEntities(
+			final Collection<? extends IndexedClassEntity> toTest) {
+		final AboxAbstraction abstraction = getAboxAbstraction();
+		if (abstraction == null) {
+			return toTest;
+		}
+		// else
+		final List<IndexedClassEntity> result = new ArrayList<IndexedClassEntity>(
+				toTest.size());
+		for (final IndexedClassEntity entity : toTest) {
+			if (!(entity instanceof IndexedIndividual) || abstraction
+					.getRepresentative((IndexedIndividual) entity) == entity) {
+				result.add(entity);
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Records that the types of all individuals in each group are computed
+	 * from the context of the key of this group.
+	 * 
+	 * @param groups
+	 * @see AboxAbstraction#group(Iterable)
+	 */
+	void registerGroups(
+			final Map<IndexedIndividual, ? extends Collection<IndexedIndividual>> groups) {
+		synchronized (proxies_) {
+			for (final Map.Entry<IndexedIndividual, ? extends Collection<IndexedIndividual>> entry : groups
+					.entrySet()) {
+				final IndexedIndividual representative = entry.getKey();
+				// the representative is realized using its own context
+				removeRepresentative(representative);
+				for (final IndexedIndividual ind : entry.getValue()) {
+					if (ind == representative) {
+						continue;
+					}
+					// else
+					removeRepresentative(ind);
+					addProxy(ind, representative);
+					/*
+					 * The individuals realized using ind have the same types
+					 * as the new representative.
+					 */
+					final Collection<IndexedIndividual> proxies = proxies_
+							.remove(ind);
+					if (proxies != null) {
+						for (final IndexedIndividual proxy : proxies) {
+							addProxy(proxy, representative);
+						}
+					}
+				}
+			}
+		}
+	}
+
+	private void removeRepresentative(final IndexedIndividual ind) {
+		final IndexedIndividual representative = representatives_.remove(ind);
+		if (representative == null) {
+			return;
+		}
+		// else
+		final Collection<IndexedIndividual> proxies = proxies_
+				.get(representative);
+		proxies.remove(ind);
+		if (proxies.isEmpty()) {
+			proxies_.remove(representative);
+		}
+	}
+
+	private void addProxy(final IndexedIndividual ind,
+			final IndexedIndividual representative) {
+		representatives_.put(ind, representative);
+		Collection<IndexedIndividual> proxies = proxies_.get(representative);
+		if (proxies == null) {
+			proxies = new ArrayHashSet<IndexedIndividual>();
+			proxies_.put(representative, proxies);
+		}
+		proxies.add(ind);
+	}
+
+	/**
+	 * Removes from the taxonomy the individuals that were realized using a
+	 * representative that no longer has the same types according to the given
+	 * {@link AboxAbstraction}, so that they are realized again.
+	 * 
+	 * @param abstraction
+	 *            if {@code null}, all individuals realized using a
+	 *            representative are removed
+	 */
+	void invalidateProxies(final AboxAbstraction abstraction) {
+		final List<IndexedIndividual> invalid = new ArrayList<IndexedIndividual>();
+		synchronized (proxies_) {
+			for (final Map.Entry<IndexedIndividual, IndexedIndividual> entry : representatives_
+					.entrySet()) {
+				if (abstraction == null || !abstraction
+						.isEquivalent(entry.getKey(), entry.getValue())) {
+					invalid.add(entry.getKey());
+				}
+			}
+			for (final IndexedIndividual ind : invalid) {
+				removeProxies(ind);
+			}
+		}
+		if (taxonomy_ == null) {
+			return;
+		}
+		// else
+		for (final IndexedIndividual ind : invalid) {
+			final ElkNamedIndividual individual = ind.getElkEntity();
+			final InstanceNode<ElkClass, ElkNamedIndividual> node = taxonomy_
+					.getInstanceNode(individual);
+			if (node != null && taxonomy_.removeDirectTypes(node)) {
+				taxonomy_.removeInstanceNode(individual);
+			}
+			toAdd_.add(ind);
+		}
+	}
+
 	/**
 	 * Prunes {@link #toAdd_}.
 	 * <p>
@@ -192,7 +470,12 @@ public class InstanceTaxonomyState {
 				continue;
 			}
 			// else
-			final Context context = saturationState_.getContext(ind);
+			final IndexedIndividual representative;
+			synchronized (proxies_) {
+				representative = representatives_.get(ind);
+			}
+			final Context context = saturationState_.getContext(
+					representative == null ? ind : representative);
 			if (context == null || !context.isInitialized()
 					|| !context.isSaturated()) {
 				// it is not saturated.
@@ -272,6 +555,98 @@ public class InstanceTaxonomyState {
 		return size;
 	}
 
+	/**
+	 * Removes from {@link #toRemove_} the individuals whose types did not
+	 * change, i.e., the named subsumers derived in their saturated contexts
+	 * are exactly the members of their direct type nodes and of all super-nodes
+	 * of these nodes in the taxonomy. Such individuals remain in the taxonomy
+	 * with their current direct types. If some of these type nodes change
+	 * later, the individual is still removed from the taxonomy when the type
+	 * node is removed using the direct instances of this node, and then
+	 * scheduled for realization by {@link #taxonomyListener_}.
+	 * <p>
+	 * <strong>{@code taxonomy_} must not be {@code null} and all contexts
+	 * must be saturated!</strong>
+	 * 
+	 * @return the number of individuals that remain in the taxonomy
+	 */
+	int retainUnchanged() {
+		final Iterator<IndexedIndividual> iter = toRemove_.iterator();
+		int retained = 0;
+		while (iter.hasNext()) {
+			final IndexedIndividual ind = iter.next();
+			if (hasUnchangedTypes(ind)) {
+				iter.remove();
+				retained++;
+			}
+		}
+		return retained;
+	}
+
+	private boolean hasUnchangedTypes(final IndexedIndividual ind) {
+		if (!ind.occurs()) {
+			return false;
+		}
+		// else
+		synchronized (proxies_) {
+			if (representatives_.containsKey(ind)
+					|| proxies_.containsKey(ind)) {
+				// the types are shared with other individuals
+				return false;
+			}
+		}
+		final Context context = saturationState_.getContext(ind);
+		if (context == null || !context.isInitialized()
+				|| !context.isSaturated()) {
+			return false;
+		}
+		// else
+		if (context.containsConclusion(
+				conclusionFactory_.getContradiction(ind))) {
+			return false;
+		}
+		// else
+		final InstanceNode<ElkClass, ElkNamedIndividual> node = taxonomy_
+				.getInstanceNode(ind.getElkEntity());
+		if (node == null) {
+			return false;
+		}
+		// else
+		final TypeNode<ElkClass, ElkNamedIndividual> topNode = taxonomy_
+				.getTopNode();
+		final Set<TypeNode<ElkClass, ElkNamedIndividual>> oldNodes = new HashSet<TypeNode<ElkClass, ElkNamedIndividual>>(
+				node.getAllTypeNodes());
+		oldNodes.remove(topNode);
+		int oldCount = 0;
+		for (final TypeNode<ElkClass, ElkNamedIndividual> oldNode : oldNodes) {
+			oldCount += oldNode.size();
+		}
+		int newCount = 0;
+		for (final IndexedClassExpression subsumer : context
+				.getComposedSubsumers()) {
+			if (!(subsumer instanceof IndexedClass)) {
+				continue;
+			}
+			// else
+			final TypeNode<ElkClass, ElkNamedIndividual> subsumerNode = taxonomy_
+					.getNode(((IndexedClass) subsumer).getElkEntity());
+			if (subsumerNode == null) {
+				// a new or removed type
+				return false;
+			}
+			// else
+			if (subsumerNode.equals(topNode)) {
+				continue;
+			}
+			// else
+			if (!oldNodes.contains(subsumerNode)) {
+				return false;
+			}
+			newCount++;
+		}
+		return newCount == oldCount;
+	}
+
 	/**
 	 * Returns collection that contains at least all individuals that are in
 	 * taxonomy, but either are removed from ontology or their context became
@@ -310,6 +685,10 @@ public class InstanceTaxonomyState {
 		taxonomy_.addInstanceListener(taxonomyListener_);
 
 		// All individuals need to be added to the taxonomy
+		synchronized (proxies_) {
+			representatives_.clear();
+			proxies_.clear();
+		}
 		toRemove_.clear();
 		toAdd_.clear();
 		toAdd_.addAll(ontologyIndex_.getIndividuals());
@@ -35,12 +35,14 @@ public class ReasonerStageManager {
 			objectPropertyTaxonomyComputationStage, contextInitializationStage,
 			consistencyCheckingStage, classSaturationStage,
 			incrementalCompletionStage, incrementalDeletionInitializationStage,
-			incrementalDeletionStage, incrementalContextGapFillingStage,
+			incrementalDeletionStage, incrementalPropertySaturationStage,
+			incrementalContextGapFillingStage,
 			incrementalAdditionInitializationStage, incrementalAdditionStage,
 			incrementalTaxonomyCleaningStage,
 			classTaxonomyComputationStage,
 			instanceTaxonomyComputationStage, inferenceTracingStage,
-			classExpressionQueryStage, entailmentQueryStage;
+			classExpressionQueryStage, entailmentQueryStage,
+			entailmentQueryEvaluationStage;
 
 	ReasonerStageManager(AbstractReasonerState reasoner) {
 
@@ -78,9 +80,12 @@ public class ReasonerStageManager {
 		this.incrementalDeletionStage = new IncrementalDeletionStage(reasoner,
 				incrementalDeletionInitializationStage);
 
-		this.incrementalContextGapFillingStage = new IncrementalOverdeletionPruningStage(
+		this.incrementalPropertySaturationStage = new IncrementalPropertySaturationStage(
 				reasoner, incrementalDeletionStage);
 
+		this.incrementalContextGapFillingStage = new IncrementalOverdeletionPruningStage(
+				reasoner, incrementalPropertySaturationStage);
+
 		this.incrementalAdditionInitializationStage = new IncrementalAdditionInitializationStage(
 				reasoner, incrementalContextGapFillingStage);
 
@@ -116,5 +121,8 @@ public class ReasonerStageManager {
 		this.entailmentQueryStage = new EntailmentQueryStage(reasoner,
 				propertyHierarchyCompositionComputationStage);
 
+		this.entailmentQueryEvaluationStage = new EntailmentQueryEvaluationStage(
+				reasoner, entailmentQueryStage);
+
 	}
 }
@@ -0,0 +1,512 @@
+/*
+ * #%L
+ * ELK Reasoner
+ * 
+ * $Id$
+ * $HeadURL$
+ * %%
+ * Copyright (C) 2011 - 2012 Department of Computer Science, University of Oxford
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.semanticweb.elk.reasoner.taxonomy;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.semanticweb.elk.reasoner.indexing.model.IndexedClassExpression;
+import org.semanticweb.elk.reasoner.indexing.model.IndexedIndividual;
+import org.semanticweb.elk.reasoner.indexing.model.IndexedObjectProperty;
+import org.semanticweb.elk.reasoner.indexing.model.IndexedObjectSomeValuesFrom;
+import org.semanticweb.elk.reasoner.saturation.rules.subsumers.LinkedSubsumerRule;
+import org.semanticweb.elk.reasoner.saturation.rules.subsumers.SuperClassFromSubClassRule;
+import org.semanticweb.elk.util.collections.ArrayHashMap;
+import org.semanticweb.elk.util.collections.ArrayHashSet;
+
+/**
+ * Partitions {@link IndexedIndividual}s into blocks of individuals that are
+ * guaranteed to have the same types, so that only one representative per block
+ * needs to be saturated during realization.
+ * <p>
+ * Only <em>simple</em> individuals are grouped: those whose only composition
+ * rules are told subsumers, i.e., that occur in the ontology only in class and
+ * object property assertions (as a subject) or as fillers of positive
+ * existential restrictions. Two simple individuals are in the same block if
+ * they have the same told subsumers, where a told subsumer
+ * {@code ObjectSomeValuesFrom(R ObjectOneOf(b))} with a simple individual
+ * {@code b} is abstracted to {@code R} and the block of {@code b}. The blocks
+ * are computed by partition refinement, so they form the coarsest such
+ * partition. All other individuals form singleton blocks.
+ * <p>
+ * After changes in the told subsumers of some individuals, the blocks can be
+ * updated using {@link #update(Collection)}: only the changed individuals and
+ * the individuals from which they are reachable over the told existential
+ * restrictions are partitioned again; the blocks of the remaining individuals
+ * do not change. The resulting partition is still correct, but may be finer
+ * than the coarsest one, so it is computed from scratch once the number of
+ * individuals partitioned again exceeds half of all simple individuals.
+ * <p>
+ * Every block has a fixed representative. Since all individuals in a block
+ * are also inconsistent together, it is sufficient to saturate only the
+ * representatives both for consistency checking and for realization.
+ */
+public class AboxAbstraction {
+
+	/**
+	 * the told subsumers of every simple individual
+	 */
+	private final Map<IndexedIndividual, Signature> signatures_ = new HashMap<IndexedIndividual, Signature>();
+
+	/**
+	 * the simple individuals that have a told subsumer
+	 * {@code ObjectSomeValuesFrom(R ObjectOneOf(b))} for every individual
+	 * {@code b}
+	 */
+	private final Map<IndexedIndividual, Collection<IndexedIndividual>> predecessors_ = new HashMap<IndexedIndividual, Collection<IndexedIndividual>>();
+
+	/**
+	 * the block of every simple individual
+	 */
+	private final Map<IndexedIndividual, Integer> blocks_ = new HashMap<IndexedIndividual, Integer>();
+
+	/**
+	 * the individuals in every block
+	 */
+	private final Map<Integer, Collection<IndexedIndividual>> members_ = new HashMap<Integer, Collection<IndexedIndividual>>();
+
+	/**
+	 * the representative of every block
+	 */
+	private final Map<Integer, IndexedIndividual> representatives_ = new HashMap<Integer, IndexedIndividual>();
+
+	/**
+	 * the identifier for the next new block
+	 */
+	private int nextBlock_ = 0;
+
+	/**
+	 * the number of individuals partitioned again since the last computation
+	 * from scratch
+	 */
+	private int updated_ = 0;
+
+	private AboxAbstraction() {
+		// use compute()
+	}
+
+	/**
+	 * Computes the blocks for the given individuals. The individuals should
+	 * include all individuals of the ontology, since the blocks of the
+	 * successors of an individual affect its own block.
+	 * 
+	 * @param individuals
+	 * @return the {@link AboxAbstraction} for the given individuals
+	 */
+	public static AboxAbstraction compute(
+			final Collection<? extends IndexedIndividual> individuals) {
+		final AboxAbstraction result = new AboxAbstraction();
+		result.update(individuals);
+		return result;
+	}
+
+	/**
+	 * Updates the blocks after changes in the told subsumers of the given
+	 * individuals. The given individuals should include all individuals that
+	 * were added to or removed from the ontology, and all individuals whose
+	 * composition rules have changed, since the last update. The told
+	 * existential restrictions with individual fillers should not have
+	 * changed their composition rules; otherwise the blocks should be
+	 * computed from scratch using {@link #compute(Collection)}.
+	 * 
+	 * @param changed
+	 */
+	public void update(final Collection<? extends IndexedIndividual> changed) {
+		// the changed individuals and the individuals that can reach them
+		final List<IndexedIndividual> affected = new ArrayList<IndexedIndividual>(
+				changed.size());
+		final Set<IndexedIndividual> visited = new HashSet<IndexedIndividual>();
+		for (final IndexedIndividual ind : changed) {
+			if (visited.add(ind)) {
+				affected.add(ind);
+			}
+		}
+		for (int i = 0; i < affected.size(); i++) {
+			final Collection<IndexedIndividual> predecessors = predecessors_
+					.get(affected.get(i));
+			if (predecessors == null) {
+				continue;
+			}
+			// else
+			for (final IndexedIndividual ind : predecessors) {
+				if (visited.add(ind)) {
+					affected.add(ind);
+				}
+			}
+		}
+		if (2 * (updated_ + affected.size()) > signatures_.size()) {
+			// too many changes, partition all individuals again
+			for (final IndexedIndividual ind : signatures_.keySet()) {
+				if (visited.add(ind)) {
+					affected.add(ind);
+				}
+			}
+			updated_ = 0;
+		} else {
+			updated_ += affected.size();
+		}
+		// the representatives are preferred since they may be saturated
+		final Set<IndexedIndividual> previousRepresentatives = new HashSet<IndexedIndividual>();
+		// forget the affected individuals
+		for (final IndexedIndividual ind : affected) {
+			if (removeFromBlock(ind)) {
+				previousRepresentatives.add(ind);
+			}
+			final Signature signature = signatures_.remove(ind);
+			if (signature != null) {
+				for (final IndexedObjectSomeValuesFrom edge : signature.edges) {
+					removePredecessor(
+							(IndexedIndividual) edge.getFiller(), ind);
+				}
+			}
+		}
+		// compute the new signatures of the affected individuals
+		final List<IndexedIndividual> simple = new ArrayList<IndexedIndividual>(
+				affected.size());
+		for (final IndexedIndividual ind : affected) {
+			if (!ind.occurs()) {
+				continue;
+			}
+			// else
+			final Collection<IndexedClassExpression> told = getToldSubsumers(
+					ind);
+			if (told == null) {
+				continue;
+			}
+			// else
+			final Signature signature = new Signature(told);
+			signatures_.put(ind, signature);
+			for (final IndexedObjectSomeValuesFrom edge : signature.edges) {
+				addPredecessor((IndexedIndividual) edge.getFiller(), ind);
+			}
+			simple.add(ind);
+		}
+		refine(simple, previousRepresentatives);
+	}
+
+	/**
+	 * Partitions the given simple individuals, which are not in any block,
+	 * into new blocks.
+	 * 
+	 * @param individuals
+	 * @param preferredRepresentatives
+	 *            the individuals that should become the representatives of the
+	 *            new blocks if possible
+	 */
+	private void refine(final List<IndexedIndividual> individuals,
+			final Set<IndexedIndividual> preferredRepresentatives) {
+		// initial partition by the told subsumers that are not edges
+		Map<IndexedIndividual, Integer> blocks = new HashMap<IndexedIndividual, Integer>(
+				individuals.size());
+		final Map<Object, Integer> ids = new HashMap<Object, Integer>();
+		for (final IndexedIndividual ind : individuals) {
+			blocks.put(ind, getId(ids, getLiterals(signatures_.get(ind))));
+		}
+		int blockCount = ids.size();
+		// refine until the partition is stable
+		for (;;) {
+			ids.clear();
+			final Map<IndexedIndividual, Integer> refined = new HashMap<IndexedIndividual, Integer>(
+					individuals.size());
+			for (final IndexedIndividual ind : individuals) {
+				final Signature signature = signatures_.get(ind);
+				final Set<Edge> edges = new HashSet<Edge>(
+						signature.edges.size());
+				for (final IndexedObjectSomeValuesFrom edge : signature.edges) {
+					final IndexedIndividual filler = (IndexedIndividual) edge
+							.getFiller();
+					if (!signatures_.containsKey(filler)) {
+						// not an edge
+						continue;
+					}
+					// else
+					final Integer block = blocks.get(filler);
+					/*
+					 * the blocks that are not partitioned again are identified
+					 * by their representatives
+					 */
+					edges.add(new Edge(edge.getProperty(), block == null
+							? getRepresentative(filler) : block));
+				}
+				final List<Object> key = new ArrayList<Object>(2);
+				key.add(blocks.get(ind));
+				key.add(edges);
+				refined.put(ind, getId(ids, key));
+			}
+			blocks = refined;
+			if (ids.size() == blockCount) {
+				break;
+			}
+			// else
+			blockCount = ids.size();
+		}
+		// register the new blocks
+		for (final IndexedIndividual ind : individuals) {
+			final Integer block = nextBlock_ + blocks.get(ind);
+			blocks_.put(ind, block);
+			Collection<IndexedIndividual> members = members_.get(block);
+			if (members == null) {
+				members = new ArrayHashSet<IndexedIndividual>();
+				members_.put(block, members);
+			}
+			members.add(ind);
+			final IndexedIndividual representative = representatives_
+					.get(block);
+			if (representative == null
+					|| (!preferredRepresentatives.contains(representative)
+							&& preferredRepresentatives.contains(ind))) {
+				representatives_.put(block, ind);
+			}
+		}
+		nextBlock_ += blockCount;
+	}
+
+	/**
+	 * Removes the given individual from its block.
+	 * 
+	 * @param ind
+	 * @return {@code true} if the individual was the representative of its
+	 *         block
+	 */
+	private boolean removeFromBlock(final IndexedIndividual ind) {
+		final Integer block = blocks_.remove(ind);
+		if (block == null) {
+			return false;
+		}
+		// else
+		final Collection<IndexedIndividual> members = members_.get(block);
+		members.remove(ind);
+		if (representatives_.get(block) != ind) {
+			return false;
+		}
+		// else
+		if (members.isEmpty()) {
+			members_.remove(block);
+			representatives_.remove(block);
+		} else {
+			representatives_.put(block, members.iterator().next());
+		}
+		return true;
+	}
+
+	private void addPredecessor(final IndexedIndividual ind,
+			final IndexedIndividual predecessor) {
+		Collection<IndexedIndividual> predecessors = predecessors_.get(ind);
+		if (predecessors == null) {
+			predecessors = new ArrayList<IndexedIndividual>(1);
+			predecessors_.put(ind, predecessors);
+		}
+		predecessors.add(predecessor);
+	}
+
+	private void removePredecessor(final IndexedIndividual ind,
+			final IndexedIndividual predecessor) {
+		final Collection<IndexedIndividual> predecessors = predecessors_
+				.get(ind);
+		if (predecessors == null) {
+			return;
+		}
+		// else
+		predecessors.remove(predecessor);
+		if (predecessors.isEmpty()) {
+			predecessors_.remove(ind);
+		}
+	}
+
+	/**
+	 * @param signature
+	 * @return the told subsumers of the given {@link Signature} that are not
+	 *         edges to simple individuals
+	 */
+	private Set<IndexedClassExpression> getLiterals(
+			final Signature signature) {
+		final Set<IndexedClassExpression> result = new HashSet<IndexedClassExpression>(
+				signature.literals);
+		for (final IndexedObjectSomeValuesFrom edge : signature.edges) {
+			if (!signatures_.containsKey(edge.getFiller())) {
+				result.add(edge);
+			}
+		}
+		return result;
+	}
+
+	private static Integer getId(final Map<Object, Integer> ids,
+			final Object key) {
+		Integer result = ids.get(key);
+		if (result == null) {
+			result = ids.size();
+			ids.put(key, result);
+		}
+		return result;
+	}
+
+	/**
+	 * @param ind
+	 * @return the told subsumers of the given {@link IndexedIndividual} if it
+	 *         is simple, otherwise {@code null}
+	 */
+	@SuppressWarnings("deprecation")
+	private static Collection<IndexedClassExpression> getToldSubsumers(
+			final IndexedIndividual ind) {
+		LinkedSubsumerRule rule = ind.getCompositionRuleHead();
+		if (rule == null) {
+			return Collections.emptyList();
+		}
+		// else
+		final List<IndexedClassExpression> result = new ArrayList<IndexedClassExpression>();
+		while (rule != null) {
+			if (!(rule instanceof SuperClassFromSubClassRule)) {
+				return null;
+			}
+			// else
+			result.addAll(
+					((SuperClassFromSubClassRule) rule).getToldSubsumers());
+			rule = rule.next();
+		}
+		return result;
+	}
+
+	/**
+	 * @param first
+	 * @param second
+	 * @return {@code true} if both individuals are in the same block and, thus,
+	 *         have the same types
+	 */
+	public boolean isEquivalent(final IndexedIndividual first,
+			final IndexedIndividual second) {
+		if (first == second) {
+			return true;
+		}
+		// else
+		final Integer block = blocks_.get(first);
+		return block != null && block.equals(blocks_.get(second));
+	}
+
+	/**
+	 * @param ind
+	 * @return the representative of the block of the given
+	 *         {@link IndexedIndividual}, which is the individual itself if it
+	 *         is not simple
+	 */
+	public IndexedIndividual getRepresentative(final IndexedIndividual ind) {
+		final Integer block = blocks_.get(ind);
+		return block == null ? ind : representatives_.get(block);
+	}
+
+	/**
+	 * @return the number of blocks of simple individuals
+	 */
+	public int getBlockCount() {
+		return members_.size();
+	}
+
+	/**
+	 * Groups the given individuals by their blocks.
+	 * 
+	 * @param individuals
+	 * @return the map from the representative of each block to the given
+	 *         individuals in this block; the representative itself is
+	 *         included only if it is given
+	 */
+	public Map<IndexedIndividual, Collection<IndexedIndividual>> group(
+			final Iterable<? extends IndexedIndividual> individuals) {
+		final Map<IndexedIndividual, Collection<IndexedIndividual>> result = new ArrayHashMap<IndexedIndividual, Collection<IndexedIndividual>>();
+		for (final IndexedIndividual ind : individuals) {
+			final IndexedIndividual representative = getRepresentative(ind);
+			Collection<IndexedIndividual> group = result.get(representative);
+			if (group == null) {
+				group = new ArrayList<IndexedIndividual>(1);
+				result.put(representative, group);
+			}
+			group.add(ind);
+		}
+		return result;
+	}
+
+	/**
+	 * The told subsumers of a simple individual split into the existential
+	 * restrictions with individual fillers that may be edges to other simple
+	 * individuals and the remaining (literal) subsumers
+	 */
+	private static class Signature {
+
+		final Set<IndexedClassExpression> literals = new HashSet<IndexedClassExpression>();
+
+		final List<IndexedObjectSomeValuesFrom> edges = new ArrayList<IndexedObjectSomeValuesFrom>();
+
+		Signature(final Collection<IndexedClassExpression> told) {
+			for (final IndexedClassExpression subsumer : told) {
+				if (subsumer instanceof IndexedObjectSomeValuesFrom) {
+					final IndexedObjectSomeValuesFrom existential = (IndexedObjectSomeValuesFrom) subsumer;
+					if (existential.getCompositionRuleHead() == null
+							&& existential
+									.getFiller() instanceof IndexedIndividual) {
+						edges.add(existential);
+						continue;
+					}
+				}
+				// else
+				literals.add(subsumer);
+			}
+		}
+
+	}
+
+	private static class Edge {
+
+		final IndexedObjectProperty property;
+
+		/**
+		 * the block of the filler, or the representative of this block
+		 */
+		final Object block;
+
+		Edge(final IndexedObjectProperty property, final Object block) {
+			this.property = property;
+			this.block = block;
+		}
+
+		@Override
+		public int hashCode() {
+			return 31 * property.hashCode() + block.hashCode();
+		}
+
+		@Override
+		public boolean equals(final Object o) {
+			if (!(o instanceof Edge)) {
+				return false;
+			}
+			// else
+			final Edge other = (Edge) o;
+			return property == other.property && block.equals(other.block);
+		}
+
+	}
+
+}
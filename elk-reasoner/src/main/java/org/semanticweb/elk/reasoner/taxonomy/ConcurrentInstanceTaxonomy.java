@@ -22,11 +22,14 @@
  */
 package org.semanticweb.elk.reasoner.taxonomy;
 
+import java.util.AbstractSet;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
+import java.util.NoSuchElementException;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
@@ -55,6 +58,7 @@ import org.semanticweb.elk.reasoner.taxonomy.model.TaxonomyNode;
 import org.semanticweb.elk.reasoner.taxonomy.model.TypeNode;
 import org.semanticweb.elk.reasoner.taxonomy.model.UpdateableInstanceTaxonomy;
 import org.semanticweb.elk.reasoner.taxonomy.model.UpdateableTaxonomy;
+import org.semanticweb.elk.util.collections.DeltaEncodedIntSet;
 import org.semanticweb.elk.util.collections.Operations;
 import org.semanticweb.elk.util.collections.Operations.FunctorEx;
 import org.slf4j.Logger;
@@ -66,7 +70,11 @@ import org.slf4j.LoggerFactory;
  * of this are hardcoded here.
  * <p>
  * This class wraps an instance of {@link UpdateableTaxonomy} and lazily
- * generates wrappers for its nodes to store direct instances.
+ * generates wrappers for its nodes to store direct instances. Instance nodes
+ * that have direct types are assigned dense integer identifiers, and the type
+ * nodes store only the sorted and delta-encoded identifiers of their direct
+ * instances; the sets of direct instance nodes are views that look up the
+ * nodes by their identifiers.
  * 
  * @author Yevgeny Kazakov
  * @author Frantisek Simancik
@@ -100,6 +108,26 @@ public class ConcurrentInstanceTaxonomy
 	/** The listeners notified about the changes to instance taxonomy. */
 	protected final List<InstanceTaxonomy.Listener<ElkClass, ElkNamedIndividual>> instanceListeners_;
 
+	/**
+	 * The instance nodes indexed by their identifiers; synchronized on
+	 * {@link #idLock_}.
+	 */
+	private IdentifiedIndividualNode[] nodesById_ = new IdentifiedIndividualNode[16];
+
+	/**
+	 * The next identifier that was not yet assigned.
+	 */
+	private int nextId_ = 0;
+
+	/**
+	 * Identifiers of removed nodes that can be assigned again.
+	 */
+	private int[] freeIds_ = new int[16];
+
+	private int freeIdCount_ = 0;
+
+	private final Object idLock_ = new Object();
+
 	public ConcurrentInstanceTaxonomy(
 			PredefinedElkClassFactory elkFactory,
 			final ComparatorKeyProvider<ElkEntity> classKeyProvider,
@@ -178,12 +206,87 @@ public class ConcurrentInstanceTaxonomy
 		public IndividualNode.Projection<ElkClass, ElkNamedIndividual> createNode(
 				final Iterable<? extends ElkNamedIndividual> members,
 				final int size) {
-			return new IndividualNode.Projection<ElkClass, ElkNamedIndividual>(
+			return new IdentifiedIndividualNode(
 					ConcurrentInstanceTaxonomy.this, members, size);
 		}
 
 	};
 
+	/**
+	 * An instance node of this taxonomy that can be referred to by an integer
+	 * identifier.
+	 */
+	private static class IdentifiedIndividualNode
+			extends IndividualNode.Projection<ElkClass, ElkNamedIndividual> {
+
+		/**
+		 * The identifier of this node, or {@code -1} if it was not assigned;
+		 * synchronized on {@link ConcurrentInstanceTaxonomy#idLock_}.
+		 */
+		int id = -1;
+
+		IdentifiedIndividualNode(
+				final InstanceTaxonomy<ElkClass, ElkNamedIndividual> taxonomy,
+				final Iterable<? extends ElkNamedIndividual> members,
+				final int size) {
+			super(taxonomy, members, size);
+		}
+
+	}
+
+	/**
+	 * @param node
+	 * @return the identifier of the given node; a new identifier is assigned
+	 *         if the node did not have one
+	 */
+	private int getCreateId(final IdentifiedIndividualNode node) {
+		synchronized (idLock_) {
+			if (node.id < 0) {
+				final int id = freeIdCount_ > 0 ? freeIds_[--freeIdCount_]
+						: nextId_++;
+				if (id >= nodesById_.length) {
+					nodesById_ = Arrays.copyOf(nodesById_,
+							nodesById_.length << 1);
+				}
+				nodesById_[id] = node;
+				node.id = id;
+			}
+			return node.id;
+		}
+	}
+
+	private int getId(final Object node) {
+		if (!(node instanceof IdentifiedIndividualNode)) {
+			return -1;
+		}
+		// else
+		final IdentifiedIndividualNode identified = (IdentifiedIndividualNode) node;
+		synchronized (idLock_) {
+			return identified.getTaxonomy() == this ? identified.id : -1;
+		}
+	}
+
+	/**
+	 * Makes the identifier of the given node available for other nodes. The
+	 * node must not be a direct instance of any type node.
+	 * 
+	 * @param node
+	 */
+	private void releaseId(final IdentifiedIndividualNode node) {
+		synchronized (idLock_) {
+			if (node.id < 0) {
+				return;
+			}
+			// else
+			nodesById_[node.id] = null;
+			if (freeIdCount_ == freeIds_.length) {
+				freeIds_ = Arrays.copyOf(freeIds_, freeIdCount_ << 1);
+			}
+			freeIds_[freeIdCount_++] = node.id;
+			node.id = -1;
+		}
+	}
+
 	@Override
 	public InstanceNode<ElkClass, ElkNamedIndividual> getCreateInstanceNode(
 			final Collection<? extends ElkNamedIndividual> instances) {
@@ -279,8 +382,17 @@ public class ConcurrentInstanceTaxonomy
 
 	@Override
 	public boolean removeInstanceNode(final ElkNamedIndividual instance) {
+		final IndividualNode.Projection<ElkClass, ElkNamedIndividual> node = individualNodeStore_
+				.getNode(instance);
 		if (individualNodeStore_.removeNode(instance)) {
 			LOGGER_.trace("removed instance node with member: {}", instance);
+			if (node instanceof IdentifiedIndividualNode) {
+				synchronized (node) {
+					if (node.getDirectNonBottomTypeNodes().isEmpty()) {
+						releaseId((IdentifiedIndividualNode) node);
+					}
+				}
+			}
 			return true;
 		} else {
 			return false;
@@ -524,15 +636,14 @@ public class ConcurrentInstanceTaxonomy
 		protected final NonBottomTaxonomyNode<ElkClass> classNode_;
 
 		/**
-		 * ElkNamedIndividual nodes whose members are instances of the members
-		 * of this node.
+		 * Identifiers of ElkNamedIndividual nodes whose members are instances
+		 * of the members of this node.
 		 */
-		private final Set<UpdateableInstanceNode.Projection<ElkClass, ElkNamedIndividual>> directInstanceNodes_;
+		private final DeltaEncodedIntSet directInstanceIds_;
 
 		UpdateableTypeNodeWrapper(final NonBottomTaxonomyNode<ElkClass> node) {
 			this.classNode_ = node;
-			this.directInstanceNodes_ = Collections.newSetFromMap(
-					new ConcurrentHashMap<UpdateableInstanceNode.Projection<ElkClass, ElkNamedIndividual>, Boolean>());
+			this.directInstanceIds_ = new DeltaEncodedIntSet();
 		}
 
 		public NonBottomTaxonomyNode<ElkClass> getNode() {
@@ -541,9 +652,77 @@ public class ConcurrentInstanceTaxonomy
 
 		@Override
 		public Set<? extends UpdateableInstanceNode.Projection<ElkClass, ElkNamedIndividual>> getDirectInstanceNodes() {
-			return Collections.unmodifiableSet(directInstanceNodes_);
+			return directInstanceNodes_;
 		}
 
+		/**
+		 * The view of {@link #directInstanceIds_} as a set of nodes.
+		 */
+		private final Set<IdentifiedIndividualNode> directInstanceNodes_ = new AbstractSet<IdentifiedIndividualNode>() {
+
+			@Override
+			public Iterator<IdentifiedIndividualNode> iterator() {
+				/*
+				 * Resolve the nodes together with the snapshot of identifiers:
+				 * identifiers released later may be assigned to other nodes.
+				 */
+				final IdentifiedIndividualNode[] nodes;
+				synchronized (directInstanceIds_) {
+					final int[] ids = directInstanceIds_.toArray();
+					nodes = new IdentifiedIndividualNode[ids.length];
+					synchronized (idLock_) {
+						for (int i = 0; i < ids.length; i++) {
+							nodes[i] = nodesById_[ids[i]];
+						}
+					}
+				}
+				return new Iterator<IdentifiedIndividualNode>() {
+
+					int next_ = 0;
+
+					@Override
+					public boolean hasNext() {
+						return next_ < nodes.length;
+					}
+
+					@Override
+					public IdentifiedIndividualNode next() {
+						if (!hasNext()) {
+							throw new NoSuchElementException();
+						}
+						// else
+						return nodes[next_++];
+					}
+
+					@Override
+					public void remove() {
+						throw new UnsupportedOperationException();
+					}
+
+				};
+			}
+
+			@Override
+			public int size() {
+				synchronized (directInstanceIds_) {
+					return directInstanceIds_.size();
+				}
+			}
+
+			@Override
+			public boolean contains(final Object o) {
+				final int id = getId(o);
+				if (id < 0) {
+					return false;
+				}
+				// else
+				synchronized (directInstanceIds_) {
+					return directInstanceIds_.contains(id);
+				}
+			}
+
+		};
+
 		@Override
 		public Set<? extends GenericInstanceNode.Projection<ElkClass, ElkNamedIndividual>> getAllInstanceNodes() {
 			return TaxonomyNodeUtils.getAllInstanceNodes(this);
@@ -567,19 +746,32 @@ public class ConcurrentInstanceTaxonomy
 			LOGGER_.trace("{}: new direct instance-node {}", classNode_,
 					instanceNode);
 
-			directInstanceNodes_.add(instanceNode);
+			if (!(instanceNode instanceof IdentifiedIndividualNode)
+					|| instanceNode.getTaxonomy() != ConcurrentInstanceTaxonomy.this) {
+				throw new IllegalArgumentException(
+						"The instance node must belong to this taxonomy: "
+								+ instanceNode);
+			}
+			final int id = getCreateId((IdentifiedIndividualNode) instanceNode);
+			synchronized (directInstanceIds_) {
+				directInstanceIds_.add(id);
+			}
 		}
 
-		/*
-		 * This method is not thread safe
-		 */
 		@Override
 		public void removeDirectInstanceNode(
 				UpdateableInstanceNode.Projection<ElkClass, ElkNamedIndividual> instanceNode) {
 			LOGGER_.trace("{}: direct instance node removed {}", classNode_,
 					instanceNode);
 
-			directInstanceNodes_.remove(instanceNode);
+			final int id = getId(instanceNode);
+			if (id < 0) {
+				return;
+			}
+			// else
+			synchronized (directInstanceIds_) {
+				directInstanceIds_.remove(id);
+			}
 		}
 
 		@Override
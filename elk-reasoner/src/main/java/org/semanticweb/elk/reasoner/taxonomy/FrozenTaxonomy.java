@@ -0,0 +1,196 @@
+/*
+ * #%L
+ * ELK Reasoner
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2011 - 2013 Department of Computer Science, University of Oxford
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.semanticweb.elk.reasoner.taxonomy;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.semanticweb.elk.owl.interfaces.ElkEntity;
+import org.semanticweb.elk.reasoner.taxonomy.impl.AbstractTaxonomy;
+import org.semanticweb.elk.reasoner.taxonomy.impl.SimpleNode;
+import org.semanticweb.elk.reasoner.taxonomy.model.ComparatorKeyProvider;
+import org.semanticweb.elk.reasoner.taxonomy.model.GenericTaxonomyNode;
+import org.semanticweb.elk.reasoner.taxonomy.model.NodeStore;
+import org.semanticweb.elk.reasoner.taxonomy.model.Taxonomy;
+import org.semanticweb.elk.reasoner.taxonomy.model.TaxonomyNode;
+
+/**
+ * An immutable copy of a {@link Taxonomy} taken at some point in time. The
+ * copy does not change when the original {@link Taxonomy} is modified, so it
+ * can be safely read by several threads while the reasoner computes the next
+ * version of the original.
+ * 
+ * @param <T>
+ *            the type of objects stored in this taxonomy
+ */
+public class FrozenTaxonomy<T extends ElkEntity> extends AbstractTaxonomy<T> {
+
+	private final ComparatorKeyProvider<? super T> keyProvider_;
+
+	/**
+	 * the nodes of this taxonomy indexed by the keys of their members
+	 */
+	private final Map<Object, FrozenNode> nodeLookup_;
+
+	private final Set<FrozenNode> nodes_;
+
+	private final FrozenNode topNode_;
+
+	private final FrozenNode bottomNode_;
+
+	/**
+	 * Copies the nodes and the direct relations between them from the given
+	 * {@link Taxonomy}. The given {@link Taxonomy} should not be modified
+	 * while it is copied.
+	 * 
+	 * @param original
+	 *            the {@link Taxonomy} to be copied
+	 */
+	public FrozenTaxonomy(final Taxonomy<T> original) {
+		this.keyProvider_ = original.getKeyProvider();
+		final Set<? extends TaxonomyNode<T>> originalNodes = original
+				.getNodes();
+		final Map<TaxonomyNode<T>, FrozenNode> copies = new HashMap<TaxonomyNode<T>, FrozenNode>(
+				originalNodes.size());
+		this.nodeLookup_ = new HashMap<Object, FrozenNode>();
+		final Set<FrozenNode> nodes = new HashSet<FrozenNode>(
+				originalNodes.size());
+		for (final TaxonomyNode<T> originalNode : originalNodes) {
+			final FrozenNode copy = new FrozenNode(originalNode,
+					originalNode.size());
+			copies.put(originalNode, copy);
+			nodes.add(copy);
+			for (final T member : copy) {
+				nodeLookup_.put(keyProvider_.getKey(member), copy);
+			}
+		}
+		for (final TaxonomyNode<T> originalNode : originalNodes) {
+			final FrozenNode copy = copies.get(originalNode);
+			for (final TaxonomyNode<T> superNode : originalNode
+					.getDirectSuperNodes()) {
+				copy.directSuperNodes_.add(copies.get(superNode));
+			}
+			for (final TaxonomyNode<T> subNode : originalNode
+					.getDirectSubNodes()) {
+				copy.directSubNodes_.add(copies.get(subNode));
+			}
+		}
+		this.nodes_ = Collections.unmodifiableSet(nodes);
+		this.topNode_ = copies.get(original.getTopNode());
+		this.bottomNode_ = copies.get(original.getBottomNode());
+	}
+
+	@Override
+	public ComparatorKeyProvider<? super T> getKeyProvider() {
+		return keyProvider_;
+	}
+
+	@Override
+	public FrozenNode getNode(final T elkEntity) {
+		return nodeLookup_.get(keyProvider_.getKey(elkEntity));
+	}
+
+	@Override
+	public Set<? extends FrozenNode> getNodes() {
+		return nodes_;
+	}
+
+	@Override
+	public FrozenNode getTopNode() {
+		return topNode_;
+	}
+
+	@Override
+	public FrozenNode getBottomNode() {
+		return bottomNode_;
+	}
+
+	@Override
+	public boolean addListener(final NodeStore.Listener<T> listener) {
+		// No events are ever fired.
+		return true;
+	}
+
+	@Override
+	public boolean removeListener(final NodeStore.Listener<T> listener) {
+		// No events are ever fired.
+		return true;
+	}
+
+	@Override
+	public boolean addListener(final Taxonomy.Listener<T> listener) {
+		// No events are ever fired.
+		return true;
+	}
+
+	@Override
+	public boolean removeListener(final Taxonomy.Listener<T> listener) {
+		// No events are ever fired.
+		return true;
+	}
+
+	/**
+	 * A node of a {@link FrozenTaxonomy}; its members and direct relations are
+	 * fixed once the enclosing {@link FrozenTaxonomy} is constructed.
+	 */
+	public class FrozenNode extends SimpleNode<T>
+			implements GenericTaxonomyNode<T, FrozenNode> {
+
+		private final Set<FrozenNode> directSuperNodes_ = new HashSet<FrozenNode>();
+
+		private final Set<FrozenNode> directSubNodes_ = new HashSet<FrozenNode>();
+
+		FrozenNode(final Iterable<? extends T> members, final int size) {
+			super(members, size, keyProvider_);
+		}
+
+		@Override
+		public Taxonomy<T> getTaxonomy() {
+			return FrozenTaxonomy.this;
+		}
+
+		@Override
+		public Set<? extends FrozenNode> getDirectSuperNodes() {
+			return Collections.unmodifiableSet(directSuperNodes_);
+		}
+
+		@Override
+		public Set<? extends FrozenNode> getAllSuperNodes() {
+			return TaxonomyNodeUtils.getAllSuperNodes(directSuperNodes_);
+		}
+
+		@Override
+		public Set<? extends FrozenNode> getDirectSubNodes() {
+			return Collections.unmodifiableSet(directSubNodes_);
+		}
+
+		@Override
+		public Set<? extends FrozenNode> getAllSubNodes() {
+			return TaxonomyNodeUtils.getAllSubNodes(directSubNodes_);
+		}
+
+	}
+
+}
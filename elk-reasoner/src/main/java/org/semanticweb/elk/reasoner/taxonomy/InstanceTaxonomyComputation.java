@@ -23,6 +23,7 @@
 package org.semanticweb.elk.reasoner.taxonomy;
 
 import java.util.Collection;
+import java.util.Map;
 
 import org.semanticweb.elk.owl.interfaces.ElkClass;
 import org.semanticweb.elk.owl.interfaces.ElkNamedIndividual;
@@ -61,6 +62,25 @@ public class InstanceTaxonomyComputation
 				executor, maxWorkers, progressMonitor);
 	}
 
+	/**
+	 * Creates a computation that saturates only the keys of the given groups
+	 * and assigns their direct types to all individuals of the group.
+	 * 
+	 * @see AboxAbstraction#group(Iterable)
+	 */
+	public InstanceTaxonomyComputation(
+			Map<IndexedIndividual, ? extends Collection<? extends IndexedIndividual>> groups,
+			final InterruptMonitor interrupter,
+			ConcurrentExecutor executor,
+			int maxWorkers,
+			ProgressMonitor progressMonitor,
+			SaturationState<?> saturationState,
+			UpdateableInstanceTaxonomy<ElkClass, ElkNamedIndividual> partialTaxonomy) {
+		super(groups.keySet(), new InstanceTaxonomyComputationFactory(
+				interrupter, saturationState, maxWorkers, partialTaxonomy,
+				groups), executor, maxWorkers, progressMonitor);
+	}
+
 	/**
 	 * @return the taxonomy computed by this computation; the method
 	 *         {@link #process()} should be called first to compute the taxonomy
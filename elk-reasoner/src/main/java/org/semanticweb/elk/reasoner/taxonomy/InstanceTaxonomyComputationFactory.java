@@ -22,7 +22,9 @@
  */
 package org.semanticweb.elk.reasoner.taxonomy;
 
+import java.util.Collection;
 import java.util.Collections;
+import java.util.Map;
 
 import org.semanticweb.elk.owl.interfaces.ElkClass;
 import org.semanticweb.elk.owl.interfaces.ElkNamedIndividual;
@@ -75,6 +77,11 @@ public class InstanceTaxonomyComputationFactory
 	 * transitive reduction
 	 */
 	private final TransitiveReductionOutputProcessor outputProcessor_;
+	/**
+	 * Maps the submitted individuals to the individuals that should get the
+	 * same direct types, or {@code null} if every individual is submitted
+	 */
+	private final Map<IndexedIndividual, ? extends Collection<? extends IndexedIndividual>> groups_;
 
 	/**
 	 * Create a shared engine for the input ontology index and a partially
@@ -94,7 +101,35 @@ public class InstanceTaxonomyComputationFactory
 			final InterruptMonitor interrupter,
 			SaturationState<?> saturationState, int maxWorkers,
 			UpdateableInstanceTaxonomy<ElkClass, ElkNamedIndividual> partialTaxonomy) {
+		this(interrupter, saturationState, maxWorkers, partialTaxonomy, null);
+	}
+
+	/**
+	 * Create a shared engine that, in addition, assigns the direct types
+	 * computed for each submitted individual to all individuals in its group.
+	 * 
+	 * @param saturationState
+	 *            the saturation state of the reasoner
+	 * @param maxWorkers
+	 *            the maximum number of workers that can use this factory
+	 * @param partialTaxonomy
+	 *            the (partially pre-computed) class taxonomy object to store
+	 *            results in
+	 * @param groups
+	 *            maps the individuals that will be submitted to the
+	 *            individuals that have the same types, including themselves;
+	 *            if {@code null}, only the submitted individuals are added to
+	 *            the taxonomy
+	 * 
+	 * @see AboxAbstraction
+	 */
+	public InstanceTaxonomyComputationFactory(
+			final InterruptMonitor interrupter,
+			SaturationState<?> saturationState, int maxWorkers,
+			UpdateableInstanceTaxonomy<ElkClass, ElkNamedIndividual> partialTaxonomy,
+			Map<IndexedIndividual, ? extends Collection<? extends IndexedIndividual>> groups) {
 		this.taxonomy_ = partialTaxonomy;
+		this.groups_ = groups;
 		this.transitiveReductionShared_ = new TransitiveReductionFactory<IndexedIndividual, TransitiveReductionJob<IndexedIndividual>>(
 				interrupter, saturationState, maxWorkers,
 				new ThisTransitiveReductionListener());
@@ -134,10 +169,26 @@ public class InstanceTaxonomyComputationFactory
 		public void visit(
 				TransitiveReductionOutputEquivalentDirect<IndexedIndividual> output) {
 
+			final Collection<? extends IndexedIndividual> group = groups_ == null
+					? null : groups_.get(output.getRoot());
+			if (group == null) {
+				setDirectTypes(output.getRoot(), output);
+				return;
+			}
+			// else
+			for (final IndexedIndividual ind : group) {
+				setDirectTypes(ind, output);
+			}
+
+		}
+
+		private void setDirectTypes(final IndexedIndividual ind,
+				final TransitiveReductionOutputEquivalentDirect<IndexedIndividual> output) {
+
 			// only supports singleton individuals
 			final InstanceNode<ElkClass, ElkNamedIndividual> node = taxonomy_
-					.getCreateInstanceNode(Collections
-							.singleton(output.getRoot().getElkEntity()));
+					.getCreateInstanceNode(
+							Collections.singleton(ind.getElkEntity()));
 
 			taxonomy_.setCreateDirectTypes(node, output.getDirectSubsumers());
 
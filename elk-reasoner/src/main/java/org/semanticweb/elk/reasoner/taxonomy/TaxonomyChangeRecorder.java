@@ -0,0 +1,502 @@
+/*
+ * #%L
+ * ELK Reasoner
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2011 - 2013 Department of Computer Science, University of Oxford
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.semanticweb.elk.reasoner.taxonomy;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.semanticweb.elk.owl.interfaces.ElkEntity;
+import org.semanticweb.elk.reasoner.taxonomy.model.InstanceNode;
+import org.semanticweb.elk.reasoner.taxonomy.model.InstanceTaxonomy;
+import org.semanticweb.elk.reasoner.taxonomy.model.Node;
+import org.semanticweb.elk.reasoner.taxonomy.model.NodeStore;
+import org.semanticweb.elk.reasoner.taxonomy.model.Taxonomy;
+import org.semanticweb.elk.reasoner.taxonomy.model.TaxonomyNode;
+import org.semanticweb.elk.reasoner.taxonomy.model.TypeNode;
+
+/**
+ * Records which members of a taxonomy are touched by its modifications and
+ * what their nodes looked like before, so that the changes of the taxonomy can
+ * be computed by {@link #poll(Object)} without comparing the whole
+ * taxonomies. Only the members reported by the listeners of the taxonomy are
+ * compared. If the taxonomy is replaced by a new one, e.g., because it is
+ * computed from scratch, all members of both taxonomies are compared.
+ * 
+ * @param <M>
+ *            the type of members of the nodes that change
+ * @param <S>
+ *            the type of members of the nodes directly above them
+ * @param <X>
+ *            the type of the taxonomy
+ */
+public abstract class TaxonomyChangeRecorder<M extends ElkEntity, S extends ElkEntity, X> {
+
+	/**
+	 * the taxonomy whose modifications are recorded or {@code null}
+	 */
+	private X taxonomy_ = null;
+
+	/**
+	 * the members touched since the last {@link #poll(Object)} by their keys
+	 */
+	private final Map<Object, M> touched_ = new HashMap<Object, M>();
+
+	/**
+	 * the state of the touched members at the last {@link #poll(Object)} by
+	 * their keys; {@code null} values mean that the member did not occur in
+	 * the taxonomy
+	 */
+	private final Map<Object, Snapshot<M, S>> before_ = new HashMap<Object, Snapshot<M, S>>();
+
+	abstract void addListeners(X taxonomy);
+
+	abstract void removeListeners(X taxonomy);
+
+	/**
+	 * @return all nodes of the taxonomy, including the bottom one
+	 */
+	abstract Collection<? extends Node<M>> getAllNodes(X taxonomy);
+
+	abstract Node<M> getNode(X taxonomy, M member);
+
+	abstract boolean isBottom(X taxonomy, Node<M> node);
+
+	/**
+	 * @return the nodes directly above the given node in the taxonomy
+	 */
+	abstract Collection<? extends Node<S>> getDirectUpperNodes(X taxonomy,
+			Node<M> node);
+
+	/**
+	 * Starts recording the modifications of the given taxonomy; if another
+	 * taxonomy was recorded before, all its members are considered touched
+	 * 
+	 * @param taxonomy
+	 *            the taxonomy to record or {@code null} if the taxonomy does
+	 *            not exist yet
+	 */
+	public synchronized void attach(final X taxonomy) {
+		if (taxonomy == taxonomy_) {
+			return;
+		}
+		// else
+		if (taxonomy_ != null) {
+			removeListeners(taxonomy_);
+			// the members of the old taxonomy keep their old state
+			for (final Node<M> node : getAllNodes(taxonomy_)) {
+				final Collection<? extends Node<S>> upperNodes = getUpperNodes(
+						taxonomy_, node);
+				for (final M member : node) {
+					touch(member, node, upperNodes);
+				}
+			}
+		}
+		taxonomy_ = taxonomy;
+		if (taxonomy_ != null) {
+			// the members occurring only in the new taxonomy were added
+			for (final Node<M> node : getAllNodes(taxonomy_)) {
+				for (final M member : node) {
+					touch(member, null, null);
+				}
+			}
+			addListeners(taxonomy_);
+		}
+	}
+
+	/**
+	 * Stops recording and forgets the recorded modifications
+	 */
+	public synchronized void detach() {
+		if (taxonomy_ != null) {
+			removeListeners(taxonomy_);
+			taxonomy_ = null;
+		}
+		touched_.clear();
+		before_.clear();
+	}
+
+	/**
+	 * Computes the changes since the previous call of this method or since
+	 * the recording started and starts recording the next changes.
+	 * 
+	 * @param taxonomy
+	 *            the current taxonomy, which should be completely computed;
+	 *            if it is not the recorded one, it is recorded from now on
+	 * @return the changes of the taxonomy
+	 */
+	public synchronized TaxonomyDiff<M, S> poll(final X taxonomy) {
+		attach(taxonomy);
+		final List<M> addedMembers = new ArrayList<M>(),
+				removedMembers = new ArrayList<M>(),
+				changedMembers = new ArrayList<M>();
+		final Map<Object, List<M>> addedNodes = new LinkedHashMap<Object, List<M>>(),
+				removedNodes = new LinkedHashMap<Object, List<M>>();
+		final Set<TaxonomyDiff.Edge<M, S>> edgesBefore = new HashSet<TaxonomyDiff.Edge<M, S>>(),
+				edgesAfter = new HashSet<TaxonomyDiff.Edge<M, S>>();
+		for (final Map.Entry<Object, M> entry : touched_.entrySet()) {
+			final M member = entry.getValue();
+			final Snapshot<M, S> before = before_.get(entry.getKey());
+			final Node<M> node = taxonomy == null ? null
+					: getNode(taxonomy, member);
+			final Snapshot<M, S> after = node == null ? null
+					: new Snapshot<M, S>(node, isBottom(taxonomy, node),
+							getUpperNodes(taxonomy, node));
+			if (before == null && after == null) {
+				continue;
+			}
+			// else
+			if (before == null) {
+				addedMembers.add(member);
+			} else if (after == null) {
+				removedMembers.add(member);
+			}
+			final boolean nodeChanged = before == null || after == null
+					|| !before.hasSameMembers(after);
+			if (nodeChanged) {
+				if (before != null && !before.isBottom) {
+					removedNodes.put(getKey(before.canonicalMember),
+							before.members);
+				}
+				if (after != null && !after.isBottom) {
+					addedNodes.put(getKey(after.canonicalMember),
+							after.members);
+				}
+			}
+			if (before != null) {
+				before.addEdges(edgesBefore);
+			}
+			if (after != null) {
+				after.addEdges(edgesAfter);
+			}
+			if (nodeChanged || !before.hasSameUpperNodes(after)) {
+				changedMembers.add(member);
+			}
+		}
+		touched_.clear();
+		before_.clear();
+		final List<TaxonomyDiff.Edge<M, S>> addedEdges = new ArrayList<TaxonomyDiff.Edge<M, S>>(),
+				removedEdges = new ArrayList<TaxonomyDiff.Edge<M, S>>();
+		for (final TaxonomyDiff.Edge<M, S> edge : edgesAfter) {
+			if (!edgesBefore.contains(edge)) {
+				addedEdges.add(edge);
+			}
+		}
+		for (final TaxonomyDiff.Edge<M, S> edge : edgesBefore) {
+			if (!edgesAfter.contains(edge)) {
+				removedEdges.add(edge);
+			}
+		}
+		return new TaxonomyDiff<M, S>(addedMembers, removedMembers,
+				changedMembers, addedNodes.values(), removedNodes.values(),
+				addedEdges, removedEdges);
+	}
+
+	/**
+	 * Records the state of the given member before it is modified for the
+	 * first time since the last {@link #poll(Object)}
+	 * 
+	 * @param member
+	 * @param node
+	 *            the node of the member or {@code null} if the member does
+	 *            not occur in the taxonomy
+	 * @param upperNodes
+	 *            the nodes directly above the node of the member or
+	 *            {@code null} if they should be taken from the node
+	 */
+	synchronized void touch(final M member, final Node<M> node,
+			final Collection<? extends Node<S>> upperNodes) {
+		final Object key = getKey(member);
+		if (touched_.containsKey(key)) {
+			return;
+		}
+		// else
+		touched_.put(key, member);
+		before_.put(key,
+				node == null ? null
+						: new Snapshot<M, S>(node, isBottom(taxonomy_, node),
+								upperNodes == null
+										? getUpperNodes(taxonomy_, node)
+										: upperNodes));
+	}
+
+	private Collection<? extends Node<S>> getUpperNodes(final X taxonomy,
+			final Node<M> node) {
+		if (isBottom(taxonomy, node)) {
+			// the bottom node is below everything
+			return Collections.emptyList();
+		}
+		// else
+		return getDirectUpperNodes(taxonomy, node);
+	}
+
+	static Object getKey(final ElkEntity member) {
+		return ElkEntityKeyProvider.INSTANCE.getKey(member);
+	}
+
+	/**
+	 * The state of a node at some moment
+	 */
+	private static class Snapshot<M extends ElkEntity, S extends ElkEntity> {
+
+		final boolean isBottom;
+
+		final M canonicalMember;
+
+		/**
+		 * the members of the node; empty for the bottom node
+		 */
+		final List<M> members;
+
+		final Set<Object> memberKeys;
+
+		/**
+		 * the canonical members of the nodes directly above by their keys
+		 */
+		final Map<Object, S> upperMembers;
+
+		Snapshot(final Node<M> node, final boolean isBottom,
+				final Collection<? extends Node<S>> upperNodes) {
+			this.isBottom = isBottom;
+			this.canonicalMember = node.getCanonicalMember();
+			if (isBottom) {
+				this.members = Collections.emptyList();
+				this.memberKeys = Collections.emptySet();
+			} else {
+				this.members = new ArrayList<M>(node.size());
+				this.memberKeys = new HashSet<Object>(node.size());
+				for (final M member : node) {
+					members.add(member);
+					memberKeys.add(getKey(member));
+				}
+			}
+			this.upperMembers = new HashMap<Object, S>(upperNodes.size());
+			for (final Node<S> upperNode : upperNodes) {
+				final S upperMember = upperNode.getCanonicalMember();
+				upperMembers.put(getKey(upperMember), upperMember);
+			}
+		}
+
+		boolean hasSameMembers(final Snapshot<M, S> other) {
+			return isBottom == other.isBottom
+					&& memberKeys.equals(other.memberKeys);
+		}
+
+		boolean hasSameUpperNodes(final Snapshot<M, S> other) {
+			return upperMembers.keySet().equals(other.upperMembers.keySet());
+		}
+
+		void addEdges(final Set<TaxonomyDiff.Edge<M, S>> edges) {
+			for (final S upperMember : upperMembers.values()) {
+				edges.add(new TaxonomyDiff.Edge<M, S>(canonicalMember,
+						upperMember));
+			}
+		}
+
+	}
+
+	/**
+	 * Records the changes of the nodes of a {@link Taxonomy} and of the direct
+	 * super-node relation
+	 * 
+	 * @param <T>
+	 *            the type of members of the nodes
+	 */
+	public static class ForTaxonomy<T extends ElkEntity>
+			extends TaxonomyChangeRecorder<T, T, Taxonomy<T>> {
+
+		private final NodeStore.Listener<T> nodeStoreListener_ = new NodeStore.Listener<T>() {
+
+			@Override
+			public void memberForNodeAppeared(final T member,
+					final Node<T> node) {
+				touch(member, null, null);
+			}
+
+			@Override
+			public void memberForNodeDisappeared(final T member,
+					final Node<T> node) {
+				touch(member, node, null);
+			}
+
+		};
+
+		private final Taxonomy.Listener<T> taxonomyListener_ = new Taxonomy.Listener<T>() {
+
+			@Override
+			public void directSupernodeAssignment(final TaxonomyNode<T> subNode,
+					final Collection<? extends TaxonomyNode<T>> superNodes) {
+				for (final T member : subNode) {
+					touch(member, subNode,
+							Collections.<TaxonomyNode<T>> emptyList());
+				}
+			}
+
+			@Override
+			public void directSupernodeRemoval(final TaxonomyNode<T> subNode,
+					final Collection<? extends TaxonomyNode<T>> superNodes) {
+				for (final T member : subNode) {
+					touch(member, subNode, superNodes);
+				}
+			}
+
+		};
+
+		@Override
+		void addListeners(final Taxonomy<T> taxonomy) {
+			taxonomy.addListener(nodeStoreListener_);
+			taxonomy.addListener(taxonomyListener_);
+		}
+
+		@Override
+		void removeListeners(final Taxonomy<T> taxonomy) {
+			taxonomy.removeListener(nodeStoreListener_);
+			taxonomy.removeListener(taxonomyListener_);
+		}
+
+		@Override
+		Collection<? extends Node<T>> getAllNodes(final Taxonomy<T> taxonomy) {
+			final TaxonomyNode<T> bottom = taxonomy.getBottomNode();
+			final List<TaxonomyNode<T>> result = new ArrayList<TaxonomyNode<T>>(
+					taxonomy.getNodes());
+			if (!result.contains(bottom)) {
+				result.add(bottom);
+			}
+			return result;
+		}
+
+		@Override
+		Node<T> getNode(final Taxonomy<T> taxonomy, final T member) {
+			return taxonomy.getNode(member);
+		}
+
+		@Override
+		boolean isBottom(final Taxonomy<T> taxonomy, final Node<T> node) {
+			return taxonomy.getBottomNode()
+					.contains(node.getCanonicalMember());
+		}
+
+		@Override
+		Collection<? extends Node<T>> getDirectUpperNodes(
+				final Taxonomy<T> taxonomy, final Node<T> node) {
+			return ((TaxonomyNode<T>) node).getDirectSuperNodes();
+		}
+
+	}
+
+	/**
+	 * Records the changes of the instance nodes of an {@link InstanceTaxonomy}
+	 * and of the direct type relation
+	 * 
+	 * @param <T>
+	 *            the type of members of the type nodes
+	 * @param <I>
+	 *            the type of members of the instance nodes
+	 */
+	public static class ForInstanceTaxonomy<T extends ElkEntity, I extends ElkEntity>
+			extends TaxonomyChangeRecorder<I, T, InstanceTaxonomy<T, I>> {
+
+		private final NodeStore.Listener<I> nodeStoreListener_ = new NodeStore.Listener<I>() {
+
+			@Override
+			public void memberForNodeAppeared(final I member,
+					final Node<I> node) {
+				touch(member, null, null);
+			}
+
+			@Override
+			public void memberForNodeDisappeared(final I member,
+					final Node<I> node) {
+				touch(member, node, null);
+			}
+
+		};
+
+		private final InstanceTaxonomy.Listener<T, I> taxonomyListener_ = new InstanceTaxonomy.Listener<T, I>() {
+
+			@Override
+			public void directTypeAssignment(
+					final InstanceNode<T, I> instanceNode,
+					final Collection<? extends TypeNode<T, I>> typeNodes) {
+				for (final I member : instanceNode) {
+					touch(member, instanceNode,
+							Collections.<TypeNode<T, I>> emptyList());
+				}
+			}
+
+			@Override
+			public void directTypeRemoval(
+					final InstanceNode<T, I> instanceNode,
+					final Collection<? extends TypeNode<T, I>> typeNodes) {
+				for (final I member : instanceNode) {
+					touch(member, instanceNode, typeNodes);
+				}
+			}
+
+		};
+
+		@Override
+		void addListeners(final InstanceTaxonomy<T, I> taxonomy) {
+			taxonomy.addInstanceListener(nodeStoreListener_);
+			taxonomy.addInstanceListener(taxonomyListener_);
+		}
+
+		@Override
+		void removeListeners(final InstanceTaxonomy<T, I> taxonomy) {
+			taxonomy.removeInstanceListener(nodeStoreListener_);
+			taxonomy.removeInstanceListener(taxonomyListener_);
+		}
+
+		@Override
+		Collection<? extends Node<I>> getAllNodes(
+				final InstanceTaxonomy<T, I> taxonomy) {
+			return taxonomy.getInstanceNodes();
+		}
+
+		@Override
+		Node<I> getNode(final InstanceTaxonomy<T, I> taxonomy,
+				final I member) {
+			return taxonomy.getInstanceNode(member);
+		}
+
+		@Override
+		boolean isBottom(final InstanceTaxonomy<T, I> taxonomy,
+				final Node<I> node) {
+			// instance nodes are not ordered
+			return false;
+		}
+
+		@Override
+		Collection<? extends Node<T>> getDirectUpperNodes(
+				final InstanceTaxonomy<T, I> taxonomy, final Node<I> node) {
+			return ((InstanceNode<T, I>) node).getDirectTypeNodes();
+		}
+
+	}
+
+}
@@ -0,0 +1,196 @@
+/*
+ * #%L
+ * ELK Reasoner
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2011 - 2013 Department of Computer Science, University of Oxford
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.semanticweb.elk.reasoner.taxonomy;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+import org.semanticweb.elk.owl.interfaces.ElkEntity;
+
+/**
+ * The changes of a taxonomy between two moments, as recorded by a
+ * {@link TaxonomyChangeRecorder}. Nodes are represented by the lists of their
+ * members and direct relations between nodes by {@link Edge}s between their
+ * canonical members. When nodes are merged or split, the old nodes are
+ * reported as removed and the new nodes as added. The bottom node is never
+ * reported as added or removed; members that became (un)satisfiable appear
+ * in {@link #getChangedMembers()} and lose (get) their direct super-nodes.
+ * 
+ * @param <M>
+ *            the type of members of the nodes that change
+ * @param <S>
+ *            the type of members of the nodes directly above them, e.g., of
+ *            the super-nodes or of the type nodes
+ */
+public class TaxonomyDiff<M extends ElkEntity, S extends ElkEntity> {
+
+	private final Collection<M> addedMembers_, removedMembers_,
+			changedMembers_;
+
+	private final Collection<List<M>> addedNodes_, removedNodes_;
+
+	private final Collection<Edge<M, S>> addedEdges_, removedEdges_;
+
+	TaxonomyDiff(final Collection<M> addedMembers,
+			final Collection<M> removedMembers,
+			final Collection<M> changedMembers,
+			final Collection<List<M>> addedNodes,
+			final Collection<List<M>> removedNodes,
+			final Collection<Edge<M, S>> addedEdges,
+			final Collection<Edge<M, S>> removedEdges) {
+		this.addedMembers_ = addedMembers;
+		this.removedMembers_ = removedMembers;
+		this.changedMembers_ = changedMembers;
+		this.addedNodes_ = addedNodes;
+		this.removedNodes_ = removedNodes;
+		this.addedEdges_ = addedEdges;
+		this.removedEdges_ = removedEdges;
+	}
+
+	/**
+	 * @return the members that did not occur in the taxonomy before
+	 */
+	public Collection<M> getAddedMembers() {
+		return Collections.unmodifiableCollection(addedMembers_);
+	}
+
+	/**
+	 * @return the members that do not occur in the taxonomy anymore
+	 */
+	public Collection<M> getRemovedMembers() {
+		return Collections.unmodifiableCollection(removedMembers_);
+	}
+
+	/**
+	 * @return the members whose node or direct super-nodes changed, including
+	 *         the added and the removed ones
+	 */
+	public Collection<M> getChangedMembers() {
+		return Collections.unmodifiableCollection(changedMembers_);
+	}
+
+	/**
+	 * @return the members of the nodes that were not in the taxonomy before
+	 */
+	public Collection<List<M>> getAddedNodes() {
+		return Collections.unmodifiableCollection(addedNodes_);
+	}
+
+	/**
+	 * @return the members of the nodes that are not in the taxonomy anymore
+	 */
+	public Collection<List<M>> getRemovedNodes() {
+		return Collections.unmodifiableCollection(removedNodes_);
+	}
+
+	/**
+	 * @return the direct relations between nodes that did not hold before
+	 */
+	public Collection<Edge<M, S>> getAddedEdges() {
+		return Collections.unmodifiableCollection(addedEdges_);
+	}
+
+	/**
+	 * @return the direct relations between nodes that do not hold anymore
+	 */
+	public Collection<Edge<M, S>> getRemovedEdges() {
+		return Collections.unmodifiableCollection(removedEdges_);
+	}
+
+	/**
+	 * @return {@code true} if the taxonomy did not change
+	 */
+	public boolean isEmpty() {
+		return changedMembers_.isEmpty();
+	}
+
+	@Override
+	public String toString() {
+		return "+" + addedNodes_ + " -" + removedNodes_ + " +" + addedEdges_
+				+ " -" + removedEdges_;
+	}
+
+	/**
+	 * A direct relation between two nodes given by their canonical members,
+	 * e.g., between a node and its direct super-node or between an instance
+	 * node and its direct type node
+	 * 
+	 * @param <M>
+	 *            the type of the members of the lower node
+	 * @param <S>
+	 *            the type of the members of the upper node
+	 */
+	public static class Edge<M extends ElkEntity, S extends ElkEntity> {
+
+		private final M subMember_;
+
+		private final S superMember_;
+
+		public Edge(final M subMember, final S superMember) {
+			this.subMember_ = subMember;
+			this.superMember_ = superMember;
+		}
+
+		/**
+		 * @return the canonical member of the lower node
+		 */
+		public M getSubMember() {
+			return subMember_;
+		}
+
+		/**
+		 * @return the canonical member of the upper node
+		 */
+		public S getSuperMember() {
+			return superMember_;
+		}
+
+		@Override
+		public int hashCode() {
+			return 31 * subMember_.getIri().hashCode()
+					+ superMember_.getIri().hashCode();
+		}
+
+		@Override
+		public boolean equals(final Object obj) {
+			if (this == obj) {
+				return true;
+			}
+			if (!(obj instanceof Edge)) {
+				return false;
+			}
+			// else
+			final Edge<?, ?> other = (Edge<?, ?>) obj;
+			return subMember_.getIri().equals(other.subMember_.getIri())
+					&& superMember_.getIri()
+							.equals(other.superMember_.getIri());
+		}
+
+		@Override
+		public String toString() {
+			return subMember_ + " -> " + superMember_;
+		}
+
+	}
+
+}
@@ -105,7 +105,8 @@ public abstract class IndividualNode<
 			final Iterable<? extends I> members, final int size) {
 		super(members, size, taxonomy.getInstanceKeyProvider());
 		this.taxonomy_ = taxonomy;
-		this.directTypeNodes_ = new ArrayHashSet<UTN>();
+		// most individuals have few direct types
+		this.directTypeNodes_ = new ArrayHashSet<UTN>(2);
 	}
 
 	/**
@@ -36,7 +36,7 @@ public abstract class AbstractTracingInference implements TracingInference {
 	private final static Conclusion.Factory CONCLUSION_FACTORY_ = ConclusionBaseFactory
 			.getInstance();
 
-	private final TracingInference.Visitor<Conclusion> CONCLUSION_GETTER_ = new TracingInferenceConclusionGetter(
+	private final static TracingInference.Visitor<Conclusion> CONCLUSION_GETTER_ = new TracingInferenceConclusionGetter(
 			CONCLUSION_FACTORY_);
 
 	public abstract int getPremiseCount();
@@ -0,0 +1,340 @@
+/*
+ * #%L
+ * ELK Reasoner
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2011 - 2015 Department of Computer Science, University of Oxford
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.semanticweb.elk.reasoner.tracing;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A {@link ModifiableTracingInferenceSet} that keeps its inferences in
+ * primitive arrays instead of a map of lists. The inferences are stored in the
+ * order they are produced and the inferences with the same conclusion are
+ * chained by their positions. The conclusions are not stored at all: a hash
+ * table records for every conclusion only its hash code and the positions of
+ * the first and the last inference in its chain, and the conclusion is
+ * recomputed from the first inference when it needs to be compared. Thus,
+ * apart from the inferences themselves, only a few integers are kept per
+ * inference and per conclusion. The positions freed by
+ * {@link #removeInferences(Conclusion)} are reclaimed when the arrays are
+ * compacted.
+ * <p>
+ * This set is not thread safe.
+ * 
+ * @param <I>
+ *            the type of inferences stored in this
+ *            {@link ModifiableTracingInferenceSet}
+ */
+public class CompactModifiableTracingInferenceSet<I extends TracingInference>
+		implements StripeTracingInferenceSet<I> {
+
+	// logger for this class
+	private static final Logger LOGGER_ = LoggerFactory
+			.getLogger(CompactModifiableTracingInferenceSet.class);
+
+	/**
+	 * the initial size of the arrays; must be a power of two
+	 */
+	private static final int INITIAL_CAPACITY = 16;
+
+	/**
+	 * the marker of free slots in {@link #first_} and of the chain ends in
+	 * {@link #next_}
+	 */
+	private static final int NONE = -1;
+
+	/**
+	 * the marker of slots in {@link #first_} whose inferences were removed
+	 */
+	private static final int REMOVED = -2;
+
+	/**
+	 * the stored inferences at their positions
+	 */
+	private Object[] inferences_;
+
+	/**
+	 * the position of the next inference with the same conclusion
+	 */
+	private int[] next_;
+
+	/**
+	 * the number of used positions, including the positions of removed
+	 * inferences
+	 */
+	private int inferenceCount_;
+
+	/**
+	 * the number of positions of removed inferences
+	 */
+	private int removedCount_;
+
+	/**
+	 * the hash codes of the conclusions in the hash table
+	 */
+	private int[] hashes_;
+
+	/**
+	 * the positions of the first inferences of the conclusions in the hash
+	 * table
+	 */
+	private int[] first_;
+
+	/**
+	 * the positions of the last inferences of the conclusions in the hash
+	 * table
+	 */
+	private int[] last_;
+
+	/**
+	 * the number of the conclusions in the hash table
+	 */
+	private int conclusionCount_;
+
+	/**
+	 * the number of slots of the hash table that are not free, including the
+	 * slots of the removed conclusions
+	 */
+	private int occupiedCount_;
+
+	public CompactModifiableTracingInferenceSet() {
+		init();
+	}
+
+	private void init() {
+		inferences_ = new Object[INITIAL_CAPACITY];
+		next_ = new int[INITIAL_CAPACITY];
+		inferenceCount_ = 0;
+		removedCount_ = 0;
+		hashes_ = new int[INITIAL_CAPACITY];
+		first_ = new int[INITIAL_CAPACITY];
+		Arrays.fill(first_, NONE);
+		last_ = new int[INITIAL_CAPACITY];
+		conclusionCount_ = 0;
+		occupiedCount_ = 0;
+	}
+
+	private static int hash(Conclusion conclusion) {
+		int h = conclusion.hashCode();
+		// spread the higher bits since only the lower bits select the slot
+		return h ^ (h >>> 16);
+	}
+
+	@SuppressWarnings("unchecked")
+	private I getInference(int position) {
+		return (I) inferences_[position];
+	}
+
+	/**
+	 * @return the slot of the hash table for the given conclusion or
+	 *         {@link #NONE} if the conclusion has no inferences
+	 */
+	private int find(Conclusion conclusion, int hash) {
+		int mask = first_.length - 1;
+		for (int slot = hash & mask;; slot = (slot + 1) & mask) {
+			int first = first_[slot];
+			if (first == NONE) {
+				return NONE;
+			}
+			// else
+			if (first != REMOVED && hashes_[slot] == hash && conclusion
+					.equals(getInference(first).getConclusion())) {
+				return slot;
+			}
+		}
+	}
+
+	/**
+	 * @return the first slot of the hash table for the given hash code that
+	 *         does not contain a conclusion
+	 */
+	private static int findFree(int[] first, int hash) {
+		int mask = first.length - 1;
+		for (int slot = hash & mask;; slot = (slot + 1) & mask) {
+			if (first[slot] < 0) {
+				return slot;
+			}
+		}
+	}
+
+	@Override
+	public void produce(I inference) {
+		produce(inference.getConclusion(), inference);
+	}
+
+	@Override
+	public void produce(Conclusion conclusion, I inference) {
+		LOGGER_.trace("{}: inference produced", inference);
+		int hash = hash(conclusion);
+		int slot = find(conclusion, hash);
+		if (slot == NONE) {
+			// a new conclusion
+			if ((occupiedCount_ + 1) << 2 > first_.length * 3) {
+				// keep the load factor below 0.75
+				compact(conclusionCount_ + 1);
+			}
+			slot = findFree(first_, hash);
+			if (first_[slot] == NONE) {
+				occupiedCount_++;
+			}
+			int position = append(inference);
+			hashes_[slot] = hash;
+			first_[slot] = position;
+			last_[slot] = position;
+			conclusionCount_++;
+		} else {
+			int position = append(inference);
+			next_[last_[slot]] = position;
+			last_[slot] = position;
+		}
+	}
+
+	/**
+	 * Stores the inference at the next free position
+	 * 
+	 * @return the position of the inference
+	 */
+	private int append(I inference) {
+		if (inferenceCount_ == inferences_.length) {
+			int capacity = inferences_.length << 1;
+			inferences_ = Arrays.copyOf(inferences_, capacity);
+			next_ = Arrays.copyOf(next_, capacity);
+		}
+		int position = inferenceCount_++;
+		inferences_[position] = inference;
+		next_[position] = NONE;
+		return position;
+	}
+
+	@Override
+	public boolean removeInferences(Conclusion conclusion) {
+		int slot = find(conclusion, hash(conclusion));
+		if (slot == NONE) {
+			return false;
+		}
+		// else
+		for (int position = first_[slot]; position != NONE; position = next_[position]) {
+			inferences_[position] = null;
+			removedCount_++;
+		}
+		first_[slot] = REMOVED;
+		conclusionCount_--;
+		if (removedCount_ << 1 > inferenceCount_) {
+			// most positions are not used anymore
+			compact(conclusionCount_);
+		}
+		return true;
+	}
+
+	/**
+	 * Rebuilds the arrays so that they contain only the stored inferences and
+	 * the hash table has enough space for the given number of conclusions
+	 */
+	private void compact(int expectedConclusionCount) {
+		int tableCapacity = INITIAL_CAPACITY;
+		while (expectedConclusionCount << 2 > tableCapacity * 3) {
+			tableCapacity <<= 1;
+		}
+		int inferenceCapacity = INITIAL_CAPACITY;
+		while (inferenceCapacity < inferenceCount_ - removedCount_) {
+			inferenceCapacity <<= 1;
+		}
+		Object[] inferences = new Object[inferenceCapacity];
+		int[] next = new int[inferenceCapacity];
+		int[] hashes = new int[tableCapacity];
+		int[] first = new int[tableCapacity];
+		Arrays.fill(first, NONE);
+		int[] last = new int[tableCapacity];
+		int inferenceCount = 0;
+		for (int slot = 0; slot < first_.length; slot++) {
+			int position = first_[slot];
+			if (position < 0) {
+				continue;
+			}
+			// else copy the chain of inferences
+			int hash = hashes_[slot];
+			int newSlot = findFree(first, hash);
+			hashes[newSlot] = hash;
+			first[newSlot] = inferenceCount;
+			for (; position != NONE; position = next_[position]) {
+				inferences[inferenceCount] = inferences_[position];
+				next[inferenceCount] = inferenceCount + 1;
+				inferenceCount++;
+			}
+			next[inferenceCount - 1] = NONE;
+			last[newSlot] = inferenceCount - 1;
+		}
+		LOGGER_.trace("compacted {} inferences of {} conclusions",
+				inferenceCount, conclusionCount_);
+		inferences_ = inferences;
+		next_ = next;
+		inferenceCount_ = inferenceCount;
+		removedCount_ = 0;
+		hashes_ = hashes;
+		first_ = first;
+		last_ = last;
+		occupiedCount_ = conclusionCount_;
+	}
+
+	@Override
+	public void clear() {
+		init();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * The returned collection is a copy that is not affected by later
+	 * modifications of this {@link CompactModifiableTracingInferenceSet}.
+	 */
+	@Override
+	public Collection<? extends I> getInferences(Conclusion conclusion) {
+		int slot = find(conclusion, hash(conclusion));
+		if (slot == NONE) {
+			return Collections.emptyList();
+		}
+		// else
+		List<I> result = new ArrayList<I>();
+		for (int position = first_[slot]; position != NONE; position = next_[position]) {
+			result.add(getInference(position));
+		}
+		return result;
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder();
+		for (int slot = 0; slot < first_.length; slot++) {
+			for (int position = first_[slot]; position >= 0; position = next_[position]) {
+				sb.append(getInference(position).toString());
+				sb.append('\n');
+			}
+		}
+		return sb.toString();
+	}
+
+}
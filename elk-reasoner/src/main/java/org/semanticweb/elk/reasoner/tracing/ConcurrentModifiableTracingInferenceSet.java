@@ -0,0 +1,173 @@
+/*
+ * #%L
+ * ELK Reasoner
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2011 - 2015 Department of Computer Science, University of Oxford
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.semanticweb.elk.reasoner.tracing;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A {@link ModifiableTracingInferenceSet} that can be accessed from several
+ * threads concurrently. The inferences are partitioned into a fixed number of
+ * stripes by the hash of their conclusions, and only the stripe of the
+ * conclusion is locked when an inference is produced or retrieved. Unlike
+ * {@link SynchronizedModifiableTracingInferenceSet}, workers tracing unrelated
+ * conclusions therefore do not contend for the same lock. The stripes are
+ * either {@link ModifiableTracingInferenceSetImpl}s or, if the inferences
+ * should take less memory, {@link CompactModifiableTracingInferenceSet}s.
+ * 
+ * @param <I>
+ *            the type of inferences stored in this
+ *            {@link ModifiableTracingInferenceSet}
+ */
+public class ConcurrentModifiableTracingInferenceSet<I extends TracingInference>
+		implements ModifiableTracingInferenceSet<I> {
+
+	// logger for this class
+	private static final Logger LOGGER_ = LoggerFactory
+			.getLogger(ConcurrentModifiableTracingInferenceSet.class);
+
+	/**
+	 * the number of stripes used by default
+	 */
+	public static final int DEFAULT_STRIPE_COUNT = 64;
+
+	private final StripeTracingInferenceSet<I>[] stripes_;
+
+	/**
+	 * {@code true} if the stripes are
+	 * {@link CompactModifiableTracingInferenceSet}s, which return copies of
+	 * their inferences
+	 */
+	private final boolean compact_;
+
+	/**
+	 * mask to compute the index of the stripe from a hash code
+	 */
+	private final int mask_;
+
+	/**
+	 * @param stripeCount
+	 *            the minimal number of stripes; the actual number is the
+	 *            smallest power of two that is not smaller than this value
+	 * @param compact
+	 *            if {@code true}, the inferences are stored in
+	 *            {@link CompactModifiableTracingInferenceSet}s
+	 */
+	@SuppressWarnings("unchecked")
+	public ConcurrentModifiableTracingInferenceSet(int stripeCount,
+			boolean compact) {
+		if (stripeCount <= 0) {
+			throw new IllegalArgumentException(
+					"The number of stripes must be positive: " + stripeCount);
+		}
+		int size = 1;
+		while (size < stripeCount) {
+			size <<= 1;
+		}
+		this.stripes_ = new StripeTracingInferenceSet[size];
+		for (int i = 0; i < size; i++) {
+			stripes_[i] = compact ? new CompactModifiableTracingInferenceSet<I>()
+					: new ModifiableTracingInferenceSetImpl<I>();
+		}
+		this.mask_ = size - 1;
+		this.compact_ = compact;
+	}
+
+	public ConcurrentModifiableTracingInferenceSet(boolean compact) {
+		this(DEFAULT_STRIPE_COUNT, compact);
+	}
+
+	public ConcurrentModifiableTracingInferenceSet() {
+		this(false);
+	}
+
+	private StripeTracingInferenceSet<I> getStripe(Conclusion conclusion) {
+		int h = conclusion.hashCode();
+		// spread the higher bits since only the lower bits select the stripe
+		h ^= (h >>> 16);
+		return stripes_[h & mask_];
+	}
+
+	@Override
+	public void produce(I inference) {
+		LOGGER_.trace("{}: inference produced", inference);
+		// the conclusion is created only once and the stripe is selected
+		// outside of the lock
+		Conclusion conclusion = inference.getConclusion();
+		StripeTracingInferenceSet<I> stripe = getStripe(conclusion);
+		synchronized (stripe) {
+			stripe.produce(conclusion, inference);
+		}
+	}
+
+	@Override
+	public boolean removeInferences(Conclusion conclusion) {
+		StripeTracingInferenceSet<I> stripe = getStripe(conclusion);
+		synchronized (stripe) {
+			return stripe.removeInferences(conclusion);
+		}
+	}
+
+	@Override
+	public void clear() {
+		for (StripeTracingInferenceSet<I> stripe : stripes_) {
+			synchronized (stripe) {
+				stripe.clear();
+			}
+		}
+	}
+
+	@Override
+	public Collection<? extends I> getInferences(Conclusion conclusion) {
+		StripeTracingInferenceSet<I> stripe = getStripe(conclusion);
+		synchronized (stripe) {
+			Collection<? extends I> inferences = stripe
+					.getInferences(conclusion);
+			if (inferences.isEmpty()) {
+				return Collections.emptyList();
+			}
+			// else
+			if (compact_) {
+				// already a copy
+				return inferences;
+			}
+			// copy so that the result is not modified by concurrent producers
+			return new ArrayList<I>(inferences);
+		}
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder();
+		for (StripeTracingInferenceSet<I> stripe : stripes_) {
+			synchronized (stripe) {
+				sb.append(stripe.toString());
+			}
+		}
+		return sb.toString();
+	}
+
+}
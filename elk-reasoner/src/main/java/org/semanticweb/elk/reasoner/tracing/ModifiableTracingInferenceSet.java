@@ -25,5 +25,13 @@ import org.liveontologies.puli.ModifiableInferenceSet;
 
 public interface ModifiableTracingInferenceSet<I extends TracingInference>
 		extends GenericTracingInferenceSet<I>, ModifiableInferenceSet<Conclusion, I> {
-	// Just a projection.
+
+	/**
+	 * Removes all inferences that produce the given {@link Conclusion}
+	 * 
+	 * @param conclusion
+	 * @return {@code true} if some inferences were removed
+	 */
+	boolean removeInferences(Conclusion conclusion);
+
 }
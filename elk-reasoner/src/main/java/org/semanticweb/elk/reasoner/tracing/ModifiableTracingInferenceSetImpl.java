@@ -39,7 +39,7 @@ import org.slf4j.LoggerFactory;
  *            {@link ModifiableTracingInferenceSet}
  */
 public class ModifiableTracingInferenceSetImpl<I extends TracingInference>
-		implements ModifiableTracingInferenceSet<I> {
+		implements StripeTracingInferenceSet<I> {
 
 	// logger for this class
 	private static final Logger LOGGER_ = LoggerFactory
@@ -49,8 +49,20 @@ public class ModifiableTracingInferenceSetImpl<I extends TracingInference>
 
 	@Override
 	public void produce(I inference) {
+		// the conclusion is created anew, i.e., one key per inference
+		produce(inference.getConclusion(), inference);
+	}
+
+	@Override
+	public void produce(Conclusion conclusion, I inference) {
 		LOGGER_.trace("{}: inference produced", inference);
-		inferenceMap_.add(new TracingInferenceConclusion(inference), inference);
+		inferenceMap_.add(conclusion, inference);
+	}
+
+	@Override
+	public boolean removeInferences(Conclusion conclusion) {
+		Collection<I> removed = inferenceMap_.remove(conclusion);
+		return removed != null && !removed.isEmpty();
 	}
 
 	@Override
@@ -0,0 +1,206 @@
+/*
+ * #%L
+ * ELK Reasoner
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2011 - 2015 Department of Computer Science, University of Oxford
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.semanticweb.elk.reasoner.tracing;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+
+import org.liveontologies.puli.Inference;
+import org.liveontologies.puli.InferenceSet;
+
+/**
+ * Writes the inferences of an {@link InferenceSet} that are reachable from a
+ * goal conclusion to an {@link OutputStream} in a line-oriented format. The
+ * conclusions are visited in breadth-first order using an explicit queue and
+ * every conclusion is written only once with an integer identifier, which is
+ * then used to refer to it. The output consists of the lines
+ * 
+ * <pre>
+ * C &lt;id&gt; &lt;conclusion&gt;
+ * I &lt;conclusion id&gt; &lt;name&gt; &lt;premise id&gt; ... &lt;premise id&gt;
+ * </pre>
+ * 
+ * where the fields are separated by tabulators, the goal has the identifier
+ * {@code 0}, and every conclusion is written before it is referred to. Tabs,
+ * line breaks and backslashes within the written conclusions and names are
+ * escaped with backslashes.
+ * <p>
+ * The output is written incrementally, so the proof is never kept as text in
+ * memory; the only memory used apart from the inference set is for the
+ * identifiers of the visited conclusions and the queue of conclusions whose
+ * inferences are not yet written.
+ * 
+ * @param <C>
+ *            the type of conclusions of the inferences
+ */
+public class ProofExporter<C> {
+
+	private final InferenceSet<C> inferences_;
+
+	public ProofExporter(InferenceSet<C> inferences) {
+		this.inferences_ = inferences;
+	}
+
+	/**
+	 * Writes the inferences reachable from the given goal to the given
+	 * {@link OutputStream} using the UTF-8 encoding. The stream is flushed
+	 * but not closed.
+	 * 
+	 * @param goal
+	 * @param out
+	 * @return the number of written inferences
+	 * @throws IOException
+	 *             if the output could not be written
+	 */
+	public long export(C goal, OutputStream out) throws IOException {
+		Writer writer = new BufferedWriter(
+				new OutputStreamWriter(out, "UTF-8"));
+		Appendable escaped = new EscapingAppendable(writer);
+		Map<C, Integer> ids = new HashMap<C, Integer>();
+		Queue<C> toDo = new ArrayDeque<C>();
+		long inferenceCount = 0;
+		writeConclusion(goal, ids, toDo, writer, escaped);
+		for (C next; (next = toDo.poll()) != null;) {
+			int conclusionId = ids.get(next);
+			for (Inference<C> inference : inferences_.getInferences(next)) {
+				List<? extends C> premises = inference.getPremises();
+				int[] premiseIds = new int[premises.size()];
+				for (int i = 0; i < premiseIds.length; i++) {
+					premiseIds[i] = writeConclusion(premises.get(i), ids, toDo,
+							writer, escaped);
+				}
+				writer.write("I\t");
+				writer.write(Integer.toString(conclusionId));
+				writer.write('\t');
+				escaped.append(inference.getName());
+				for (int premiseId : premiseIds) {
+					writer.write('\t');
+					writer.write(Integer.toString(premiseId));
+				}
+				writer.write('\n');
+				inferenceCount++;
+			}
+		}
+		writer.flush();
+		return inferenceCount;
+	}
+
+	/**
+	 * Writes the conclusion if it was not written before
+	 * 
+	 * @return the identifier of the conclusion
+	 */
+	private int writeConclusion(C conclusion, Map<C, Integer> ids,
+			Queue<C> toDo, Writer writer, Appendable escaped)
+			throws IOException {
+		Integer id = ids.get(conclusion);
+		if (id != null) {
+			return id;
+		}
+		// else
+		id = ids.size();
+		ids.put(conclusion, id);
+		toDo.add(conclusion);
+		writer.write("C\t");
+		writer.write(Integer.toString(id));
+		writer.write('\t');
+		append(conclusion, escaped);
+		writer.write('\n');
+		return id;
+	}
+
+	/**
+	 * Appends the representation of the given conclusion; can be overridden
+	 * to print conclusions without creating intermediate strings
+	 * 
+	 * @param conclusion
+	 * @param appender
+	 * @throws IOException
+	 */
+	@SuppressWarnings("static-method")
+	protected void append(C conclusion, Appendable appender)
+			throws IOException {
+		appender.append(String.valueOf(conclusion));
+	}
+
+	/**
+	 * An {@link Appendable} that escapes tabs, line breaks and backslashes so
+	 * that the appended text fits into one field of a line
+	 */
+	private static class EscapingAppendable implements Appendable {
+
+		private final Writer writer_;
+
+		EscapingAppendable(Writer writer) {
+			this.writer_ = writer;
+		}
+
+		@Override
+		public Appendable append(CharSequence csq) throws IOException {
+			if (csq == null) {
+				return append("null");
+			}
+			// else
+			return append(csq, 0, csq.length());
+		}
+
+		@Override
+		public Appendable append(CharSequence csq, int start, int end)
+				throws IOException {
+			for (int i = start; i < end; i++) {
+				append(csq.charAt(i));
+			}
+			return this;
+		}
+
+		@Override
+		public Appendable append(char c) throws IOException {
+			switch (c) {
+			case '\t':
+				writer_.write("\\t");
+				break;
+			case '\n':
+				writer_.write("\\n");
+				break;
+			case '\r':
+				writer_.write("\\r");
+				break;
+			case '\\':
+				writer_.write("\\\\");
+				break;
+			default:
+				writer_.write(c);
+			}
+			return this;
+		}
+
+	}
+
+}
@@ -0,0 +1,47 @@
+/*
+ * #%L
+ * ELK Reasoner
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2011 - 2015 Department of Computer Science, University of Oxford
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.semanticweb.elk.reasoner.tracing;
+
+/**
+ * A {@link ModifiableTracingInferenceSet} that can be used as a stripe of a
+ * {@link ConcurrentModifiableTracingInferenceSet}. Since the stripe is
+ * selected by the conclusion of the inference, the conclusion is computed
+ * before the inference is stored and is passed together with the inference,
+ * so that it is not created once again.
+ * 
+ * @param <I>
+ *            the type of inferences stored in this
+ *            {@link ModifiableTracingInferenceSet}
+ */
+interface StripeTracingInferenceSet<I extends TracingInference>
+		extends ModifiableTracingInferenceSet<I> {
+
+	/**
+	 * Stores the given inference under the given {@link Conclusion}
+	 * 
+	 * @param conclusion
+	 *            must be equal to the conclusion of the inference
+	 * @param inference
+	 */
+	void produce(Conclusion conclusion, I inference);
+
+}
@@ -47,6 +47,16 @@ public class SynchronizedModifiableTracingInferenceSet<I extends TracingInferenc
 		super.produce(inference);
 	}
 
+	@Override
+	public synchronized void produce(Conclusion conclusion, I inference) {
+		super.produce(conclusion, inference);
+	}
+
+	@Override
+	public synchronized boolean removeInferences(Conclusion conclusion) {
+		return super.removeInferences(conclusion);
+	}
+
 	@Override
 	public synchronized void clear() {
 		super.clear();
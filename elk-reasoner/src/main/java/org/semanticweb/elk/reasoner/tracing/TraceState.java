@@ -21,12 +21,18 @@
  */
 package org.semanticweb.elk.reasoner.tracing;
 
+import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Queue;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
 
 import org.liveontologies.puli.Producer;
 import org.semanticweb.elk.owl.interfaces.ElkAxiom;
@@ -36,6 +42,7 @@ import org.semanticweb.elk.reasoner.indexing.conversion.ElkAxiomConverter;
 import org.semanticweb.elk.reasoner.indexing.conversion.ElkAxiomConverterImpl;
 import org.semanticweb.elk.reasoner.indexing.model.IndexedAxiom;
 import org.semanticweb.elk.reasoner.indexing.model.IndexedAxiomInference;
+import org.semanticweb.elk.reasoner.indexing.model.IndexedContextRoot;
 import org.semanticweb.elk.reasoner.indexing.model.IndexedPropertyChain;
 import org.semanticweb.elk.reasoner.indexing.model.ModifiableOntologyIndex;
 import org.semanticweb.elk.reasoner.saturation.SaturationState;
@@ -50,6 +57,8 @@ import org.semanticweb.elk.reasoner.saturation.properties.inferences.ObjectPrope
 import org.semanticweb.elk.reasoner.saturation.properties.inferences.SubPropertyChainTautology;
 import org.semanticweb.elk.reasoner.stages.PropertyHierarchyCompositionState;
 import org.semanticweb.elk.util.collections.ArrayHashSet;
+import org.semanticweb.elk.util.collections.Evictor;
+import org.semanticweb.elk.util.collections.RecencyEvictor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -57,6 +66,14 @@ import org.slf4j.LoggerFactory;
  * A collections of objects for tracing contexts and keeping the relevant
  * information about the state of tracing.
  * 
+ * The traced class inferences are kept between explanation requests, so that
+ * only conclusions that were not traced before need to be traced. They are
+ * grouped by the root of the context in which they were traced: when a context
+ * becomes not saturated, the inferences traced for its root are discarded
+ * together with the inferences of all roots that used its conclusions as
+ * premises. The number of cached roots is bounded by an {@link Evictor}, which
+ * is consulted only between explanation requests, see {@link #evictTraced()}.
+ * 
  * @author Pavel Klinov
  * 
  *         pavel.klinov@uni-ulm.de
@@ -74,16 +91,46 @@ public class TraceState
 
 	private final Queue<ClassConclusion> toTrace_ = new ConcurrentLinkedQueue<ClassConclusion>();
 
-	private final Set<ClassConclusion> traced_ = new HashSet<ClassConclusion>();
+	/**
+	 * the default maximal number of context roots for which the traced
+	 * inferences are cached
+	 */
+	public static final int CACHE_CAPACITY = 1024;
+
+	public static final float EVICTION_FACTOR = 0.5f;
+
+	/**
+	 * the conclusions submitted for tracing and the dependencies between them,
+	 * grouped by their trace roots
+	 */
+	private final ConcurrentMap<IndexedContextRoot, TracedContext> traced_ = new ConcurrentHashMap<IndexedContextRoot, TracedContext>();
+
+	/**
+	 * decides which of the roots in {@link #traced_} should be evicted;
+	 * accessed only when synchronized on this object
+	 */
+	private Evictor<IndexedContextRoot> evictor_ = new RecencyEvictor<IndexedContextRoot>(
+			CACHE_CAPACITY, EVICTION_FACTOR);
 
 	private final Set<ElkAxiom> indexedAxioms_ = new ArrayHashSet<ElkAxiom>();
 
-	private final ModifiableTracingInferenceSet<ClassInference> classInferences_ = new SynchronizedModifiableTracingInferenceSet<ClassInference>();
+	/**
+	 * replaced only when synchronized on this object and no tracing is in
+	 * progress
+	 */
+	private volatile ModifiableTracingInferenceSet<ClassInference> classInferences_ = new ConcurrentModifiableTracingInferenceSet<ClassInference>();
 
 	private final ModifiableTracingInferenceSet<ObjectPropertyInference> objectPropertyInferences_ = new SynchronizedModifiableTracingInferenceSet<ObjectPropertyInference>();
 
 	private final ModifiableTracingInferenceSet<IndexedAxiomInference> indexedAxiomInferences_ = new SynchronizedModifiableTracingInferenceSet<IndexedAxiomInference>();
 
+	private final Conclusion.Visitor<IndexedContextRoot> premiseRootGetter_ = new DummyConclusionVisitor<IndexedContextRoot>() {
+		@Override
+		protected IndexedContextRoot defaultVisit(ClassConclusion premise) {
+			return premise.getTraceRoot();
+		}
+	};
+
 	private final SaturationInference.Visitor<Void> inferenceProducer_ = new InferenceProducer();
 
 	private final Conclusion.Visitor<Collection<? extends TracingInference>> inferenceGetter_ = new InferenceGetter();
@@ -100,6 +147,13 @@ public class TraceState
 				new ResolvingModifiableIndexedObjectFactory(index), index,
 				indexedAxiomInferences_);
 
+		/*
+		 * The traced inferences are invalidated by the listener of the
+		 * saturation state rather than by a ContextModificationListener: the
+		 * latter is attached to a single writer and is notified only from
+		 * the same call that notifies this listener, so this listener sees
+		 * the contexts marked as not saturated by every writer.
+		 */
 		saturationState
 				.addListener(new SaturationStateDummyChangeListener<C>() {
 
@@ -111,8 +165,7 @@ public class TraceState
 
 					@Override
 					public void contextMarkNonSaturated(final C context) {
-						// TODO: remove only affected inferences
-						clearClassInferences();
+						invalidateTraced(context.getRoot());
 						clearIndexedAxiomInferences();
 					}
 
@@ -136,18 +189,131 @@ public class TraceState
 	}
 
 	public synchronized void toTrace(ClassConclusion conclusion) {
-		if (traced_.add(conclusion)) {
+		IndexedContextRoot root = conclusion.getTraceRoot();
+		evictor_.add(root);
+		if (getTracedContext(root).conclusions.add(conclusion)) {
 			LOGGER_.trace("{}: to trace", conclusion);
 			toTrace_.add(conclusion);
 		}
 	}
 
+	/**
+	 * Sets the evictor that decides for which context roots the traced
+	 * inferences should be discarded. All roots that are currently cached are
+	 * registered with the new evictor.
+	 * 
+	 * @param evictor
+	 */
+	public synchronized void setEvictor(Evictor<IndexedContextRoot> evictor) {
+		for (IndexedContextRoot root : traced_.keySet()) {
+			evictor.add(root);
+		}
+		this.evictor_ = evictor;
+	}
+
+	/**
+	 * Sets how the traced {@link ClassInference}s are stored. All inferences
+	 * traced so far are discarded. Should not be called while tracing is in
+	 * progress.
+	 * 
+	 * @param compact
+	 *            if {@code true}, the inferences are stored in
+	 *            {@link CompactModifiableTracingInferenceSet}s, which take less
+	 *            memory but are slower to access
+	 */
+	public synchronized void setCompactClassInferences(boolean compact) {
+		clearClassInferences();
+		classInferences_ = new ConcurrentModifiableTracingInferenceSet<ClassInference>(
+				compact);
+	}
+
+	/**
+	 * Discards the traced inferences for the context roots selected by the
+	 * evictor, as well as for the roots whose inferences depend on them. Should
+	 * not be called while tracing is in progress, since the inferences needed
+	 * for the current explanations may be discarded.
+	 */
+	public synchronized void evictTraced() {
+		// collect first since invalidation also removes roots from the evictor
+		List<IndexedContextRoot> evicted = new ArrayList<IndexedContextRoot>();
+		for (Iterator<IndexedContextRoot> i = evictor_.evict(); i
+				.hasNext();) {
+			evicted.add(i.next());
+		}
+		for (IndexedContextRoot root : evicted) {
+			LOGGER_.trace("{}: evicting traced inferences", root);
+			invalidateTraced(root);
+		}
+	}
+
+	/**
+	 * Discards the traced inferences for the given context root and for all
+	 * roots whose traced inferences (transitively) use conclusions of this
+	 * root as premises
+	 * 
+	 * @param root
+	 */
+	void invalidateTraced(IndexedContextRoot root) {
+		if (!traced_.containsKey(root)) {
+			// nothing traced, the common case during saturation
+			return;
+		}
+		synchronized (this) {
+			Queue<IndexedContextRoot> todo = new ArrayDeque<IndexedContextRoot>();
+			todo.add(root);
+			while ((root = todo.poll()) != null) {
+				TracedContext removed = traced_.remove(root);
+				if (removed == null) {
+					continue;
+				}
+				// else
+				evictor_.remove(root);
+				for (ClassConclusion conclusion : removed.conclusions) {
+					classInferences_.removeInferences(conclusion);
+				}
+				todo.addAll(removed.dependents);
+			}
+		}
+	}
+
+	private TracedContext getTracedContext(IndexedContextRoot root) {
+		TracedContext result = traced_.get(root);
+		if (result == null) {
+			TracedContext created = new TracedContext();
+			result = traced_.putIfAbsent(root, created);
+			if (result == null) {
+				result = created;
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Registers that the inferences traced for the root of the conclusion of
+	 * the given {@link ClassInference} depend on the roots of its premises
+	 * 
+	 * @param inference
+	 */
+	private void registerDependencies(ClassInference inference) {
+		IndexedContextRoot root = inference.getTraceRoot();
+		for (Conclusion premise : inference.getPremises()) {
+			IndexedContextRoot premiseRoot = premise
+					.accept(premiseRootGetter_);
+			if (premiseRoot != null && premiseRoot != root) {
+				getTracedContext(premiseRoot).dependents.add(root);
+			}
+		}
+	}
+
 	public ClassConclusion pollToTrace() {
 		return toTrace_.poll();
 	}
 
-	private void clearClassInferences() {
+	private synchronized void clearClassInferences() {
 		classInferences_.clear();
+		for (IndexedContextRoot root : traced_.keySet()) {
+			evictor_.remove(root);
+		}
 		traced_.clear();
 	}
 
@@ -180,6 +346,26 @@ public class TraceState
 		axiom.accept(elkAxiomConverter_);
 	}
 
+	/**
+	 * The conclusions traced for some context root
+	 */
+	private static class TracedContext {
+
+		/**
+		 * the conclusions with this root submitted for tracing; accessed only
+		 * when synchronized on the {@link TraceState}
+		 */
+		final Set<ClassConclusion> conclusions = new HashSet<ClassConclusion>();
+
+		/**
+		 * the roots for which some traced inferences use conclusions with this
+		 * root as premises
+		 */
+		final Set<IndexedContextRoot> dependents = Collections
+				.newSetFromMap(new ConcurrentHashMap<IndexedContextRoot, Boolean>());
+
+	}
+
 	/**
 	 * Delegates getting inferences to the corresponding inference set
 	 * 
@@ -243,6 +429,7 @@ public class TraceState
 		@Override
 		protected Void defaultVisit(ClassInference inference) {
 			classInferences_.produce(inference);
+			registerDependencies(inference);
 			return null;
 		}
 
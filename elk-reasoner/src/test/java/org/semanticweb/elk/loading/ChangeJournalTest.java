@@ -0,0 +1,130 @@
+/*
+ * #%L
+ * ELK Reasoner
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2011 - 2012 Department of Computer Science, University of Oxford
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.semanticweb.elk.loading;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+
+import org.junit.Test;
+import org.semanticweb.elk.exceptions.ElkException;
+import org.semanticweb.elk.io.FileUtils;
+import org.semanticweb.elk.owl.interfaces.ElkClass;
+import org.semanticweb.elk.owl.interfaces.ElkObject;
+import org.semanticweb.elk.owl.iris.ElkFullIri;
+import org.semanticweb.elk.owl.managers.ElkObjectEntityRecyclingFactory;
+import org.semanticweb.elk.owl.parsing.javacc.Owl2FunctionalStyleParserFactory;
+import org.semanticweb.elk.reasoner.Reasoner;
+import org.semanticweb.elk.reasoner.ReasonerFactory;
+import org.semanticweb.elk.reasoner.TestReasonerUtils;
+import org.semanticweb.elk.reasoner.config.ReasonerConfiguration;
+import org.semanticweb.elk.reasoner.taxonomy.model.Taxonomy;
+
+/**
+ * Tests for the recovery of the ontology recorded by {@link ChangeJournal}
+ */
+public class ChangeJournalTest {
+
+	final ElkObject.Factory objectFactory = new ElkObjectEntityRecyclingFactory();
+
+	final ElkClass A = objectFactory
+			.getClass(new ElkFullIri("http://example.org/A"));
+	final ElkClass B = objectFactory
+			.getClass(new ElkFullIri("http://example.org/B"));
+	final ElkClass C = objectFactory
+			.getClass(new ElkFullIri("http://example.org/C"));
+	final ElkClass D = objectFactory
+			.getClass(new ElkFullIri("http://example.org/D"));
+
+	@Test
+	public void testRecovery() throws ElkException, IOException,
+			InterruptedException {
+		File directory = File.createTempFile("elk-journal", "");
+		directory.delete();
+		try {
+			// the first session, which is not closed properly
+			ChangeJournal journal = openJournal(directory);
+			TestChangesLoader loader = new TestChangesLoader();
+			Reasoner reasoner = TestReasonerUtils.createTestReasoner(loader);
+			reasoner.setChangeJournal(journal);
+			reasoner.setAllowIncrementalMode(false);
+			loader.add(objectFactory.getSubClassOfAxiom(A, B))
+					.add(objectFactory.getSubClassOfAxiom(B, C));
+			reasoner.getTaxonomy();
+
+			reasoner.setAllowIncrementalMode(true);
+			TestChangesLoader changeLoader = new TestChangesLoader();
+			reasoner.registerAxiomLoader(
+					new TestAxiomLoaderFactory(changeLoader));
+			changeLoader.add(objectFactory.getSubClassOfAxiom(C, D))
+					.remove(objectFactory.getSubClassOfAxiom(B, C));
+			checkTaxonomy(reasoner.getTaxonomy());
+			reasoner.shutdown();
+
+			// recovery from the journal
+			journal = openJournal(directory);
+			reasoner = new ReasonerFactory().createReasoner(journal,
+					ReasonerConfiguration.getConfiguration());
+			checkTaxonomy(reasoner.getTaxonomy());
+			// the replayed changes are not recorded again
+			journal.checkpoint();
+			journal.close();
+			reasoner.shutdown();
+
+			// recovery from the snapshot, ignoring an incomplete batch
+			FileOutputStream out = new FileOutputStream(
+					new File(directory, ChangeJournal.JOURNAL_FILE), true);
+			try {
+				out.write(new byte[] { 0, 0, 1, 0, 42 });
+			} finally {
+				out.close();
+			}
+			journal = openJournal(directory);
+			reasoner = new ReasonerFactory().createReasoner(journal,
+					ReasonerConfiguration.getConfiguration());
+			checkTaxonomy(reasoner.getTaxonomy());
+			journal.close();
+			reasoner.shutdown();
+		} finally {
+			FileUtils.deleteRecursively(directory);
+		}
+	}
+
+	private static ChangeJournal openJournal(File directory)
+			throws IOException {
+		return new ChangeJournal(directory,
+				new Owl2FunctionalStyleParserFactory(), 2, 0);
+	}
+
+	private void checkTaxonomy(Taxonomy<ElkClass> taxonomy) {
+		assertTrue(taxonomy.getNode(A).getDirectSuperNodes()
+				.contains(taxonomy.getNode(B)));
+		assertTrue(taxonomy.getNode(C).getDirectSuperNodes()
+				.contains(taxonomy.getNode(D)));
+		assertFalse(taxonomy.getNode(A).getAllSuperNodes()
+				.contains(taxonomy.getNode(C)));
+	}
+
+}
@@ -0,0 +1,91 @@
+/*
+ * #%L
+ * ELK Reasoner
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2011 - 2012 Department of Computer Science, University of Oxford
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.semanticweb.elk.loading;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+import org.semanticweb.elk.owl.interfaces.ElkAxiom;
+import org.semanticweb.elk.owl.interfaces.ElkClass;
+import org.semanticweb.elk.owl.interfaces.ElkObject;
+import org.semanticweb.elk.owl.iris.ElkFullIri;
+import org.semanticweb.elk.owl.managers.ElkObjectEntityRecyclingFactory;
+import org.semanticweb.elk.owl.visitors.ElkAxiomProcessor;
+
+/**
+ * Tests for the computation of net changes by {@link CoalescingAxiomLoader}
+ */
+public class CoalescingAxiomLoaderTest {
+
+	final ElkObject.Factory objectFactory = new ElkObjectEntityRecyclingFactory();
+
+	private static class RecordingProcessor implements ElkAxiomProcessor {
+
+		final List<ElkAxiom> axioms = new ArrayList<ElkAxiom>();
+
+		@Override
+		public void visit(ElkAxiom elkAxiom) {
+			axioms.add(elkAxiom);
+		}
+
+	}
+
+	@Test
+	public void testNetChanges() throws ElkLoadingException {
+		ElkClass A = objectFactory.getClass(new ElkFullIri(":A"));
+		ElkClass B = objectFactory.getClass(new ElkFullIri(":B"));
+		ElkClass C = objectFactory.getClass(new ElkFullIri(":C"));
+		ElkAxiom axAB = objectFactory.getSubClassOfAxiom(A, B);
+		ElkAxiom axBC = objectFactory.getSubClassOfAxiom(B, C);
+		ElkAxiom axAC = objectFactory.getSubClassOfAxiom(A, C);
+		ElkAxiom axDisjAC = objectFactory.getDisjointClassesAxiom(
+				Arrays.asList(A, C));
+
+		TestChangesLoader changes = new TestChangesLoader();
+		for (int i = 0; i < 20; i++) {
+			// structurally equal, but different objects
+			changes.add(objectFactory.getSubClassOfAxiom(A, B));
+			changes.remove(objectFactory.getSubClassOfAxiom(A, B));
+		}
+		changes.remove(axBC).add(axBC).add(axAC).add(axDisjAC).remove(axAC)
+				.add(axAC).add(axAC);
+		changes.remove(axAB);
+
+		CoalescingAxiomLoader loader = new CoalescingAxiomLoader(changes);
+		RecordingProcessor inserter = new RecordingProcessor();
+		RecordingProcessor deleter = new RecordingProcessor();
+		loader.load(inserter, deleter);
+
+		assertTrue(loader.isLoadingFinished());
+		// repeated additions of the same axiom are preserved
+		assertEquals(Arrays.asList(axAC, axAC, axDisjAC), inserter.axioms);
+		assertEquals(Arrays.asList(axAB), deleter.axioms);
+		assertEquals(48, loader.getRegisteredChangesCount());
+		assertEquals(44, loader.getCollapsedChangesCount());
+	}
+
+}
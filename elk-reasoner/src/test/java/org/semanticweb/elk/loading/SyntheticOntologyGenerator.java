@@ -0,0 +1,511 @@
+/*
+ * #%L
+ * ELK Reasoner
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2011 - 2016 Department of Computer Science, University of Oxford
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.semanticweb.elk.loading;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Random;
+
+import org.semanticweb.elk.owl.interfaces.ElkAxiom;
+import org.semanticweb.elk.owl.interfaces.ElkClass;
+import org.semanticweb.elk.owl.interfaces.ElkNamedIndividual;
+import org.semanticweb.elk.owl.interfaces.ElkObject;
+import org.semanticweb.elk.owl.interfaces.ElkObjectProperty;
+import org.semanticweb.elk.owl.iris.ElkFullIri;
+import org.semanticweb.elk.owl.printers.OwlFunctionalStylePrinter;
+import org.semanticweb.elk.owl.visitors.ElkAxiomProcessor;
+import org.semanticweb.elk.util.concurrent.computation.InterruptMonitor;
+
+/**
+ * Generates random EL ontologies of a given size and shape, so that the
+ * reasoner can be benchmarked without external ontologies. The ontology
+ * consists of:
+ * <ul>
+ * <li>a told hierarchy of classes: a forest of trees of the given depth in
+ * which every class has the given number of children,
+ * <li>existential restrictions {@code SubClassOf(C ObjectSomeValuesFrom(R D))}
+ * for random {@code R} and {@code D}, the given number per class on average,
+ * <li>definitions
+ * {@code EquivalentClasses(C ObjectIntersectionOf(P ObjectSomeValuesFrom(R D)))}
+ * where {@code P} is the parent of {@code C} in the told hierarchy, for the
+ * given ratio of classes,
+ * <li>transitive properties, for the given ratio of properties, and random
+ * property chains {@code SubObjectPropertyOf(ObjectPropertyChain(R S) T)},
+ * <li>random disjointness axioms {@code DisjointClasses(C D)},
+ * <li>class assertions, one per individual, and random object property
+ * assertions.
+ * </ul>
+ * All entities are declared. The same parameters and the same seed always
+ * produce the same axioms in the same order.
+ */
+public class SyntheticOntologyGenerator {
+
+	/**
+	 * the IRI of the generated ontology; the IRIs of entities are obtained by
+	 * appending {@code #} and the name of the entity
+	 */
+	public static final String ONTOLOGY_IRI = "http://www.example.org/synthetic";
+
+	private static final InterruptMonitor NEVER_INTERRUPTED_ = new InterruptMonitor() {
+
+		@Override
+		public boolean isInterrupted() {
+			return false;
+		}
+
+	};
+
+	private final ElkObject.Factory factory_;
+
+	private int classCount_ = 1000, propertyCount_ = 10,
+			individualCount_ = 0;
+
+	private int hierarchyDepth_ = 8, hierarchyFanOut_ = 4;
+
+	private double existentialDensity_ = 1, definitionRatio_ = 0.1,
+			transitiveRatio_ = 0;
+
+	private int propertyChainCount_ = 0, disjointnessCount_ = 0,
+			propertyAssertionCount_ = 0;
+
+	private long seed_ = 0;
+
+	public SyntheticOntologyGenerator(ElkObject.Factory factory) {
+		this.factory_ = factory;
+	}
+
+	private static int checkCount(String name, int count) {
+		if (count < 0) {
+			throw new IllegalArgumentException(
+					name + " cannot be negative: " + count);
+		}
+		return count;
+	}
+
+	private static double checkRatio(String name, double ratio) {
+		if (!(ratio >= 0 && ratio <= 1)) {
+			throw new IllegalArgumentException(
+					name + " should be between 0 and 1: " + ratio);
+		}
+		return ratio;
+	}
+
+	/**
+	 * @param count
+	 *            the number of generated classes
+	 * @return this generator
+	 */
+	public SyntheticOntologyGenerator setClassCount(int count) {
+		this.classCount_ = checkCount("The number of classes", count);
+		return this;
+	}
+
+	/**
+	 * @param count
+	 *            the number of generated object properties
+	 * @return this generator
+	 */
+	public SyntheticOntologyGenerator setPropertyCount(int count) {
+		this.propertyCount_ = checkCount("The number of properties", count);
+		return this;
+	}
+
+	/**
+	 * @param count
+	 *            the number of generated named individuals
+	 * @return this generator
+	 */
+	public SyntheticOntologyGenerator setIndividualCount(int count) {
+		this.individualCount_ = checkCount("The number of individuals",
+				count);
+		return this;
+	}
+
+	/**
+	 * @param depth
+	 *            the maximal length of a path from a root of the told
+	 *            hierarchy to a class; if it is {@code 0}, there are no told
+	 *            subsumptions between classes
+	 * @return this generator
+	 */
+	public SyntheticOntologyGenerator setHierarchyDepth(int depth) {
+		this.hierarchyDepth_ = checkCount("The depth of the hierarchy",
+				depth);
+		return this;
+	}
+
+	/**
+	 * @param fanOut
+	 *            the number of children of every class in the told hierarchy,
+	 *            except for the classes of the maximal depth
+	 * @return this generator
+	 */
+	public SyntheticOntologyGenerator setHierarchyFanOut(int fanOut) {
+		if (fanOut < 1) {
+			throw new IllegalArgumentException(
+					"The fan-out of the hierarchy should be positive: "
+							+ fanOut);
+		}
+		this.hierarchyFanOut_ = fanOut;
+		return this;
+	}
+
+	/**
+	 * @param density
+	 *            the average number of existential restrictions that are told
+	 *            superclasses of a class
+	 * @return this generator
+	 */
+	public SyntheticOntologyGenerator setExistentialDensity(double density) {
+		if (!(density >= 0)) {
+			throw new IllegalArgumentException(
+					"The existential density cannot be negative: " + density);
+		}
+		this.existentialDensity_ = density;
+		return this;
+	}
+
+	/**
+	 * @param ratio
+	 *            the ratio of non-root classes that are defined by an
+	 *            equivalence
+	 * @return this generator
+	 */
+	public SyntheticOntologyGenerator setDefinitionRatio(double ratio) {
+		this.definitionRatio_ = checkRatio("The ratio of definitions", ratio);
+		return this;
+	}
+
+	/**
+	 * @param ratio
+	 *            the ratio of object properties that are transitive
+	 * @return this generator
+	 */
+	public SyntheticOntologyGenerator setTransitiveRatio(double ratio) {
+		this.transitiveRatio_ = checkRatio("The ratio of transitive properties",
+				ratio);
+		return this;
+	}
+
+	/**
+	 * @param count
+	 *            the number of generated property chain axioms
+	 * @return this generator
+	 */
+	public SyntheticOntologyGenerator setPropertyChainCount(int count) {
+		this.propertyChainCount_ = checkCount("The number of property chains",
+				count);
+		return this;
+	}
+
+	/**
+	 * @param count
+	 *            the number of generated disjointness axioms
+	 * @return this generator
+	 */
+	public SyntheticOntologyGenerator setDisjointnessCount(int count) {
+		this.disjointnessCount_ = checkCount(
+				"The number of disjointness axioms", count);
+		return this;
+	}
+
+	/**
+	 * @param count
+	 *            the number of generated object property assertions
+	 * @return this generator
+	 */
+	public SyntheticOntologyGenerator setPropertyAssertionCount(int count) {
+		this.propertyAssertionCount_ = checkCount(
+				"The number of property assertions", count);
+		return this;
+	}
+
+	/**
+	 * @param seed
+	 *            the seed of the random choices
+	 * @return this generator
+	 */
+	public SyntheticOntologyGenerator setSeed(long seed) {
+		this.seed_ = seed;
+		return this;
+	}
+
+	/**
+	 * Generates the axioms of the ontology
+	 * 
+	 * @param processor
+	 *            the {@link ElkAxiomProcessor} that receives the generated
+	 *            axioms
+	 */
+	public void generate(ElkAxiomProcessor processor) {
+		generate(processor, NEVER_INTERRUPTED_);
+	}
+
+	/**
+	 * Writes the ontology in OWL 2 functional-style syntax
+	 * 
+	 * @param writer
+	 *            the {@link Appendable} to which the ontology is written
+	 * @throws IOException
+	 *             if the ontology cannot be written
+	 */
+	public void write(final Appendable writer) throws IOException {
+		writer.append("Ontology(<").append(ONTOLOGY_IRI).append(">\n");
+		final IOException[] exception = new IOException[1];
+		generate(new ElkAxiomProcessor() {
+
+			@Override
+			public void visit(ElkAxiom elkAxiom) {
+				if (exception[0] != null) {
+					return;
+				}
+				try {
+					OwlFunctionalStylePrinter.append(writer, elkAxiom);
+					writer.append('\n');
+				} catch (IOException e) {
+					exception[0] = e;
+				}
+			}
+
+		}, NEVER_INTERRUPTED_);
+		if (exception[0] != null) {
+			throw exception[0];
+		}
+		writer.append(")\n");
+	}
+
+	/**
+	 * @return the {@link AxiomLoader.Factory} for the {@link AxiomLoader}s
+	 *         that load the generated axioms
+	 */
+	public AxiomLoader.Factory getAxiomLoaderFactory() {
+		return new AxiomLoader.Factory() {
+
+			@Override
+			public AxiomLoader getAxiomLoader(InterruptMonitor interrupter) {
+				return new Loader(interrupter);
+			}
+
+		};
+	}
+
+	/**
+	 * Generates the axioms of the ontology until the generation is interrupted
+	 * 
+	 * @param processor
+	 *            the {@link ElkAxiomProcessor} that receives the generated
+	 *            axioms
+	 * @param interrupter
+	 *            checked regularly during the generation
+	 * @return {@code true} if all axioms were generated and {@code false} if
+	 *         the generation was interrupted
+	 */
+	boolean generate(ElkAxiomProcessor processor,
+			InterruptMonitor interrupter) {
+		Random random = new Random(seed_);
+		ElkClass[] classes = new ElkClass[classCount_];
+		for (int i = 0; i < classCount_; i++) {
+			classes[i] = factory_.getClass(getIri("C" + i));
+			processor.visit(factory_.getDeclarationAxiom(classes[i]));
+		}
+		ElkObjectProperty[] properties = new ElkObjectProperty[propertyCount_];
+		for (int i = 0; i < propertyCount_; i++) {
+			properties[i] = factory_.getObjectProperty(getIri("R" + i));
+			processor.visit(factory_.getDeclarationAxiom(properties[i]));
+		}
+		ElkNamedIndividual[] individuals = new ElkNamedIndividual[individualCount_];
+		for (int i = 0; i < individualCount_; i++) {
+			individuals[i] = factory_.getNamedIndividual(getIri("a" + i));
+			processor.visit(factory_.getDeclarationAxiom(individuals[i]));
+		}
+		// the number of classes in every tree of the told hierarchy
+		long treeSize = getTreeSize();
+		for (int i = 0; i < classCount_; i++) {
+			if (interrupter.isInterrupted()) {
+				return false;
+			}
+			ElkClass parent = null;
+			long position = i % treeSize;
+			if (position > 0) {
+				parent = classes[(int) (i - position
+						+ (position - 1) / hierarchyFanOut_)];
+				processor.visit(factory_.getSubClassOfAxiom(classes[i], parent));
+			}
+			if (propertyCount_ == 0) {
+				continue;
+			}
+			int existentials = (int) existentialDensity_;
+			if (random.nextDouble() < existentialDensity_ - existentials) {
+				existentials++;
+			}
+			for (int j = 0; j < existentials; j++) {
+				processor.visit(factory_.getSubClassOfAxiom(classes[i],
+						factory_.getObjectSomeValuesFrom(
+								properties[random.nextInt(propertyCount_)],
+								classes[random.nextInt(classCount_)])));
+			}
+			if (parent != null && random.nextDouble() < definitionRatio_) {
+				processor.visit(factory_.getEquivalentClassesAxiom(classes[i],
+						factory_.getObjectIntersectionOf(parent,
+								factory_.getObjectSomeValuesFrom(
+										properties[random
+												.nextInt(propertyCount_)],
+										classes[random
+												.nextInt(classCount_)]))));
+			}
+		}
+		for (int i = 0; i < propertyCount_; i++) {
+			if (random.nextDouble() < transitiveRatio_) {
+				processor.visit(factory_
+						.getTransitiveObjectPropertyAxiom(properties[i]));
+			}
+		}
+		for (int i = 0; propertyCount_ > 0 && i < propertyChainCount_; i++) {
+			if (interrupter.isInterrupted()) {
+				return false;
+			}
+			processor.visit(factory_.getSubObjectPropertyOfAxiom(
+					factory_.getObjectPropertyChain(Arrays.asList(
+							properties[random.nextInt(propertyCount_)],
+							properties[random.nextInt(propertyCount_)])),
+					properties[random.nextInt(propertyCount_)]));
+		}
+		for (int i = 0; classCount_ > 1 && i < disjointnessCount_; i++) {
+			if (interrupter.isInterrupted()) {
+				return false;
+			}
+			int first = random.nextInt(classCount_);
+			// a different class
+			int second = (first + 1 + random.nextInt(classCount_ - 1))
+					% classCount_;
+			processor.visit(factory_.getDisjointClassesAxiom(
+					Arrays.asList(classes[first], classes[second])));
+		}
+		for (int i = 0; classCount_ > 0 && i < individualCount_; i++) {
+			if (interrupter.isInterrupted()) {
+				return false;
+			}
+			processor.visit(factory_.getClassAssertionAxiom(
+					classes[random.nextInt(classCount_)], individuals[i]));
+		}
+		for (int i = 0; propertyCount_ > 0 && individualCount_ > 0
+				&& i < propertyAssertionCount_; i++) {
+			if (interrupter.isInterrupted()) {
+				return false;
+			}
+			processor.visit(factory_.getObjectPropertyAssertionAxiom(
+					properties[random.nextInt(propertyCount_)],
+					individuals[random.nextInt(individualCount_)],
+					individuals[random.nextInt(individualCount_)]));
+		}
+		return true;
+	}
+
+	/**
+	 * @return the number of classes in a complete tree of the told hierarchy;
+	 *         the value is capped by the number of classes
+	 */
+	private long getTreeSize() {
+		long result = 1;
+		long levelSize = 1;
+		for (int level = 1; level <= hierarchyDepth_
+				&& result < classCount_; level++) {
+			levelSize *= hierarchyFanOut_;
+			result += levelSize;
+		}
+		return Math.max(1, Math.min(result, classCount_));
+	}
+
+	private static ElkFullIri getIri(String name) {
+		return new ElkFullIri(ONTOLOGY_IRI + "#" + name);
+	}
+
+	/**
+	 * Loads the generated axioms. Since the axioms are always generated in the
+	 * same order, the loading is resumed after an interruption by generating
+	 * the axioms again and skipping those that were already loaded.
+	 */
+	private class Loader extends AbstractAxiomLoader {
+
+		/**
+		 * the number of axioms passed to the inserter so far
+		 */
+		private long loadedCount_ = 0;
+
+		private boolean finished_ = false;
+
+		Loader(InterruptMonitor interrupter) {
+			super(interrupter);
+		}
+
+		@Override
+		public void load(ElkAxiomProcessor axiomInserter,
+				ElkAxiomProcessor axiomDeleter) throws ElkLoadingException {
+			if (finished_) {
+				return;
+			}
+			ResumingInserter inserter = new ResumingInserter(axiomInserter);
+			finished_ = generate(inserter, inserter);
+		}
+
+		@Override
+		public boolean isLoadingFinished() {
+			return finished_;
+		}
+
+		/**
+		 * Skips the axioms that were already loaded and passes the remaining
+		 * ones to the inserter; the interruption is not checked while
+		 * skipping, as otherwise the loading may never advance
+		 */
+		private class ResumingInserter
+				implements ElkAxiomProcessor, InterruptMonitor {
+
+			private final ElkAxiomProcessor inserter_;
+
+			private final long skip_ = loadedCount_;
+
+			private long generated_ = 0;
+
+			ResumingInserter(ElkAxiomProcessor inserter) {
+				this.inserter_ = inserter;
+			}
+
+			@Override
+			public void visit(ElkAxiom elkAxiom) {
+				if (generated_++ < skip_) {
+					return;
+				}
+				inserter_.visit(elkAxiom);
+				loadedCount_++;
+			}
+
+			@Override
+			public boolean isInterrupted() {
+				return generated_ >= skip_ && Loader.this.isInterrupted();
+			}
+
+		}
+
+	}
+
+}
@@ -0,0 +1,166 @@
+/*
+ * #%L
+ * ELK Reasoner
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2011 - 2016 Department of Computer Science, University of Oxford
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.semanticweb.elk.loading;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+import org.semanticweb.elk.owl.interfaces.ElkAxiom;
+import org.semanticweb.elk.owl.interfaces.ElkClass;
+import org.semanticweb.elk.owl.interfaces.ElkObject;
+import org.semanticweb.elk.owl.iris.ElkFullIri;
+import org.semanticweb.elk.owl.managers.ElkObjectEntityRecyclingFactory;
+import org.semanticweb.elk.owl.parsing.javacc.Owl2FunctionalStyleParserFactory;
+import org.semanticweb.elk.owl.printers.OwlFunctionalStylePrinter;
+import org.semanticweb.elk.owl.visitors.ElkAxiomProcessor;
+import org.semanticweb.elk.reasoner.Reasoner;
+import org.semanticweb.elk.reasoner.TestReasonerUtils;
+import org.semanticweb.elk.reasoner.taxonomy.model.Taxonomy;
+import org.semanticweb.elk.util.concurrent.computation.InterruptMonitor;
+
+/**
+ * Tests for {@link SyntheticOntologyGenerator}
+ */
+public class SyntheticOntologyGeneratorTest {
+
+	final ElkObject.Factory objectFactory = new ElkObjectEntityRecyclingFactory();
+
+	private static class RecordingProcessor implements ElkAxiomProcessor {
+
+		final List<String> axioms = new ArrayList<String>();
+
+		@Override
+		public void visit(ElkAxiom elkAxiom) {
+			axioms.add(OwlFunctionalStylePrinter.toString(elkAxiom));
+		}
+
+	}
+
+	private SyntheticOntologyGenerator getGenerator() {
+		return new SyntheticOntologyGenerator(objectFactory).setClassCount(200)
+				.setPropertyCount(5).setIndividualCount(20)
+				.setExistentialDensity(1.5).setDefinitionRatio(0.2)
+				.setTransitiveRatio(0.4).setPropertyChainCount(3)
+				.setDisjointnessCount(2).setPropertyAssertionCount(40);
+	}
+
+	private static List<String> generate(SyntheticOntologyGenerator generator) {
+		RecordingProcessor processor = new RecordingProcessor();
+		generator.generate(processor);
+		return processor.axioms;
+	}
+
+	private ElkClass getClass(String name) {
+		return objectFactory.getClass(new ElkFullIri(
+				SyntheticOntologyGenerator.ONTOLOGY_IRI + "#" + name));
+	}
+
+	@Test
+	public void testSameSeedSameAxioms() {
+		assertEquals(generate(getGenerator().setSeed(7)),
+				generate(getGenerator().setSeed(7)));
+		assertFalse(generate(getGenerator().setSeed(7))
+				.equals(generate(getGenerator().setSeed(8))));
+	}
+
+	@Test
+	public void testToldHierarchy() {
+		// trees of 1 + 3 + 9 = 13 classes, 8 trees for 100 classes
+		List<String> axioms = generate(
+				new SyntheticOntologyGenerator(objectFactory)
+						.setClassCount(100).setPropertyCount(10)
+						.setHierarchyDepth(2).setHierarchyFanOut(3)
+						.setExistentialDensity(0).setDefinitionRatio(0));
+		// declarations and told subsumptions
+		assertEquals(100 + 10 + 100 - 8, axioms.size());
+	}
+
+	@Test
+	public void testInterruptedLoading() throws ElkLoadingException {
+		InterruptMonitor interrupter = new InterruptMonitor() {
+
+			private int count_ = 0;
+
+			@Override
+			public boolean isInterrupted() {
+				return ++count_ % 17 == 0;
+			}
+
+		};
+		SyntheticOntologyGenerator generator = getGenerator();
+		AxiomLoader loader = generator.getAxiomLoaderFactory()
+				.getAxiomLoader(interrupter);
+		RecordingProcessor inserter = new RecordingProcessor();
+		RecordingProcessor deleter = new RecordingProcessor();
+		int loads = 0;
+		while (!loader.isLoadingFinished()) {
+			loader.load(inserter, deleter);
+			loads++;
+		}
+		assertTrue(loads > 1);
+		assertEquals(generate(generator), inserter.axioms);
+		assertTrue(deleter.axioms.isEmpty());
+	}
+
+	@Test
+	public void testWriteAndParse() throws IOException, ElkLoadingException {
+		SyntheticOntologyGenerator generator = getGenerator();
+		StringBuilder ontology = new StringBuilder();
+		generator.write(ontology);
+		AxiomLoader loader = new Owl2StreamLoader.Factory(
+				new Owl2FunctionalStyleParserFactory(), ontology.toString())
+						.getAxiomLoader(new InterruptMonitor() {
+
+							@Override
+							public boolean isInterrupted() {
+								return false;
+							}
+
+						});
+		RecordingProcessor inserter = new RecordingProcessor();
+		loader.load(inserter, new RecordingProcessor());
+		loader.dispose();
+		assertEquals(generate(generator), inserter.axioms);
+	}
+
+	@Test
+	public void testClassification() throws Exception {
+		// without disjointness axioms all classes are satisfiable
+		Reasoner reasoner = TestReasonerUtils.createTestReasoner(getGenerator()
+				.setDisjointnessCount(0).getAxiomLoaderFactory());
+		try {
+			Taxonomy<ElkClass> taxonomy = reasoner.getTaxonomy();
+			// C1 is the first child of C0 in the told hierarchy
+			assertTrue(taxonomy.getNode(getClass("C1")).getAllSuperNodes()
+					.contains(taxonomy.getNode(getClass("C0"))));
+		} finally {
+			reasoner.shutdown();
+		}
+	}
+
+}
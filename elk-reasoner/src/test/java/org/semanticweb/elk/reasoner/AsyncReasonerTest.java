@@ -0,0 +1,238 @@
+/*
+ * #%L
+ * ELK Reasoner
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2011 - 2013 Department of Computer Science, University of Oxford
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.semanticweb.elk.reasoner;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+import org.semanticweb.elk.exceptions.ElkException;
+import org.semanticweb.elk.loading.TestAxiomLoaderFactory;
+import org.semanticweb.elk.loading.TestLoader;
+import org.semanticweb.elk.owl.interfaces.ElkClass;
+import org.semanticweb.elk.owl.interfaces.ElkClassExpression;
+import org.semanticweb.elk.owl.interfaces.ElkObject;
+import org.semanticweb.elk.owl.iris.ElkFullIri;
+import org.semanticweb.elk.owl.managers.ElkObjectEntityRecyclingFactory;
+import org.semanticweb.elk.reasoner.config.ReasonerConfiguration;
+import org.semanticweb.elk.reasoner.stages.SimpleStageExecutor;
+
+public class AsyncReasonerTest {
+
+	final ElkObject.Factory objectFactory = new ElkObjectEntityRecyclingFactory();
+
+	@Test
+	public void testResults() throws Exception {
+		TestLoader loader = new TestLoader();
+		ElkClass A = objectFactory.getClass(new ElkFullIri(":A"));
+		ElkClass B = objectFactory.getClass(new ElkFullIri(":B"));
+		loader.add(objectFactory.getSubClassOfAxiom(A, B));
+		AsyncReasoner reasoner = new AsyncReasoner(
+				TestReasonerUtils.createTestReasoner(loader));
+		try {
+			assertFalse(reasoner.isInconsistent().get());
+			assertTrue(reasoner.getTaxonomy().get().getNode(B).contains(B));
+			assertEquals(1, reasoner.getSuperClasses(A, true).get().size());
+			assertTrue(reasoner.getSuperClasses(A, true).get().iterator()
+					.next().contains(B));
+		} finally {
+			reasoner.shutdown();
+		}
+	}
+
+	@Test
+	public void testCoalescedRequestsComputedOnce() throws Exception {
+		TestLoader loader = new TestLoader();
+		ElkClass A = objectFactory.getClass(new ElkFullIri(":A"));
+		ElkClass B = objectFactory.getClass(new ElkFullIri(":B"));
+		loader.add(objectFactory.getSubClassOfAxiom(A, B));
+		CountingReasoner counting = new CountingReasoner(loader);
+		AsyncReasoner reasoner = new AsyncReasoner(counting);
+		try {
+			ReasonerFuture<Boolean> first, second;
+			synchronized (counting) {
+				// the requests are queued behind a blocked one
+				block(reasoner, counting, B);
+				first = reasoner.isSatisfiable(A);
+				second = reasoner.isSatisfiable(A);
+			}
+			assertTrue(first.get(10, TimeUnit.SECONDS));
+			assertTrue(second.get(10, TimeUnit.SECONDS));
+			assertEquals(2, counting.satisfiabilityChecks.get());
+			// a request submitted after the computation is not coalesced
+			assertTrue(reasoner.isSatisfiable(A).get(10, TimeUnit.SECONDS));
+			assertEquals(3, counting.satisfiabilityChecks.get());
+		} finally {
+			reasoner.shutdown();
+		}
+	}
+
+	@Test
+	public void testCancelOneOfCoalesced() throws Exception {
+		TestLoader loader = new TestLoader();
+		ElkClass A = objectFactory.getClass(new ElkFullIri(":A"));
+		ElkClass B = objectFactory.getClass(new ElkFullIri(":B"));
+		loader.add(objectFactory.getSubClassOfAxiom(A, B));
+		CountingReasoner counting = new CountingReasoner(loader);
+		AsyncReasoner reasoner = new AsyncReasoner(counting);
+		try {
+			ReasonerFuture<Boolean> first, second;
+			final CountDownLatch notified = new CountDownLatch(1);
+			synchronized (counting) {
+				block(reasoner, counting, B);
+				first = reasoner.isSatisfiable(A);
+				second = reasoner.isSatisfiable(A);
+				first.addListener(new Runnable() {
+					@Override
+					public void run() {
+						notified.countDown();
+					}
+				});
+				// the computation cannot finish while the lock is held
+				assertTrue(first.cancel(true));
+			}
+			assertTrue(notified.await(10, TimeUnit.SECONDS));
+			assertTrue(first.isCancelled());
+			assertTrue(first.isDone());
+			try {
+				first.get();
+				fail();
+			} catch (CancellationException e) {
+				// expected
+			}
+			// the other caller is not affected
+			assertTrue(second.get(10, TimeUnit.SECONDS));
+			assertTrue(second.isDone());
+			assertFalse(second.isCancelled());
+			assertEquals(2, counting.satisfiabilityChecks.get());
+		} finally {
+			reasoner.shutdown();
+		}
+	}
+
+	@Test
+	public void testRunningRequestNotCoalesced() throws Exception {
+		TestLoader loader = new TestLoader();
+		ElkClass A = objectFactory.getClass(new ElkFullIri(":A"));
+		ElkClass B = objectFactory.getClass(new ElkFullIri(":B"));
+		loader.add(objectFactory.getSubClassOfAxiom(A, B));
+		CountingReasoner counting = new CountingReasoner(loader);
+		AsyncReasoner reasoner = new AsyncReasoner(counting);
+		try {
+			ReasonerFuture<Boolean> running, next;
+			synchronized (counting) {
+				running = block(reasoner, counting, A);
+				// the running computation may miss changes made now
+				next = reasoner.isSatisfiable(A);
+			}
+			assertTrue(running.get(10, TimeUnit.SECONDS));
+			assertTrue(next.get(10, TimeUnit.SECONDS));
+			assertEquals(2, counting.satisfiabilityChecks.get());
+		} finally {
+			reasoner.shutdown();
+		}
+	}
+
+	@Test
+	public void testCancelRunning() throws Exception {
+		TestLoader loader = new TestLoader();
+		ElkClass A = objectFactory.getClass(new ElkFullIri(":A"));
+		ElkClass B = objectFactory.getClass(new ElkFullIri(":B"));
+		loader.add(objectFactory.getSubClassOfAxiom(A, B));
+		CountingReasoner counting = new CountingReasoner(loader);
+		AsyncReasoner reasoner = new AsyncReasoner(counting);
+		try {
+			ReasonerFuture<Boolean> running;
+			synchronized (counting) {
+				running = reasoner.isSatisfiable(A);
+				// wait until the computation is blocked on the lock
+				while (counting.satisfiabilityChecks.get() == 0) {
+					Thread.sleep(1);
+				}
+				// the only caller interrupts the computation
+				assertTrue(running.cancel(true));
+			}
+			assertTrue(running.isCancelled());
+			try {
+				running.get(10, TimeUnit.SECONDS);
+				fail();
+			} catch (CancellationException e) {
+				// expected
+			}
+			// the interrupt does not affect the next request
+			assertTrue(reasoner.isSatisfiable(A).get(10, TimeUnit.SECONDS));
+			assertEquals(2, counting.satisfiabilityChecks.get());
+		} finally {
+			reasoner.shutdown();
+		}
+	}
+
+	/**
+	 * Submits a satisfiability check and waits until it runs and is blocked on
+	 * the lock of the reasoner, which must be held by the caller
+	 */
+	static ReasonerFuture<Boolean> block(final AsyncReasoner reasoner,
+			final CountingReasoner counting, final ElkClass toCheck)
+			throws InterruptedException {
+		final int checks = counting.satisfiabilityChecks.get();
+		final ReasonerFuture<Boolean> result = reasoner.isSatisfiable(toCheck);
+		while (counting.satisfiabilityChecks.get() == checks) {
+			Thread.sleep(1);
+		}
+		return result;
+	}
+
+	/**
+	 * A {@link Reasoner} counting the calls of
+	 * {@link #isSatisfiable(ElkClassExpression)}; the count is incremented
+	 * before the lock of the reasoner is acquired
+	 */
+	static class CountingReasoner extends Reasoner {
+
+		final AtomicInteger satisfiabilityChecks = new AtomicInteger();
+
+		CountingReasoner(final TestLoader loader) {
+			super(new ElkObjectEntityRecyclingFactory(),
+					new ReasonerInterrupter(), new SimpleStageExecutor(),
+					ReasonerConfiguration.getConfiguration());
+			registerAxiomLoader(new TestAxiomLoaderFactory(loader));
+		}
+
+		@Override
+		public boolean isSatisfiable(final ElkClassExpression classExpression)
+				throws ElkException {
+			satisfiabilityChecks.incrementAndGet();
+			synchronized (this) {
+				return super.isSatisfiable(classExpression);
+			}
+		}
+
+	}
+
+}
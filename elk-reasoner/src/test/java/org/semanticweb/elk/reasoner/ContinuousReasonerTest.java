@@ -0,0 +1,151 @@
+/*
+ * #%L
+ * ELK Reasoner
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2011 - 2013 Department of Computer Science, University of Oxford
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.semanticweb.elk.reasoner;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+
+import org.junit.Test;
+import org.semanticweb.elk.loading.TestAxiomLoaderFactory;
+import org.semanticweb.elk.loading.TestLoader;
+import org.semanticweb.elk.owl.interfaces.ElkAxiom;
+import org.semanticweb.elk.owl.interfaces.ElkClass;
+import org.semanticweb.elk.owl.interfaces.ElkObject;
+import org.semanticweb.elk.owl.iris.ElkFullIri;
+import org.semanticweb.elk.owl.managers.ElkObjectEntityRecyclingFactory;
+import org.semanticweb.elk.reasoner.taxonomy.model.Taxonomy;
+
+public class ContinuousReasonerTest {
+
+	final ElkObject.Factory objectFactory = new ElkObjectEntityRecyclingFactory();
+
+	@Test
+	public void testPublishedVersions() throws Exception {
+		TestLoader loader = new TestLoader();
+		ElkClass A = objectFactory.getClass(new ElkFullIri(":A"));
+		ElkClass B = objectFactory.getClass(new ElkFullIri(":B"));
+		ElkClass C = objectFactory.getClass(new ElkFullIri(":C"));
+		loader.add(objectFactory.getSubClassOfAxiom(A, B));
+		// the continuous reasoner interrupts the reasoner when shut down
+		Reasoner elkReasoner = TestReasonerUtils.createTestReasoner(
+				new TestAxiomLoaderFactory(loader), new ReasonerInterrupter());
+		ContinuousReasoner reasoner = new ContinuousReasoner(elkReasoner);
+		try {
+			ContinuousReasoner.Version first = reasoner.awaitVersion(0);
+			assertEquals(1, first.getNumber());
+			assertFalse(first.isInconsistent());
+			Taxonomy<ElkClass> taxonomy = first.getTaxonomy();
+			assertTrue(taxonomy.getNode(A).getDirectSuperNodes()
+					.contains(taxonomy.getNode(B)));
+			assertNull(taxonomy.getNode(C));
+
+			long changes = reasoner
+					.addAxiom(objectFactory.getSubClassOfAxiom(B, C));
+			ContinuousReasoner.Version second = reasoner.awaitVersion(changes);
+			assertTrue(second.getNumber() > first.getNumber());
+			taxonomy = second.getTaxonomy();
+			assertNotNull(taxonomy.getNode(C));
+			assertTrue(taxonomy.getNode(A).getAllSuperNodes()
+					.contains(taxonomy.getNode(C)));
+			// the earlier version is not affected
+			assertNull(first.getTaxonomy().getNode(C));
+			assertEquals(1, first.getTaxonomy().getNode(A)
+					.getDirectSuperNodes().size());
+		} finally {
+			reasoner.shutdown();
+			elkReasoner.shutdown();
+		}
+	}
+
+	@Test
+	public void testCancellingChanges() throws Exception {
+		TestLoader loader = new TestLoader();
+		ElkClass A = objectFactory.getClass(new ElkFullIri(":A"));
+		ElkClass B = objectFactory.getClass(new ElkFullIri(":B"));
+		ElkClass C = objectFactory.getClass(new ElkFullIri(":C"));
+		loader.add(objectFactory.getSubClassOfAxiom(A, B));
+		// the continuous reasoner interrupts the reasoner when shut down
+		Reasoner elkReasoner = TestReasonerUtils.createTestReasoner(
+				new TestAxiomLoaderFactory(loader), new ReasonerInterrupter());
+		ContinuousReasoner reasoner = new ContinuousReasoner(elkReasoner);
+		try {
+			reasoner.awaitVersion(0);
+			ElkAxiom axiom = objectFactory.getSubClassOfAxiom(A, C);
+			reasoner.addAxiom(axiom);
+			long changes = reasoner.removeAxiom(axiom);
+			Taxonomy<ElkClass> taxonomy = reasoner.awaitVersion(changes)
+					.getTaxonomy();
+			assertTrue(taxonomy.getNode(C) == null || !taxonomy.getNode(A)
+					.getAllSuperNodes().contains(taxonomy.getNode(C)));
+			assertEquals(changes,
+					reasoner.getLatestVersion().getChangesCount());
+		} finally {
+			reasoner.shutdown();
+			elkReasoner.shutdown();
+		}
+	}
+
+	@Test
+	public void testWithoutCopies() throws Exception {
+		TestLoader loader = new TestLoader();
+		ElkClass A = objectFactory.getClass(new ElkFullIri(":A"));
+		ElkClass B = objectFactory.getClass(new ElkFullIri(":B"));
+		ElkClass C = objectFactory.getClass(new ElkFullIri(":C"));
+		loader.add(objectFactory.getSubClassOfAxiom(A, B));
+		// the continuous reasoner interrupts the reasoner when shut down
+		Reasoner elkReasoner = TestReasonerUtils.createTestReasoner(
+				new TestAxiomLoaderFactory(loader), new ReasonerInterrupter());
+		ContinuousReasoner reasoner = new ContinuousReasoner(elkReasoner,
+				false);
+		try {
+			ContinuousReasoner.Version first = reasoner.awaitVersion(0);
+			assertEquals(1, first.getNumber());
+			assertFalse(first.isInconsistent());
+			assertNull(first.getTaxonomy());
+
+			reasoner.addAxiom(objectFactory
+					.getDisjointClassesAxiom(Arrays.asList(A, B)));
+			reasoner.addAxiom(objectFactory.getSubClassOfAxiom(B, C));
+			long changes = reasoner.addAxiom(objectFactory.getClassAssertionAxiom(A,
+					objectFactory.getNamedIndividual(new ElkFullIri(":a"))));
+			ContinuousReasoner.Version second = reasoner.awaitVersion(changes);
+			assertTrue(second.getNumber() > first.getNumber());
+			assertTrue(second.isInconsistent());
+			assertNull(second.getTaxonomy());
+		} finally {
+			reasoner.shutdown();
+		}
+		try {
+			// the taxonomy is computed in the reasoner
+			Taxonomy<ElkClass> taxonomy = elkReasoner.getTaxonomyQuietly();
+			assertTrue(taxonomy.getNode(A) == taxonomy.getBottomNode());
+		} finally {
+			elkReasoner.shutdown();
+		}
+	}
+
+}
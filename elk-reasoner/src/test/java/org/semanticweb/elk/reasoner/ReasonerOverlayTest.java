@@ -0,0 +1,137 @@
+/*
+ * #%L
+ * ELK Reasoner
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2011 - 2013 Department of Computer Science, University of Oxford
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.semanticweb.elk.reasoner;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+import org.semanticweb.elk.loading.TestLoader;
+import org.semanticweb.elk.owl.interfaces.ElkAxiom;
+import org.semanticweb.elk.owl.interfaces.ElkClass;
+import org.semanticweb.elk.owl.interfaces.ElkObject;
+import org.semanticweb.elk.owl.iris.ElkFullIri;
+import org.semanticweb.elk.owl.managers.ElkObjectEntityRecyclingFactory;
+import org.semanticweb.elk.reasoner.taxonomy.model.Taxonomy;
+import org.semanticweb.elk.reasoner.taxonomy.model.TaxonomyNode;
+
+public class ReasonerOverlayTest {
+
+	final ElkObject.Factory objectFactory = new ElkObjectEntityRecyclingFactory();
+
+	@Test
+	public void testHypotheticalChanges() throws Exception {
+		TestLoader loader = new TestLoader();
+		ElkClass A = objectFactory.getClass(new ElkFullIri(":A"));
+		ElkClass B = objectFactory.getClass(new ElkFullIri(":B"));
+		ElkClass C = objectFactory.getClass(new ElkFullIri(":C"));
+		ElkAxiom axAB = objectFactory.getSubClassOfAxiom(A, B);
+		ElkAxiom axBC = objectFactory.getSubClassOfAxiom(B, C);
+		ElkAxiom axAC = objectFactory.getSubClassOfAxiom(A, C);
+		List<ElkAxiom> ontology = Arrays.asList(axAB);
+		loader.add(axAB);
+		Reasoner reasoner = TestReasonerUtils.createTestReasoner(loader);
+		ReasonerOverlay overlay = new ReasonerOverlay(reasoner, ontology);
+		try {
+			Taxonomy<ElkClass> original = reasoner.getTaxonomy();
+
+			overlay.addAxiom(axBC);
+			Taxonomy<ElkClass> taxonomy = overlay.getTaxonomy();
+			assertNotNull(taxonomy.getNode(C));
+			assertTrue(taxonomy.getNode(A).getAllSuperNodes()
+					.contains(taxonomy.getNode(C)));
+			assertTrue(overlay.isEntailed(axAC));
+
+			// the reasoner is not affected
+			assertTrue(reasoner.doneTaxonomy());
+			assertTrue(original == reasoner.getTaxonomy());
+			assertTrue(original.getNode(C) == null);
+			assertFalse(isSubsumed(original, A, C));
+
+			overlay.removeAxiom(axAB);
+			taxonomy = overlay.getTaxonomy();
+			assertTrue(taxonomy.getNode(A) == null || !taxonomy.getNode(A)
+					.getAllSuperNodes().contains(taxonomy.getNode(B)));
+			assertFalse(overlay.isEntailed(axAC));
+			assertTrue(reasoner.getTaxonomy().getNode(A).getDirectSuperNodes()
+					.contains(reasoner.getTaxonomy().getNode(B)));
+
+			overlay.discard();
+			assertTrue(overlay.isEmpty());
+			assertFalse(isSubsumed(overlay.getTaxonomy(), A, C));
+			assertTrue(isSubsumed(overlay.getTaxonomy(), A, B));
+		} finally {
+			overlay.dispose();
+			reasoner.shutdown();
+		}
+	}
+
+	@Test
+	public void testRemoveAbsentAxiom() throws Exception {
+		ElkClass A = objectFactory.getClass(new ElkFullIri(":A"));
+		ElkClass B = objectFactory.getClass(new ElkFullIri(":B"));
+		ElkClass C = objectFactory.getClass(new ElkFullIri(":C"));
+		ElkAxiom axAB = objectFactory.getSubClassOfAxiom(A, B);
+		ElkAxiom axBC = objectFactory.getSubClassOfAxiom(B, C);
+		Reasoner reasoner = TestReasonerUtils
+				.createTestReasoner(new TestLoader().add(axAB));
+		ReasonerOverlay overlay = new ReasonerOverlay(reasoner,
+				Arrays.asList(axAB));
+		try {
+			try {
+				overlay.removeAxiom(axBC);
+				fail("removed an axiom that is not in the ontology");
+			} catch (IllegalArgumentException e) {
+				// expected
+			}
+			assertTrue(overlay.isEmpty());
+			// an equal axiom of the ontology can be removed
+			overlay.removeAxiom(objectFactory.getSubClassOfAxiom(A, B));
+			assertFalse(overlay.isEntailed(axAB));
+			// hypothetically added axioms can be removed
+			overlay.addAxiom(axBC);
+			overlay.removeAxiom(axBC);
+			overlay.addAxiom(axAB);
+			assertTrue(overlay.isEmpty());
+			assertTrue(overlay.isEntailed(axAB));
+			assertTrue(isSubsumed(reasoner.getTaxonomy(), A, B));
+		} finally {
+			overlay.dispose();
+			reasoner.shutdown();
+		}
+	}
+
+	private static boolean isSubsumed(final Taxonomy<ElkClass> taxonomy,
+			final ElkClass sub, final ElkClass sup) {
+		final TaxonomyNode<ElkClass> subNode = taxonomy.getNode(sub);
+		final TaxonomyNode<ElkClass> supNode = taxonomy.getNode(sup);
+		return subNode != null && supNode != null
+				&& (subNode == supNode
+						|| subNode.getAllSuperNodes().contains(supNode));
+	}
+
+}
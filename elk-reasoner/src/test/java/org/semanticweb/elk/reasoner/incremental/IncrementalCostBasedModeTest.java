@@ -0,0 +1,181 @@
+/*
+ * #%L
+ * ELK Reasoner
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2011 - 2016 Department of Computer Science, University of Oxford
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.semanticweb.elk.reasoner.incremental;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+import org.semanticweb.elk.exceptions.ElkException;
+import org.semanticweb.elk.loading.TestAxiomLoaderFactory;
+import org.semanticweb.elk.loading.TestChangesLoader;
+import org.semanticweb.elk.owl.interfaces.ElkClass;
+import org.semanticweb.elk.owl.interfaces.ElkObject;
+import org.semanticweb.elk.owl.iris.ElkFullIri;
+import org.semanticweb.elk.owl.managers.ElkObjectEntityRecyclingFactory;
+import org.semanticweb.elk.reasoner.Reasoner;
+import org.semanticweb.elk.reasoner.TestReasonerUtils;
+import org.semanticweb.elk.reasoner.config.ReasonerConfiguration;
+import org.semanticweb.elk.reasoner.query.ElkQueryException;
+import org.semanticweb.elk.reasoner.query.EntailmentQueryResult;
+import org.semanticweb.elk.reasoner.query.ProperEntailmentQueryResult;
+import org.semanticweb.elk.reasoner.query.UnsupportedIndexingEntailmentQueryResult;
+import org.semanticweb.elk.reasoner.query.UnsupportedQueryTypeEntailmentQueryResult;
+import org.semanticweb.elk.reasoner.taxonomy.model.Taxonomy;
+
+/**
+ * Tests the choice between incremental and non-incremental processing of
+ * changes based on the estimated number of affected contexts
+ */
+public class IncrementalCostBasedModeTest {
+
+	private static final int SIZE_ = 2000;
+
+	final ElkObject.Factory objectFactory = new ElkObjectEntityRecyclingFactory();
+
+	final ElkClass top = objectFactory.getClass(new ElkFullIri(":Top"));
+
+	final ElkClass[] classes = new ElkClass[SIZE_];
+
+	private Reasoner createReasoner() throws ElkException {
+		TestChangesLoader loader = new TestChangesLoader();
+		// disabled in the test configuration
+		ReasonerConfiguration config = ReasonerConfiguration
+				.getConfiguration();
+		config.setParameter(ReasonerConfiguration.INCREMENTAL_MODE_COST_BASED,
+				"true");
+		Reasoner reasoner = TestReasonerUtils.createTestReasoner(
+				new TestAxiomLoaderFactory(loader), config);
+		assertTrue(reasoner.isCostBasedIncrementalMode());
+		reasoner.setAllowIncrementalMode(false);
+		for (int i = 0; i < SIZE_; i++) {
+			classes[i] = objectFactory.getClass(new ElkFullIri(":A" + i));
+			loader.add(objectFactory.getSubClassOfAxiom(classes[i], top));
+		}
+		reasoner.getTaxonomy();
+		reasoner.setAllowIncrementalMode(true);
+		return reasoner;
+	}
+
+	@Test
+	public void testSmallChangeIncremental() throws ElkException {
+		Reasoner reasoner = createReasoner();
+		ElkClass c = objectFactory.getClass(new ElkFullIri(":C"));
+		TestChangesLoader changeLoader = new TestChangesLoader();
+		reasoner.registerAxiomLoader(new TestAxiomLoaderFactory(changeLoader));
+		changeLoader.add(objectFactory.getSubClassOfAxiom(classes[0], c));
+
+		Taxonomy<ElkClass> taxonomy = reasoner.getTaxonomy();
+
+		assertTrue(reasoner.isIncrementalMode());
+		assertTrue(taxonomy.getNode(classes[0]).getDirectSuperNodes()
+				.contains(taxonomy.getNode(c)));
+	}
+
+	@Test
+	public void testLargeChangeFromScratch() throws ElkException {
+		Reasoner reasoner = createReasoner();
+		ElkClass c = objectFactory.getClass(new ElkFullIri(":C"));
+		TestChangesLoader changeLoader = new TestChangesLoader();
+		reasoner.registerAxiomLoader(new TestAxiomLoaderFactory(changeLoader));
+		// affects the contexts of all sub-classes of Top
+		changeLoader.add(objectFactory.getSubClassOfAxiom(top, c));
+
+		Taxonomy<ElkClass> taxonomy = reasoner.getTaxonomy();
+
+		assertFalse(reasoner.isIncrementalMode());
+		assertTrue(taxonomy.getNode(classes[SIZE_ - 1]).getAllSuperNodes()
+				.contains(taxonomy.getNode(c)));
+	}
+
+	@Test
+	public void testLargeChangeIncrementalIfNotCostBased()
+			throws ElkException {
+		Reasoner reasoner = createReasoner();
+		reasoner.setCostBasedIncrementalMode(false);
+		ElkClass c = objectFactory.getClass(new ElkFullIri(":C"));
+		TestChangesLoader changeLoader = new TestChangesLoader();
+		reasoner.registerAxiomLoader(new TestAxiomLoaderFactory(changeLoader));
+		changeLoader.add(objectFactory.getSubClassOfAxiom(top, c));
+
+		Taxonomy<ElkClass> taxonomy = reasoner.getTaxonomy();
+
+		assertTrue(reasoner.isIncrementalMode());
+		assertTrue(taxonomy.getNode(classes[SIZE_ - 1]).getAllSuperNodes()
+				.contains(taxonomy.getNode(c)));
+	}
+
+	@Test
+	public void testRestorationCostRecordedAfterTaxonomy()
+			throws ElkException {
+		Reasoner reasoner = createReasoner();
+		IncrementalProcessingStatistics stats = reasoner
+				.getIncrementalProcessingStatistics();
+		assertTrue(stats.fullRestorationTime > 0);
+		assertTrue(stats.fullRestorationContexts >= SIZE_);
+
+		TestChangesLoader changeLoader = new TestChangesLoader();
+		reasoner.registerAxiomLoader(new TestAxiomLoaderFactory(changeLoader));
+		changeLoader.remove(objectFactory.getSubClassOfAxiom(classes[0], top));
+		// the restoration is started by other queries
+		assertFalse(reasoner.isInconsistent());
+		reasoner.isEntailed(objectFactory.getSubClassOfAxiom(classes[1], top))
+				.accept(UNLOCKER);
+		assertEquals(0, stats.incrementalRestorationContexts);
+
+		reasoner.getTaxonomy();
+		assertTrue(reasoner.isIncrementalMode());
+		assertTrue(stats.incrementalRestorationContexts > 0);
+		// the time of the incremental stages is included
+		assertTrue(stats.incrementalRestorationTime >= stats
+				.getStageTime(IncrementalStages.DELETION));
+		long time = stats.incrementalRestorationTime;
+		// recorded only once
+		reasoner.getTaxonomy();
+		assertEquals(time, stats.incrementalRestorationTime);
+	}
+
+	private static final EntailmentQueryResult.Visitor<Void, ElkQueryException> UNLOCKER = new EntailmentQueryResult.Visitor<Void, ElkQueryException>() {
+
+		@Override
+		public Void visit(final ProperEntailmentQueryResult properResult)
+				throws ElkQueryException {
+			properResult.unlock();
+			return null;
+		}
+
+		@Override
+		public Void visit(
+				final UnsupportedIndexingEntailmentQueryResult unsupportedIndexing) {
+			return null;
+		}
+
+		@Override
+		public Void visit(
+				final UnsupportedQueryTypeEntailmentQueryResult unsupportedQueryType) {
+			return null;
+		}
+
+	};
+
+}
@@ -0,0 +1,109 @@
+/*
+ * #%L
+ * ELK Reasoner
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2011 - 2013 Department of Computer Science, University of Oxford
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.semanticweb.elk.reasoner.incremental;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+/**
+ * Tests for the sizes of batches of contexts processed by the incremental
+ * initialization stages and for the per-stage statistics recorded for them
+ */
+public class IncrementalProcessingStatisticsTest {
+
+	@Test
+	public void testBatchSizeBounds() {
+		assertEquals(IncrementalChangesInitialization.MIN_BATCH_SIZE,
+				IncrementalChangesInitialization.getBatchSize(0, 4));
+		assertEquals(IncrementalChangesInitialization.MIN_BATCH_SIZE,
+				IncrementalChangesInitialization.getBatchSize(100, 1));
+		assertEquals(IncrementalChangesInitialization.MAX_BATCH_SIZE,
+				IncrementalChangesInitialization.getBatchSize(10000000, 1));
+		assertEquals(IncrementalChangesInitialization.MAX_BATCH_SIZE,
+				IncrementalChangesInitialization.getBatchSize(10000000, 32));
+	}
+
+	@Test
+	public void testBatchSizeScalesWithWorkers() {
+		int contexts = 32 * IncrementalChangesInitialization.BATCHES_PER_WORKER
+				* 128;
+		// 4096 contexts per batch would be too many
+		assertEquals(IncrementalChangesInitialization.MAX_BATCH_SIZE,
+				IncrementalChangesInitialization.getBatchSize(contexts, 1));
+		assertEquals(1024,
+				IncrementalChangesInitialization.getBatchSize(contexts, 4));
+		assertEquals(512,
+				IncrementalChangesInitialization.getBatchSize(contexts, 8));
+		assertEquals(128,
+				IncrementalChangesInitialization.getBatchSize(contexts, 32));
+		// no workers is treated as one worker
+		assertEquals(IncrementalChangesInitialization.getBatchSize(contexts, 1),
+				IncrementalChangesInitialization.getBatchSize(contexts, 0));
+	}
+
+	@Test
+	public void testRecordStage() {
+		IncrementalProcessingStatistics stats = new IncrementalProcessingStatistics();
+		assertEquals(0.0, stats.getStageThroughput(IncrementalStages.DELETION),
+				0);
+
+		stats.recordStage(IncrementalStages.DELETION, 100, 500000000L);
+		stats.recordStage(IncrementalStages.DELETION, 50, 250000000L);
+		stats.recordStage(IncrementalStages.ADDITIONS_INIT, 10, 1000000000L);
+
+		assertEquals(150,
+				stats.getStageContextCount(IncrementalStages.DELETION));
+		assertEquals(750000000L, stats.getStageTime(IncrementalStages.DELETION));
+		assertEquals(200.0, stats.getStageThroughput(IncrementalStages.DELETION),
+				1e-6);
+		assertEquals(10.0,
+				stats.getStageThroughput(IncrementalStages.ADDITIONS_INIT),
+				1e-6);
+		assertEquals(0,
+				stats.getStageContextCount(IncrementalStages.DELETIONS_INIT));
+	}
+
+	@Test
+	public void testAddAndReset() {
+		IncrementalProcessingStatistics first = new IncrementalProcessingStatistics();
+		IncrementalProcessingStatistics second = new IncrementalProcessingStatistics();
+		first.recordStage(IncrementalStages.OVERDELETION_PRUNING, 20, 1000L);
+		second.recordStage(IncrementalStages.OVERDELETION_PRUNING, 30, 4000L);
+		second.recordStage(IncrementalStages.ADDITION, 5, 100L);
+
+		first.add(second);
+		assertEquals(50, first
+				.getStageContextCount(IncrementalStages.OVERDELETION_PRUNING));
+		assertEquals(5000L,
+				first.getStageTime(IncrementalStages.OVERDELETION_PRUNING));
+		assertEquals(5, first.getStageContextCount(IncrementalStages.ADDITION));
+
+		first.reset();
+		for (IncrementalStages stage : IncrementalStages.values()) {
+			assertEquals(0, first.getStageContextCount(stage));
+			assertEquals(0L, first.getStageTime(stage));
+			assertEquals(0.0, first.getStageThroughput(stage), 0);
+		}
+	}
+
+}
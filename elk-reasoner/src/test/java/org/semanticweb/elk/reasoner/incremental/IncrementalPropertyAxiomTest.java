@@ -0,0 +1,206 @@
+/*
+ * #%L
+ * ELK Reasoner
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2011 - 2016 Department of Computer Science, University of Oxford
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.semanticweb.elk.reasoner.incremental;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+
+import org.junit.Test;
+import org.semanticweb.elk.exceptions.ElkException;
+import org.semanticweb.elk.loading.TestAxiomLoaderFactory;
+import org.semanticweb.elk.loading.TestChangesLoader;
+import org.semanticweb.elk.owl.interfaces.ElkAxiom;
+import org.semanticweb.elk.owl.interfaces.ElkClass;
+import org.semanticweb.elk.owl.interfaces.ElkObject;
+import org.semanticweb.elk.owl.interfaces.ElkObjectProperty;
+import org.semanticweb.elk.owl.iris.ElkFullIri;
+import org.semanticweb.elk.owl.managers.ElkObjectEntityRecyclingFactory;
+import org.semanticweb.elk.reasoner.Reasoner;
+import org.semanticweb.elk.reasoner.TestReasonerUtils;
+import org.semanticweb.elk.reasoner.taxonomy.model.Taxonomy;
+
+/**
+ * Tests that changes in object property axioms are processed without
+ * leaving the incremental mode and give the same results as the
+ * non-incremental reasoning.
+ */
+public class IncrementalPropertyAxiomTest {
+
+	final ElkObject.Factory objectFactory = new ElkObjectEntityRecyclingFactory();
+
+	final ElkClass A = objectFactory.getClass(new ElkFullIri(":A"));
+	final ElkClass B = objectFactory.getClass(new ElkFullIri(":B"));
+	final ElkClass C = objectFactory.getClass(new ElkFullIri(":C"));
+	final ElkClass D = objectFactory.getClass(new ElkFullIri(":D"));
+	final ElkObjectProperty R = objectFactory
+			.getObjectProperty(new ElkFullIri(":R"));
+	final ElkObjectProperty S = objectFactory
+			.getObjectProperty(new ElkFullIri(":S"));
+	final ElkObjectProperty T = objectFactory
+			.getObjectProperty(new ElkFullIri(":T"));
+
+	private Reasoner loadInitial(ElkAxiom... axioms) throws ElkException {
+		TestChangesLoader loader = new TestChangesLoader();
+		Reasoner reasoner = TestReasonerUtils.createTestReasoner(loader);
+		reasoner.setAllowIncrementalMode(false);
+		for (ElkAxiom axiom : axioms) {
+			loader.add(axiom);
+		}
+		reasoner.getTaxonomyQuietly();
+		reasoner.setAllowIncrementalMode(true);
+		return reasoner;
+	}
+
+	private TestChangesLoader registerChanges(Reasoner reasoner) {
+		TestChangesLoader changeLoader = new TestChangesLoader();
+		reasoner.registerAxiomLoader(new TestAxiomLoaderFactory(changeLoader));
+		return changeLoader;
+	}
+
+	private static boolean isSubsumed(Taxonomy<ElkClass> taxonomy,
+			ElkClass sub, ElkClass sup) {
+		return taxonomy.getNode(sub).getAllSuperNodes()
+				.contains(taxonomy.getNode(sup));
+	}
+
+	@Test
+	public void testSubPropertyAddedAndRemoved() throws ElkException {
+		ElkAxiom axRSubS = objectFactory.getSubObjectPropertyOfAxiom(R, S);
+		Reasoner reasoner = loadInitial(
+				objectFactory.getSubClassOfAxiom(A,
+						objectFactory.getObjectSomeValuesFrom(R, B)),
+				objectFactory.getSubClassOfAxiom(
+						objectFactory.getObjectSomeValuesFrom(S, B), C));
+
+		assertFalse(isSubsumed(reasoner.getTaxonomyQuietly(), A, C));
+
+		registerChanges(reasoner).add(axRSubS);
+		assertTrue(isSubsumed(reasoner.getTaxonomyQuietly(), A, C));
+		assertTrue(reasoner.isIncrementalMode());
+
+		registerChanges(reasoner).remove(axRSubS);
+		assertFalse(isSubsumed(reasoner.getTaxonomyQuietly(), A, C));
+		assertTrue(reasoner.isIncrementalMode());
+	}
+
+	@Test
+	public void testTransitivityRemoved() throws ElkException {
+		ElkAxiom axTransR = objectFactory.getTransitiveObjectPropertyAxiom(R);
+		Reasoner reasoner = loadInitial(
+				objectFactory.getSubClassOfAxiom(A,
+						objectFactory.getObjectSomeValuesFrom(R, B)),
+				objectFactory.getSubClassOfAxiom(B,
+						objectFactory.getObjectSomeValuesFrom(R, C)),
+				objectFactory.getSubClassOfAxiom(
+						objectFactory.getObjectSomeValuesFrom(R, C), D),
+				axTransR);
+
+		assertTrue(isSubsumed(reasoner.getTaxonomyQuietly(), A, D));
+
+		registerChanges(reasoner).remove(axTransR);
+		assertFalse(isSubsumed(reasoner.getTaxonomyQuietly(), A, D));
+		assertTrue(isSubsumed(reasoner.getTaxonomyQuietly(), B, D));
+		assertTrue(reasoner.isIncrementalMode());
+
+		registerChanges(reasoner).add(axTransR);
+		assertTrue(isSubsumed(reasoner.getTaxonomyQuietly(), A, D));
+		assertTrue(reasoner.isIncrementalMode());
+	}
+
+	@Test
+	public void testPropertyChainAdded() throws ElkException {
+		Reasoner reasoner = loadInitial(
+				objectFactory.getSubClassOfAxiom(A,
+						objectFactory.getObjectSomeValuesFrom(R, B)),
+				objectFactory.getSubClassOfAxiom(B,
+						objectFactory.getObjectSomeValuesFrom(S, C)),
+				objectFactory.getSubClassOfAxiom(
+						objectFactory.getObjectSomeValuesFrom(T, C), D));
+
+		assertFalse(isSubsumed(reasoner.getTaxonomyQuietly(), A, D));
+
+		registerChanges(reasoner).add(objectFactory.getSubObjectPropertyOfAxiom(
+				objectFactory.getObjectPropertyChain(Arrays.asList(R, S)), T));
+		assertTrue(isSubsumed(reasoner.getTaxonomyQuietly(), A, D));
+		assertTrue(reasoner.isIncrementalMode());
+	}
+
+	@Test
+	public void testRangeAdded() throws ElkException {
+		Reasoner reasoner = loadInitial(
+				objectFactory.getSubClassOfAxiom(A,
+						objectFactory.getObjectSomeValuesFrom(R, B)),
+				objectFactory.getSubClassOfAxiom(
+						objectFactory.getObjectSomeValuesFrom(R,
+								objectFactory.getObjectIntersectionOf(B, C)),
+						D));
+
+		assertFalse(isSubsumed(reasoner.getTaxonomyQuietly(), A, D));
+
+		registerChanges(reasoner)
+				.add(objectFactory.getObjectPropertyRangeAxiom(R, C));
+		assertTrue(isSubsumed(reasoner.getTaxonomyQuietly(), A, D));
+		assertTrue(reasoner.isIncrementalMode());
+	}
+
+	@Test
+	public void testReflexivityAdded() throws ElkException {
+		ElkAxiom axReflR = objectFactory.getReflexiveObjectPropertyAxiom(R);
+		Reasoner reasoner = loadInitial(objectFactory.getSubClassOfAxiom(A, B),
+				objectFactory.getSubClassOfAxiom(
+						objectFactory.getObjectSomeValuesFrom(R, B), C));
+
+		assertFalse(isSubsumed(reasoner.getTaxonomyQuietly(), A, C));
+
+		registerChanges(reasoner).add(axReflR);
+		// A is an R-successor of itself, hence of some B
+		assertTrue(isSubsumed(reasoner.getTaxonomyQuietly(), A, C));
+		assertTrue(isSubsumed(reasoner.getTaxonomyQuietly(), B, C));
+		assertTrue(reasoner.isIncrementalMode());
+
+		registerChanges(reasoner).remove(axReflR);
+		assertFalse(isSubsumed(reasoner.getTaxonomyQuietly(), A, C));
+		assertTrue(reasoner.isIncrementalMode());
+	}
+
+	@Test
+	public void testReflexivityBySubPropertyAdded() throws ElkException {
+		ElkAxiom axSSubR = objectFactory.getSubObjectPropertyOfAxiom(S, R);
+		Reasoner reasoner = loadInitial(objectFactory.getSubClassOfAxiom(A, B),
+				objectFactory.getSubClassOfAxiom(
+						objectFactory.getObjectSomeValuesFrom(R, B), C),
+				objectFactory.getReflexiveObjectPropertyAxiom(S));
+
+		assertFalse(isSubsumed(reasoner.getTaxonomyQuietly(), A, C));
+
+		registerChanges(reasoner).add(axSSubR);
+		assertTrue(isSubsumed(reasoner.getTaxonomyQuietly(), A, C));
+		assertTrue(reasoner.isIncrementalMode());
+
+		registerChanges(reasoner).remove(axSSubR);
+		assertFalse(isSubsumed(reasoner.getTaxonomyQuietly(), A, C));
+		assertTrue(reasoner.isIncrementalMode());
+	}
+
+}
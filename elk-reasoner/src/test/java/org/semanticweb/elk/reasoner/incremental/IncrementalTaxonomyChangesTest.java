@@ -0,0 +1,110 @@
+/*
+ * #%L
+ * ELK Reasoner
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2011 - 2016 Department of Computer Science, University of Oxford
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.semanticweb.elk.reasoner.incremental;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+import org.semanticweb.elk.exceptions.ElkException;
+import org.semanticweb.elk.loading.TestAxiomLoaderFactory;
+import org.semanticweb.elk.loading.TestChangesLoader;
+import org.semanticweb.elk.owl.interfaces.ElkAxiom;
+import org.semanticweb.elk.owl.interfaces.ElkClass;
+import org.semanticweb.elk.owl.interfaces.ElkNamedIndividual;
+import org.semanticweb.elk.owl.interfaces.ElkObject;
+import org.semanticweb.elk.owl.iris.ElkFullIri;
+import org.semanticweb.elk.owl.managers.ElkObjectEntityRecyclingFactory;
+import org.semanticweb.elk.reasoner.Reasoner;
+import org.semanticweb.elk.reasoner.TestReasonerUtils;
+import org.semanticweb.elk.reasoner.taxonomy.TaxonomyDiff;
+
+public class IncrementalTaxonomyChangesTest {
+
+	final ElkObject.Factory objectFactory = new ElkObjectEntityRecyclingFactory();
+
+	@Test
+	public void testTaxonomyChanges() throws ElkException, InterruptedException {
+		TestChangesLoader loader = new TestChangesLoader();
+		Reasoner reasoner = TestReasonerUtils.createTestReasoner(loader);
+		reasoner.setAllowIncrementalMode(false);
+
+		ElkClass A = objectFactory.getClass(new ElkFullIri(":A"));
+		ElkClass B = objectFactory.getClass(new ElkFullIri(":B"));
+		ElkClass C = objectFactory.getClass(new ElkFullIri(":C"));
+		ElkClass D = objectFactory.getClass(new ElkFullIri(":D"));
+		ElkNamedIndividual ind = objectFactory
+				.getNamedIndividual(new ElkFullIri(":in"));
+		ElkAxiom axASubB = objectFactory.getSubClassOfAxiom(A, B);
+		ElkAxiom axASubC = objectFactory.getSubClassOfAxiom(A, C);
+		ElkAxiom axCSubB = objectFactory.getSubClassOfAxiom(C, B);
+		ElkAxiom axDSubC = objectFactory.getSubClassOfAxiom(D, C);
+		ElkAxiom axIndA = objectFactory.getClassAssertionAxiom(A, ind);
+		ElkAxiom axIndD = objectFactory.getClassAssertionAxiom(D, ind);
+		loader.add(axASubB).add(axCSubB).add(axDSubC).add(axIndA);
+
+		try {
+			reasoner.setTaxonomyChangeTracking(true);
+			// everything is new
+			TaxonomyDiff<ElkClass, ElkClass> diff = reasoner
+					.pollTaxonomyChanges();
+			assertTrue(diff.getAddedMembers().contains(A));
+			assertTrue(diff.getAddedMembers().contains(D));
+			assertTrue(diff.getAddedEdges()
+					.contains(new TaxonomyDiff.Edge<ElkClass, ElkClass>(A, B)));
+			TaxonomyDiff<ElkNamedIndividual, ElkClass> instanceDiff = reasoner
+					.pollInstanceTaxonomyChanges();
+			assertTrue(instanceDiff.getAddedMembers().contains(ind));
+			// nothing changed since
+			assertTrue(reasoner.pollTaxonomyChanges().isEmpty());
+			assertTrue(reasoner.pollInstanceTaxonomyChanges().isEmpty());
+
+			reasoner.setAllowIncrementalMode(true);
+			TestChangesLoader changeLoader = new TestChangesLoader();
+			reasoner.registerAxiomLoader(
+					new TestAxiomLoaderFactory(changeLoader));
+			changeLoader.remove(axASubB).add(axASubC).add(axIndD);
+
+			diff = reasoner.pollTaxonomyChanges();
+			assertTrue(diff.getAddedMembers().isEmpty());
+			assertTrue(diff.getRemovedMembers().isEmpty());
+			assertEquals(1, diff.getAddedEdges().size());
+			assertTrue(diff.getAddedEdges()
+					.contains(new TaxonomyDiff.Edge<ElkClass, ElkClass>(A, C)));
+			assertEquals(1, diff.getRemovedEdges().size());
+			assertTrue(diff.getRemovedEdges()
+					.contains(new TaxonomyDiff.Edge<ElkClass, ElkClass>(A, B)));
+			assertTrue(diff.getChangedMembers().contains(A));
+			assertFalse(diff.getChangedMembers().contains(D));
+
+			instanceDiff = reasoner.pollInstanceTaxonomyChanges();
+			assertTrue(instanceDiff.getAddedEdges().contains(
+					new TaxonomyDiff.Edge<ElkNamedIndividual, ElkClass>(ind,
+							D)));
+			assertTrue(instanceDiff.getRemovedEdges().isEmpty());
+		} finally {
+			reasoner.shutdown();
+		}
+	}
+
+}
@@ -22,6 +22,8 @@
 package org.semanticweb.elk.reasoner.incremental;
 
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
 import java.io.IOException;
@@ -34,10 +36,12 @@ import org.semanticweb.elk.owl.interfaces.ElkAxiom;
 import org.semanticweb.elk.owl.interfaces.ElkClass;
 import org.semanticweb.elk.owl.interfaces.ElkNamedIndividual;
 import org.semanticweb.elk.owl.interfaces.ElkObject;
+import org.semanticweb.elk.owl.interfaces.ElkObjectProperty;
 import org.semanticweb.elk.owl.iris.ElkFullIri;
 import org.semanticweb.elk.owl.managers.ElkObjectEntityRecyclingFactory;
 import org.semanticweb.elk.reasoner.Reasoner;
 import org.semanticweb.elk.reasoner.TestReasonerUtils;
+import org.semanticweb.elk.reasoner.taxonomy.model.InstanceNode;
 import org.semanticweb.elk.reasoner.taxonomy.model.InstanceTaxonomy;
 
 /**
@@ -207,4 +211,60 @@ public class LowLevelIncrementalABoxTest {
 		assertTrue(taxonomy.getNode(B).getAllInstanceNodes().contains(taxonomy.getInstanceNode(ind)));
 		assertTrue(taxonomy.getNode(B).getDirectInstanceNodes().contains(taxonomy.getInstanceNode(newInd)));
 	}	
+
+	@Test
+	public void testUnchangedIndividualsRetained() throws ElkException {
+		TestChangesLoader loader = new TestChangesLoader();
+		Reasoner reasoner = TestReasonerUtils.createTestReasoner(loader);
+
+		reasoner.setAllowIncrementalMode(false);
+
+		ElkClass A = objectFactory.getClass(new ElkFullIri(":A"));
+		ElkClass B = objectFactory.getClass(new ElkFullIri(":B"));
+		ElkClass C = objectFactory.getClass(new ElkFullIri(":C"));
+		ElkClass D = objectFactory.getClass(new ElkFullIri(":D"));
+		ElkObjectProperty R = objectFactory
+				.getObjectProperty(new ElkFullIri(":R"));
+		ElkNamedIndividual ind1 = objectFactory
+				.getNamedIndividual(new ElkFullIri(":ind1"));
+		ElkNamedIndividual ind2 = objectFactory
+				.getNamedIndividual(new ElkFullIri(":ind2"));
+
+		loader.add(objectFactory.getClassAssertionAxiom(A, ind1))
+				.add(objectFactory.getClassAssertionAxiom(C, ind2))
+				.add(objectFactory.getSubClassOfAxiom(A, B))
+				.add(objectFactory.getSubClassOfAxiom(C, B))
+				.add(objectFactory.getSubClassOfAxiom(
+						objectFactory.getObjectSomeValuesFrom(R, D), D));
+
+		InstanceTaxonomy<ElkClass, ElkNamedIndividual> taxonomy = reasoner
+				.getInstanceTaxonomyQuietly();
+		InstanceNode<ElkClass, ElkNamedIndividual> node1 = taxonomy
+				.getInstanceNode(ind1);
+		InstanceNode<ElkClass, ElkNamedIndividual> node2 = taxonomy
+				.getInstanceNode(ind2);
+
+		reasoner.setAllowIncrementalMode(true);
+		TestChangesLoader changeLoader = new TestChangesLoader();
+		reasoner.registerAxiomLoader(new TestAxiomLoaderFactory(changeLoader));
+		// changes the context of ind1, but not its types
+		changeLoader.add(objectFactory.getClassAssertionAxiom(
+				objectFactory.getObjectSomeValuesFrom(R, B), ind1));
+		// changes the types of the instances of C
+		changeLoader.add(objectFactory.getSubClassOfAxiom(C, D));
+
+		taxonomy = reasoner.getInstanceTaxonomyQuietly();
+
+		assertSame(node1, taxonomy.getInstanceNode(ind1));
+		assertNotSame(node2, taxonomy.getInstanceNode(ind2));
+		assertTrue(taxonomy.getNode(A).getDirectInstanceNodes()
+				.contains(taxonomy.getInstanceNode(ind1)));
+		assertTrue(taxonomy.getNode(C).getDirectInstanceNodes()
+				.contains(taxonomy.getInstanceNode(ind2)));
+		assertTrue(taxonomy.getNode(D).getAllInstanceNodes()
+				.contains(taxonomy.getInstanceNode(ind2)));
+		assertFalse(taxonomy.getNode(D).getAllInstanceNodes()
+				.contains(taxonomy.getInstanceNode(ind1)));
+	}
+
 }
@@ -60,6 +60,7 @@ import org.semanticweb.elk.owl.parsing.javacc.Owl2FunctionalStyleParserFactory;
 import org.semanticweb.elk.reasoner.Reasoner;
 import org.semanticweb.elk.reasoner.TestReasonerUtils;
 import org.semanticweb.elk.reasoner.taxonomy.model.Taxonomy;
+import org.semanticweb.elk.reasoner.taxonomy.model.TaxonomyNode;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -1271,6 +1272,52 @@ public class LowLevelIncrementalTBoxTest {
 		taxonomy = reasoner.getTaxonomy();
 	}
 
+	/**
+	 * The nodes of classes whose subsumers do not change should stay in the
+	 * taxonomy
+	 */
+	@Test
+	public void testUnchangedNodesRetained() throws ElkException {
+		TestChangesLoader loader = new TestChangesLoader();
+		Reasoner reasoner = TestReasonerUtils.createTestReasoner(loader);
+		reasoner.setAllowIncrementalMode(false);
+
+		ElkClass a = createElkClass("A");
+		ElkClass b = createElkClass("B");
+		ElkClass c = createElkClass("C");
+		ElkClass d = createElkClass("D");
+		ElkObjectProperty r = createElkObjectProperty("R");
+
+		loader.add(objectFactory.getSubClassOfAxiom(a, b))
+				.add(objectFactory.getSubClassOfAxiom(c, b))
+				.add(objectFactory.getSubClassOfAxiom(
+						objectFactory.getObjectSomeValuesFrom(r, d), d));
+
+		Taxonomy<ElkClass> taxonomy = reasoner.getTaxonomy();
+		TaxonomyNode<ElkClass> nodeA = taxonomy.getNode(a);
+		TaxonomyNode<ElkClass> nodeC = taxonomy.getNode(c);
+
+		reasoner.setAllowIncrementalMode(true);
+		TestChangesLoader changeLoader = new TestChangesLoader();
+		reasoner.registerAxiomLoader(new TestAxiomLoaderFactory(changeLoader));
+		// changes the context of A, but not its named subsumers
+		changeLoader.add(objectFactory.getSubClassOfAxiom(a,
+				objectFactory.getObjectSomeValuesFrom(r, b)));
+		// changes the named subsumers of C
+		changeLoader.add(objectFactory.getSubClassOfAxiom(c, d));
+
+		taxonomy = reasoner.getTaxonomy();
+
+		assertSame(nodeA, taxonomy.getNode(a));
+		assertNotSame(nodeC, taxonomy.getNode(c));
+		assertTrue(taxonomy.getNode(a).getDirectSuperNodes()
+				.contains(taxonomy.getNode(b)));
+		assertTrue(taxonomy.getNode(c).getDirectSuperNodes()
+				.contains(taxonomy.getNode(d)));
+		assertTrue(taxonomy.getNode(c).getDirectSuperNodes()
+				.contains(taxonomy.getNode(b)));
+	}
+
 	private List<ElkAxiom> loadAxioms(InputStream stream)
 			throws IOException, Owl2ParseException {
 		return loadAxioms(new InputStreamReader(stream));
@@ -0,0 +1,244 @@
+/*
+ * #%L
+ * ELK Reasoner
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2011 - 2013 Department of Computer Science, University of Oxford
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.semanticweb.elk.reasoner.query;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+import org.semanticweb.elk.exceptions.ElkException;
+import org.semanticweb.elk.loading.TestAxiomLoaderFactory;
+import org.semanticweb.elk.loading.TestChangesLoader;
+import org.semanticweb.elk.loading.TestLoader;
+import org.semanticweb.elk.owl.interfaces.ElkAxiom;
+import org.semanticweb.elk.owl.interfaces.ElkClass;
+import org.semanticweb.elk.owl.interfaces.ElkObject;
+import org.semanticweb.elk.owl.interfaces.ElkObjectProperty;
+import org.semanticweb.elk.owl.iris.ElkFullIri;
+import org.semanticweb.elk.owl.managers.ElkObjectEntityRecyclingFactory;
+import org.semanticweb.elk.reasoner.Reasoner;
+import org.semanticweb.elk.reasoner.TestReasonerUtils;
+import org.semanticweb.elk.reasoner.stages.ReasonerStateAccessor;
+
+/**
+ * Tests the evaluation of entailment queries in one stage and the caching of
+ * their results.
+ */
+public class EntailmentQueryEvaluationTest {
+
+	private static final int CLASS_COUNT_ = 24;
+
+	final ElkObject.Factory objectFactory = new ElkObjectEntityRecyclingFactory();
+
+	private ElkClass getClass(final int i) {
+		return objectFactory.getClass(new ElkFullIri(":C" + i));
+	}
+
+	private static Map<ElkAxiom, Boolean> toOutput(
+			final Map<ElkAxiom, EntailmentQueryResult> result)
+			throws ElkQueryException {
+		final Map<ElkAxiom, Boolean> output = new HashMap<ElkAxiom, Boolean>();
+		for (final Map.Entry<ElkAxiom, EntailmentQueryResult> e : result
+				.entrySet()) {
+			final EntailmentQueryResult queryResult = e.getValue();
+			// all queries of these tests are supported
+			assertTrue(queryResult instanceof ProperEntailmentQueryResult);
+			final ProperEntailmentQueryResult properResult = (ProperEntailmentQueryResult) queryResult;
+			try {
+				output.put(e.getKey(), properResult.isEntailed());
+			} finally {
+				properResult.unlock();
+			}
+		}
+		return output;
+	}
+
+	@Test
+	public void testBatchSameAsSequential()
+			throws ElkException, InterruptedException {
+		final ElkObjectProperty R = objectFactory
+				.getObjectProperty(new ElkFullIri(":R"));
+		final List<ElkAxiom> ontology = new ArrayList<ElkAxiom>();
+		for (int i = 0; i < CLASS_COUNT_; i++) {
+			if (i % 5 != 4) {
+				ontology.add(objectFactory.getSubClassOfAxiom(getClass(i),
+						getClass(i + 1)));
+			}
+			ontology.add(objectFactory.getSubClassOfAxiom(getClass(i),
+					objectFactory.getObjectSomeValuesFrom(R,
+							getClass((i * 7) % CLASS_COUNT_))));
+			if (i % 4 == 0) {
+				ontology.add(objectFactory.getSubClassOfAxiom(
+						objectFactory.getObjectSomeValuesFrom(R, getClass(i)),
+						getClass((i + 3) % CLASS_COUNT_)));
+			}
+		}
+		final List<ElkAxiom> queries = new ArrayList<ElkAxiom>();
+		for (int i = 0; i < CLASS_COUNT_; i++) {
+			for (int j = 0; j < CLASS_COUNT_; j++) {
+				queries.add(objectFactory.getSubClassOfAxiom(getClass(i),
+						getClass(j)));
+				queries.add(objectFactory.getSubClassOfAxiom(getClass(i),
+						objectFactory.getObjectSomeValuesFrom(R,
+								getClass(j))));
+			}
+		}
+
+		final Map<ElkAxiom, Boolean> batch;
+		final Reasoner batchReasoner = TestReasonerUtils
+				.createTestReasoner(new TestLoader(ontology), 4);
+		try {
+			batch = toOutput(batchReasoner.isEntailed(queries));
+		} finally {
+			batchReasoner.shutdown();
+		}
+
+		final Reasoner sequentialReasoner = TestReasonerUtils
+				.createTestReasoner(new TestLoader(ontology), 1);
+		try {
+			int entailedCount = 0;
+			for (final ElkAxiom query : queries) {
+				final boolean entailed = toOutput(sequentialReasoner.isEntailed(
+								Collections.singleton(query)))
+						.get(query);
+				assertEquals(query.toString(), entailed, batch.get(query));
+				if (entailed) {
+					entailedCount++;
+				}
+			}
+			// both entailed and not entailed queries are checked
+			assertTrue(entailedCount > 0);
+			assertTrue(entailedCount < queries.size());
+		} finally {
+			sequentialReasoner.shutdown();
+		}
+	}
+
+	@Test
+	public void testCacheInvalidation()
+			throws ElkException, InterruptedException {
+		final ElkClass A = objectFactory.getClass(new ElkFullIri(":A"));
+		final ElkClass B = objectFactory.getClass(new ElkFullIri(":B"));
+		final ElkClass C = objectFactory.getClass(new ElkFullIri(":C"));
+		final ElkClass X = objectFactory.getClass(new ElkFullIri(":X"));
+		final ElkClass Y = objectFactory.getClass(new ElkFullIri(":Y"));
+		final ElkAxiom axAB = objectFactory.getSubClassOfAxiom(A, B);
+		final ElkAxiom axBC = objectFactory.getSubClassOfAxiom(B, C);
+		final ElkAxiom axXY = objectFactory.getSubClassOfAxiom(X, Y);
+		final ElkAxiom queryAC = objectFactory.getSubClassOfAxiom(A, C);
+		final ElkAxiom queryXY = objectFactory.getSubClassOfAxiom(X, Y);
+		final List<ElkAxiom> queries = new ArrayList<ElkAxiom>();
+		queries.add(queryAC);
+		queries.add(queryXY);
+
+		final TestLoader loader = new TestLoader();
+		loader.add(axAB).add(axXY).add(axBC);
+		final Reasoner reasoner = TestReasonerUtils.createTestReasoner(loader);
+		final TestChangesLoader changeLoader = new TestChangesLoader();
+		reasoner.registerAxiomLoader(new TestAxiomLoaderFactory(changeLoader));
+		try {
+			Map<ElkAxiom, Boolean> result = toOutput(reasoner.isEntailed(queries));
+			assertTrue(result.get(queryAC));
+			assertTrue(result.get(queryXY));
+			assertTrue(ReasonerStateAccessor
+					.isEntailmentQueryEvaluated(reasoner, queryAC));
+
+			// the cached positive result is invalidated by a removal
+			changeLoader.remove(axBC);
+			reasoner.isInconsistent();
+			assertFalse(ReasonerStateAccessor
+					.isEntailmentQueryEvaluated(reasoner, queryAC));
+			// the context of X is not affected
+			assertTrue(ReasonerStateAccessor
+					.isEntailmentQueryEvaluated(reasoner, queryXY));
+			result = toOutput(reasoner.isEntailed(queries));
+			assertFalse(result.get(queryAC));
+			assertTrue(result.get(queryXY));
+
+			// the cached negative result is invalidated by an addition
+			changeLoader.add(axBC);
+			reasoner.isInconsistent();
+			assertFalse(ReasonerStateAccessor
+					.isEntailmentQueryEvaluated(reasoner, queryAC));
+			assertTrue(ReasonerStateAccessor
+					.isEntailmentQueryEvaluated(reasoner, queryXY));
+			result = toOutput(reasoner.isEntailed(queries));
+			assertTrue(result.get(queryAC));
+			assertTrue(result.get(queryXY));
+		} finally {
+			reasoner.shutdown();
+		}
+	}
+
+	@Test
+	public void testOnlyRequestedEvaluated()
+			throws ElkException, InterruptedException {
+		final ElkClass A = objectFactory.getClass(new ElkFullIri(":A"));
+		final ElkClass B = objectFactory.getClass(new ElkFullIri(":B"));
+		final ElkClass C = objectFactory.getClass(new ElkFullIri(":C"));
+		final ElkClass X = objectFactory.getClass(new ElkFullIri(":X"));
+		final ElkClass Y = objectFactory.getClass(new ElkFullIri(":Y"));
+		final ElkAxiom axBC = objectFactory.getSubClassOfAxiom(B, C);
+		final ElkAxiom queryAC = objectFactory.getSubClassOfAxiom(A, C);
+		final ElkAxiom queryXY = objectFactory.getSubClassOfAxiom(X, Y);
+
+		final TestLoader loader = new TestLoader();
+		loader.add(objectFactory.getSubClassOfAxiom(A, B))
+				.add(objectFactory.getSubClassOfAxiom(X, Y)).add(axBC);
+		final Reasoner reasoner = TestReasonerUtils.createTestReasoner(loader);
+		final TestChangesLoader changeLoader = new TestChangesLoader();
+		reasoner.registerAxiomLoader(new TestAxiomLoaderFactory(changeLoader));
+		try {
+			assertTrue(toOutput(
+					reasoner.isEntailed(Collections.singleton(queryAC)))
+							.get(queryAC));
+			assertFalse(ReasonerStateAccessor
+					.isEntailmentQueryEvaluated(reasoner, queryXY));
+			assertTrue(toOutput(
+					reasoner.isEntailed(Collections.singleton(queryXY)))
+							.get(queryXY));
+
+			changeLoader.remove(axBC);
+			// the invalidated cached result is not evaluated for other queries
+			assertTrue(toOutput(
+					reasoner.isEntailed(Collections.singleton(queryXY)))
+							.get(queryXY));
+			assertFalse(ReasonerStateAccessor
+					.isEntailmentQueryEvaluated(reasoner, queryAC));
+			assertFalse(toOutput(
+					reasoner.isEntailed(Collections.singleton(queryAC)))
+							.get(queryAC));
+			assertTrue(ReasonerStateAccessor
+					.isEntailmentQueryEvaluated(reasoner, queryAC));
+		} finally {
+			reasoner.shutdown();
+		}
+	}
+
+}
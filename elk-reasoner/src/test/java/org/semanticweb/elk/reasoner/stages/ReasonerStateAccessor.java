@@ -24,6 +24,7 @@ package org.semanticweb.elk.reasoner.stages;
  * #L%
  */
 
+import org.semanticweb.elk.owl.interfaces.ElkAxiom;
 import org.semanticweb.elk.owl.interfaces.ElkClassExpression;
 import org.semanticweb.elk.owl.interfaces.ElkObjectProperty;
 import org.semanticweb.elk.owl.interfaces.ElkSubObjectPropertyExpression;
@@ -31,6 +32,7 @@ import org.semanticweb.elk.reasoner.indexing.model.IndexedClassExpression;
 import org.semanticweb.elk.reasoner.indexing.model.IndexedObjectProperty;
 import org.semanticweb.elk.reasoner.indexing.model.IndexedPropertyChain;
 import org.semanticweb.elk.reasoner.saturation.context.Context;
+import org.semanticweb.elk.reasoner.taxonomy.AboxAbstraction;
 import org.semanticweb.elk.reasoner.tracing.TraceState;
 
 /**
@@ -66,4 +68,12 @@ public class ReasonerStateAccessor {
 		return reasoner.saturationState.getContext(ice);
 	}
 	
+	public static AboxAbstraction getAboxAbstraction(AbstractReasonerState reasoner) {
+		return reasoner.instanceTaxonomyState.getAboxAbstraction();
+	}
+	
+	public static boolean isEntailmentQueryEvaluated(AbstractReasonerState reasoner, ElkAxiom axiom) {
+		return reasoner.entailmentQueryState_.isEvaluated(axiom);
+	}
+	
 }
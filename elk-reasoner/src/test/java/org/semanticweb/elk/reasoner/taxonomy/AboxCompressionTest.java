@@ -0,0 +1,314 @@
+/*
+ * #%L
+ * ELK Reasoner
+ * 
+ * $Id$
+ * $HeadURL$
+ * %%
+ * Copyright (C) 2011 - 2012 Department of Computer Science, University of Oxford
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.semanticweb.elk.reasoner.taxonomy;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.Test;
+import org.semanticweb.elk.exceptions.ElkException;
+import org.semanticweb.elk.loading.TestAxiomLoaderFactory;
+import org.semanticweb.elk.loading.TestChangesLoader;
+import org.semanticweb.elk.owl.interfaces.ElkAxiom;
+import org.semanticweb.elk.owl.interfaces.ElkClass;
+import org.semanticweb.elk.owl.interfaces.ElkNamedIndividual;
+import org.semanticweb.elk.owl.interfaces.ElkObject;
+import org.semanticweb.elk.owl.interfaces.ElkObjectProperty;
+import org.semanticweb.elk.owl.iris.ElkFullIri;
+import org.semanticweb.elk.owl.managers.ElkObjectEntityRecyclingFactory;
+import org.semanticweb.elk.reasoner.Reasoner;
+import org.semanticweb.elk.reasoner.TestReasonerUtils;
+import org.semanticweb.elk.reasoner.indexing.model.IndexedIndividual;
+import org.semanticweb.elk.reasoner.saturation.context.Context;
+import org.semanticweb.elk.reasoner.stages.ReasonerStateAccessor;
+import org.semanticweb.elk.reasoner.taxonomy.model.InstanceNode;
+import org.semanticweb.elk.reasoner.taxonomy.model.InstanceTaxonomy;
+import org.semanticweb.elk.reasoner.taxonomy.model.TypeNode;
+
+/**
+ * Tests that realization with ABox compression computes the same types as
+ * realization without it, also after incremental changes, and that the
+ * individuals represented by other individuals are not saturated.
+ */
+public class AboxCompressionTest {
+
+	final ElkObject.Factory objectFactory = new ElkObjectEntityRecyclingFactory();
+
+	final ElkClass A = objectFactory.getClass(new ElkFullIri(":A"));
+	final ElkClass B = objectFactory.getClass(new ElkFullIri(":B"));
+	final ElkClass C = objectFactory.getClass(new ElkFullIri(":C"));
+	final ElkClass D = objectFactory.getClass(new ElkFullIri(":D"));
+	final ElkClass E = objectFactory.getClass(new ElkFullIri(":E"));
+	final ElkClass F = objectFactory.getClass(new ElkFullIri(":F"));
+	final ElkObjectProperty R = objectFactory
+			.getObjectProperty(new ElkFullIri(":R"));
+
+	final ElkNamedIndividual a1 = individual(":a1"), a2 = individual(":a2"),
+			a3 = individual(":a3"), b1 = individual(":b1"),
+			b2 = individual(":b2"), c1 = individual(":c1"),
+			c2 = individual(":c2");
+
+	final List<ElkNamedIndividual> individuals = Arrays.asList(a1, a2, a3, b1,
+			b2, c1, c2);
+
+	final ElkAxiom a3InstanceOfA = objectFactory.getClassAssertionAxiom(A,
+			a3);
+
+	private ElkNamedIndividual individual(final String iri) {
+		return objectFactory.getNamedIndividual(new ElkFullIri(iri));
+	}
+
+	/**
+	 * a1, a2, a3 have the same types and so do b1, b2 and c1, c2; the
+	 * disjointness axiom makes the consistency check non-trivial
+	 */
+	private List<ElkAxiom> getOntology() {
+		final List<ElkAxiom> result = new ArrayList<ElkAxiom>();
+		result.add(objectFactory.getSubClassOfAxiom(A, B));
+		result.add(objectFactory.getDisjointClassesAxiom(Arrays.asList(B, C)));
+		result.add(objectFactory.getSubClassOfAxiom(
+				objectFactory.getObjectSomeValuesFrom(R, C), D));
+		result.add(objectFactory.getSubClassOfAxiom(
+				objectFactory.getObjectSomeValuesFrom(R, E), F));
+		result.add(objectFactory.getClassAssertionAxiom(A, a1));
+		result.add(objectFactory.getClassAssertionAxiom(A, a2));
+		result.add(a3InstanceOfA);
+		for (final ElkNamedIndividual ind : Arrays.asList(a1, a2, a3)) {
+			result.add(objectFactory.getClassAssertionAxiom(B, ind));
+		}
+		result.add(objectFactory.getClassAssertionAxiom(C, c1));
+		result.add(objectFactory.getClassAssertionAxiom(C, c2));
+		result.add(objectFactory.getObjectPropertyAssertionAxiom(R, b1, c1));
+		result.add(objectFactory.getObjectPropertyAssertionAxiom(R, b2, c2));
+		return result;
+	}
+
+	private static Reasoner createReasoner(
+			final Collection<? extends ElkAxiom> axioms,
+			final boolean compression) {
+		final TestChangesLoader loader = new TestChangesLoader();
+		for (final ElkAxiom axiom : axioms) {
+			loader.add(axiom);
+		}
+		final Reasoner reasoner = TestReasonerUtils.createTestReasoner(loader);
+		reasoner.setAboxCompression(compression);
+		return reasoner;
+	}
+
+	/**
+	 * @return the direct types of the given individuals in the given
+	 *         taxonomy
+	 */
+	private static Map<ElkNamedIndividual, Set<ElkClass>> getDirectTypes(
+			final InstanceTaxonomy<ElkClass, ElkNamedIndividual> taxonomy,
+			final Collection<ElkNamedIndividual> individuals) {
+		final Map<ElkNamedIndividual, Set<ElkClass>> result = new HashMap<ElkNamedIndividual, Set<ElkClass>>();
+		for (final ElkNamedIndividual ind : individuals) {
+			final InstanceNode<ElkClass, ElkNamedIndividual> node = taxonomy
+					.getInstanceNode(ind);
+			final Set<ElkClass> types = new HashSet<ElkClass>();
+			for (final TypeNode<ElkClass, ElkNamedIndividual> type : node
+					.getDirectTypeNodes()) {
+				types.add(type.getCanonicalMember());
+			}
+			result.put(ind, types);
+		}
+		return result;
+	}
+
+	private Map<ElkNamedIndividual, Set<ElkClass>> getExpectedDirectTypes(
+			final Collection<? extends ElkAxiom> axioms) throws ElkException,
+			InterruptedException {
+		final Reasoner reasoner = createReasoner(axioms, false);
+		try {
+			return getDirectTypes(reasoner.getInstanceTaxonomy(), individuals);
+		} finally {
+			reasoner.shutdown();
+		}
+	}
+
+	/**
+	 * @return the number of the given individuals whose contexts are saturated
+	 */
+	@SuppressWarnings("deprecation")
+	private int countSaturated(final Reasoner reasoner,
+			final ElkNamedIndividual... individuals) {
+		int result = 0;
+		for (final ElkNamedIndividual ind : individuals) {
+			final Context context = ReasonerStateAccessor.getContext(reasoner,
+					ReasonerStateAccessor.transform(reasoner,
+							objectFactory.getObjectOneOf(ind)));
+			if (context != null && context.isSaturated()) {
+				result++;
+			}
+		}
+		return result;
+	}
+
+	@Test
+	public void testSameTypes() throws ElkException,
+			InterruptedException {
+		final List<ElkAxiom> ontology = getOntology();
+		final Reasoner reasoner = createReasoner(ontology, true);
+		try {
+			assertFalse(reasoner.isInconsistent());
+			// only one of the individuals with the same types is saturated
+			assertEquals(1, countSaturated(reasoner, a1, a2, a3));
+			assertEquals(1, countSaturated(reasoner, b1, b2));
+
+			final Map<ElkNamedIndividual, Set<ElkClass>> types = getDirectTypes(
+					reasoner.getInstanceTaxonomy(), individuals);
+			assertEquals(getExpectedDirectTypes(ontology), types);
+			assertEquals(Collections.singleton(A), types.get(a3));
+			assertEquals(Collections.singleton(D), types.get(b2));
+			// realization does not saturate the remaining individuals either
+			assertEquals(1, countSaturated(reasoner, a1, a2, a3));
+			assertEquals(1, countSaturated(reasoner, b1, b2));
+		} finally {
+			reasoner.shutdown();
+		}
+	}
+
+	@Test
+	public void testInconsistentRepresentative() throws ElkException,
+			InterruptedException {
+		final List<ElkAxiom> ontology = getOntology();
+		ontology.add(objectFactory.getClassAssertionAxiom(C, a1));
+		ontology.add(objectFactory.getClassAssertionAxiom(C, a2));
+		final Reasoner reasoner = createReasoner(ontology, true);
+		try {
+			// a1 and a2 are inconsistent whichever of them is saturated
+			assertTrue(reasoner.isInconsistent());
+		} finally {
+			reasoner.shutdown();
+		}
+	}
+
+	private void testIncrementalChanges(final List<ElkAxiom> additions,
+			final List<ElkAxiom> deletions) throws ElkException,
+			InterruptedException {
+		final List<ElkAxiom> ontology = getOntology();
+		final Reasoner reasoner = createReasoner(ontology, true);
+		try {
+			reasoner.setAllowIncrementalMode(true);
+			assertEquals(getExpectedDirectTypes(ontology), getDirectTypes(
+					reasoner.getInstanceTaxonomy(), individuals));
+
+			final TestChangesLoader changeLoader = new TestChangesLoader(
+					additions, deletions);
+			reasoner.registerAxiomLoader(
+					new TestAxiomLoaderFactory(changeLoader));
+			ontology.addAll(additions);
+			ontology.removeAll(deletions);
+
+			assertEquals(getExpectedDirectTypes(ontology), getDirectTypes(
+					reasoner.getInstanceTaxonomy(), individuals));
+		} finally {
+			reasoner.shutdown();
+		}
+	}
+
+	@Test
+	public void testIncrementalSplitByAddition() throws ElkException,
+			InterruptedException {
+		// a2 leaves the group of a1 and a3
+		testIncrementalChanges(
+				Arrays.<ElkAxiom> asList(
+						objectFactory.getClassAssertionAxiom(E, a2)),
+				Collections.<ElkAxiom> emptyList());
+	}
+
+	@Test
+	public void testIncrementalSplitByDeletion() throws ElkException,
+			InterruptedException {
+		// a3 leaves the group of a1 and a2
+		testIncrementalChanges(Collections.<ElkAxiom> emptyList(),
+				Arrays.asList(a3InstanceOfA));
+	}
+
+	@Test
+	public void testIncrementalSplitBySuccessor() throws ElkException,
+			InterruptedException {
+		// c2 leaves the group of c1, so b2 leaves the group of b1
+		testIncrementalChanges(
+				Arrays.<ElkAxiom> asList(
+						objectFactory.getClassAssertionAxiom(E, c2)),
+				Collections.<ElkAxiom> emptyList());
+	}
+
+	@SuppressWarnings("deprecation")
+	private IndexedIndividual getIndexed(final Reasoner reasoner,
+			final ElkNamedIndividual ind) {
+		return (IndexedIndividual) ReasonerStateAccessor.transform(reasoner,
+				objectFactory.getObjectOneOf(ind));
+	}
+
+	@Test
+	public void testAbstractionUpdatedIncrementally() throws ElkException,
+			InterruptedException {
+		final List<ElkAxiom> ontology = getOntology();
+		final Reasoner reasoner = createReasoner(ontology, true);
+		try {
+			reasoner.setAllowIncrementalMode(true);
+			assertFalse(reasoner.isInconsistent());
+			final AboxAbstraction abstraction = ReasonerStateAccessor
+					.getAboxAbstraction(reasoner);
+			assertEquals(3, abstraction.getBlockCount());
+
+			final List<ElkAxiom> additions = Arrays.<ElkAxiom> asList(
+					objectFactory.getClassAssertionAxiom(E, c2));
+			reasoner.registerAxiomLoader(new TestAxiomLoaderFactory(
+					new TestChangesLoader(additions,
+							Collections.<ElkAxiom> emptyList())));
+			ontology.addAll(additions);
+			assertEquals(getExpectedDirectTypes(ontology), getDirectTypes(
+					reasoner.getInstanceTaxonomy(), individuals));
+
+			// c2 and b2 are split off without computing the blocks again
+			assertSame(abstraction,
+					ReasonerStateAccessor.getAboxAbstraction(reasoner));
+			assertEquals(5, abstraction.getBlockCount());
+			assertTrue(abstraction.isEquivalent(getIndexed(reasoner, a1),
+					getIndexed(reasoner, a3)));
+			assertFalse(abstraction.isEquivalent(getIndexed(reasoner, b1),
+					getIndexed(reasoner, b2)));
+			assertFalse(abstraction.isEquivalent(getIndexed(reasoner, c1),
+					getIndexed(reasoner, c2)));
+		} finally {
+			reasoner.shutdown();
+		}
+	}
+
+}
@@ -0,0 +1,187 @@
+/*
+ * #%L
+ * ELK Reasoner
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2011 - 2013 Department of Computer Science, University of Oxford
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.semanticweb.elk.reasoner.tracing;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.Test;
+import org.semanticweb.elk.owl.interfaces.ElkObject;
+import org.semanticweb.elk.owl.iris.ElkFullIri;
+import org.semanticweb.elk.owl.managers.ElkObjectEntityRecyclingFactory;
+import org.semanticweb.elk.reasoner.indexing.classes.ModifiableIndexedObjectBaseFactory;
+import org.semanticweb.elk.reasoner.indexing.model.IndexedClass;
+import org.semanticweb.elk.reasoner.saturation.inferences.ClassInference;
+import org.semanticweb.elk.reasoner.saturation.inferences.ContextInitializationNoPremises;
+import org.semanticweb.elk.reasoner.saturation.inferences.SubClassInclusionTautology;
+
+public class ConcurrentModifiableTracingInferenceSetTest {
+
+	private static final int CLASS_COUNT_ = 1000;
+
+	private static final int THREAD_COUNT_ = 8;
+
+	/**
+	 * the number of copies of every inference produced by every thread
+	 */
+	private static final int COPY_COUNT_ = 20;
+
+	private final List<IndexedClass> classes_ = new ArrayList<IndexedClass>();
+
+	public ConcurrentModifiableTracingInferenceSetTest() {
+		final ElkObject.Factory elkFactory = new ElkObjectEntityRecyclingFactory();
+		final ModifiableIndexedObjectBaseFactory indexedFactory = new ModifiableIndexedObjectBaseFactory();
+		for (int i = 0; i < CLASS_COUNT_; i++) {
+			classes_.add(indexedFactory.getIndexedClass(
+					elkFactory.getClass(new ElkFullIri(":C" + i))));
+		}
+	}
+
+	@Test
+	public void testStripeCollisions() {
+		testStripeCollisions(false);
+		testStripeCollisions(true);
+	}
+
+	private void testStripeCollisions(final boolean compact) {
+		// all conclusions share the only stripe
+		final ConcurrentModifiableTracingInferenceSet<ClassInference> inferences = new ConcurrentModifiableTracingInferenceSet<ClassInference>(
+				1, compact);
+		for (final IndexedClass c : classes_) {
+			inferences.produce(new ContextInitializationNoPremises(c));
+			inferences.produce(new SubClassInclusionTautology(c));
+			inferences.produce(new SubClassInclusionTautology(c));
+		}
+		for (final IndexedClass c : classes_) {
+			final ClassInference initialization = new ContextInitializationNoPremises(
+					c);
+			final ClassInference tautology = new SubClassInclusionTautology(
+					c);
+			assertEquals(1, inferences
+					.getInferences(initialization.getConclusion()).size());
+			assertEquals(2,
+					inferences.getInferences(tautology.getConclusion()).size());
+			for (final ClassInference inference : inferences
+					.getInferences(tautology.getConclusion())) {
+				assertEquals(tautology.getConclusion(),
+						inference.getConclusion());
+			}
+		}
+		// removal does not affect other conclusions in the same stripe
+		final IndexedClass removed = classes_.get(0);
+		assertTrue(inferences.removeInferences(
+				new SubClassInclusionTautology(removed).getConclusion()));
+		assertFalse(inferences.removeInferences(
+				new SubClassInclusionTautology(removed).getConclusion()));
+		assertTrue(inferences
+				.getInferences(new SubClassInclusionTautology(removed)
+						.getConclusion())
+				.isEmpty());
+		assertEquals(1, inferences
+				.getInferences(new ContextInitializationNoPremises(removed)
+						.getConclusion())
+				.size());
+		for (final IndexedClass c : classes_.subList(1, CLASS_COUNT_)) {
+			assertEquals(2, inferences
+					.getInferences(
+							new SubClassInclusionTautology(c).getConclusion())
+					.size());
+		}
+	}
+
+	@Test
+	public void testConcurrentProduceAndGet() throws InterruptedException {
+		testConcurrentProduceAndGet(false);
+		testConcurrentProduceAndGet(true);
+	}
+
+	private void testConcurrentProduceAndGet(final boolean compact)
+			throws InterruptedException {
+		// fewer stripes than conclusions, so that the workers contend
+		final ConcurrentModifiableTracingInferenceSet<ClassInference> inferences = new ConcurrentModifiableTracingInferenceSet<ClassInference>(
+				4, compact);
+		final CountDownLatch start = new CountDownLatch(1);
+		final AtomicReference<Throwable> failure = new AtomicReference<Throwable>();
+		final List<Thread> threads = new ArrayList<Thread>();
+		for (int t = 0; t < THREAD_COUNT_; t++) {
+			final boolean producer = t % 2 == 0;
+			final int offset = t;
+			threads.add(new Thread() {
+				@Override
+				public void run() {
+					try {
+						start.await();
+						for (int copy = 0; copy < COPY_COUNT_; copy++) {
+							for (int i = 0; i < CLASS_COUNT_; i++) {
+								final IndexedClass c = classes_
+										.get((i + offset) % CLASS_COUNT_);
+								final ClassInference inference = new SubClassInclusionTautology(
+										c);
+								if (producer) {
+									inferences.produce(inference);
+									continue;
+								}
+								// else check a snapshot of the inferences
+								final Collection<? extends ClassInference> produced = inferences
+										.getInferences(
+												inference.getConclusion());
+								assertTrue(produced.size() <= THREAD_COUNT_
+										* COPY_COUNT_);
+								for (final ClassInference other : produced) {
+									assertEquals(inference.getConclusion(),
+											other.getConclusion());
+								}
+							}
+						}
+					} catch (final Throwable e) {
+						failure.compareAndSet(null, e);
+					}
+				}
+			});
+		}
+		for (final Thread thread : threads) {
+			thread.start();
+		}
+		start.countDown();
+		for (final Thread thread : threads) {
+			thread.join();
+		}
+		if (failure.get() != null) {
+			throw new AssertionError(failure.get());
+		}
+		// no inference is lost
+		for (final IndexedClass c : classes_) {
+			assertEquals(THREAD_COUNT_ / 2 * COPY_COUNT_,
+					inferences.getInferences(
+							new SubClassInclusionTautology(c).getConclusion())
+							.size());
+		}
+	}
+
+}
@@ -0,0 +1,129 @@
+/*
+ * #%L
+ * ELK Reasoner
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2011 - 2016 Department of Computer Science, University of Oxford
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.semanticweb.elk.reasoner.tracing;
+
+import org.junit.Test;
+import org.semanticweb.elk.exceptions.ElkException;
+import org.semanticweb.elk.loading.TestAxiomLoaderFactory;
+import org.semanticweb.elk.loading.TestChangesLoader;
+import org.semanticweb.elk.owl.interfaces.ElkAxiom;
+import org.semanticweb.elk.owl.interfaces.ElkClass;
+import org.semanticweb.elk.owl.interfaces.ElkObject;
+import org.semanticweb.elk.owl.iris.ElkFullIri;
+import org.semanticweb.elk.owl.managers.ElkObjectEntityRecyclingFactory;
+import org.semanticweb.elk.reasoner.Reasoner;
+import org.semanticweb.elk.reasoner.TestReasonerUtils;
+import org.semanticweb.elk.reasoner.config.QueryCacheEvictionPolicy;
+
+/**
+ * Tests that the traced inferences kept between explanation requests stay
+ * complete when some of them are evicted or invalidated by incremental changes
+ */
+public class TracingCacheTest {
+
+	final ElkObject.Factory objectFactory = new ElkObjectEntityRecyclingFactory();
+
+	@Test
+	public void testEvictionAndInvalidation() throws ElkException,
+			InterruptedException {
+		TestChangesLoader loader = new TestChangesLoader();
+		Reasoner reasoner = TestReasonerUtils.createTestReasoner(loader);
+		reasoner.setAllowIncrementalMode(false);
+		// evict as much as possible
+		reasoner.setTracingCache(QueryCacheEvictionPolicy.LRU, 1);
+
+		ElkClass A = objectFactory.getClass(new ElkFullIri(":A"));
+		ElkClass B = objectFactory.getClass(new ElkFullIri(":B"));
+		ElkClass C = objectFactory.getClass(new ElkFullIri(":C"));
+		ElkClass D = objectFactory.getClass(new ElkFullIri(":D"));
+		ElkClass E = objectFactory.getClass(new ElkFullIri(":E"));
+		ElkAxiom axASubB = objectFactory.getSubClassOfAxiom(A, B);
+		ElkAxiom axBSubC = objectFactory.getSubClassOfAxiom(B, C);
+		ElkAxiom axCSubD = objectFactory.getSubClassOfAxiom(C, D);
+		ElkAxiom axASubE = objectFactory.getSubClassOfAxiom(A, E);
+		ElkAxiom axESubD = objectFactory.getSubClassOfAxiom(E, D);
+		loader.add(axASubB).add(axBSubC).add(axCSubD);
+
+		try {
+			reasoner.getTaxonomy();
+			TracingTestUtils.checkTracingCompleteness(A, D, reasoner);
+			// reusing the cached inferences
+			TracingTestUtils.checkTracingCompleteness(A, D, reasoner);
+			// evicting the inferences for the previous request
+			TracingTestUtils.checkTracingCompleteness(B, D, reasoner);
+			TracingTestUtils.checkTracingCompleteness(C, D, reasoner);
+			TracingTestUtils.checkTracingCompleteness(A, D, reasoner);
+
+			reasoner.setAllowIncrementalMode(true);
+			reasoner.setTracingCache(QueryCacheEvictionPolicy.LRU, 1024);
+			TracingTestUtils.checkTracingCompleteness(A, C, reasoner);
+			TestChangesLoader changeLoader = new TestChangesLoader();
+			reasoner.registerAxiomLoader(
+					new TestAxiomLoaderFactory(changeLoader));
+			changeLoader.remove(axBSubC).add(axASubE).add(axESubD);
+			reasoner.getTaxonomy();
+			// the inferences using B ⊑ C must not be reused
+			TracingTestUtils.checkTracingCompleteness(A, D, reasoner);
+			TracingTestUtils.checkTracingCompleteness(B, B, reasoner);
+		} finally {
+			reasoner.shutdown();
+		}
+	}
+
+	@Test
+	public void testCompactInferences() throws ElkException,
+			InterruptedException {
+		TestChangesLoader loader = new TestChangesLoader();
+		Reasoner reasoner = TestReasonerUtils.createTestReasoner(loader);
+		reasoner.setAllowIncrementalMode(true);
+		reasoner.setCompactTracingInferences(true);
+
+		ElkClass A = objectFactory.getClass(new ElkFullIri(":A"));
+		ElkClass B = objectFactory.getClass(new ElkFullIri(":B"));
+		ElkClass C = objectFactory.getClass(new ElkFullIri(":C"));
+		ElkClass D = objectFactory.getClass(new ElkFullIri(":D"));
+		ElkAxiom axASubB = objectFactory.getSubClassOfAxiom(A, B);
+		ElkAxiom axBSubC = objectFactory.getSubClassOfAxiom(B, C);
+		ElkAxiom axCSubD = objectFactory.getSubClassOfAxiom(C, D);
+		ElkAxiom axASubD = objectFactory.getSubClassOfAxiom(A, D);
+		loader.add(axASubB).add(axBSubC).add(axCSubD).add(axASubD);
+
+		try {
+			reasoner.getTaxonomy();
+			TracingTestUtils.checkTracingCompleteness(A, D, reasoner);
+			TracingTestUtils.checkTracingCompleteness(B, D, reasoner);
+			TracingTestUtils.checkTracingCompleteness(A, D, reasoner);
+
+			TestChangesLoader changeLoader = new TestChangesLoader();
+			reasoner.registerAxiomLoader(
+					new TestAxiomLoaderFactory(changeLoader));
+			// the inferences of the removed axiom are discarded
+			changeLoader.remove(axBSubC);
+			reasoner.getTaxonomy();
+			TracingTestUtils.checkTracingCompleteness(A, D, reasoner);
+			TracingTestUtils.checkTracingCompleteness(A, B, reasoner);
+		} finally {
+			reasoner.shutdown();
+		}
+	}
+
+}
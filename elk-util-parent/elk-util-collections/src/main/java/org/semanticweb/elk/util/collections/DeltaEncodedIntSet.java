@@ -0,0 +1,352 @@
+/*-
+ * #%L
+ * ELK Utilities Collections
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2011 - 2016 Department of Computer Science, University of Oxford
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.semanticweb.elk.util.collections;
+
+import java.util.Arrays;
+
+/**
+ * A compact set of non-negative integers. The elements are kept sorted and
+ * stored as variable-length encoded differences between consecutive elements,
+ * so that dense sets take about one byte per element. Every
+ * {@value #SKIP_INTERVAL_}-th element is additionally indexed together with
+ * its position in the encoding, so that membership is checked by a binary
+ * search followed by decoding of at most {@value #SKIP_INTERVAL_} elements.
+ * Modifications are appended to a log, which is merged with the encoded
+ * elements when it grows proportionally to the size of the set, so that
+ * adding and removing elements takes amortized constant time. Membership
+ * checks scan only a short log and merge a longer one first. This class is
+ * not thread safe.
+ */
+public class DeltaEncodedIntSet {
+
+	private static final byte[] EMPTY_DATA_ = new byte[0];
+
+	private static final int[] EMPTY_INDEX_ = new int[0];
+
+	private static final int MIN_LOG_CAPACITY_ = 4;
+
+	/**
+	 * the number of elements between two consecutive entries of the skip
+	 * index
+	 */
+	private static final int SKIP_INTERVAL_ = 32;
+
+	/**
+	 * the maximal number of modifications scanned by {@link #contains(int)};
+	 * longer logs are merged first
+	 */
+	private static final int MAX_SCANNED_LOG_SIZE_ = 16;
+
+	/**
+	 * the encoded differences between consecutive elements (minus one)
+	 */
+	private byte[] data_ = EMPTY_DATA_;
+
+	/**
+	 * the number of elements encoded in {@link #data_}
+	 */
+	private int encodedSize_ = 0;
+
+	/**
+	 * the element preceding the element number {@code k * SKIP_INTERVAL_}
+	 * stored at position {@code k}, or {@code -1} for the first element
+	 */
+	private int[] skipPrevious_ = EMPTY_INDEX_;
+
+	/**
+	 * the position in {@link #data_} at which the element number
+	 * {@code k * SKIP_INTERVAL_} is encoded, stored at position {@code k}
+	 */
+	private int[] skipOffsets_ = EMPTY_INDEX_;
+
+	/**
+	 * the modifications not yet merged with {@link #data_}: an added element
+	 * is stored as is, a removed element is stored as its bitwise complement
+	 */
+	private int[] log_ = null;
+
+	/**
+	 * the number of modifications in {@link #log_}
+	 */
+	private int logSize_ = 0;
+
+	/**
+	 * Adds the given element to this set.
+	 * 
+	 * @param element
+	 *            must be non-negative
+	 */
+	public void add(final int element) {
+		if (element < 0) {
+			throw new IllegalArgumentException(
+					"Element must be non-negative: " + element);
+		}
+		log(element);
+	}
+
+	/**
+	 * Removes the given element from this set if it is there.
+	 * 
+	 * @param element
+	 */
+	public void remove(final int element) {
+		if (element < 0) {
+			return;
+		}
+		// else
+		log(~element);
+	}
+
+	private void log(final int entry) {
+		if (log_ == null) {
+			log_ = new int[MIN_LOG_CAPACITY_];
+		} else if (logSize_ == log_.length) {
+			if (logSize_ >= MIN_LOG_CAPACITY_ + (encodedSize_ >> 2)) {
+				compact();
+				if (log_ == null) {
+					log_ = new int[MIN_LOG_CAPACITY_];
+				}
+			} else {
+				log_ = Arrays.copyOf(log_, logSize_ << 1);
+			}
+		}
+		log_[logSize_++] = entry;
+	}
+
+	/**
+	 * @param element
+	 * @return {@code true} if the given element is in this set
+	 */
+	public boolean contains(final int element) {
+		if (element < 0) {
+			return false;
+		}
+		// else
+		if (logSize_ > MAX_SCANNED_LOG_SIZE_) {
+			compact();
+		}
+		// the latest modification wins
+		for (int i = logSize_ - 1; i >= 0; i--) {
+			if (log_[i] == element) {
+				return true;
+			}
+			if (log_[i] == ~element) {
+				return false;
+			}
+		}
+		// find the last indexed block that may contain the element
+		int low = 0;
+		int high = skipPrevious_.length - 1;
+		int block = -1;
+		while (low <= high) {
+			final int mid = (low + high) >>> 1;
+			if (skipPrevious_[mid] < element) {
+				block = mid;
+				low = mid + 1;
+			} else {
+				high = mid - 1;
+			}
+		}
+		if (block < 0) {
+			return false;
+		}
+		// else decode the elements of this block
+		int pos = skipOffsets_[block];
+		int previous = skipPrevious_[block];
+		final int end = Math.min(encodedSize_,
+				(block + 1) * SKIP_INTERVAL_);
+		for (int i = block * SKIP_INTERVAL_; i < end; i++) {
+			int gap = 0;
+			int shift = 0;
+			byte b;
+			do {
+				b = data_[pos++];
+				gap |= (b & 0x7F) << shift;
+				shift += 7;
+			} while (b < 0);
+			previous += gap + 1;
+			if (previous >= element) {
+				return previous == element;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * @return the number of elements in this set
+	 */
+	public int size() {
+		compact();
+		return encodedSize_;
+	}
+
+	/**
+	 * @return {@code true} if this set has no elements
+	 */
+	public boolean isEmpty() {
+		return size() == 0;
+	}
+
+	/**
+	 * Removes all elements from this set.
+	 */
+	public void clear() {
+		data_ = EMPTY_DATA_;
+		encodedSize_ = 0;
+		skipPrevious_ = EMPTY_INDEX_;
+		skipOffsets_ = EMPTY_INDEX_;
+		log_ = null;
+		logSize_ = 0;
+	}
+
+	/**
+	 * @return a new array with the elements of this set in increasing order
+	 */
+	public int[] toArray() {
+		compact();
+		return decode();
+	}
+
+	/**
+	 * @return the number of bytes used to encode the elements, not counting
+	 *         the pending modifications
+	 */
+	public int getEncodedLength() {
+		return data_.length;
+	}
+
+	private int[] decode() {
+		final int[] result = new int[encodedSize_];
+		int pos = 0;
+		int previous = -1;
+		for (int i = 0; i < encodedSize_; i++) {
+			int gap = 0;
+			int shift = 0;
+			byte b;
+			do {
+				b = data_[pos++];
+				gap |= (b & 0x7F) << shift;
+				shift += 7;
+			} while (b < 0);
+			previous += gap + 1;
+			result[i] = previous;
+		}
+		return result;
+	}
+
+	/**
+	 * Merges the logged modifications with the encoded elements.
+	 */
+	private void compact() {
+		if (logSize_ == 0) {
+			return;
+		}
+		// sort the modifications by element, keeping their order
+		final long[] modifications = new long[logSize_];
+		for (int i = 0; i < logSize_; i++) {
+			final int entry = log_[i];
+			final long element = entry >= 0 ? entry : ~entry;
+			modifications[i] = (element << 32) | i;
+		}
+		Arrays.sort(modifications);
+		final int[] elements = decode();
+		final int[] merged = new int[elements.length + logSize_];
+		int size = 0;
+		int pos = 0;
+		int i = 0;
+		while (i < modifications.length) {
+			final int element = (int) (modifications[i] >>> 32);
+			// find the last modification of this element
+			int last = i;
+			while (last + 1 < modifications.length
+					&& (int) (modifications[last + 1] >>> 32) == element) {
+				last++;
+			}
+			final boolean isAdded = log_[(int) modifications[last]] >= 0;
+			while (pos < elements.length && elements[pos] < element) {
+				merged[size++] = elements[pos++];
+			}
+			if (pos < elements.length && elements[pos] == element) {
+				pos++;
+			}
+			if (isAdded) {
+				merged[size++] = element;
+			}
+			i = last + 1;
+		}
+		while (pos < elements.length) {
+			merged[size++] = elements[pos++];
+		}
+		encode(merged, size);
+		log_ = null;
+		logSize_ = 0;
+	}
+
+	private void encode(final int[] elements, final int size) {
+		int length = 0;
+		int previous = -1;
+		for (int i = 0; i < size; i++) {
+			length += getEncodedLength(elements[i] - previous - 1);
+			previous = elements[i];
+		}
+		final byte[] data = length == 0 ? EMPTY_DATA_ : new byte[length];
+		final int skipCount = (size + SKIP_INTERVAL_ - 1) / SKIP_INTERVAL_;
+		final int[] skipPrevious = skipCount == 0 ? EMPTY_INDEX_
+				: new int[skipCount];
+		final int[] skipOffsets = skipCount == 0 ? EMPTY_INDEX_
+				: new int[skipCount];
+		int pos = 0;
+		previous = -1;
+		for (int i = 0; i < size; i++) {
+			if (i % SKIP_INTERVAL_ == 0) {
+				skipPrevious[i / SKIP_INTERVAL_] = previous;
+				skipOffsets[i / SKIP_INTERVAL_] = pos;
+			}
+			int gap = elements[i] - previous - 1;
+			previous = elements[i];
+			while ((gap & ~0x7F) != 0) {
+				data[pos++] = (byte) ((gap & 0x7F) | 0x80);
+				gap >>>= 7;
+			}
+			data[pos++] = (byte) gap;
+		}
+		data_ = data;
+		encodedSize_ = size;
+		skipPrevious_ = skipPrevious;
+		skipOffsets_ = skipOffsets;
+	}
+
+	private static int getEncodedLength(int value) {
+		int result = 1;
+		while ((value & ~0x7F) != 0) {
+			value >>>= 7;
+			result++;
+		}
+		return result;
+	}
+
+	@Override
+	public String toString() {
+		return Arrays.toString(toArray());
+	}
+
+}
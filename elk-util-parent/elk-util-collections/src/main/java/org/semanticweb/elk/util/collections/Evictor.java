@@ -0,0 +1,78 @@
+/*-
+ * #%L
+ * ELK Utilities Collections
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2011 - 2016 Department of Computer Science, University of Oxford
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.semanticweb.elk.util.collections;
+
+import java.util.Iterator;
+
+/**
+ * Keeps track of usage of elements stored in some cache and decides which of
+ * them should be evicted from it when the cache becomes too big. Elements are
+ * registered by {@link #add(Object)} every time they are used and the ones
+ * that should be removed from the cache are returned by {@link #evict()}.
+ * 
+ * <p>
+ * Implementations are <strong>not</strong> required to be thread safe.
+ * 
+ * @param <E>
+ *            The type of an element.
+ */
+public interface Evictor<E> {
+
+	/**
+	 * Registers a usage of the specified element. If the element is not yet
+	 * tracked by this evictor, it starts being tracked.
+	 * 
+	 * @param element
+	 */
+	void add(E element);
+
+	/**
+	 * Stops tracking of the specified element without evicting it.
+	 * 
+	 * @param element
+	 * @return {@code true} if the element was tracked by this evictor.
+	 */
+	boolean remove(Object element);
+
+	/**
+	 * Returns elements that should be evicted from the cache. Each element
+	 * returned by the iterator stops being tracked by this evictor at the
+	 * moment it is returned, so it is safe to stop the iteration at any point.
+	 * The most recently added element is never evicted.
+	 * 
+	 * @return iterator over the elements that should be evicted.
+	 */
+	Iterator<E> evict();
+
+	/**
+	 * @return the number of elements tracked by this evictor.
+	 */
+	int size();
+
+	/**
+	 * @return the maximal number of elements that may be tracked by this
+	 *         evictor after the elements returned by {@link #evict()} are
+	 *         evicted.
+	 */
+	int getCapacity();
+
+}
@@ -0,0 +1,214 @@
+/*-
+ * #%L
+ * ELK Utilities Collections
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2011 - 2016 Department of Computer Science, University of Oxford
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.semanticweb.elk.util.collections;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * An {@link Evictor} that takes into account how frequently the elements are
+ * used, in the spirit of W-TinyLFU. New elements first enter a small window
+ * ordered by recency. Elements leaving the window compete for a place in the
+ * main part with the least recently used element of the main part; the one
+ * that was used less frequently according to a {@link FrequencySketch} is
+ * evicted. The main part is a segmented LRU: elements used again while in
+ * its probation segment are promoted to the protected segment. This way a
+ * burst of one-off elements cannot flush frequently used ones.
+ * 
+ * <p>
+ * This implementation is <strong>not</strong> thread safe.
+ * 
+ * @param <E>
+ *            The type of an element.
+ */
+public class FrequencyEvictor<E> implements Evictor<E> {
+
+	/**
+	 * The default fraction of the capacity used for the window.
+	 */
+	public static final float DEFAULT_WINDOW_FRACTION = 0.01f;
+
+	/**
+	 * The fraction of the main part used for the protected segment.
+	 */
+	private static final float PROTECTED_FRACTION_ = 0.8f;
+
+	/**
+	 * Recently added elements that did not get into the main part yet.
+	 */
+	private final RecencyQueue<E> window_ = new RecencyQueue<E>();
+
+	/**
+	 * Elements of the main part that were not used since they got into it.
+	 */
+	private final RecencyQueue<E> probation_ = new RecencyQueue<E>();
+
+	/**
+	 * Elements of the main part that were used again while in it.
+	 */
+	private final RecencyQueue<E> protected_ = new RecencyQueue<E>();
+
+	private final FrequencySketch sketch_;
+
+	private final int capacity_;
+
+	private final int windowCapacity_;
+
+	private final int mainCapacity_;
+
+	private final int protectedCapacity_;
+
+	/**
+	 * The element passed to the last call of {@link #add(Object)}.
+	 */
+	private E lastAdded_ = null;
+
+	/**
+	 * @param capacity
+	 *            How many elements may be tracked before something is evicted.
+	 * @param windowFraction
+	 *            Which fraction of the capacity is used for the window.
+	 */
+	public FrequencyEvictor(final int capacity, final float windowFraction) {
+		if (capacity < 1) {
+			throw new IllegalArgumentException(
+					"Capacity must be positive: " + capacity);
+		}
+		if (windowFraction < 0 || windowFraction > 1) {
+			throw new IllegalArgumentException(
+					"Window fraction must be between 0 and 1: "
+							+ windowFraction);
+		}
+		this.capacity_ = capacity;
+		this.windowCapacity_ = Math.max(1,
+				Math.round(capacity * windowFraction));
+		this.mainCapacity_ = Math.max(0, capacity - windowCapacity_);
+		this.protectedCapacity_ = (int) (mainCapacity_ * PROTECTED_FRACTION_);
+		this.sketch_ = new FrequencySketch(capacity);
+	}
+
+	/**
+	 * @param capacity
+	 *            How many elements may be tracked before something is evicted.
+	 */
+	public FrequencyEvictor(final int capacity) {
+		this(capacity, DEFAULT_WINDOW_FRACTION);
+	}
+
+	@Override
+	public void add(final E element) {
+		sketch_.increment(element);
+		lastAdded_ = element;
+		if (protected_.contains(element)) {
+			protected_.offer(element);
+		} else if (probation_.remove(element)) {
+			protected_.offer(element);
+			if (protected_.size() > protectedCapacity_) {
+				// demote the least recently used protected element
+				probation_.offer(protected_.poll());
+			}
+		} else {
+			window_.offer(element);
+		}
+	}
+
+	@Override
+	public boolean remove(final Object element) {
+		return window_.remove(element) || probation_.remove(element)
+				|| protected_.remove(element);
+	}
+
+	@Override
+	public Iterator<E> evict() {
+		return new Iterator<E>() {
+
+			private E next_ = null;
+
+			@Override
+			public boolean hasNext() {
+				if (next_ == null) {
+					next_ = nextVictim();
+				}
+				return next_ != null;
+			}
+
+			@Override
+			public E next() {
+				if (!hasNext()) {
+					throw new NoSuchElementException();
+				}
+				// else
+				final E result = next_;
+				next_ = null;
+				return result;
+			}
+
+			@Override
+			public void remove() {
+				throw new UnsupportedOperationException();
+			}
+
+		};
+	}
+
+	/**
+	 * Moves the elements that overflow the window to the main part until one
+	 * of them or an element of the main part needs to be evicted.
+	 * 
+	 * @return the element that should be evicted or {@code null} if nothing
+	 *         needs to be evicted.
+	 */
+	private E nextVictim() {
+		while (window_.size() > windowCapacity_) {
+			final E candidate = window_.poll();
+			if (probation_.size() + protected_.size() < mainCapacity_) {
+				probation_.offer(candidate);
+				continue;
+			}
+			// else the main part is full
+			final RecencyQueue<E> victimQueue = probation_.isEmpty()
+					? protected_ : probation_;
+			final E victim = victimQueue.peek();
+			if (victim == null || victim.equals(lastAdded_)
+					|| sketch_.frequency(candidate) <= sketch_
+							.frequency(victim)) {
+				return candidate;
+			}
+			// else the candidate is admitted
+			victimQueue.poll();
+			probation_.offer(candidate);
+			return victim;
+		}
+		return null;
+	}
+
+	@Override
+	public int size() {
+		return window_.size() + probation_.size() + protected_.size();
+	}
+
+	@Override
+	public int getCapacity() {
+		return capacity_;
+	}
+
+}
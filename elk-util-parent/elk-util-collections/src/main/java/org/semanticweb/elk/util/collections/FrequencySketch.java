@@ -0,0 +1,151 @@
+/*-
+ * #%L
+ * ELK Utilities Collections
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2011 - 2016 Department of Computer Science, University of Oxford
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.semanticweb.elk.util.collections;
+
+/**
+ * Approximates how often objects were used recently. This is a count-min
+ * sketch with small saturating counters: each object is mapped to one counter
+ * in each of several rows and its frequency is estimated as the minimum of
+ * these counters. To let the estimates follow changes in the usage pattern,
+ * all counters are periodically halved.
+ * 
+ * <p>
+ * The frequencies may be overestimated because of hash collisions, but never
+ * underestimated (unless they were halved). This implementation is
+ * <strong>not</strong> thread safe.
+ */
+public class FrequencySketch {
+
+	/**
+	 * The number of rows, i.e., counters per object.
+	 */
+	private static final int DEPTH_ = 4;
+
+	/**
+	 * The maximal value of a counter.
+	 */
+	public static final int MAX_FREQUENCY = 15;
+
+	/**
+	 * The maximal number of counters in a row.
+	 */
+	private static final int MAX_WIDTH_ = 1 << 26;
+
+	/**
+	 * Odd multipliers used to compute different hashes for different rows.
+	 */
+	private static final int[] SEEDS_ = { 0x97CB3127, 0x0B4AD5E1,
+			0x2C8B4EF1, 0x5C8D2B03 };
+
+	/**
+	 * The counters of all rows one after another.
+	 */
+	private final byte[] counters_;
+
+	/**
+	 * The number of counters in a row minus one; the number of counters in a
+	 * row is a power of two.
+	 */
+	private final int mask_;
+
+	/**
+	 * After how many increments the counters are halved.
+	 */
+	private final int sampleSize_;
+
+	/**
+	 * The number of increments since the last halving.
+	 */
+	private int increments_ = 0;
+
+	/**
+	 * @param expectedSize
+	 *            The expected number of distinct objects that are used
+	 *            frequently.
+	 */
+	public FrequencySketch(final int expectedSize) {
+		final int width = Math.min(MAX_WIDTH_,
+				Integer.highestOneBit(Math.max(expectedSize, 8) - 1) << 1);
+		this.counters_ = new byte[DEPTH_ * width];
+		this.mask_ = width - 1;
+		this.sampleSize_ = 10 * width;
+	}
+
+	/**
+	 * Records one usage of the specified object.
+	 * 
+	 * @param object
+	 */
+	public void increment(final Object object) {
+		final int hash = spread(object.hashCode());
+		boolean incremented = false;
+		for (int row = 0; row < DEPTH_; row++) {
+			final int index = index(hash, row);
+			if (counters_[index] < MAX_FREQUENCY) {
+				counters_[index]++;
+				incremented = true;
+			}
+		}
+		if (incremented && ++increments_ >= sampleSize_) {
+			halve();
+		}
+	}
+
+	/**
+	 * @param object
+	 * @return the estimated number of recent usages of the specified object,
+	 *         at most {@link #MAX_FREQUENCY}.
+	 */
+	public int frequency(final Object object) {
+		final int hash = spread(object.hashCode());
+		int result = MAX_FREQUENCY;
+		for (int row = 0; row < DEPTH_; row++) {
+			result = Math.min(result, counters_[index(hash, row)]);
+		}
+		return result;
+	}
+
+	/**
+	 * Halves all counters, so that the old usages have smaller weight than
+	 * the new ones.
+	 */
+	private void halve() {
+		for (int i = 0; i < counters_.length; i++) {
+			counters_[i] >>= 1;
+		}
+		increments_ >>= 1;
+	}
+
+	private int index(final int hash, final int row) {
+		int h = hash * SEEDS_[row];
+		h ^= h >>> 17;
+		return row * (mask_ + 1) + (h & mask_);
+	}
+
+	private static int spread(int hash) {
+		hash ^= hash >>> 16;
+		hash *= 0x45D9F3B;
+		hash ^= hash >>> 16;
+		return hash;
+	}
+
+}
@@ -0,0 +1,129 @@
+/*-
+ * #%L
+ * ELK Utilities Collections
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2011 - 2016 Department of Computer Science, University of Oxford
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.semanticweb.elk.util.collections;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * An {@link Evictor} that evicts the least recently used elements. Once the
+ * number of tracked elements exceeds the capacity, the least recently used
+ * elements are evicted until only the fraction of the tracked elements given
+ * by the load factor remains, so that the evictions happen in batches.
+ * 
+ * <p>
+ * This implementation is <strong>not</strong> thread safe.
+ * 
+ * @param <E>
+ *            The type of an element.
+ */
+public class RecencyEvictor<E> implements Evictor<E> {
+
+	/**
+	 * The tracked elements in the order of their last usage.
+	 */
+	private final RecencyQueue<E> recentlyUsed_ = new RecencyQueue<E>();
+
+	private final int capacity_;
+
+	private final float loadFactor_;
+
+	/**
+	 * @param capacity
+	 *            How many elements may be tracked before something is evicted.
+	 * @param loadFactor
+	 *            Which fraction of the tracked elements should remain after
+	 *            the eviction; must be between {@code 0} and {@code 1}.
+	 */
+	public RecencyEvictor(final int capacity, final float loadFactor) {
+		if (capacity < 1) {
+			throw new IllegalArgumentException(
+					"Capacity must be positive: " + capacity);
+		}
+		if (loadFactor < 0 || loadFactor > 1) {
+			throw new IllegalArgumentException(
+					"Load factor must be between 0 and 1: " + loadFactor);
+		}
+		this.capacity_ = capacity;
+		this.loadFactor_ = loadFactor;
+	}
+
+	@Override
+	public void add(final E element) {
+		recentlyUsed_.offer(element);
+	}
+
+	@Override
+	public boolean remove(final Object element) {
+		return recentlyUsed_.remove(element);
+	}
+
+	@Override
+	public Iterator<E> evict() {
+		if (recentlyUsed_.size() <= capacity_) {
+			return Collections.<E> emptyList().iterator();
+		}
+		// else
+		// @formatter:off
+		final int goalCapacity = Math.max(
+				Math.min(
+						(int) (recentlyUsed_.size() * loadFactor_),
+						capacity_),
+				1);
+		// @formatter:on
+
+		return new Iterator<E>() {
+
+			@Override
+			public boolean hasNext() {
+				return recentlyUsed_.size() > goalCapacity;
+			}
+
+			@Override
+			public E next() {
+				if (!hasNext()) {
+					throw new NoSuchElementException();
+				}
+				// else
+				return recentlyUsed_.poll();
+			}
+
+			@Override
+			public void remove() {
+				throw new UnsupportedOperationException();
+			}
+
+		};
+	}
+
+	@Override
+	public int size() {
+		return recentlyUsed_.size();
+	}
+
+	@Override
+	public int getCapacity() {
+		return capacity_;
+	}
+
+}
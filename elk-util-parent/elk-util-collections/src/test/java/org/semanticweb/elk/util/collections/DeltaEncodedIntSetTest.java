@@ -0,0 +1,122 @@
+/*-
+ * #%L
+ * ELK Utilities Collections
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2011 - 2016 Department of Computer Science, University of Oxford
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.semanticweb.elk.util.collections;
+
+import java.util.Random;
+import java.util.TreeSet;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class DeltaEncodedIntSetTest {
+
+	@Test
+	public void testAddRemove() {
+		final DeltaEncodedIntSet set = new DeltaEncodedIntSet();
+		Assert.assertTrue(set.isEmpty());
+		set.add(5);
+		set.add(300);
+		set.add(5);
+		set.add(0);
+		Assert.assertTrue(set.contains(5));
+		Assert.assertFalse(set.contains(6));
+		Assert.assertEquals(3, set.size());
+		Assert.assertArrayEquals(new int[] { 0, 5, 300 }, set.toArray());
+		set.remove(5);
+		set.remove(7);
+		Assert.assertFalse(set.contains(5));
+		Assert.assertArrayEquals(new int[] { 0, 300 }, set.toArray());
+		// the latest modification wins
+		set.remove(300);
+		set.add(300);
+		set.add(1);
+		set.remove(1);
+		Assert.assertTrue(set.contains(300));
+		Assert.assertFalse(set.contains(1));
+		Assert.assertArrayEquals(new int[] { 0, 300 }, set.toArray());
+		set.clear();
+		Assert.assertEquals(0, set.size());
+	}
+
+	@Test
+	public void testDenseSetIsCompact() {
+		final DeltaEncodedIntSet set = new DeltaEncodedIntSet();
+		for (int i = 0; i < 1000; i++) {
+			set.add(2 * i);
+		}
+		Assert.assertEquals(1000, set.size());
+		Assert.assertEquals(1000, set.getEncodedLength());
+	}
+
+	@Test
+	public void testRandomModifications() {
+		final Random random = new Random(42);
+		final DeltaEncodedIntSet set = new DeltaEncodedIntSet();
+		final TreeSet<Integer> expected = new TreeSet<Integer>();
+		for (int round = 0; round < 20000; round++) {
+			final int element = random.nextInt(1 << (1 + random.nextInt(30)));
+			if (random.nextInt(3) == 0) {
+				set.remove(element);
+				expected.remove(element);
+			} else {
+				set.add(element);
+				expected.add(element);
+			}
+			if (round % 1000 == 0) {
+				Assert.assertEquals(expected.contains(element),
+						set.contains(element));
+				Assert.assertEquals(expected.size(), set.size());
+			}
+		}
+		final int[] actual = set.toArray();
+		Assert.assertEquals(expected.size(), actual.length);
+		int i = 0;
+		for (final Integer element : expected) {
+			Assert.assertEquals(element.intValue(), actual[i++]);
+		}
+	}
+
+	@Test
+	public void testContains() {
+		final Random random = new Random(7);
+		final DeltaEncodedIntSet set = new DeltaEncodedIntSet();
+		final TreeSet<Integer> expected = new TreeSet<Integer>();
+		for (int round = 0; round < 20000; round++) {
+			final int element = random.nextInt(5000);
+			if (random.nextInt(4) == 0) {
+				set.remove(element);
+				expected.remove(element);
+			} else {
+				set.add(element);
+				expected.add(element);
+			}
+			// membership checks interleaved with modifications
+			final int probe = random.nextInt(5001);
+			Assert.assertEquals(expected.contains(probe), set.contains(probe));
+		}
+		for (int element = -1; element <= 5001; element++) {
+			Assert.assertEquals(expected.contains(element),
+					set.contains(element));
+		}
+	}
+
+}
@@ -0,0 +1,133 @@
+/*-
+ * #%L
+ * ELK Utilities Collections
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2011 - 2016 Department of Computer Science, University of Oxford
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.semanticweb.elk.util.collections;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class EvictorTest {
+
+	@Test
+	public void testRecencyEvictsLeastRecentlyUsed() {
+
+		final Evictor<Integer> evictor = new RecencyEvictor<Integer>(4, 0.5f);
+
+		for (int i = 0; i < 4; i++) {
+			evictor.add(i);
+		}
+		Assert.assertFalse(evictor.evict().hasNext());
+
+		evictor.add(0);
+		evictor.add(4);
+
+		// size 5 exceeds capacity 4, so evict down to 5 * 0.5 = 2
+		Assert.assertEquals(Arrays.asList(1, 2, 3), drain(evictor.evict()));
+		Assert.assertEquals(2, evictor.size());
+	}
+
+	@Test
+	public void testRecencyKeepsLastAdded() {
+
+		final Evictor<Integer> evictor = new RecencyEvictor<Integer>(1, 0f);
+
+		evictor.add(0);
+		evictor.add(1);
+
+		Assert.assertEquals(Arrays.asList(0), drain(evictor.evict()));
+		Assert.assertEquals(1, evictor.size());
+	}
+
+	@Test
+	public void testFrequencyKeepsFrequentElements() {
+
+		final int capacity = 10;
+		final Evictor<Integer> evictor = new FrequencyEvictor<Integer>(
+				capacity, 0.1f);
+		final Set<Integer> tracked = new HashSet<Integer>();
+
+		// make 0, ..., 4 frequent
+		for (int round = 0; round < 5; round++) {
+			for (int i = 0; i < 5; i++) {
+				add(evictor, i, tracked);
+			}
+		}
+		// scan through many one-off elements
+		for (int i = 100; i < 200; i++) {
+			add(evictor, i, tracked);
+		}
+
+		Assert.assertTrue(evictor.size() <= capacity);
+		Assert.assertEquals(tracked.size(), evictor.size());
+		for (int i = 0; i < 5; i++) {
+			Assert.assertTrue("Frequent element evicted: " + i,
+					tracked.contains(i));
+		}
+		Assert.assertTrue(tracked.contains(199));
+	}
+
+	@Test
+	public void testFrequencyRespectsCapacity() {
+
+		final int capacity = 32;
+		final Evictor<Integer> evictor = new FrequencyEvictor<Integer>(
+				capacity);
+		final Set<Integer> tracked = new HashSet<Integer>();
+		final Random random = new Random(42);
+
+		for (int i = 0; i < 10000; i++) {
+			final int element = random.nextInt(100);
+			add(evictor, element, tracked);
+			Assert.assertTrue(tracked.contains(element));
+			Assert.assertTrue(evictor.size() <= capacity);
+			Assert.assertEquals(tracked.size(), evictor.size());
+		}
+
+		for (final Integer element : new ArrayList<Integer>(tracked)) {
+			Assert.assertTrue(evictor.remove(element));
+		}
+		Assert.assertEquals(0, evictor.size());
+	}
+
+	private static <E> void add(final Evictor<E> evictor, final E element,
+			final Set<E> tracked) {
+		evictor.add(element);
+		tracked.add(element);
+		tracked.removeAll(drain(evictor.evict()));
+	}
+
+	private static <E> List<E> drain(final Iterator<E> iterator) {
+		final List<E> result = new ArrayList<E>();
+		while (iterator.hasNext()) {
+			result.add(iterator.next());
+		}
+		return result;
+	}
+
+}